@@ -0,0 +1,98 @@
+package org.blendee.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.blendee.jdbc.Batch;
+import org.blendee.jdbc.BlendeeManager;
+import org.blendee.jdbc.ParallelBatch;
+import org.blendee.jdbc.Transaction;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * 外部キーでつながっていない二つのテーブルへの INSERT を、一つの接続のバッチと {@link ParallelBatch} で比較します。<br>
+ * テーブルが大きくなり続けないよう、毎回ロールバックします。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BatchBenchmark {
+
+	private static final String insertEvent = "INSERT INTO events (id, kind, payload) VALUES (?, ?, ?)";
+
+	private static final String insertAudit = "INSERT INTO audits (id, kind, payload) VALUES (?, ?, ?)";
+
+	@Param({ "1000" })
+	public int rows;
+
+	private Transaction transaction;
+
+	private ParallelBatch parallelBatch;
+
+	@Setup(Level.Trial)
+	public void setup() throws Exception {
+		BenchmarkDatabase.start("batch", 10, 1);
+		transaction = BenchmarkDatabase.begin();
+		parallelBatch = new ParallelBatch(2);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws Exception {
+		parallelBatch.close();
+		transaction.close();
+		BenchmarkDatabase.stop();
+	}
+
+	/**
+	 * 現在のトランザクションの接続で、 {@link Batch} を実行します。
+	 */
+	@Benchmark
+	public int[] singleConnection() {
+		var batch = BlendeeManager.getConnection().getBatch();
+		try {
+			add(batch);
+			return batch.execute();
+		} finally {
+			batch.close();
+			transaction.rollback();
+		}
+	}
+
+	/**
+	 * 二つの接続で、 {@link ParallelBatch} を実行します。
+	 */
+	@Benchmark
+	public int[] parallel() {
+		try {
+			add(parallelBatch);
+			return parallelBatch.execute();
+		} finally {
+			parallelBatch.rollback();
+		}
+	}
+
+	private void add(Batch batch) {
+		for (var i = 0; i < rows; i++) {
+			var id = i;
+			batch.add(id % 2 == 0 ? insertEvent : insertAudit, s -> {
+				s.setLong(1, id);
+				s.setInt(2, id % 10);
+				s.setString(3, "payload");
+			});
+		}
+	}
+}
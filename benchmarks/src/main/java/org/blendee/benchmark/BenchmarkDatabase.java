@@ -0,0 +1,173 @@
+package org.blendee.benchmark;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.blendee.jdbc.BlendeeManager;
+import org.blendee.jdbc.OptionKey;
+import org.blendee.jdbc.TablePath;
+import org.blendee.jdbc.Transaction;
+import org.blendee.jdbc.VoidLogger;
+import org.blendee.util.Blendee;
+import org.blendee.util.BlendeeConstants;
+import org.blendee.util.WarmUp;
+
+/**
+ * ベンチマークで使用する、インメモリの H2 データベースと固定のスキーマです。<br>
+ * JMH はベンチマークごとに JVM を起動するので、 Blendee はデフォルトのコンテキストで起動します。
+ * <pre>
+ * CUSTOMERS (ID, NAME, SCORE, ACTIVE)
+ * ORDERS (ID, CUSTOMER_ID -&gt; CUSTOMERS, QUANTITY, AMOUNT)
+ * PRODUCTS (ID, NAME, PRICE)
+ * ORDER_LINES (ID, ORDER_ID -&gt; ORDERS, PRODUCT_ID -&gt; PRODUCTS, QUANTITY)
+ * EVENTS (ID, KIND, PAYLOAD)
+ * AUDITS (ID, KIND, PAYLOAD)
+ * REGIONS (ID, NAME)
+ * COUNTRIES (ID, REGION_ID -&gt; REGIONS, NAME)
+ * CITIES (ID, COUNTRY_ID -&gt; COUNTRIES, NAME)
+ * STORES (ID, CITY_ID -&gt; CITIES, NAME)
+ * SHIPMENTS (ID, STORE_ID -&gt; STORES, ORDER_ID -&gt; ORDERS, SHIPPED_AT)
+ * </pre>
+ * EVENTS と AUDITS は他のテーブルと外部キーでつながっていません。<br>
+ * SHIPMENTS から REGIONS までは、 {@link org.blendee.sql.Relationship} のツリーを深くたどるための五階層の外部キーの連鎖で、行は持ちません。
+ */
+final class BenchmarkDatabase {
+
+	static final String SCHEMA = "PUBLIC";
+
+	static final String ORDERS_CUSTOMER = "ORDERS_CUSTOMER";
+
+	static final String LINES_ORDER = "LINES_ORDER";
+
+	static final String LINES_PRODUCT = "LINES_PRODUCT";
+
+	static final String SHIPMENTS_STORE = "SHIPMENTS_STORE";
+
+	static final String STORES_CITY = "STORES_CITY";
+
+	static final String CITIES_COUNTRY = "CITIES_COUNTRY";
+
+	static final String COUNTRIES_REGION = "COUNTRIES_REGION";
+
+	private static final int products = 50;
+
+	private static String url;
+
+	private BenchmarkDatabase() {
+	}
+
+	static TablePath customers() {
+		return TablePath.of(SCHEMA, "CUSTOMERS");
+	}
+
+	static TablePath orders() {
+		return TablePath.of(SCHEMA, "ORDERS");
+	}
+
+	static TablePath lines() {
+		return TablePath.of(SCHEMA, "ORDER_LINES");
+	}
+
+	static TablePath shipments() {
+		return TablePath.of(SCHEMA, "SHIPMENTS");
+	}
+
+	/**
+	 * データベースを作成してデータを投入し、 Blendee を起動します。<br>
+	 * 起動後、スキーマ内の全テーブルのメタデータと {@link org.blendee.sql.Relationship} を生成しておきます。
+	 * @param name データベース名
+	 * @param customers CUSTOMERS の行数
+	 * @param ordersPerCustomer CUSTOMERS 一行あたりの ORDERS の行数
+	 * @param linesPerOrder ORDERS 一行あたりの ORDER_LINES の行数
+	 * @param options 追加の設定値
+	 */
+	static void start(
+		String name,
+		int customers,
+		int ordersPerCustomer,
+		int linesPerOrder,
+		Map<OptionKey<?>, Object> options) throws SQLException {
+		url = "jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1";
+
+		try (var connection = connect(); var statement = connection.createStatement()) {
+			statement.execute("CREATE TABLE customers (id INT PRIMARY KEY, name VARCHAR(100), score DOUBLE, active BOOLEAN)");
+			statement.execute("CREATE TABLE orders ("
+				+ "id BIGINT PRIMARY KEY, customer_id INT, quantity INT, amount DOUBLE, "
+				+ "CONSTRAINT " + ORDERS_CUSTOMER + " FOREIGN KEY (customer_id) REFERENCES customers (id))");
+			statement.execute("CREATE TABLE events (id BIGINT PRIMARY KEY, kind INT, payload VARCHAR(100))");
+			statement.execute("CREATE TABLE audits (id BIGINT PRIMARY KEY, kind INT, payload VARCHAR(100))");
+			statement.execute("CREATE TABLE products (id INT PRIMARY KEY, name VARCHAR(100), price DOUBLE)");
+			statement.execute("CREATE TABLE order_lines ("
+				+ "id BIGINT PRIMARY KEY, order_id BIGINT, product_id INT, quantity INT, "
+				+ "CONSTRAINT " + LINES_ORDER + " FOREIGN KEY (order_id) REFERENCES orders (id), "
+				+ "CONSTRAINT " + LINES_PRODUCT + " FOREIGN KEY (product_id) REFERENCES products (id))");
+			statement.execute("CREATE TABLE regions (id INT PRIMARY KEY, name VARCHAR(100))");
+			statement.execute("CREATE TABLE countries (id INT PRIMARY KEY, region_id INT, name VARCHAR(100), "
+				+ "CONSTRAINT " + COUNTRIES_REGION + " FOREIGN KEY (region_id) REFERENCES regions (id))");
+			statement.execute("CREATE TABLE cities (id INT PRIMARY KEY, country_id INT, name VARCHAR(100), "
+				+ "CONSTRAINT " + CITIES_COUNTRY + " FOREIGN KEY (country_id) REFERENCES countries (id))");
+			statement.execute("CREATE TABLE stores (id INT PRIMARY KEY, city_id INT, name VARCHAR(100), "
+				+ "CONSTRAINT " + STORES_CITY + " FOREIGN KEY (city_id) REFERENCES cities (id))");
+			statement.execute("CREATE TABLE shipments (id BIGINT PRIMARY KEY, store_id INT, order_id BIGINT, shipped_at TIMESTAMP, "
+				+ "CONSTRAINT " + SHIPMENTS_STORE + " FOREIGN KEY (store_id) REFERENCES stores (id), "
+				+ "CONSTRAINT SHIPMENTS_ORDER FOREIGN KEY (order_id) REFERENCES orders (id))");
+
+			statement.execute("INSERT INTO customers SELECT x, 'customer-' || x, x * 0.5, MOD(x, 2) = 0 FROM SYSTEM_RANGE(1, " + customers + ")");
+			statement.execute("INSERT INTO orders SELECT x, MOD(x - 1, " + customers + ") + 1, MOD(x, 10), x * 1.5 FROM SYSTEM_RANGE(1, " + (customers * ordersPerCustomer) + ")");
+			statement.execute("INSERT INTO products SELECT x, 'product-' || x, x * 10.0 FROM SYSTEM_RANGE(1, " + products + ")");
+
+			var orders = customers * ordersPerCustomer;
+			if (linesPerOrder > 0)
+				statement.execute("INSERT INTO order_lines SELECT x, MOD(x - 1, " + orders + ") + 1, MOD(x, " + products + ") + 1, MOD(x, 5) + 1 "
+					+ "FROM SYSTEM_RANGE(1, " + (orders * linesPerOrder) + ")");
+		}
+
+		var all = new HashMap<OptionKey<?>, Object>();
+		all.put(BlendeeConstants.JDBC_URL, url);
+		all.put(BlendeeConstants.JDBC_USER, "sa");
+		all.put(BlendeeConstants.JDBC_PASSWORD, "");
+		all.put(BlendeeConstants.SCHEMA_NAMES, new String[] { SCHEMA });
+		//SQL のログ出力を計測に含めない
+		all.put(BlendeeConstants.LOGGER_CLASS, VoidLogger.class);
+		all.putAll(options);
+
+		Blendee.start(all);
+
+		//ベンチマークのスレッドはトランザクションを持たないことがあるので、メタデータと Relationship を先に読み込んでおく
+		Blendee.warmUp(new WarmUp().addSchemas(SCHEMA));
+	}
+
+	static void start(String name, int customers, int ordersPerCustomer, Map<OptionKey<?>, Object> options) throws SQLException {
+		start(name, customers, ordersPerCustomer, 0, options);
+	}
+
+	static void start(String name, int customers, int ordersPerCustomer) throws SQLException {
+		start(name, customers, ordersPerCustomer, 0, Map.of());
+	}
+
+	/**
+	 * Blendee を終了し、データベースを破棄します。
+	 */
+	static void stop() throws SQLException {
+		Blendee.stop();
+
+		try (var connection = connect(); var statement = connection.createStatement()) {
+			statement.execute("SHUTDOWN");
+		}
+	}
+
+	/**
+	 * 現在のスレッドでトランザクションを開始します。
+	 * @return 開始したトランザクション
+	 */
+	static Transaction begin() {
+		return BlendeeManager.get().startTransaction();
+	}
+
+	private static Connection connect() throws SQLException {
+		return DriverManager.getConnection(url, "sa", "");
+	}
+}
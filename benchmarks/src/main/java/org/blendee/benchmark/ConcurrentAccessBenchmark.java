@@ -0,0 +1,89 @@
+package org.blendee.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.blendee.jdbc.BlendeeManager;
+import org.blendee.jdbc.ContextManager;
+import org.blendee.sql.Relationship;
+import org.blendee.sql.RelationshipFactory;
+import org.blendee.sql.RuntimeIdFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * 複数スレッドから同時に呼ばれる、ロックを持たない読み込み経路を計測します。<br>
+ * {@link ContextManager#get(Class)}、 {@link RuntimeIdFactory#runtimeInstance()}、
+ * {@link RelationshipFactory#getInstance(org.blendee.jdbc.TablePath)} とその配下の {@link Relationship} の参照が対象です。<br>
+ * {@link Relationship} は、二階層の ORDERS と、外部キーが五階層連なる SHIPMENTS の二つのツリーで計測します。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class ConcurrentAccessBenchmark {
+
+	@Setup(Level.Trial)
+	public void setup() throws Exception {
+		BenchmarkDatabase.start("concurrent-access", 10, 1);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws Exception {
+		BenchmarkDatabase.stop();
+	}
+
+	@Benchmark
+	public void contextManagerGet(Blackhole blackhole) {
+		blackhole.consume(ContextManager.get(BlendeeManager.class));
+		blackhole.consume(ContextManager.get(RelationshipFactory.class));
+	}
+
+	@Benchmark
+	public void runtimeId(Blackhole blackhole) {
+		blackhole.consume(RuntimeIdFactory.runtimeInstance());
+	}
+
+	@Benchmark
+	public void relationshipLookup(Blackhole blackhole) {
+		var root = RelationshipFactory.getInstance().getInstance(BenchmarkDatabase.orders());
+		blackhole.consume(root.find(BenchmarkDatabase.ORDERS_CUSTOMER).getColumn("NAME"));
+		walk(root, blackhole);
+	}
+
+	/**
+	 * SHIPMENTS → STORES → CITIES → COUNTRIES → REGIONS の末端までを外部キー名でたどり、ツリー全体を走査します。
+	 */
+	@Benchmark
+	public void deepRelationshipLookup(Blackhole blackhole) {
+		var root = RelationshipFactory.getInstance().getInstance(BenchmarkDatabase.shipments());
+		blackhole.consume(
+			root.find(BenchmarkDatabase.SHIPMENTS_STORE)
+				.find(BenchmarkDatabase.STORES_CITY)
+				.find(BenchmarkDatabase.CITIES_COUNTRY)
+				.find(BenchmarkDatabase.COUNTRIES_REGION)
+				.getColumn("NAME"));
+		walk(root, blackhole);
+	}
+
+	private static void walk(Relationship relationship, Blackhole blackhole) {
+		blackhole.consume(relationship.getColumns());
+		for (var child : relationship.getRelationships()) {
+			walk(child, blackhole);
+		}
+	}
+}
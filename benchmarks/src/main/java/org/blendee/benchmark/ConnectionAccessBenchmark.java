@@ -0,0 +1,91 @@
+package org.blendee.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.blendee.jdbc.BConnection;
+import org.blendee.jdbc.BlendeeManager;
+import org.blendee.jdbc.Transaction;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * 各スレッドが自身のトランザクションを開始した状態で、 {@link BlendeeManager#getConnection()} を呼び出すスループットを、
+ * スレッド数を変えて計測します。<br>
+ * 設定の参照や {@link org.blendee.jdbc.ContextManager} の参照にロックが残っている場合、スレッド数を増やしてもスループットが伸びません。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(3)
+public class ConnectionAccessBenchmark {
+
+	@Setup(Level.Trial)
+	public void setup() throws Exception {
+		BenchmarkDatabase.start("connection-access", 10, 1);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws Exception {
+		BenchmarkDatabase.stop();
+	}
+
+	/**
+	 * ベンチマークのスレッドごとのトランザクションです。
+	 */
+	@State(Scope.Thread)
+	public static class ThreadTransaction {
+
+		private Transaction transaction;
+
+		/**
+		 * データベースの起動後に、このスレッドでトランザクションを開始します。
+		 * @param database 起動済みのデータベース
+		 */
+		@Setup(Level.Trial)
+		public void begin(ConnectionAccessBenchmark database) {
+			transaction = BenchmarkDatabase.begin();
+		}
+
+		@TearDown(Level.Trial)
+		public void end() {
+			transaction.close();
+		}
+	}
+
+	@Benchmark
+	@Threads(1)
+	public BConnection threads1(ThreadTransaction transaction) {
+		return BlendeeManager.getConnection();
+	}
+
+	@Benchmark
+	@Threads(2)
+	public BConnection threads2(ThreadTransaction transaction) {
+		return BlendeeManager.getConnection();
+	}
+
+	@Benchmark
+	@Threads(4)
+	public BConnection threads4(ThreadTransaction transaction) {
+		return BlendeeManager.getConnection();
+	}
+
+	@Benchmark
+	@Threads(8)
+	public BConnection threads8(ThreadTransaction transaction) {
+		return BlendeeManager.getConnection();
+	}
+}
@@ -0,0 +1,85 @@
+package org.blendee.benchmark;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.blendee.jdbc.Transaction;
+import org.blendee.util.BlendeeConstants;
+import org.blendee.util.GenericTable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * 検索結果を {@link GenericTable.Row} として読み込む処理を、 use-primitive-fetch の有無で比較します。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FetchBenchmark {
+
+	@Param({ "false", "true" })
+	public boolean primitiveFetch;
+
+	@Param({ "1000" })
+	public int rows;
+
+	private Transaction transaction;
+
+	@Setup(Level.Trial)
+	public void setup() throws Exception {
+		BenchmarkDatabase.start("fetch", rows, 1, Map.of(BlendeeConstants.USE_PRIMITIVE_FETCH, primitiveFetch));
+		transaction = BenchmarkDatabase.begin();
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws Exception {
+		transaction.close();
+		BenchmarkDatabase.stop();
+	}
+
+	/**
+	 * 数値型のカラムを読み込みます。
+	 */
+	@Benchmark
+	public void fetchRows(Blackhole blackhole) {
+		new GenericTable(BenchmarkDatabase.orders())
+			.SELECT(a -> a.ls(a.col("ID"), a.col("CUSTOMER_ID"), a.col("QUANTITY"), a.col("AMOUNT")))
+			.retrieve(iterator -> iterator.forEach(row -> {
+				blackhole.consume(row.getLong("ID"));
+				blackhole.consume(row.getInt("CUSTOMER_ID"));
+				blackhole.consume(row.getInt("QUANTITY"));
+				blackhole.consume(row.getDouble("AMOUNT"));
+			}));
+	}
+
+	/**
+	 * 数値型と文字列型のカラムを、 {@link org.blendee.orm.DataObject} から直接読み込みます。
+	 */
+	@Benchmark
+	public void fetchDataObjects(Blackhole blackhole) {
+		new GenericTable(BenchmarkDatabase.customers())
+			.SELECT(a -> a.ls(a.col("ID"), a.col("NAME"), a.col("SCORE"), a.col("ACTIVE")))
+			.retrieve(iterator -> iterator.forEach(row -> {
+				var data = row.dataObject();
+				blackhole.consume(data.getInt("ID"));
+				blackhole.consume(data.getString("NAME"));
+				blackhole.consume(data.getDouble("SCORE"));
+				blackhole.consume(data.getBoolean("ACTIVE"));
+			}));
+	}
+}
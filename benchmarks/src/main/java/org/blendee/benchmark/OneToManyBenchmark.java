@@ -0,0 +1,147 @@
+package org.blendee.benchmark;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.blendee.assist.Many;
+import org.blendee.assist.One;
+import org.blendee.assist.OneToManyQuery;
+import org.blendee.jdbc.Transaction;
+import org.blendee.util.GenericTable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * 一対多検索を、結合による {@link OneToManyQuery#retrieve()} と、分割した検索による {@link OneToManyQuery#retrieveSeparately(int)} で比較します。<br>
+ * CUSTOMERS を一、 ORDERS を多とする二階層と、さらに ORDER_LINES を多とし、各行が参照する PRODUCTS のカラムも取得する三階層を対象とします。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OneToManyBenchmark {
+
+	@Param({ "100" })
+	public int customers;
+
+	@Param({ "20" })
+	public int ordersPerCustomer;
+
+	@Param({ "5" })
+	public int linesPerOrder;
+
+	private Transaction transaction;
+
+	@Setup(Level.Trial)
+	public void setup() throws Exception {
+		BenchmarkDatabase.start("one-to-many", customers, ordersPerCustomer, linesPerOrder, Map.of());
+		transaction = BenchmarkDatabase.begin();
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws Exception {
+		transaction.close();
+		BenchmarkDatabase.stop();
+	}
+
+	@Benchmark
+	public void retrieve(Blackhole blackhole) {
+		consume(twoLevels().retrieve(), blackhole);
+	}
+
+	@Benchmark
+	public void retrieveSeparately(Blackhole blackhole) {
+		consume(twoLevels().retrieveSeparately(500), blackhole);
+	}
+
+	/**
+	 * CUSTOMERS、 ORDERS、 ORDER_LINES の三階層を、一つの結合で取得します。
+	 */
+	@Benchmark
+	public void retrieveThreeLevels(Blackhole blackhole) {
+		consume(threeLevels().retrieve(), blackhole);
+	}
+
+	/**
+	 * CUSTOMERS、 ORDERS、 ORDER_LINES の三階層を、分割した検索で取得します。<br>
+	 * {@link OneToManyQuery#retrieveSeparately(int)} は route 上にないテーブルのカラムを取得できないので、 PRODUCTS のカラムは含めません。
+	 */
+	@Benchmark
+	public void retrieveThreeLevelsSeparately(Blackhole blackhole) {
+		consume(threeLevels(false).retrieveSeparately(500), blackhole);
+	}
+
+	private static OneToManyQuery<GenericTable.Row, ?> twoLevels() {
+		var orders = new GenericTable(BenchmarkDatabase.orders())
+			.SELECT(
+				a -> a.ls(
+					a.col("ID"),
+					a.col("QUANTITY"),
+					a.col("AMOUNT"),
+					a.fk(BenchmarkDatabase.ORDERS_CUSTOMER).col("ID"),
+					a.fk(BenchmarkDatabase.ORDERS_CUSTOMER).col("NAME"),
+					a.fk(BenchmarkDatabase.ORDERS_CUSTOMER).col("SCORE")))
+			.ORDER_BY(a -> a.ls(a.fk(BenchmarkDatabase.ORDERS_CUSTOMER).col("ID").ASC, a.col("ID").ASC));
+
+		return orders.assist().fk(BenchmarkDatabase.ORDERS_CUSTOMER).intercept();
+	}
+
+	private static OneToManyQuery<GenericTable.Row, ?> threeLevels() {
+		return threeLevels(true);
+	}
+
+	private static OneToManyQuery<GenericTable.Row, ?> threeLevels(boolean withProduct) {
+		var lines = new GenericTable(BenchmarkDatabase.lines())
+			.SELECT(a -> {
+				var order = a.fk(BenchmarkDatabase.LINES_ORDER);
+				var customer = order.fk(BenchmarkDatabase.ORDERS_CUSTOMER);
+
+				if (!withProduct)
+					return a.ls(a.col("ID"), a.col("QUANTITY"), order.col("ID"), order.col("AMOUNT"), customer.col("ID"), customer.col("NAME"));
+
+				var product = a.fk(BenchmarkDatabase.LINES_PRODUCT);
+				return a.ls(
+					a.col("ID"),
+					a.col("QUANTITY"),
+					order.col("ID"),
+					order.col("AMOUNT"),
+					customer.col("ID"),
+					customer.col("NAME"),
+					product.col("NAME"),
+					product.col("PRICE"));
+			})
+			.ORDER_BY(
+				a -> a.ls(
+					a.fk(BenchmarkDatabase.LINES_ORDER).fk(BenchmarkDatabase.ORDERS_CUSTOMER).col("ID").ASC,
+					a.fk(BenchmarkDatabase.LINES_ORDER).col("ID").ASC,
+					a.col("ID").ASC));
+
+		return lines.assist().fk(BenchmarkDatabase.LINES_ORDER).fk(BenchmarkDatabase.ORDERS_CUSTOMER).intercept();
+	}
+
+	/**
+	 * 各階層の行から値を一つずつ読み込みながら、末端までたどります。
+	 */
+	private static void consume(Many<?, ?> many, Blackhole blackhole) {
+		for (One<?, ?> one : many) {
+			blackhole.consume(((GenericTable.Row) one.get()).getLong("ID"));
+
+			var children = one.many();
+			if (children instanceof Many) consume((Many<?, ?>) children, blackhole);
+		}
+	}
+}
@@ -0,0 +1,136 @@
+package org.blendee.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.blendee.assist.Query;
+import org.blendee.sql.Bindable;
+import org.blendee.sql.Column;
+import org.blendee.sql.Criteria;
+import org.blendee.sql.CriteriaFactory;
+import org.blendee.sql.Placeholder;
+import org.blendee.sql.Recorder;
+import org.blendee.sql.RelationshipFactory;
+import org.blendee.sql.RuntimeIdFactory;
+import org.blendee.util.GenericTable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * データベースにアクセスせず、 SQL 文の組み立てのみを計測します。<br>
+ * {@link Recorder} を使用しない組み立てと、 {@link Recorder} によるプレースホルダの再設定を比較します。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class QueryBuildBenchmark {
+
+	private Recorder syncRecorder;
+
+	private Recorder concurrentRecorder;
+
+	private Column idColumn;
+
+	private int id;
+
+	@Setup(Level.Trial)
+	public void setup() throws Exception {
+		BenchmarkDatabase.start("query-build", 10, 1);
+
+		syncRecorder = Recorder.instance();
+		concurrentRecorder = Recorder.newConcurrentInstance();
+
+		idColumn = RelationshipFactory.getInstance().getInstance(BenchmarkDatabase.orders()).getColumn("ID");
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws Exception {
+		BenchmarkDatabase.stop();
+	}
+
+	/**
+	 * 毎回 SELECT、 WHERE、 ORDER BY 句を組み立てて SQL 文を生成します。
+	 */
+	@Benchmark
+	public void composeWithoutRecorder(Blackhole blackhole) {
+		var query = query(nextId());
+		blackhole.consume(query.sql());
+		blackhole.consume(query.currentBinders());
+	}
+
+	/**
+	 * {@link Recorder#instance()} に記録した SQL 文に、プレースホルダの値を再設定します。
+	 */
+	@Benchmark
+	public void replayWithRecorder(Blackhole blackhole) {
+		var query = syncRecorder.play(() -> query(Placeholder.$INT), nextId());
+		blackhole.consume(query.sql());
+		blackhole.consume(query.currentBinders());
+	}
+
+	/**
+	 * {@link Recorder#newConcurrentInstance()} に記録した SQL 文に、プレースホルダの値を再設定します。
+	 */
+	@Benchmark
+	public void replayWithConcurrentRecorder(Blackhole blackhole) {
+		var query = concurrentRecorder.play(() -> query(Placeholder.$INT), nextId());
+		blackhole.consume(query.sql());
+		blackhole.consume(query.currentBinders());
+	}
+
+	/**
+	 * decision の結果ごとに記録した SQL 文に、プレースホルダの値を再設定します。
+	 */
+	@Benchmark
+	public void replayWithDecision(Blackhole blackhole) {
+		var value = nextId();
+		var query = concurrentRecorder.play(
+			() -> value % 4,
+			(Integer r) -> query(Placeholder.$INT),
+			r -> new Object[] { value });
+		blackhole.consume(query.sql());
+		blackhole.consume(query.currentBinders());
+	}
+
+	/**
+	 * {@link CriteriaFactory} による条件句の生成を計測します。
+	 */
+	@Benchmark
+	public void createCriteria(Blackhole blackhole) {
+		var factory = new CriteriaFactory(RuntimeIdFactory.stubInstance());
+		Criteria criteria = factory.create(idColumn, (Bindable) Placeholder.$INT);
+		blackhole.consume(criteria.toString());
+	}
+
+	private int nextId() {
+		id = id == 1000 ? 1 : id + 1;
+		return id;
+	}
+
+	private static Query<GenericTable.Iterator, GenericTable.Row> query(int id) {
+		return new GenericTable(BenchmarkDatabase.orders())
+			.SELECT(a -> a.ls(a.col("ID"), a.col("QUANTITY"), a.col("AMOUNT"), a.fk(BenchmarkDatabase.ORDERS_CUSTOMER).col("NAME")))
+			.WHERE(a -> a.col("ID").ge(id).AND.col("QUANTITY").gt(0))
+			.ORDER_BY(a -> a.ls(a.col("ID").ASC));
+	}
+
+	private static Query<GenericTable.Iterator, GenericTable.Row> query(Placeholder placeholder) {
+		return new GenericTable(BenchmarkDatabase.orders())
+			.SELECT(a -> a.ls(a.col("ID"), a.col("QUANTITY"), a.col("AMOUNT"), a.fk(BenchmarkDatabase.ORDERS_CUSTOMER).col("NAME")))
+			.WHERE(a -> a.col("ID").ge(placeholder).AND.col("QUANTITY").gt(0))
+			.ORDER_BY(a -> a.ls(a.col("ID").ASC));
+	}
+}
@@ -0,0 +1,96 @@
+package org.blendee.benchmark;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.blendee.jdbc.BlendeeManager;
+import org.blendee.jdbc.Transaction;
+import org.blendee.util.BlendeeConstants;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * 主キーで一行だけを取得する短い検索を繰り返し、実行、読み込み、自動クローズにかかる固定費を計測します。<br>
+ * カラム情報を参照しない場合と、自動クローズの後にカラム情報を参照する場合を、ステートメントキャッシュの有無で比較します。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ShortQueryBenchmark {
+
+	private static final String sql = "SELECT ID, NAME, SCORE FROM " + BenchmarkDatabase.SCHEMA + ".CUSTOMERS WHERE ID = ?";
+
+	private static final int customers = 100;
+
+	@Param({ "0", "64" })
+	public int statementCacheSize;
+
+	private Transaction transaction;
+
+	private int next;
+
+	@Setup(Level.Trial)
+	public void setup() throws Exception {
+		BenchmarkDatabase.start("short-query", customers, 1, Map.of(BlendeeConstants.STATEMENT_CACHE_SIZE, statementCacheSize));
+		transaction = BenchmarkDatabase.begin();
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws Exception {
+		transaction.close();
+		BenchmarkDatabase.stop();
+	}
+
+	/**
+	 * 一行を読み込み、次の next() で自動クローズさせます。
+	 */
+	@Benchmark
+	public void lookup(Blackhole blackhole) {
+		var id = nextId();
+		try (var statement = BlendeeManager.getConnection().getStatement(sql, s -> s.setInt(1, id))) {
+			var result = statement.executeQuery();
+			while (result.next()) {
+				blackhole.consume(result.getInt(1));
+				blackhole.consume(result.getString(2));
+			}
+		}
+	}
+
+	/**
+	 * 一行を読み込み、自動クローズの後にカラム情報を参照します。
+	 */
+	@Benchmark
+	public void lookupWithLayout(Blackhole blackhole) {
+		var id = nextId();
+		try (var statement = BlendeeManager.getConnection().getStatement(sql, s -> s.setInt(1, id))) {
+			var result = statement.executeQuery();
+			while (result.next()) {
+				blackhole.consume(result.getInt(1));
+				blackhole.consume(result.getString(2));
+			}
+
+			blackhole.consume(result.getColumnCount());
+			blackhole.consume(result.getColumnName(1));
+		}
+	}
+
+	private int nextId() {
+		next = next % customers + 1;
+		return next;
+	}
+}
@@ -0,0 +1,72 @@
+package org.blendee.benchmark;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.blendee.jdbc.OptionKey;
+import org.blendee.util.Blendee;
+import org.blendee.util.BlendeeConstants;
+import org.blendee.util.GenericTable;
+import org.blendee.util.PooledTransactionFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * 短いトランザクションを繰り返す処理を、トランザクションごとに接続する標準の TransactionFactory と
+ * {@link PooledTransactionFactory} で比較します。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class TransactionFactoryBenchmark {
+
+	@Param({ "driver-manager", "pooled" })
+	public String factory;
+
+	@Setup(Level.Trial)
+	public void setup() throws Exception {
+		Map<OptionKey<?>, Object> options = new HashMap<>();
+		if (factory.equals("pooled")) {
+			options.put(BlendeeConstants.TRANSACTION_FACTORY_CLASS, PooledTransactionFactory.class);
+			options.put(BlendeeConstants.POOL_MAX_SIZE, 4);
+		}
+
+		BenchmarkDatabase.start("transaction-factory-" + factory, 100, 1, options);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws Exception {
+		BenchmarkDatabase.stop();
+	}
+
+	/**
+	 * トランザクションを開始し、一行を検索してコミットします。
+	 */
+	@Benchmark
+	public void shortTransaction(Blackhole blackhole) {
+		Blendee.execute(t -> {
+			new GenericTable(BenchmarkDatabase.customers())
+				.SELECT(a -> a.ls(a.col("ID"), a.col("NAME")))
+				.WHERE(a -> a.col("ID").eq(1))
+				.retrieve(iterator -> iterator.forEach(row -> blackhole.consume(row.getString("NAME"))));
+		});
+	}
+}
@@ -1,9 +1,6 @@
 package org.blendee.assist;
 
-import java.util.HashMap;
-import java.util.LinkedList;
 import java.util.List;
-import java.util.Map;
 
 import org.blendee.orm.DataObject;
 import org.blendee.orm.DataObjectIterator;
@@ -11,49 +8,133 @@ import org.blendee.sql.Relationship;
 
 class DataObjectManager {
 
-	private final DataObjectIterator iterator;
+	/**
+	 * 一対多検索の結果を一行ずつ、 route の位置ごとの {@link DataObject} として供給するインターフェイスです。
+	 */
+	interface Rows {
 
-	private final LinkedList<OneToManyBehavior> route;
+		/**
+		 * 次の行の {@link DataObject} を current に格納します。
+		 * @param current 格納先
+		 * @return 次の行が存在しない場合、 false
+		 */
+		boolean next(DataObject[] current);
 
-	Map<Relationship, DataObject> current;
+		/**
+		 * 検索結果を閉じます。
+		 */
+		void close();
+	}
+
+	private final Rows rows;
+
+	/**
+	 * route の順に並んだ {@link Relationship}
+	 */
+	private final Relationship[] relationships;
+
+	/**
+	 * 一つ前の {@link Relationship} から辿るための外部キー名
+	 */
+	private final String[] foreignKeyNames;
+
+	/**
+	 * 現在の行の、 route の位置ごとの {@link DataObject}<br>
+	 * 行ごとに上書きして使用する
+	 */
+	private final DataObject[] current;
+
+	private boolean prepared;
 
 	DataObjectManager(DataObjectIterator iterator, List<OneToManyBehavior> relations) {
-		this.iterator = iterator;
-		route = new LinkedList<>(relations);
-		route.pop();
+		this(relations, null, iterator);
+	}
+
+	DataObjectManager(List<OneToManyBehavior> relations, Rows rows) {
+		this(relations, rows, null);
+	}
+
+	private DataObjectManager(List<OneToManyBehavior> relations, Rows rows, DataObjectIterator iterator) {
+
+		var size = relations.size();
+		relationships = new Relationship[size];
+		foreignKeyNames = new String[size];
+		current = new DataObject[size];
+
+		var i = 0;
+		for (var relation : relations) {
+			var relationship = relation.getRelationship();
+			relationships[i] = relationship;
+
+			//先頭は検索結果そのもの
+			if (i > 0) foreignKeyNames[i] = relationship.getCrossReference().getForeignKeyName();
+
+			i++;
+		}
+
+		this.rows = rows == null ? new IteratorRows(iterator, foreignKeyNames) : rows;
+
 		next();
 	}
 
 	boolean prepared() {
-		return current != null;
+		return prepared;
 	}
 
 	void next() {
-		if (!iterator.hasNext()) {
-			current = null;
-			return;
+		prepared = rows.next(current);
+	}
+
+	/**
+	 * @return route 上の位置、含まれない場合 -1
+	 */
+	int indexOf(Relationship key) {
+		for (var i = 0; i < relationships.length; i++) {
+			if (relationships[i].equals(key)) return i;
 		}
 
-		current = convert(iterator.next());
+		return -1;
+	}
+
+	DataObject current(int index) {
+		return prepared && index >= 0 ? current[index] : null;
 	}
 
-	DataObject current(Relationship key) {
-		return current == null ? null : current.get(key);
+	void close() {
+		rows.close();
 	}
 
-	private Map<Relationship, DataObject> convert(DataObject source) {
-		var map = new HashMap<Relationship, DataObject>();
-		map.put(source.getRelationship(), source);
-		for (var relation : route) {
-			var include = relation.getRelationship();
-			source = source.getDataObject(include.getCrossReference().getForeignKeyName());
-			map.put(include, source);
+	/**
+	 * 一回の検索結果の各行から、外部キーを辿って route の {@link DataObject} を取り出します。
+	 */
+	private static class IteratorRows implements Rows {
+
+		private final DataObjectIterator iterator;
+
+		private final String[] foreignKeyNames;
+
+		private IteratorRows(DataObjectIterator iterator, String[] foreignKeyNames) {
+			this.iterator = iterator;
+			this.foreignKeyNames = foreignKeyNames;
 		}
 
-		return map;
-	}
+		@Override
+		public boolean next(DataObject[] current) {
+			if (!iterator.hasNext()) return false;
 
-	void close() {
-		iterator.close();
+			var source = iterator.next();
+			current[0] = source;
+			for (var i = 1; i < current.length; i++) {
+				source = source.getDataObject(foreignKeyNames[i]);
+				current[i] = source;
+			}
+
+			return true;
+		}
+
+		@Override
+		public void close() {
+			iterator.close();
+		}
 	}
 }
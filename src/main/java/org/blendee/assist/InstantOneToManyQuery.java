@@ -58,6 +58,8 @@ public class InstantOneToManyQuery<O extends Row, M>
 
 	private ComposedSQL composedSQL;
 
+	private final KeyQuery keyQuery;
+
 	/**
 	 * 自動生成されたサブクラス用のコンストラクタです。
 	 * @param relation 中心となるテーブルを表す
@@ -86,6 +88,8 @@ public class InstantOneToManyQuery<O extends Row, M>
 
 		this.route = Collections.unmodifiableList(route);
 
+		keyQuery = new KeyQuery(optimizer, id, this.route, criteria, order, options);
+
 		composedSQL = helper.buildSQLQueryBuilder(optimizer, criteria, order, options);
 	}
 
@@ -113,6 +117,20 @@ public class InstantOneToManyQuery<O extends Row, M>
 			options);
 	}
 
+	@Override
+	DataObjectIterator keyIterator() {
+		return helper.getDataObjects(
+			keyQuery.optimizer(),
+			criteria,
+			order,
+			options);
+	}
+
+	@Override
+	Column[] selectedColumns() {
+		return optimizer.selectClause().getColumns();
+	}
+
 	private static OneToManyBehavior getRoot(OneToManyBehavior relation, List<OneToManyBehavior> relations) {
 		relations.add(relation);
 		var parent = relation.getParent();
@@ -204,7 +222,8 @@ public class InstantOneToManyQuery<O extends Row, M>
 			sql(),
 			countSQL().sql(),
 			ComplementerValues.of(composedSQL()).reproduce(placeHolderValues),
-			optimizer.selectClause().getColumns());
+			optimizer.selectClause().getColumns(),
+			keyQuery);
 	}
 
 	@Override
@@ -215,7 +234,8 @@ public class InstantOneToManyQuery<O extends Row, M>
 			sql(),
 			countSQL().sql(),
 			ComplementerValues.of(composedSQL()),
-			optimizer.selectClause().getColumns());
+			optimizer.selectClause().getColumns(),
+			keyQuery);
 	}
 
 	@Override
@@ -249,4 +269,74 @@ public class InstantOneToManyQuery<O extends Row, M>
 
 		return composedSQL;
 	}
+
+	/**
+	 * {@link OneToManyQuery#retrieveSeparately(int)} で使用する、 route 上の全テーブルの主キーのみを SELECT する検索です。<br>
+	 * SELECT 句と SQL は {@link OneToManyQuery#retrieveSeparately(int)} が最初に実行された時点で作成され、
+	 * {@link #reproduce()} で作成された {@link PlaybackOneToManyQuery} とも共有されます。
+	 */
+	static class KeyQuery {
+
+		private final SelectContext source;
+
+		private final RuntimeId id;
+
+		private final List<OneToManyBehavior> route;
+
+		private final Criteria criteria;
+
+		private final OrderByClause order;
+
+		private final SQLDecorator[] options;
+
+		private SelectContext optimizer;
+
+		private String sql;
+
+		private KeyQuery(
+			SelectContext source,
+			RuntimeId id,
+			List<OneToManyBehavior> route,
+			Criteria criteria,
+			OrderByClause order,
+			SQLDecorator[] options) {
+			this.source = source;
+			this.id = id;
+			this.route = route;
+			this.criteria = criteria;
+			this.order = order;
+			this.options = options;
+		}
+
+		synchronized SelectContext optimizer() {
+			if (optimizer == null) {
+				var keyOptimizer = new SimpleSelectContext(source.tablePath(), id);
+				route.forEach(r -> {
+					for (Column column : r.getRelationship().getPrimaryKeyColumns()) {
+						keyOptimizer.add(column);
+					}
+				});
+
+				optimizer = keyOptimizer;
+			}
+
+			return optimizer;
+		}
+
+		synchronized String sql() {
+			if (sql == null) {
+				sql = new DataAccessHelper().buildSQLQueryBuilder(
+					optimizer(),
+					criteria,
+					order,
+					options).sql();
+			}
+
+			return sql;
+		}
+
+		Column[] columns() {
+			return optimizer().selectClause().getColumns();
+		}
+	}
 }
@@ -0,0 +1,323 @@
+package org.blendee.assist;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.UUID;
+
+import org.blendee.internal.U;
+import org.blendee.orm.DataObject;
+import org.blendee.sql.Bindable;
+import org.blendee.sql.BindableConverter;
+import org.blendee.sql.Binder;
+import org.blendee.sql.Column;
+import org.blendee.sql.Criteria;
+import org.blendee.sql.CriteriaFactory;
+import org.blendee.sql.OrderByClause;
+import org.blendee.sql.OrderByClause.Direction;
+import org.blendee.sql.OrderByClause.DirectionalColumn;
+import org.blendee.sql.RuntimeId;
+
+/**
+ * キーセットページング（シーク法）で、次のページの開始位置を表すクラスです。<br>
+ * 前のページの最後の行が持つ ORDER BY 句のカラムの値を保持し、それより後の行のみを対象とする条件句を生成します。<br>
+ * OFFSET を使用しないので、ページの深さに関わらず検索の負荷は一定で、 2 ページ目以降は SQL 文もページごとに変化しません。<br>
+ * ORDER BY 句のカラムは NOT NULL で、かつその組み合わせで行を一意に特定できる必要があります（最後に主キーを加えるのが一般的です）。
+ * @author 千葉 哲嗣
+ * @see SelectStatementBehavior#seek(Keyset, org.blendee.sql.SQLDecorator)
+ */
+public class Keyset {
+
+	private static final byte stringType = 1;
+
+	private static final byte intType = 2;
+
+	private static final byte longType = 3;
+
+	private static final byte bigDecimalType = 4;
+
+	private static final byte doubleType = 5;
+
+	private static final byte floatType = 6;
+
+	private static final byte booleanType = 7;
+
+	private static final byte timestampType = 8;
+
+	private static final byte uuidType = 9;
+
+	private final Object[] values;
+
+	/**
+	 * 行値式による比較をサポートするデータベースの方言で、 {@link SelectStatementBehavior#seek(Keyset, org.blendee.sql.SQLDecorator)} に渡す先頭ページの
+	 * {@link org.blendee.sql.SQLDecorator} が実装するインターフェイスです。<br>
+	 * 実装していない場合、行値式をサポートしないデータベースでも使用できるよう、同等の OR 条件が生成されます。
+	 */
+	public interface RowValueComparison {
+
+		/**
+		 * 全てのカラムを同じ演算子で比較する、行値式による条件句のテンプレートを生成します。
+		 * @param columns カラムのテンプレート（{0}, {1}, ...）
+		 * @param operator 比較演算子（&gt; もしくは &lt;）
+		 * @return カラムと同じ数のプレースホルダを持つ条件句のテンプレート
+		 */
+		String compareRowValues(String[] columns, String operator);
+	}
+
+	private Keyset(Object[] values) {
+		this.values = values;
+	}
+
+	/**
+	 * 前のページの最後の行から、次のページの開始位置を生成します。
+	 * @param orderBy 検索に使用した ORDER BY 句
+	 * @param last 前のページの最後の行
+	 * @return 次のページの開始位置
+	 * @throws IllegalStateException ORDER BY 句のカラムの値が NULL の場合
+	 */
+	public static Keyset of(OrderByClause orderBy, Row last) {
+		return of(orderBy, last.dataObject());
+	}
+
+	/**
+	 * 前のページの最後の行から、次のページの開始位置を生成します。<br>
+	 * ORDER BY 句のカラムは、検索対象のテーブルのカラムである必要があります。
+	 * @param orderBy 検索に使用した ORDER BY 句
+	 * @param last 前のページの最後の行
+	 * @return 次のページの開始位置
+	 * @throws IllegalStateException ORDER BY 句のカラムの値が NULL の場合
+	 */
+	public static Keyset of(OrderByClause orderBy, DataObject last) {
+		var columns = orderBy.getDirectionalColumns();
+		var values = new Object[columns.length];
+		for (var i = 0; i < columns.length; i++) {
+			var column = columns[i].getColumn();
+
+			//検索対象のテーブルのカラムではありません
+			if (!column.getRelationship().isRoot())
+				throw new IllegalStateException(column + " is not a column of the root table.");
+
+			var value = last.getValue(column.getName()).getValue();
+			//キーとなるカラムの値が NULL です
+			if (value == null) throw new IllegalStateException(column + " is null.");
+
+			values[i] = value;
+		}
+
+		return new Keyset(values);
+	}
+
+	/**
+	 * {@link #toToken()} で生成された文字列から、インスタンスを復元します。
+	 * @param token {@link #toToken()} で生成された文字列
+	 * @return 次のページの開始位置
+	 * @throws IllegalArgumentException 文字列の形式が正しくない場合
+	 */
+	public static Keyset parse(String token) {
+		byte[] bytes;
+		try {
+			bytes = Base64.getUrlDecoder().decode(token);
+		} catch (IllegalArgumentException e) {
+			//トークンの形式が正しくありません
+			throw new IllegalArgumentException("invalid keyset token", e);
+		}
+
+		try (var input = new DataInputStream(new ByteArrayInputStream(bytes))) {
+			var values = new Object[input.readUnsignedByte()];
+			for (var i = 0; i < values.length; i++) {
+				values[i] = read(input);
+			}
+
+			//余分なデータがあります
+			if (input.available() > 0) throw new IllegalArgumentException("invalid keyset token");
+
+			return new Keyset(values);
+		} catch (IOException e) {
+			//トークンの形式が正しくありません
+			throw new IllegalArgumentException("invalid keyset token", e);
+		}
+	}
+
+	/**
+	 * クライアントに渡すことのできる、 URL セーフな文字列に変換します。
+	 * @return このインスタンスを表す文字列
+	 * @see #parse(String)
+	 */
+	public String toToken() {
+		var bytes = new ByteArrayOutputStream();
+		try (var output = new DataOutputStream(bytes)) {
+			output.writeByte(values.length);
+			for (var value : values) {
+				write(output, value);
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes.toByteArray());
+	}
+
+	/**
+	 * この位置より後の行のみを対象とする、 (a &gt; ?) OR (a = ? AND b &gt; ?) の形の条件句を生成します。
+	 * @param id {@link RuntimeId}
+	 * @param columns 検索に使用する ORDER BY 句のカラム
+	 * @return 条件句
+	 * @throws IllegalArgumentException ORDER BY 句とカラム数が異なる場合
+	 * @throws IllegalStateException NULL の位置を指定したソート方向が含まれる場合
+	 */
+	public Criteria createCriteria(RuntimeId id, DirectionalColumn[] columns) {
+		return createCriteria(id, columns, null);
+	}
+
+	/**
+	 * この位置より後の行のみを対象とする条件句を生成します。<br>
+	 * 全てのカラムのソート方向が同じで comparison が指定された場合は comparison による行値式を、それ以外の場合は同等の OR 条件を生成します。
+	 * @param id {@link RuntimeId}
+	 * @param columns 検索に使用する ORDER BY 句のカラム
+	 * @param comparison 行値式を生成するデータベースの方言、使用しない場合 null
+	 * @return 条件句
+	 * @throws IllegalArgumentException ORDER BY 句とカラム数が異なる場合
+	 * @throws IllegalStateException NULL の位置を指定したソート方向が含まれる場合
+	 */
+	public Criteria createCriteria(RuntimeId id, DirectionalColumn[] columns, RowValueComparison comparison) {
+		if (columns.length != values.length)
+			//ORDER BY 句のカラム数とキーの数が一致しません
+			throw new IllegalArgumentException("keyset size " + values.length + " does not match ORDER BY columns " + columns.length);
+
+		var bindables = BindableConverter.convertAllTypes(values);
+
+		var targets = new Column[columns.length];
+		var operators = new String[columns.length];
+		for (var i = 0; i < columns.length; i++) {
+			targets[i] = columns[i].getColumn();
+			operators[i] = operator(columns[i].getDirection());
+		}
+
+		var factory = new CriteriaFactory(id);
+
+		if (comparison != null && Arrays.stream(operators).distinct().count() == 1) {
+			var templates = new String[columns.length];
+			for (var i = 0; i < columns.length; i++) {
+				templates[i] = "{" + i + "}";
+			}
+
+			return factory.createCriteria(comparison.compareRowValues(templates, operators[0]), targets, bindables);
+		}
+
+		//(a > ?) OR (a = ? AND b < ?) OR ...
+		var clauses = new String[columns.length];
+		var binders = new Binder[columns.length * (columns.length + 1) / 2];
+		var index = 0;
+		for (var i = 0; i < columns.length; i++) {
+			var conditions = new String[i + 1];
+			for (var j = 0; j < i; j++) {
+				conditions[j] = "{" + j + "} = ?";
+				binders[index++] = bindables[j].toBinder();
+			}
+
+			conditions[i] = "{" + i + "} " + operators[i] + " ?";
+			binders[index++] = bindables[i].toBinder();
+
+			clauses[i] = "(" + String.join(" AND ", conditions) + ")";
+		}
+
+		return factory.createCriteria("(" + String.join(" OR ", clauses) + ")", targets, (Bindable[]) binders);
+	}
+
+	@Override
+	public String toString() {
+		return U.toString(this);
+	}
+
+	private static String operator(Direction direction) {
+		switch (direction) {
+		case ASC:
+		case NONE:
+			return ">";
+		case DESC:
+			return "<";
+		default:
+			//NULL の位置を指定したソートはキーセットページングに使用できません
+			throw new IllegalStateException(direction.name() + " can not be used for keyset pagination.");
+		}
+	}
+
+	private static void write(DataOutputStream output, Object value) throws IOException {
+		if (value instanceof String) {
+			output.writeByte(stringType);
+			output.writeUTF((String) value);
+		} else if (value instanceof Integer) {
+			output.writeByte(intType);
+			output.writeInt((Integer) value);
+		} else if (value instanceof Long) {
+			output.writeByte(longType);
+			output.writeLong((Long) value);
+		} else if (value instanceof BigDecimal) {
+			output.writeByte(bigDecimalType);
+			output.writeUTF(((BigDecimal) value).toString());
+		} else if (value instanceof Double) {
+			output.writeByte(doubleType);
+			output.writeDouble((Double) value);
+		} else if (value instanceof Float) {
+			output.writeByte(floatType);
+			output.writeFloat((Float) value);
+		} else if (value instanceof Boolean) {
+			output.writeByte(booleanType);
+			output.writeBoolean((Boolean) value);
+		} else if (value instanceof Timestamp) {
+			var timestamp = (Timestamp) value;
+			output.writeByte(timestampType);
+			output.writeLong(timestamp.getTime());
+			output.writeInt(timestamp.getNanos());
+		} else if (value instanceof UUID) {
+			var uuid = (UUID) value;
+			output.writeByte(uuidType);
+			output.writeLong(uuid.getMostSignificantBits());
+			output.writeLong(uuid.getLeastSignificantBits());
+		} else {
+			//キーセットページングに使用できない型です
+			throw new IllegalStateException(value.getClass().getName() + " can not be used for keyset pagination.");
+		}
+	}
+
+	private static Object read(DataInputStream input) throws IOException {
+		var type = input.readByte();
+		switch (type) {
+		case stringType:
+			return input.readUTF();
+		case intType:
+			return input.readInt();
+		case longType:
+			return input.readLong();
+		case bigDecimalType:
+			try {
+				return new BigDecimal(input.readUTF());
+			} catch (NumberFormatException e) {
+				throw new IOException(e);
+			}
+		case doubleType:
+			return input.readDouble();
+		case floatType:
+			return input.readFloat();
+		case booleanType:
+			return input.readBoolean();
+		case timestampType:
+			var timestamp = new Timestamp(input.readLong());
+			var nanos = input.readInt();
+			if (nanos < 0 || nanos > 999999999) throw new IOException("invalid nanos");
+			timestamp.setNanos(nanos);
+			return timestamp;
+		case uuidType:
+			return new UUID(input.readLong(), input.readLong());
+		default:
+			throw new IOException("unknown type " + type);
+		}
+	}
+}
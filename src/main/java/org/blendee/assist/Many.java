@@ -29,6 +29,10 @@ public class Many<O extends Row, M> implements Iterable<One<O, M>>, AutoCloseabl
 
 	private final List<OneToManyBehavior> route;
 
+	private final int selfIndex;
+
+	private final int oneIndex;
+
 	private DataObject prev;
 
 	Many(
@@ -41,6 +45,8 @@ public class Many<O extends Row, M> implements Iterable<One<O, M>>, AutoCloseabl
 		this.selfAsMany = selfAsMany;
 		this.route = route;
 		nextMany = getManyOf(selfAsMany);
+		selfIndex = manager.indexOf(selfAsMany.getRelationship());
+		oneIndex = one == null ? -1 : manager.indexOf(one.getRelationship());
 	}
 
 	@Override
@@ -48,7 +54,7 @@ public class Many<O extends Row, M> implements Iterable<One<O, M>>, AutoCloseabl
 		//hasNext() が実行されていません
 		if (!manager.prepared()) throw new IllegalStateException("Do hasNext() first.");
 
-		var current = manager.current(selfAsMany.getRelationship());
+		var current = manager.current(selfIndex);
 
 		Many<Row, Object> next;
 		if (nextMany == null) {
@@ -68,23 +74,22 @@ public class Many<O extends Row, M> implements Iterable<One<O, M>>, AutoCloseabl
 	public boolean hasNext() {
 		if (!manager.prepared()) return false;
 
-		var key = selfAsMany.getRelationship();
-		var current = manager.current(key);
+		var current = manager.current(selfIndex);
 
-		while (prev != null && current != null && prev.getPrimaryKey().equals(current.getPrimaryKey())) {
+		while (prev != null && current != null && prev.primaryKeyEquals(current)) {
 			manager.next();
 
 			if (!manager.prepared()) return false;
 
-			current = manager.current(key);
+			current = manager.current(selfIndex);
 		}
 
 		prev = current;
 
 		if (one != null) {
-			DataObject currentOne = manager.current(one.getRelationship());
+			DataObject currentOne = manager.current(oneIndex);
 
-			return one.getPrimaryKey().equals(currentOne.getPrimaryKey());
+			return one.primaryKeyEquals(currentOne);
 		}
 
 		return true;
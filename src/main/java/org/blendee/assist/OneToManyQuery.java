@@ -8,6 +8,7 @@ import org.blendee.jdbc.BStatement;
 import org.blendee.jdbc.ComposedSQL;
 import org.blendee.orm.DataObjectIterator;
 import org.blendee.sql.Bindable;
+import org.blendee.sql.Column;
 import org.blendee.sql.CriteriaFactory;
 import org.blendee.sql.RuntimeId;
 
@@ -43,6 +44,17 @@ public abstract class OneToManyQuery<O extends Row, M>
 	 */
 	abstract DataObjectIterator iterator();
 
+	/**
+	 * route 上の全テーブルの主キーのみを、 {@link #iterator()} と同じ条件、並び順で検索します。
+	 * @return 検索結果
+	 */
+	abstract DataObjectIterator keyIterator();
+
+	/**
+	 * @return {@link #iterator()} で SELECT されるカラム
+	 */
+	abstract Column[] selectedColumns();
+
 	abstract List<OneToManyBehavior> route();
 
 	abstract BStatement createStatementForCount();
@@ -57,6 +69,29 @@ public abstract class OneToManyQuery<O extends Row, M>
 			route);
 	}
 
+	/**
+	 * {@link #retrieve()} と同じ結果を、一つの結合による検索ではなく、分割した検索で取得します。<br>
+	 * まず route 上の全テーブルの主キーのみを検索し、次にテーブルごとに主キーの IN 句で行を取得して、メモリ上で組み立てます。<br>
+	 * 参照される側のテーブルの値が、参照する側の行の数だけ重複して転送されることがなくなるため、一対多の多側の件数が多い場合に転送量を削減できます。<br>
+	 * ただし、以下の点で {@link #retrieve()} とは異なります。
+	 * <ul>
+	 * <li>主キーのみの検索は、 WHERE 句の条件を同じように適用するため、元の検索と同じ結合で行われます。削減されるのは転送量であり、結合の負荷ではありません。</li>
+	 * <li>各行の {@link org.blendee.orm.DataObject} は、そのテーブル自身のカラムのみを保持します。外部キーで参照先の {@link org.blendee.orm.DataObject} を取得することはできないので、 route 上の親の行は {@link One} から取得してください。</li>
+	 * <li>route 上にないテーブルのカラムは取得できないので、 SELECT 句に含まれている場合は {@link IllegalStateException} となります。</li>
+	 * </ul>
+	 * @param chunkSize IN 句一つに含める値の最大数
+	 * @return 検索結果
+	 * @throws IllegalStateException route 上にないテーブルのカラムが SELECT 句に含まれている場合
+	 */
+	public Many<O, M> retrieveSeparately(int chunkSize) {
+		var route = route();
+		return new Many<>(
+			new DataObjectManager(route, new SeparateRows(this::keyIterator, route, selectedColumns(), chunkSize)),
+			null,
+			self,
+			route);
+	}
+
 	@Override
 	public Optional<One<O, M>> fetch(Bindable... primaryKeyMembers) {
 		var columns = self.getRelationship().getPrimaryKeyColumns();
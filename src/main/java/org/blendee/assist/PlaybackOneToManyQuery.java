@@ -35,6 +35,8 @@ class PlaybackOneToManyQuery<O extends Row, M>
 
 	private final Column[] selectedColumns;
 
+	private final InstantOneToManyQuery.KeyQuery keyQuery;
+
 	private final SelectedValuesConverter converter = new SimpleSelectedValuesConverter();
 
 	PlaybackOneToManyQuery(
@@ -43,13 +45,15 @@ class PlaybackOneToManyQuery<O extends Row, M>
 		String sql,
 		String countSQL,
 		ComplementerValues values,
-		Column[] selectedColumns) {
+		Column[] selectedColumns,
+		InstantOneToManyQuery.KeyQuery keyQuery) {
 		super(self);
 		this.route = route;
 		this.sql = sql;
 		this.countSQL = countSQL;
 		this.values = values;
 		this.selectedColumns = selectedColumns;
+		this.keyQuery = keyQuery;
 	}
 
 	@Override
@@ -79,6 +83,21 @@ class PlaybackOneToManyQuery<O extends Row, M>
 			converter);
 	}
 
+	@Override
+	DataObjectIterator keyIterator() {
+		return DataAccessHelper.select(
+			keyQuery.sql(),
+			values,
+			self().getRelationship().getRoot(),
+			keyQuery.columns(),
+			converter);
+	}
+
+	@Override
+	Column[] selectedColumns() {
+		return selectedColumns;
+	}
+
 	@Override
 	public String sql() {
 		return sql;
@@ -113,7 +132,8 @@ class PlaybackOneToManyQuery<O extends Row, M>
 			sql,
 			countSQL,
 			values.reproduce(placeHolderValues),
-			selectedColumns);
+			selectedColumns,
+			keyQuery);
 	}
 
 	@Override
@@ -124,7 +144,8 @@ class PlaybackOneToManyQuery<O extends Row, M>
 			sql,
 			countSQL,
 			values.reproduce(),
-			selectedColumns);
+			selectedColumns,
+			keyQuery);
 	}
 
 	@Override
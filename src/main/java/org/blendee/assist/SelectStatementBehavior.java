@@ -3,12 +3,17 @@ package org.blendee.assist;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 import org.blendee.jdbc.BPreparedStatement;
+import org.blendee.jdbc.BResultSet;
 import org.blendee.jdbc.BlendeeManager;
 import org.blendee.jdbc.ComposedSQL;
+import org.blendee.jdbc.ResultSetIterator;
 import org.blendee.jdbc.TablePath;
 import org.blendee.orm.DataAccessHelper;
 import org.blendee.orm.DataObject;
@@ -24,6 +29,7 @@ import org.blendee.sql.CombiningQuery;
 import org.blendee.sql.ComplementerValues;
 import org.blendee.sql.Criteria;
 import org.blendee.sql.CriteriaFactory;
+import org.blendee.sql.FetchSizeHint;
 import org.blendee.sql.FromClause;
 import org.blendee.sql.FromClause.JoinType;
 import org.blendee.sql.GroupByClause;
@@ -32,6 +38,7 @@ import org.blendee.sql.Relationship;
 import org.blendee.sql.RelationshipFactory;
 import org.blendee.sql.RuntimeId;
 import org.blendee.sql.SQL;
+import org.blendee.sql.SQLDecorator;
 import org.blendee.sql.SQLQueryBuilder;
 import org.blendee.sql.SQLQueryBuilder.CombineOperator;
 import org.blendee.sql.SelectClause;
@@ -599,11 +606,11 @@ public abstract class SelectStatementBehavior<
 
 		private final String rowSQL;
 
-		private final String countSQL;
+		private final LazySQL countSQL;
 
-		private final String fetchSQL;
+		private final LazySQL fetchSQL;
 
-		private final String aggregationSQL;
+		private final LazySQL aggregationSQL;
 
 		private final ComplementerValues values;
 
@@ -615,16 +622,19 @@ public abstract class SelectStatementBehavior<
 
 		private final boolean rowMode;
 
+		private final int fetchSize;
+
 		private PlaybackQuery(
 			String rowSQL,
-			String countSQL,
-			String fetchSQL,
-			String aggregationSQL,
+			LazySQL countSQL,
+			LazySQL fetchSQL,
+			LazySQL aggregationSQL,
 			ComplementerValues values,
 			Relationship relationship,
 			Column[] selectedColumns,
 			SelectedValuesConverter converter,
-			boolean rowMode) {
+			boolean rowMode,
+			int fetchSize) {
 			this.rowSQL = rowSQL;
 			this.countSQL = countSQL;
 			this.fetchSQL = fetchSQL;
@@ -634,17 +644,19 @@ public abstract class SelectStatementBehavior<
 			this.selectedColumns = selectedColumns;
 			this.converter = converter;
 			this.rowMode = rowMode;
+			this.fetchSize = fetchSize;
 		}
 
 		private PlaybackQuery(
 			String rowSQL,
-			String countSQL,
-			String fetchSQL,
-			String aggregationSQL,
+			LazySQL countSQL,
+			LazySQL fetchSQL,
+			LazySQL aggregationSQL,
 			ComplementerValues values,
 			Relationship relationship,
 			Column[] selectedColumns,
-			boolean rowMode) {
+			boolean rowMode,
+			int fetchSize) {
 			this.rowSQL = rowSQL;
 			this.countSQL = countSQL;
 			this.fetchSQL = fetchSQL;
@@ -654,6 +666,7 @@ public abstract class SelectStatementBehavior<
 			this.selectedColumns = selectedColumns;
 			converter = disabledSelectContext;
 			this.rowMode = rowMode;
+			this.fetchSize = fetchSize;
 		}
 
 		@Override
@@ -661,7 +674,7 @@ public abstract class SelectStatementBehavior<
 			checkRowMode(rowMode);
 			return DataAccessHelper.select(
 				rowSQL,
-				values,
+				FetchSizeHint.apply(fetchSize, values),
 				relationship,
 				selectedColumns,
 				converter);
@@ -674,7 +687,7 @@ public abstract class SelectStatementBehavior<
 			try {
 				object = DataAccessHelper.getFirst(
 					DataAccessHelper.select(
-						fetchSQL,
+						fetchSQL.get(),
 						s -> {
 							var binders = values.binders();
 							if (binders.size() > 0) {
@@ -704,7 +717,7 @@ public abstract class SelectStatementBehavior<
 		public int count() {
 			checkRowMode(rowMode);
 			var connection = BlendeeManager.getConnection();
-			try (var statement = connection.getStatement(countSQL, values)) {
+			try (var statement = connection.getStatement(countSQL.get(), values)) {
 				try (var result = statement.executeQuery()) {
 					result.next();
 					return result.getInt(1);
@@ -719,7 +732,7 @@ public abstract class SelectStatementBehavior<
 
 				@Override
 				public String sql() {
-					return countSQL;
+					return countSQL.get();
 				}
 
 				@Override
@@ -736,7 +749,7 @@ public abstract class SelectStatementBehavior<
 
 		@Override
 		public String sql() {
-			return rowMode ? rowSQL : aggregationSQL;
+			return rowMode ? rowSQL : aggregationSQL.get();
 		}
 
 		@Override
@@ -755,7 +768,8 @@ public abstract class SelectStatementBehavior<
 				relationship,
 				selectedColumns,
 				converter,
-				rowMode);
+				rowMode,
+				fetchSize);
 		}
 
 		@Override
@@ -769,7 +783,8 @@ public abstract class SelectStatementBehavior<
 				relationship,
 				selectedColumns,
 				converter,
-				rowMode);
+				rowMode,
+				fetchSize);
 		}
 
 		@Override
@@ -779,24 +794,58 @@ public abstract class SelectStatementBehavior<
 
 		@Override
 		public ComposedSQL aggregateSQL() {
-			return rowMode ? SQL.getInstance(aggregationSQL, values) : this;
+			return rowMode ? SQL.getInstance(aggregationSQL.get(), values) : this;
+		}
+
+		@Override
+		public void execute(Consumer<BResultSet> action) {
+			var connection = BlendeeManager.getConnection();
+			try (var statement = connection.getStatement(aggregationSQL.get(), FetchSizeHint.apply(fetchSize, values))) {
+				try (var result = statement.executeQuery()) {
+					action.accept(result);
+				}
+			}
 		}
+
+		@Override
+		public <T> T executeAndGet(Function<BResultSet, T> action) {
+			var connection = BlendeeManager.getConnection();
+			try (var statement = connection.getStatement(aggregationSQL.get(), FetchSizeHint.apply(fetchSize, values))) {
+				try (var result = statement.executeQuery()) {
+					return action.apply(result);
+				}
+			}
+		}
+
+		@Override
+		public ResultSetIterator execute() {
+			return new ResultSetIterator(aggregationSQL.get(), FetchSizeHint.apply(fetchSize, values));
+		}
+
 	}
 
+	/**
+	 * 検索を実行可能な {@link PlaybackQuery} を生成します。<br>
+	 * 件数取得用、主キー検索用、集計用の SQL 文は、それぞれ初めて使用される時点で生成されます。<br>
+	 * 生成された SQL 文は、 {@link PlaybackQuery#reproduce()} で複製されたインスタンス間で共有されます。
+	 * @return {@link PlaybackQuery}
+	 */
 	public PlaybackQuery query() {
-		var builder = buildBuilder();
-		var aggregationSQL = builder.sql();
+		var decorators = this.decorators.decorators();
+		var fetchSize = FetchSizeHint.find(decorators);
 
 		if (!rowMode) {
+			var builder = buildBuilder();
 			return new PlaybackQuery(
 				null,
 				null,
 				null,
-				aggregationSQL,
+				LazySQL.of(builder.sql()),
 				ComplementerValues.of(builder),
 				null,
 				Column.EMPTY_ARRAY,
-				false);
+				false,
+				fetchSize);
 		}
 
 		var context = getSelectContext();
@@ -805,36 +854,42 @@ public abstract class SelectStatementBehavior<
 			context,
 			whereClause,
 			orderByClause,
-			decorators.decorators());
+			decorators);
 
 		selector.forSubquery(forSubquery);
 
-		var sql = selector.sql();
+		//以降の SQL 文の生成は遅延させるので、この時点の句を複製しておく
+		//各句は and() 等でその場で変更されるので、複製自体は遅延させられない
+		//WHERE 句の複製は件数取得用、主キー検索用、集計用の SQL 文で共有する
+		var where = whereClause == null ? null : whereClause.replicate();
+		var forSubquery = this.forSubquery;
+		var table = this.table;
+		var id = this.id;
 
-		String countSQL;
-		{
+		var countSQL = new LazySQL(() -> {
 			var myBuilder = new SQLQueryBuilder(new FromClause(context.tablePath(), id));
 			myBuilder.setSelectClause(new SelectCountClause());
-			if (whereClause != null) myBuilder.setWhereClause(whereClause);
-			countSQL = myBuilder.sql();
-		}
+			if (where != null) myBuilder.setWhereClause(where);
+			return myBuilder.sql();
+		});
 
-		String fetchSQL;
-		{
-			var criteria = createFetchCriteria(table);
+		var fetchSQL = new LazySQL(() -> {
+			var criteria = createFetchCriteria(new CriteriaFactory(id), table);
 			var fetchSelector = new DataAccessHelper(id).buildSQLQueryBuilder(
 				context,
-				whereClause == null ? criteria : whereClause.and(criteria),
+				where == null ? criteria : where.replicate().and(criteria),
 				null,
-				decorators.decorators());
+				decorators);
 
 			fetchSelector.forSubquery(forSubquery);
 
-			fetchSQL = fetchSelector.sql();
-		}
+			return fetchSelector.sql();
+		});
+
+		var aggregationSQL = lazyAggregationSQL(where, decorators);
 
 		return new PlaybackQuery(
-			sql,
+			selector.sql(),
 			countSQL,
 			fetchSQL,
 			aggregationSQL,
@@ -842,7 +897,71 @@ public abstract class SelectStatementBehavior<
 			RelationshipFactory.getInstance().getInstance(table),
 			selector.getSelectClause().getColumns(),
 			context,
-			true);
+			true,
+			fetchSize);
+	}
+
+	/**
+	 * キーセットページング（シーク法）で、 after の位置から検索する {@link PlaybackQuery} を生成します。<br>
+	 * 件数の制限は、使用するデータベースの方言の先頭ページを表す {@link SQLDecorator} で指定します（例えば org.blendee.dialect.postgresql.Pager(1, 20)）。<br>
+	 * 生成される SQL 文は WHERE 句に after より後を対象とする条件を加え、末尾に pager の加工を施したものです。<br>
+	 * pager が {@link Keyset.RowValueComparison} を実装している場合、条件は方言の行値式で、それ以外の場合は同等の OR 条件で生成されます。<br>
+	 * 先頭のページ（after が null）では条件を加えないので SQL 文が異なりますが、 2 ページ目以降はページの位置によらず同一です。<br>
+	 * 次のページの開始位置は、最後の行から {@link Keyset#of(OrderByClause, DataObject)} で取得します。<br>
+	 * 生成された {@link PlaybackQuery} では、件数取得、主キー検索、集計は使用できません。
+	 * @param after 開始位置、先頭のページの場合 null
+	 * @param pager 先頭のページの行数を制限する {@link SQLDecorator}
+	 * @return {@link PlaybackQuery}
+	 * @throws IllegalStateException ORDER BY 句が指定されていない場合
+	 */
+	public PlaybackQuery seek(Keyset after, SQLDecorator pager) {
+		checkRowMode();
+
+		Objects.requireNonNull(pager);
+
+		var columns = getOrderByClause().getDirectionalColumns();
+		//キーセットページングには ORDER BY 句が必要です
+		if (columns.length == 0) throw new IllegalStateException("ORDER BY clause is required for keyset pagination.");
+
+		var where = whereClause == null ? null : whereClause.replicate();
+		if (after != null) {
+			var comparison = pager instanceof Keyset.RowValueComparison ? (Keyset.RowValueComparison) pager : null;
+			var seekCriteria = after.createCriteria(id, columns, comparison);
+			where = where == null ? seekCriteria : where.and(seekCriteria);
+		}
+
+		//FOR UPDATE 等の他の加工よりも前に件数の制限を付加する
+		var userDecorators = decorators.decorators();
+		var seekDecorators = new SQLDecorator[userDecorators.length + 1];
+		seekDecorators[0] = pager;
+		System.arraycopy(userDecorators, 0, seekDecorators, 1, userDecorators.length);
+
+		var context = getSelectContext();
+
+		var selector = new DataAccessHelper(id).buildSQLQueryBuilder(
+			context,
+			where,
+			orderByClause,
+			seekDecorators);
+
+		selector.forSubquery(forSubquery);
+
+		var unsupported = new LazySQL(() -> {
+			//キーセットページングの検索では、件数取得、主キー検索、集計は使用できません
+			throw new IllegalStateException("count, fetch and aggregation are not supported by a keyset pagination query.");
+		});
+
+		return new PlaybackQuery(
+			selector.sql(),
+			unsupported,
+			unsupported,
+			unsupported,
+			ComplementerValues.of(selector),
+			RelationshipFactory.getInstance().getInstance(table),
+			selector.getSelectClause().getColumns(),
+			context,
+			true,
+			FetchSizeHint.find(seekDecorators));
 	}
 
 	public SQLQueryBuilder buildBuilder() {
@@ -880,7 +999,66 @@ public abstract class SelectStatementBehavior<
 	}
 
 	private SQLQueryBuilder buildBuilderWithoutSelectColumnsSupply() {
-		var builder = new SQLQueryBuilder(false, getFromClause());
+		return buildBuilder(
+			getFromClause(),
+			selectClause,
+			groupByClause,
+			whereClause,
+			havingClause,
+			combiningQueries,
+			orderByClause,
+			decorators.decorators(),
+			joinResources,
+			forSubquery);
+	}
+
+	/**
+	 * 現時点の各句の複製から、 {@link #buildBuilder()} と同じ SQL 文を生成する {@link LazySQL} を返します。
+	 * @param whereClause 呼び出し側で複製済みの WHERE 句
+	 */
+	private LazySQL lazyAggregationSQL(Criteria whereClause, SQLDecorator[] decorators) {
+		var fromClause = getFromClause();
+		var selectClause = this.selectClause == null ? null : this.selectClause.replicate();
+		var groupByClause = this.groupByClause == null ? null : this.groupByClause.replicate();
+		var havingClause = this.havingClause == null ? null : this.havingClause.replicate();
+		var combiningQueries = this.combiningQueries.isEmpty() ? List.<CombiningQuery> of() : new ArrayList<>(this.combiningQueries);
+		var orderByClause = this.orderByClause == null ? null : this.orderByClause.replicate();
+		var joinResources = this.joinResources.isEmpty() ? List.<JoinResource> of() : new ArrayList<>(this.joinResources);
+		var forSubquery = this.forSubquery;
+		var context = getSelectContext();
+
+		return new LazySQL(() -> {
+			var builder = buildBuilder(
+				fromClause,
+				selectClause,
+				groupByClause,
+				whereClause,
+				havingClause,
+				combiningQueries,
+				orderByClause,
+				decorators,
+				joinResources,
+				forSubquery);
+
+			if (!builder.hasSelectColumns())
+				builder.setSelectClause(context.selectClause());
+
+			return builder.sql();
+		});
+	}
+
+	private static SQLQueryBuilder buildBuilder(
+		FromClause fromClause,
+		SelectClause selectClause,
+		GroupByClause groupByClause,
+		Criteria whereClause,
+		Criteria havingClause,
+		List<CombiningQuery> combiningQueries,
+		OrderByClause orderByClause,
+		SQLDecorator[] decorators,
+		List<JoinResource> joinResources,
+		boolean forSubquery) {
+		var builder = new SQLQueryBuilder(false, fromClause);
 
 		builder.forSubquery(forSubquery);
 
@@ -895,7 +1073,7 @@ public abstract class SelectStatementBehavior<
 
 		if (orderByClause != null) builder.setOrderByClause(orderByClause);
 
-		builder.addDecorator(decorators.decorators());
+		builder.addDecorator(decorators);
 
 		joinResources.forEach(r -> r.rightRoot.joinTo(builder, r.joinType, r.onCriteria));
 
@@ -949,8 +1127,7 @@ public abstract class SelectStatementBehavior<
 		return factory;
 	}
 
-	private Criteria createFetchCriteria(TablePath tablePath) {
-		var factory = factory();
+	private static Criteria createFetchCriteria(CriteriaFactory factory, TablePath tablePath) {
 		var criteria = factory.create();
 
 		for (var column : RelationshipFactory.getInstance().getInstance(tablePath).getPrimaryKeyColumns()) {
@@ -959,4 +1136,39 @@ public abstract class SelectStatementBehavior<
 
 		return criteria;
 	}
+
+	/**
+	 * 初めて使用される時点で生成され、以降は保持される SQL 文です。
+	 */
+	private static class LazySQL {
+
+		private Supplier<String> supplier;
+
+		private volatile String sql;
+
+		private LazySQL(Supplier<String> supplier) {
+			this.supplier = supplier;
+		}
+
+		private static LazySQL of(String sql) {
+			var lazy = new LazySQL(null);
+			lazy.sql = sql;
+			return lazy;
+		}
+
+		private String get() {
+			var current = sql;
+			if (current != null) return current;
+
+			synchronized (this) {
+				if (sql == null) {
+					sql = supplier.get();
+					//生成後は句の複製を保持し続ける必要はない
+					supplier = null;
+				}
+
+				return sql;
+			}
+		}
+	}
 }
@@ -0,0 +1,272 @@
+package org.blendee.assist;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import org.blendee.internal.U;
+import org.blendee.jdbc.BlendeeManager;
+import org.blendee.jdbc.ContextManager;
+import org.blendee.orm.ColumnNameDataObjectBuilder;
+import org.blendee.orm.DataObject;
+import org.blendee.orm.DataObjectIterator;
+import org.blendee.orm.PrimaryKey;
+import org.blendee.sql.Bindable;
+import org.blendee.sql.Column;
+import org.blendee.sql.Criteria;
+import org.blendee.sql.CriteriaFactory;
+import org.blendee.sql.FromClause;
+import org.blendee.sql.Relationship;
+import org.blendee.sql.RelationshipFactory;
+import org.blendee.sql.RuntimeId;
+import org.blendee.sql.RuntimeIdFactory;
+import org.blendee.sql.SQLQueryBuilder;
+import org.blendee.sql.SelectClause;
+import org.blendee.sql.ValueExtractors;
+import org.blendee.sql.ValueExtractorsConfigure;
+
+/**
+ * 一対多検索を、各テーブルの主キーのみの検索と、テーブルごとの主キーによる IN 検索に分割して行う {@link DataObjectManager.Rows} です。<br>
+ * 主キーのみの検索結果を chunkSize 行ずつ読み込み、その中に現れた各テーブルの行を IN 句で一度ずつ取得し、元の並び順で組み立てます。<br>
+ * 参照される側のテーブルの値が、参照する側の行の数だけ重複して転送されることがなくなります。<br>
+ * 生成される {@link DataObject} は各テーブル自身のカラムのみを保持するので、外部キーによる参照先の取得はできません。
+ * @author 千葉 哲嗣
+ */
+class SeparateRows implements DataObjectManager.Rows {
+
+	private final DataObjectIterator keys;
+
+	private final int chunkSize;
+
+	private final ValueExtractors extractors = ContextManager.get(ValueExtractorsConfigure.class).getValueExtractors();
+
+	private final RuntimeId id = RuntimeIdFactory.stubInstance();
+
+	private final Relationship[] relationships;
+
+	private final String[] foreignKeyNames;
+
+	private final Level[] levels;
+
+	private final List<PrimaryKey[]> window = new ArrayList<>();
+
+	private int position = 0;
+
+	/**
+	 * @param keys route 上の全テーブルの主キーを SELECT した検索結果を返す {@link Supplier}<br>
+	 * 引数の検査の後に呼び出されるので、例外となる場合には検索は行われません
+	 * @param route 一対多検索の route
+	 * @param selectedColumns 元の検索で SELECT されたカラム
+	 * @param chunkSize IN 句一つに含める値の最大数
+	 * @throws IllegalStateException route 上にないテーブルのカラムが SELECT されている場合
+	 */
+	SeparateRows(
+		Supplier<DataObjectIterator> keys,
+		List<OneToManyBehavior> route,
+		Column[] selectedColumns,
+		int chunkSize) {
+		if (chunkSize <= 0)
+			//chunkSize は 1 以上である必要があります
+			throw new IllegalArgumentException("chunkSize must be greater than 0");
+
+		this.chunkSize = chunkSize;
+
+		var size = route.size();
+		relationships = new Relationship[size];
+		foreignKeyNames = new String[size];
+		levels = new Level[size];
+
+		var i = 0;
+		for (var behavior : route) {
+			var relationship = behavior.getRelationship();
+			relationships[i] = relationship;
+			if (i > 0) foreignKeyNames[i] = relationship.getCrossReference().getForeignKeyName();
+			levels[i] = new Level(relationship, selectedColumns);
+			i++;
+		}
+
+		for (var column : selectedColumns) {
+			var relationship = column.getRelationship();
+			if (!Arrays.asList(relationships).contains(relationship))
+				//route 上にないテーブルのカラムは分割した検索では取得できません
+				throw new IllegalStateException(column + " is not a column of the route tables; use retrieve() instead.");
+		}
+
+		this.keys = keys.get();
+	}
+
+	@Override
+	public boolean next(DataObject[] current) {
+		while (true) {
+			if (position == window.size() && !fillWindow()) return false;
+
+			var rowKeys = window.get(position++);
+
+			var found = true;
+			for (var i = 0; i < current.length; i++) {
+				var object = levels[i].loaded.get(rowKeys[i]);
+				//主キーのみの検索の後に削除された行は読み飛ばす
+				if (object == null) {
+					found = false;
+					break;
+				}
+
+				current[i] = object;
+			}
+
+			if (found) return true;
+		}
+	}
+
+	@Override
+	public void close() {
+		keys.close();
+	}
+
+	@Override
+	public String toString() {
+		return U.toString(this);
+	}
+
+	/**
+	 * いずれかのテーブルの主キーが chunkSize 種類に達するまで、主キーのみの検索結果を読み込み、それらの行を取得します。
+	 * @return 読み込む行が存在しない場合、 false
+	 */
+	private boolean fillWindow() {
+		window.clear();
+		position = 0;
+
+		for (var level : levels) {
+			level.pending.clear();
+			level.loaded.clear();
+		}
+
+		while (keys.hasNext()) {
+			var source = keys.next();
+
+			var rowKeys = new PrimaryKey[levels.length];
+			var full = false;
+			for (var i = 0; i < levels.length; i++) {
+				if (i > 0) source = source.getDataObject(foreignKeyNames[i]);
+
+				var key = source.getPrimaryKey();
+				rowKeys[i] = key;
+
+				var pending = levels[i].pending;
+				pending.add(key);
+				if (pending.size() >= chunkSize) full = true;
+			}
+
+			window.add(rowKeys);
+
+			if (full) break;
+		}
+
+		if (window.size() == 0) return false;
+
+		for (var level : levels) {
+			level.load();
+		}
+
+		return true;
+	}
+
+	/**
+	 * route 上の一テーブル分の情報です。
+	 */
+	private class Level {
+
+		private final Relationship relationship;
+
+		private final Relationship tableRoot;
+
+		private final SelectClause select;
+
+		private final Column[] primaryKeyColumns;
+
+		private final Set<PrimaryKey> pending = new LinkedHashSet<>();
+
+		private final Map<PrimaryKey, DataObject> loaded = new HashMap<>();
+
+		private Level(Relationship relationship, Column[] selectedColumns) {
+			this.relationship = relationship;
+
+			//検索結果のカラム名から値を取り出すので、テーブル単体の Relationship を使用する
+			tableRoot = RelationshipFactory.getInstance().getInstance(relationship.getTablePath());
+			primaryKeyColumns = tableRoot.getPrimaryKeyColumns();
+
+			var columns = new LinkedHashSet<Column>();
+			for (var column : selectedColumns) {
+				if (relationship.equals(column.getRelationship()))
+					columns.add(tableRoot.getColumn(column.getName()));
+			}
+
+			for (var column : primaryKeyColumns) {
+				columns.add(column);
+			}
+
+			select = new SelectClause(id);
+			columns.forEach(c -> select.add("{0}", c));
+		}
+
+		private void load() {
+			var chunk = new ArrayList<PrimaryKey>(Math.min(chunkSize, pending.size()));
+			for (var key : pending) {
+				chunk.add(key);
+				if (chunk.size() == chunkSize) {
+					load(chunk);
+					chunk.clear();
+				}
+			}
+
+			if (chunk.size() > 0) load(chunk);
+		}
+
+		private void load(List<PrimaryKey> chunk) {
+			var builder = new SQLQueryBuilder(new FromClause(tableRoot.getTablePath(), id));
+			builder.setSelectClause(select);
+			builder.setWhereClause(createCriteria(chunk));
+
+			try (var statement = BlendeeManager.getConnection().getStatement(builder.sql(), builder)) {
+				try (var result = statement.executeQuery()) {
+					while (result.next()) {
+						var object = ColumnNameDataObjectBuilder.build(result, relationship, extractors);
+						loaded.put(object.getPrimaryKey(), object);
+					}
+				}
+			}
+		}
+
+		private Criteria createCriteria(List<PrimaryKey> chunk) {
+			var factory = new CriteriaFactory(id);
+
+			if (primaryKeyColumns.length == 1) {
+				var values = new Bindable[chunk.size()];
+				for (var i = 0; i < values.length; i++) {
+					values[i] = chunk.get(i).getBindables()[0];
+				}
+
+				return factory.createInCriteria(primaryKeyColumns[0], values);
+			}
+
+			//複合主キーの場合、 (pk1 = ? AND pk2 = ?) OR ... とする
+			var criteria = factory.create();
+			for (var key : chunk) {
+				var bindables = key.getBindables();
+				var one = factory.create();
+				for (var i = 0; i < primaryKeyColumns.length; i++) {
+					one.and(factory.create(primaryKeyColumns[i], bindables[i]));
+				}
+
+				criteria.or(one);
+			}
+
+			return criteria;
+		}
+	}
+}
@@ -89,11 +89,13 @@ class ToStringLoggingConnection extends ConnectionBase implements StatementWrapp
 		public int executeUpdate() {
 			logger.setSql(sql());
 			logger.flush();
-			long start = System.nanoTime();
+			var start = System.nanoTime();
+			var rows = -1;
 			try {
-				return super.executeUpdate();
+				rows = super.executeUpdate();
+				return rows;
 			} finally {
-				logger.logElapsed(start);
+				logger.logElapsed(start, rows);
 			}
 		}
 
@@ -145,10 +147,12 @@ class ToStringLoggingConnection extends ConnectionBase implements StatementWrapp
 		@Override
 		public int[] execute() {
 			var start = System.nanoTime();
+			int[] results = null;
 			try {
-				return super.execute();
+				results = super.execute();
+				return results;
 			} finally {
-				logger.logElapsed(start);
+				logger.logElapsed(start, results);
 			}
 		}
 
@@ -1,12 +1,19 @@
 package org.blendee.dialect.postgresql;
 
+import java.util.Arrays;
+
+import org.blendee.assist.Keyset;
+import org.blendee.assist.SelectStatementBehavior;
 import org.blendee.sql.SQLDecorator;
 
 /**
  * 検索結果をページ単位で取得するように SQL を加工する {@link SQLDecorator} です。<br>
+ * OFFSET で指定された行を読み飛ばすので、深いページほど検索の負荷が大きくなり、 SQL 文もページごとに異なります。<br>
+ * 無限スクロールのように順にページをたどる場合は、先頭のページを表すこのクラスのインスタンスを {@link SelectStatementBehavior#seek(Keyset, SQLDecorator)} に渡してください。<br>
+ * その場合、開始位置の条件は行値式 (a, b) &gt; (?, ?) で生成されます。
  * @author 千葉 哲嗣
  */
-public class Pager extends LimitClause {
+public class Pager extends LimitClause implements Keyset.RowValueComparison {
 
 	/**
 	 * インスタンスを生成します。
@@ -17,6 +24,13 @@ public class Pager extends LimitClause {
 		super(offset(currentPage, rowsParPage), rowsParPage);
 	}
 
+	@Override
+	public String compareRowValues(String[] columns, String operator) {
+		var placeholders = new String[columns.length];
+		Arrays.fill(placeholders, "?");
+		return "(" + String.join(", ", columns) + ") " + operator + " (" + String.join(", ", placeholders) + ")";
+	}
+
 	private static final int offset(int currentPage, int rowsParPage) {
 		return ((currentPage < 1 ? 1 : currentPage) - 1) * rowsParPage;
 	}
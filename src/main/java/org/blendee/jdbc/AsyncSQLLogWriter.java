@@ -0,0 +1,200 @@
+package org.blendee.jdbc;
+
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import org.blendee.internal.U;
+
+/**
+ * {@link SQLLogEvent} を上限付きのキューに溜め、専用のスレッドから別の {@link SQLLogSink} に出力する {@link SQLLogSink} です。<br>
+ * キューは生成時に確保した配列を使用するリングバッファで、複数の SQL 文を実行するスレッドが追加し、出力スレッドのみが取り出します。<br>
+ * 各要素は追加ごとに進む通し番号を持ち、追加するスレッドは書き込む位置を CAS で確保するのみで、ロックの取得も、ノードの生成も行わず、出力処理を待ちません。<br>
+ * キューが上限に達している場合、ログは破棄され、破棄した件数が数えられます。
+ * @author 千葉 哲嗣
+ */
+public class AsyncSQLLogWriter implements SQLLogSink, AutoCloseable {
+
+	private static final AtomicInteger threadCounter = new AtomicInteger();
+
+	private final SQLLogSink base;
+
+	private final int capacity;
+
+	private final SQLLogEvent[] buffer;
+
+	/**
+	 * 各位置の通し番号<br>
+	 * 通し番号が追加する位置と等しければ追加でき、追加する位置 + 1 であれば取り出せる
+	 */
+	private final AtomicLongArray sequences;
+
+	/**
+	 * 次に追加する位置
+	 */
+	private final AtomicLong tail = new AtomicLong();
+
+	/**
+	 * 次に取り出す位置<br>
+	 * 出力スレッドのみが更新する
+	 */
+	private volatile long head;
+
+	private final LongAdder droppedCount = new LongAdder();
+
+	private final Thread thread;
+
+	private volatile boolean closed;
+
+	/**
+	 * 出力スレッドが待機しようとしている場合、 true
+	 */
+	private volatile boolean waiting;
+
+	/**
+	 * @param base 実際の出力先
+	 * @param capacity キューに溜めることができるログの最大数
+	 */
+	public AsyncSQLLogWriter(SQLLogSink base, int capacity) {
+		//capacity は 1 以上である必要があります
+		if (capacity <= 0) throw new IllegalArgumentException("capacity must be greater than 0");
+
+		this.base = Objects.requireNonNull(base);
+		this.capacity = capacity;
+
+		buffer = new SQLLogEvent[capacity];
+		sequences = new AtomicLongArray(capacity);
+		for (var i = 0; i < capacity; i++) {
+			sequences.set(i, i);
+		}
+
+		thread = new Thread(this::drain, AsyncSQLLogWriter.class.getName() + "-" + threadCounter.getAndIncrement());
+		//デーモンスレッドとし、他スレッドが終了するとこのスレッドも終了する
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+	@Override
+	public void accept(SQLLogEvent event) {
+		if (closed) {
+			droppedCount.increment();
+			return;
+		}
+
+		if (!offer(event)) {
+			droppedCount.increment();
+			return;
+		}
+
+		//待機中の出力スレッドのみ起こす
+		if (waiting) LockSupport.unpark(thread);
+	}
+
+	/**
+	 * @return キューが上限に達していたため破棄したログの数
+	 */
+	public long getDroppedCount() {
+		return droppedCount.sum();
+	}
+
+	/**
+	 * @return 出力を待っているログの数
+	 */
+	public int getPendingCount() {
+		//取り出しが先に読まれた場合でも負にならないよう、取り出しを先に読む
+		var consumed = head;
+		return (int) Math.max(0, tail.get() - consumed);
+	}
+
+	/**
+	 * 溜まっているログを出力し終えるまで待ち、出力スレッドを終了します。
+	 */
+	@Override
+	public void close() {
+		closed = true;
+		LockSupport.unpark(thread);
+
+		try {
+			thread.join(TimeUnit.SECONDS.toMillis(10));
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	@Override
+	public String toString() {
+		return U.toString(this);
+	}
+
+	private boolean offer(SQLLogEvent event) {
+		var position = tail.get();
+		while (true) {
+			var index = (int) (position % capacity);
+			var difference = sequences.get(index) - position;
+
+			if (difference == 0) {
+				//この位置を確保できたスレッドのみが書き込む
+				if (tail.compareAndSet(position, position + 1)) {
+					buffer[index] = event;
+					//通し番号の更新で、書き込んだ内容を出力スレッドに公開する
+					sequences.set(index, position + 1);
+					return true;
+				}
+
+				position = tail.get();
+			} else if (difference < 0) {
+				//一周前のログがまだ取り出されていない
+				return false;
+			} else {
+				//他のスレッドが先にこの位置を確保した
+				position = tail.get();
+			}
+		}
+	}
+
+	private SQLLogEvent poll() {
+		var position = head;
+		var index = (int) (position % capacity);
+		if (sequences.get(index) != position + 1) return null;
+
+		var event = buffer[index];
+		buffer[index] = null;
+
+		//一周後の追加のために位置を空ける
+		sequences.set(index, position + capacity);
+		head = position + 1;
+
+		return event;
+	}
+
+	private boolean isEmpty() {
+		var position = head;
+		return sequences.get((int) (position % capacity)) != position + 1;
+	}
+
+	private void drain() {
+		while (true) {
+			var event = poll();
+			if (event == null) {
+				if (closed) return;
+
+				//待機することを公開してからキューを再確認し、その間に追加されたログを取りこぼさない
+				waiting = true;
+				if (isEmpty() && !closed) LockSupport.park(this);
+				waiting = false;
+
+				continue;
+			}
+
+			try {
+				base.accept(event);
+			} catch (RuntimeException e) {
+				//出力の失敗で出力スレッドを終了させない
+			}
+		}
+	}
+}
@@ -1,47 +1,42 @@
 package org.blendee.jdbc;
 
-import java.lang.ref.PhantomReference;
-import java.lang.ref.Reference;
-import java.lang.ref.ReferenceQueue;
+import java.lang.ref.Cleaner;
+import java.sql.Connection;
 import java.sql.ResultSet;
-import java.util.HashMap;
-import java.util.Map;
-import java.util.concurrent.TimeUnit;
+import java.sql.Statement;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
- * finalize() の代わりに、参照されなくなった JDBC のインスタンスを自動的にクローズするクラスです。
+ * finalize() の代わりに、参照されなくなった JDBC のインスタンスを自動的にクローズするクラスです。<br>
+ * 参照されなくなったことの検出には {@link Cleaner} を使用し、登録時に全体で共有するロックを取得しません。<br>
+ * クローズされないまま参照されなくなったリソースの数を数えているので、リソースのクローズ漏れの検出に使用できます。
  * @author 千葉 哲嗣
  */
-//Java9でjava.lang.ref.Cleaner使用に書き換えること
 public class AutoCloseableFinalizer {
 
 	private static final AtomicInteger threadCounter = new AtomicInteger();
 
-	private final Object lock = new Object();
+	private final Set<Resource> resources = ConcurrentHashMap.newKeySet();
+
+	private final LongAdder registeredCount = new LongAdder();
 
-	private final Map<Reference<Object>, AutoCloseable> map = new HashMap<>();
+	private final LongAdder reapedCount = new LongAdder();
 
-	private final ReferenceQueue<Object> reaped = new ReferenceQueue<Object>();
+	private final LongAdder leakedCount = new LongAdder();
 
-	private final Runnable runnable;
+	private final Object lock = new Object();
 
-	private Thread thread;
+	private volatile Cleaner cleaner;
 
 	/**
-	 * コンストラクタです。
+	 * コンストラクタです。<br>
+	 * {@link Cleaner} は参照されなくなったことを即座に検出するので、チェック間隔は使用されません。
 	 * @param intervalmilliSeconds 参照されなくなったかをチェックする間隔（ミリ秒）
 	 */
 	public AutoCloseableFinalizer(int intervalmilliSeconds) {
-		runnable = () -> {
-			while (!execute()) {
-				try {
-					TimeUnit.MILLISECONDS.sleep(intervalmilliSeconds);
-				} catch (InterruptedException e) {
-					break;
-				}
-			}
-		};
 	}
 
 	/**
@@ -51,10 +46,15 @@ public class AutoCloseableFinalizer {
 	 * @param closeable JDBC リソース
 	 */
 	public void register(Object closeableEnclosure, AutoCloseable closeable) {
-		synchronized (lock) {
-			map.put(new PhantomReference<>(closeableEnclosure, reaped), closeable);
-			lock.notify();
-		}
+		var current = cleaner;
+		//停止中は登録しない
+		if (current == null) return;
+
+		var resource = new Resource(closeable);
+		resources.add(resource);
+		registeredCount.increment();
+
+		current.register(closeableEnclosure, resource);
 	}
 
 	/**
@@ -62,9 +62,7 @@ public class AutoCloseableFinalizer {
 	 * @return チェックスレッドが開始しているか
 	 */
 	public boolean started() {
-		synchronized (lock) {
-			return thread != null && thread.isAlive();
-		}
+		return cleaner != null;
 	}
 
 	/**
@@ -75,27 +73,24 @@ public class AutoCloseableFinalizer {
 		synchronized (lock) {
 			if (started()) return;
 
-			thread = new Thread(runnable, AutoCloseableFinalizer.class.getName() + "-" + threadCounter.getAndIncrement());
-			//デーモンスレッドとし、他スレッドが終了するとこのスレッドも終了する
-			thread.setDaemon(true);
-			thread.start();
+			cleaner = Cleaner.create(r -> {
+				var thread = new Thread(r, AutoCloseableFinalizer.class.getName() + "-" + threadCounter.getAndIncrement());
+				//デーモンスレッドとし、他スレッドが終了するとこのスレッドも終了する
+				thread.setDaemon(true);
+				return thread;
+			});
 		}
 	}
 
 	/**
 	 * チェックスレッドを停止します。<br>
-	 * 停止時に、できる限りクローズ可能なリソースをクローズしますが、必ずすべてクローズされるわけではありません。<br>
+	 * 以降に登録されるリソースは自動クローズの対象となりません。<br>
+	 * 既に登録されているリソースは参照されなくなった時点でクローズされますが、必ずすべてクローズされるわけではありません。<br>
 	 * すべてクローズしたい場合は、 {@link #closeAll()} を使用してください。
 	 */
 	public void stop() {
 		synchronized (lock) {
-			if (thread == null) return;
-
-			thread.interrupt();
-			thread = null;
-
-			System.gc();
-			lock.notify();
+			cleaner = null;
 		}
 	}
 
@@ -103,39 +98,81 @@ public class AutoCloseableFinalizer {
 	 * このインスタンスに登録されているクローズ対象をすべてクローズします。
 	 */
 	public void closeAll() {
-		synchronized (lock) {
-			map.values().forEach(c -> close(c));
-			map.clear();
+		for (var resource : resources) {
+			resource.close(false);
 		}
 	}
 
-	//チェックスレッド用メソッド
-	private boolean execute() {
-		Reference<?> ref;
-		while ((ref = reaped.poll()) != null) {
-			ref.clear();
-
-			//一件ずつsyncするのは無駄だが、極力メインスレッド（register側）を止めないためにこうする
-			synchronized (lock) {
-				close(map.remove(ref));
-				try {
-					//監視対象がなくなったら、追加されるまでwait
-					if (map.size() == 0) lock.wait();
-				} catch (InterruptedException e) {
-					return true;
-				}
-			}
-		}
+	/**
+	 * @return これまでに自動クローズ対象として登録されたリソースの数
+	 */
+	public long getRegisteredCount() {
+		return registeredCount.sum();
+	}
+
+	/**
+	 * @return 参照されなくなったことを検出したリソースの数
+	 */
+	public long getReapedCount() {
+		return reapedCount.sum();
+	}
+
+	/**
+	 * @return クローズされないまま参照されなくなり、このインスタンスによってクローズされたリソースの数
+	 */
+	public long getLeakedCount() {
+		return leakedCount.sum();
+	}
 
-		return Thread.interrupted();
+	/**
+	 * @return 現在自動クローズ対象として保持しているリソースの数
+	 */
+	public int getActiveCount() {
+		return resources.size();
 	}
 
-	private static void close(AutoCloseable closeable) {
+	private static boolean isClosed(AutoCloseable closeable) {
 		try {
-			if (closeable != null)
-				closeable.close();
+			if (closeable instanceof ResultSet) return ((ResultSet) closeable).isClosed();
+			if (closeable instanceof Statement) return ((Statement) closeable).isClosed();
+			if (closeable instanceof Connection) return ((Connection) closeable).isClosed();
 		} catch (Exception e) {
-			//多重クローズで例外が出るかもしれないのでここでは無視
+			//状態を取得できない場合、クローズされていないものとする
+		}
+
+		return false;
+	}
+
+	/**
+	 * {@link Cleaner} から実行される処理です。<br>
+	 * ラッパーインスタンスを参照してしまうと回収されなくなるので、 JDBC リソースのみを保持します。
+	 */
+	private class Resource implements Runnable {
+
+		private final AutoCloseable closeable;
+
+		private Resource(AutoCloseable closeable) {
+			this.closeable = closeable;
+		}
+
+		@Override
+		public void run() {
+			close(true);
+		}
+
+		private void close(boolean reaped) {
+			if (!resources.remove(this)) return;
+
+			if (reaped) {
+				reapedCount.increment();
+				if (!isClosed(closeable)) leakedCount.increment();
+			}
+
+			try {
+				closeable.close();
+			} catch (Exception e) {
+				//多重クローズで例外が出るかもしれないのでここでは無視
+			}
 		}
 	}
 }
@@ -123,6 +123,17 @@ public interface BPreparedStatement extends BStatement {
 	 */
 	void setNull(int parameterIndex, int type);
 
+	/**
+	 * この文のプレースホルダに {@link java.sql.Array} 値をセットします。<br>
+	 * 配列は {@link java.sql.Connection#createArrayOf(String, Object[])} で生成され、実装が解放を管理しない場合は呼び出し側の責任となります。
+	 * @param parameterIndex プレースホルダの位置
+	 * @param typeName 配列の要素のデータベース上の型名
+	 * @param elements 配列の要素
+	 */
+	default void setArray(int parameterIndex, String typeName, Object[] elements) {
+		lendPreparedStatement(s -> s.setArray(parameterIndex, s.getConnection().createArrayOf(typeName, elements)));
+	}
+
 	/**
 	 * このクラスのインスタンスが内部に {@link PreparedStatement} を持つ場合、それを貸します。
 	 * @param borrower 借り手
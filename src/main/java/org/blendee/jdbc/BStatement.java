@@ -77,6 +77,14 @@ public interface BStatement extends AutoCloseable {
 	@Override
 	void close();
 
+	/**
+	 * 検索時に一度にデータベースから取得する行数を設定します。
+	 * @param rows 一度に取得する行数、 0 の場合 JDBC ドライバのデフォルト値
+	 */
+	default void setFetchSize(int rows) {
+		lendStatement(statement -> statement.setFetchSize(rows));
+	}
+
 	/**
 	 * このクラスのインスタンスが内部に {@link Statement} を持つ場合、それを貸します。
 	 * @param borrower 借り手
@@ -43,6 +43,38 @@ public interface Batch extends AutoCloseable {
 	 */
 	void setThreshold(int threshold);
 
+	/**
+	 * 同一の SQL 文を溜める閾値を設定します。<br>
+	 * いずれかの SQL 文がここで設定された閾値を超えて追加されると、内部で溜められた SQL 文がすべて実行されます。
+	 * @param threshold 同一の SQL 文の閾値
+	 * @throws UnsupportedOperationException 実装がサポートしていない場合
+	 */
+	default void setThresholdPerStatement(int threshold) {
+		throw new UnsupportedOperationException();
+	}
+
+	/**
+	 * 溜められた SQL 文にセットされた値の、推定されるバイト数の閾値を設定します。<br>
+	 * ここで設定された閾値を超える値がセットされると、内部で溜められた SQL 文がすべて実行されます。
+	 * @param bytes バイト数の閾値
+	 * @throws UnsupportedOperationException 実装がサポートしていない場合
+	 */
+	default void setByteThreshold(long bytes) {
+		throw new UnsupportedOperationException();
+	}
+
+	/**
+	 * 実行結果件数を受け取る {@link BatchResultSink} を設定します。<br>
+	 * 設定した場合、実行結果件数は内部で保持されず、 {@link #execute()} は空の配列を返します。<br>
+	 * SQL 文を追加する前に設定する必要があります。
+	 * @param sink 実行結果件数を受け取る {@link BatchResultSink} null の場合、 {@link #execute()} の戻り値に戻す
+	 * @throws IllegalStateException 既に SQL 文が追加されている場合
+	 * @throws UnsupportedOperationException 実装がサポートしていない場合
+	 */
+	default void setResultSink(BatchResultSink sink) {
+		throw new UnsupportedOperationException();
+	}
+
 	/**
 	 * このステートメントを閉じます。
 	 */
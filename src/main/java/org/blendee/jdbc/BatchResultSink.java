@@ -0,0 +1,18 @@
+package org.blendee.jdbc;
+
+/**
+ * {@link Batch} の実行結果件数を、バッチが実行されるたびに受け取るインターフェイスです。<br>
+ * これを設定した {@link Batch} は実行結果を保持しないので、使用するメモリ量は溜める SQL 文の件数の閾値によって決まります。
+ * @author 千葉 哲嗣
+ * @see Batch#setResultSink(BatchResultSink)
+ */
+@FunctionalInterface
+public interface BatchResultSink {
+
+	/**
+	 * 実行結果件数を受け取ります。
+	 * @param offset results[0] に対応する SQL 文の、前回の {@link Batch#execute()} 以降に追加された順番 (0 始まり)
+	 * @param results 追加された順に並んだ実行結果件数の配列
+	 */
+	void accept(int offset, int[] results);
+}
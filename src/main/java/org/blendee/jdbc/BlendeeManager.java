@@ -13,11 +13,13 @@ public class BlendeeManager implements ManagementSubject {
 
 	private final Object lock = new Object();
 
-	private Configure config;
+	private volatile Configure config;
 
-	private Metadata metadata;
+	private volatile Metadata metadata;
 
-	private AutoCloseableFinalizer autoCloseableFinalizer;
+	private volatile AutoCloseableFinalizer autoCloseableFinalizer;
+
+	private volatile StatementMetrics statementMetrics;
 
 	/**
 	 * 新しい {@link Initializer} を使用して Blendee の設定を初期化します
@@ -30,6 +32,9 @@ public class BlendeeManager implements ManagementSubject {
 
 			config = initializer.createConfigure();
 
+			//トランザクションの開始のたびに検索しないよう、保持しておく
+			statementMetrics = ContextManager.get(StatementMetrics.class);
+
 			var interval = config.getAutoCloseIntervalMillis();
 
 			//intervalが0以下の場合、スレッドを起動しない
@@ -46,9 +51,7 @@ public class BlendeeManager implements ManagementSubject {
 	 * @return 既に初期化済かどうか
 	 */
 	public boolean initialized() {
-		synchronized (lock) {
-			return config != null;
-		}
+		return config != null;
 	}
 
 	/**
@@ -57,11 +60,10 @@ public class BlendeeManager implements ManagementSubject {
 	 * @throws IllegalStateException まだ {@link BlendeeManager#initialize(Initializer)} が行われていない場合
 	 */
 	public Configure getConfigure() {
-		synchronized (lock) {
-			//設定が完了していません
-			if (config == null) throw new IllegalStateException(BlendeeManager.class.getSimpleName() + ": not initialized");
-			return config;
-		}
+		var config = this.config;
+		//設定が完了していません
+		if (config == null) throw new IllegalStateException(BlendeeManager.class.getSimpleName() + ": not initialized");
+		return config;
 	}
 
 	/**
@@ -69,9 +71,11 @@ public class BlendeeManager implements ManagementSubject {
 	 * @return {@link AutoCloseableFinalizer}
 	 */
 	public AutoCloseableFinalizer getAutoCloseableFinalizer() {
-		synchronized (lock) {
-			return autoCloseableFinalizer;
-		}
+		return autoCloseableFinalizer;
+	}
+
+	StatementMetrics getStatementMetrics() {
+		return statementMetrics;
 	}
 
 	/**
@@ -98,14 +102,15 @@ public class BlendeeManager implements ManagementSubject {
 		config.check();
 
 		var factory = config.getTransactionFactoryWithoutCheck();
+		var metrics = statementMetrics;
 		Transaction transaction;
 		if (config.usesLazyTransaction()) {
-			transaction = new LazyTransaction(factory);
+			transaction = new LazyTransaction(factory, metrics);
 		} else {
-			transaction = Objects.requireNonNull(factory.createTransaction());
+			transaction = Objects.requireNonNull(Transaction.create(factory, metrics));
 		}
 
-		transaction.prepareConnection();
+		transaction.prepareConnection(metrics);
 
 		transactionThreadLocal.set(transaction);
 
@@ -129,6 +134,9 @@ public class BlendeeManager implements ManagementSubject {
 	 * @return {@link Metadata}
 	 */
 	public Metadata getMetadata() {
+		var current = metadata;
+		if (current != null) return current;
+
 		synchronized (lock) {
 			if (metadata == null) {
 				//不明な実装が返すオブジェクトなのでチェック
@@ -211,9 +219,7 @@ public class BlendeeManager implements ManagementSubject {
 	}
 
 	boolean isCurrent(Configure config) {
-		synchronized (lock) {
-			return this.config == config;
-		}
+		return this.config == config;
 	}
 
 	void removeThreadLocal() {
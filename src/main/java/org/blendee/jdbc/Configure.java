@@ -41,6 +41,10 @@ public final class Configure {
 
 	private final int maxStatementsPerConnection;
 
+	private final int statementCacheSize;
+
+	private final int fetchSize;
+
 	private final Map<OptionKey<?>, ?> options;
 
 	private MetadataFactory metadataFactory;
@@ -71,6 +75,8 @@ public final class Configure {
 		int autoCloseIntervalMillis,
 		Pattern logStackTracePattern,
 		int maxStatementsPerConnection,
+		int statementCacheSize,
+		int fetchSize,
 		Map<OptionKey<?>, ?> options) {
 		this.transactionFactoryClass = transactionFactoryClass;
 		this.errorConverterClass = errorConverterClass;
@@ -85,6 +91,8 @@ public final class Configure {
 		this.autoCloseIntervalMillis = autoCloseIntervalMillis;
 		this.logStackTracePattern = logStackTracePattern;
 		this.maxStatementsPerConnection = maxStatementsPerConnection;
+		this.statementCacheSize = statementCacheSize;
+		this.fetchSize = fetchSize;
 		this.options = Collections.unmodifiableMap(options);
 	}
 
@@ -234,6 +242,25 @@ public final class Configure {
 		return maxStatementsPerConnection;
 	}
 
+	/**
+	 * 一つの接続で、 SQL 文ごとに再利用のため保持しておくステートメントの最大数を返します。<br>
+	 * {@link #getMaxStatementsPerConnection()} を超えることはありません。
+	 * @return 一接続あたりの保持するステートメント数、再利用しない場合 0
+	 */
+	public int getStatementCacheSize() {
+		check();
+		return Math.min(statementCacheSize, maxStatementsPerConnection);
+	}
+
+	/**
+	 * 検索時に一度にデータベースから取得する行数を返します。
+	 * @return 一度に取得する行数、 JDBC ドライバのデフォルト値を使用する場合 0
+	 */
+	public int getFetchSize() {
+		check();
+		return fetchSize;
+	}
+
 	/**
 	 * この設定が現在の Blendee の設定かどうか検査します。
 	 * @return 現在の Blendee の設定かどうか
@@ -17,7 +17,7 @@ public class ContextManager {
 
 	private static final Object lock = new Object();
 
-	private static ContextStrategy strategy;
+	private static volatile ContextStrategy strategy;
 
 	private static final ThreadLocal<String> contextNameThreadLocal = new ThreadLocal<>();
 
@@ -55,11 +55,15 @@ public class ContextManager {
 	 * @return 管理されているインスタンス
 	 */
 	public static <T extends ManagementSubject> T get(Class<T> clazz) {
-		synchronized (lock) {
-			if (strategy == null) strategy = new SimpleContextStrategy();
-
-			return strategy.getManagedInstance(getCurrentContextName(), clazz);
+		var current = strategy;
+		if (current == null) {
+			synchronized (lock) {
+				if (strategy == null) strategy = new SimpleContextStrategy();
+				current = strategy;
+			}
 		}
+
+		return current.getManagedInstance(getCurrentContextName(), clazz);
 	}
 
 	/**
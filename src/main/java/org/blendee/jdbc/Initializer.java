@@ -42,6 +42,10 @@ public final class Initializer {
 
 	private int maxStatementsPerConnection = Integer.MAX_VALUE;
 
+	private int statementCacheSize = 0;
+
+	private int fetchSize = 0;
+
 	private Map<OptionKey<?>, ?> options;
 
 	private boolean freeze = false;
@@ -197,6 +201,36 @@ public final class Initializer {
 		maxStatementsPerConnection = max;
 	}
 
+	/**
+	 * 一つの接続で、 SQL 文ごとに再利用のため保持しておく {@link java.sql.PreparedStatement} の最大数を設定します。<br>
+	 * 0 の場合、再利用は行われません。<br>
+	 * 実際に保持される数は、 {@link #setMaxStatementsPerConnection(int)} で設定した値を超えることはありません。<br>
+	 * ステートメントは JDBC 接続が閉じられるまで保持されるので、接続をプールする {@link TransactionFactory} を使用する場合はトランザクションをまたいで再利用されます。
+	 * @param size 一接続あたりの保持するステートメント数
+	 * @throws IllegalStateException 既に {@link BlendeeManager#initialize(Initializer)} を実行している場合
+	 */
+	public synchronized void setStatementCacheSize(int size) {
+		if (freeze) throw new IllegalStateException();
+		//負の値は設定できません
+		if (size < 0) throw new IllegalArgumentException("size < 0");
+		statementCacheSize = size;
+	}
+
+	/**
+	 * 検索時に一度にデータベースから取得する行数を設定します。<br>
+	 * 0 の場合、 JDBC ドライバのデフォルト値が使用されます。<br>
+	 * PostgreSQL 等、自動コミットが有効な場合は fetch size に関係なく全件を読み込む JDBC ドライバがあるので、
+	 * 大量の検索結果を少しずつ読み込みたい場合は、自動コミットを使用せず、トランザクション内で検索してください。
+	 * @param rows 一度に取得する行数
+	 * @throws IllegalStateException 既に {@link BlendeeManager#initialize(Initializer)} を実行している場合
+	 */
+	public synchronized void setFetchSize(int rows) {
+		if (freeze) throw new IllegalStateException();
+		//負の値は設定できません
+		if (rows < 0) throw new IllegalArgumentException("rows < 0");
+		fetchSize = rows;
+	}
+
 	/**
 	 * Blendee 内のクラスが使用するオプションをセットします。
 	 * @param options オプション
@@ -228,6 +262,8 @@ public final class Initializer {
 			autoCloseIntervalMillis,
 			logStackTracePattern,
 			maxStatementsPerConnection,
+			statementCacheSize,
+			fetchSize,
 			options);
 	}
 }
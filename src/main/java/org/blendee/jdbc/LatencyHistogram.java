@@ -0,0 +1,137 @@
+package org.blendee.jdbc;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.blendee.internal.U;
+
+/**
+ * ロックを使用せずに値を記録する、ヒストグラムです。<br>
+ * 値は 2 の累乗ごとの範囲を更に 8 等分した区間で数えられるので、百分位数は最大で 12.5% 程度の誤差を持ちます。
+ * @author 千葉 哲嗣
+ */
+public class LatencyHistogram {
+
+	private static final int subBucketBits = 3;
+
+	private static final int subBuckets = 1 << subBucketBits;
+
+	private static final int bucketCount = (Long.SIZE - subBucketBits + 1) * subBuckets;
+
+	private final AtomicLongArray counts = new AtomicLongArray(bucketCount);
+
+	private final LongAdder count = new LongAdder();
+
+	private final LongAdder sum = new LongAdder();
+
+	private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+	/**
+	 * 値を記録します。<br>
+	 * 負の値は 0 として記録されます。
+	 * @param value 値
+	 */
+	public void record(long value) {
+		if (value < 0) value = 0;
+
+		counts.incrementAndGet(index(value));
+		count.increment();
+		sum.add(value);
+		max.accumulate(value);
+	}
+
+	/**
+	 * @return 記録された値の数
+	 */
+	public long getCount() {
+		return count.sum();
+	}
+
+	/**
+	 * @return 記録された値の合計
+	 */
+	public long getSum() {
+		return sum.sum();
+	}
+
+	/**
+	 * @return 記録された値の最大値
+	 */
+	public long getMax() {
+		return max.get();
+	}
+
+	/**
+	 * @return 記録された値の平均値
+	 */
+	public double getMean() {
+		var count = getCount();
+		return count == 0 ? 0 : (double) getSum() / count;
+	}
+
+	/**
+	 * 百分位数を返します。<br>
+	 * 記録中に呼び出された場合、一部の値が反映されていない場合があります。
+	 * @param percentile 0 より大きく 100 以下の百分率
+	 * @return 指定された百分率の値が含まれる区間の上限値、値が記録されていない場合 0
+	 */
+	public long getPercentile(double percentile) {
+		//percentile は 0 より大きく 100 以下である必要があります
+		if (percentile <= 0 || percentile > 100) throw new IllegalArgumentException("percentile must be in (0, 100]");
+
+		var snapshot = new long[bucketCount];
+		long total = 0;
+		for (var i = 0; i < bucketCount; i++) {
+			snapshot[i] = counts.get(i);
+			total += snapshot[i];
+		}
+
+		if (total == 0) return 0;
+
+		var target = (long) Math.ceil(total * percentile / 100);
+		long accumulated = 0;
+		for (var i = 0; i < bucketCount; i++) {
+			accumulated += snapshot[i];
+			if (accumulated >= target) return Math.min(upperBound(i), getMax());
+		}
+
+		return getMax();
+	}
+
+	/**
+	 * 記録された値をすべて破棄します。<br>
+	 * 記録中に呼び出された場合、一部の値が残る場合があります。
+	 */
+	public void reset() {
+		for (var i = 0; i < bucketCount; i++) {
+			counts.set(i, 0);
+		}
+
+		count.reset();
+		sum.reset();
+		max.reset();
+	}
+
+	@Override
+	public String toString() {
+		return U.toString(this);
+	}
+
+	private static int index(long value) {
+		if (value < subBuckets) return (int) value;
+
+		var msb = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+		var shift = msb - subBucketBits;
+		return (shift + 1) * subBuckets + (int) ((value >>> shift) & (subBuckets - 1));
+	}
+
+	private static long upperBound(int index) {
+		if (index < subBuckets) return index;
+
+		var shift = index / subBuckets - 1;
+		var sub = index % subBuckets;
+		var lower = (long) (subBuckets + sub) << shift;
+		return lower + (1L << shift) - 1;
+	}
+}
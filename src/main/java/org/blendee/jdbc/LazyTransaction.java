@@ -4,10 +4,13 @@ class LazyTransaction extends Transaction {
 
 	private final TransactionFactory factory;
 
+	private final StatementMetrics metrics;
+
 	private Transaction transaction;
 
-	LazyTransaction(TransactionFactory factory) {
+	LazyTransaction(TransactionFactory factory, StatementMetrics metrics) {
 		this.factory = factory;
+		this.metrics = metrics;
 	}
 
 	@Override
@@ -49,13 +52,13 @@ class LazyTransaction extends Transaction {
 	}
 
 	@Override
-	void prepareConnection() {
+	void prepareConnection(StatementMetrics metrics) {
 	}
 
 	private Transaction prepareTransaction() {
 		if (transaction == null) {
-			transaction = factory.createTransaction();
-			transaction.prepareConnection();
+			transaction = create(factory, metrics);
+			transaction.prepareConnection(metrics);
 		}
 
 		return transaction;
@@ -42,10 +42,12 @@ public class LoggingBatch extends BatchBase {
 	@Override
 	public int[] execute() {
 		var start = System.nanoTime();
+		int[] results = null;
 		try {
-			return super.execute();
+			results = super.execute();
+			return results;
 		} finally {
-			logger.logElapsed(start);
+			logger.logElapsed(start, results);
 		}
 	}
 
@@ -4,6 +4,7 @@ import java.io.InputStream;
 import java.io.Reader;
 import java.math.BigDecimal;
 import java.sql.Timestamp;
+import java.util.Arrays;
 import java.util.Objects;
 
 import org.blendee.jdbc.wrapperbase.PreparedStatementBase;
@@ -88,6 +89,12 @@ public class LoggingPreparedStatement extends PreparedStatementBase {
 		super.setObject(parameterIndex, x);
 	}
 
+	@Override
+	public void setArray(int parameterIndex, String typeName, Object[] elements) {
+		logger.addBindingValue("Array", parameterIndex, typeName + Arrays.toString(elements));
+		super.setArray(parameterIndex, typeName, elements);
+	}
+
 	@Override
 	public void setBinaryStream(
 		int parameterIndex,
@@ -127,10 +134,12 @@ public class LoggingPreparedStatement extends PreparedStatementBase {
 	public int executeUpdate() {
 		logger.flush();
 		var start = System.nanoTime();
+		var rows = -1;
 		try {
-			return super.executeUpdate();
+			rows = super.executeUpdate();
+			return rows;
 		} finally {
-			logger.logElapsed(start);
+			logger.logElapsed(start, rows);
 		}
 	}
 
@@ -45,10 +45,12 @@ public class LoggingStatement extends StatementBase {
 	public int executeUpdate() {
 		logger.flush();
 		var start = System.nanoTime();
+		var rows = -1;
 		try {
-			return super.executeUpdate();
+			rows = super.executeUpdate();
+			return rows;
 		} finally {
-			logger.logElapsed(start);
+			logger.logElapsed(start, rows);
 		}
 	}
 
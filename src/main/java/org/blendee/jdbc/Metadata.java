@@ -82,6 +82,14 @@ public interface Metadata {
 		TablePath exported,
 		TablePath imported);
 
+	/**
+	 * パラメータで指定されたスキーマに存在する全てのテーブルのメタデータを、可能であれば一度の走査で読み込んでおきます。<br>
+	 * 読み込んだ内容は、以降のテーブルごとの参照に使用されます。対応していない実装では何も行いません。
+	 * @param schemaName 対象となるスキーマ名
+	 */
+	default void preload(String schemaName) {
+	}
+
 	/**
 	 * パラメータで指定された名称を、データベースで使用される標準的な名前に変換する {@link StoredIdentifier} を返します。
 	 * @return {@link StoredIdentifier}
@@ -3,6 +3,7 @@ package org.blendee.jdbc;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * @author 千葉 哲嗣
@@ -23,10 +24,13 @@ public class MetadataCache implements ManagementSubject {
 
 	private final Map<List<TablePath>, CrossReference[]> crossReferencesCache = new HashMap<>();
 
+	private final AtomicLong generation = new AtomicLong();
+
 	/**
 	 * キャッシュを消去します。
 	 */
 	public void clearCache() {
+		generation.incrementAndGet();
 		clearCacheInternal(tableNamesCache);
 		clearCacheInternal(tableCache);
 		clearCacheInternal(columnMetadatasCache);
@@ -36,6 +40,15 @@ public class MetadataCache implements ManagementSubject {
 		clearCacheInternal(crossReferencesCache);
 	}
 
+	/**
+	 * {@link #clearCache()} が呼ばれるたびに変化する値を返します。<br>
+	 * このクラス以外でメタデータを保持する実装は、この値が変化した場合に保持している内容を破棄します。
+	 * @return キャッシュの世代
+	 */
+	public long generation() {
+		return generation.get();
+	}
+
 	TablePath[] getTables(Request<String, TablePath[]> request) {
 		return execute(tableNamesCache, request);
 	}
@@ -0,0 +1,30 @@
+package org.blendee.jdbc;
+
+import org.blendee.jdbc.impl.JDBCMetadata;
+
+/**
+ * {@link JDBCMetadata} がデータベースからメタデータを取得する方法に対する設定値を保持するクラスです。
+ * @author 千葉 哲嗣
+ */
+public class MetadataConfigure implements ManagementSubject {
+
+	private volatile boolean usesBulkLoading = false;
+
+	/**
+	 * メタデータをテーブルごとではなく、スキーマごとに一括で取得するかを設定します。<br>
+	 * 一括で取得したメタデータは {@link JDBCMetadata} のインスタンスが保持し、 {@link BlendeeManager#clearMetadataCache()} で破棄されます。<br>
+	 * {@link Configure#usesMetadataCache()} が false の場合、メタデータを保持しないよう、この設定は無視されます。<br>
+	 * この設定は、以降に生成される {@link JDBCMetadata} から有効になります。
+	 * @param usesBulkLoading 一括で取得する場合、 true
+	 */
+	public void setUsesBulkLoading(boolean usesBulkLoading) {
+		this.usesBulkLoading = usesBulkLoading;
+	}
+
+	/**
+	 * @return 一括で取得する場合、 true
+	 */
+	public boolean usesBulkLoading() {
+		return usesBulkLoading;
+	}
+}
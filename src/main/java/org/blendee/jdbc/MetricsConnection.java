@@ -0,0 +1,277 @@
+package org.blendee.jdbc;
+
+import java.util.Objects;
+
+import org.blendee.jdbc.wrapperbase.BatchBase;
+import org.blendee.jdbc.wrapperbase.ConnectionBase;
+import org.blendee.jdbc.wrapperbase.PreparedStatementBase;
+import org.blendee.jdbc.wrapperbase.ResultSetBase;
+import org.blendee.jdbc.wrapperbase.StatementBase;
+
+/**
+ * 生成したステートメントの実行を {@link StatementMetrics} に記録する {@link BConnection} です。<br>
+ * 集計先は、ステートメントの生成時に渡される SQL 文から決定するので、このインスタンスは状態を持ちません。
+ * @author 千葉 哲嗣
+ */
+class MetricsConnection extends ConnectionBase implements StatementWrapper {
+
+	private final StatementMetrics metrics;
+
+	private final BConnection base;
+
+	MetricsConnection(BConnection conn, StatementMetrics metrics) {
+		this.metrics = Objects.requireNonNull(metrics);
+		base = conn;
+		conn.setStatementWrapper(this);
+	}
+
+	@Override
+	protected BConnection base() {
+		return base;
+	}
+
+	/**
+	 * SQL 文が不明なので、計測しません。
+	 */
+	@Override
+	public BStatement wrap(BStatement statement) {
+		return statement;
+	}
+
+	/**
+	 * SQL 文が不明なので、計測しません。
+	 */
+	@Override
+	public BPreparedStatement wrap(BPreparedStatement statement) {
+		return statement;
+	}
+
+	@Override
+	public BStatement wrap(BStatement statement, String sql) {
+		return new MetricsStatement(statement, metrics.statistics(sql));
+	}
+
+	@Override
+	public BPreparedStatement wrap(BPreparedStatement statement, String sql) {
+		return new MetricsPreparedStatement(statement, metrics.statistics(sql));
+	}
+
+	@Override
+	public Batch wrap(Batch batch) {
+		return new MetricsBatch(batch, metrics);
+	}
+
+	private static class MetricsStatement extends StatementBase {
+
+		private final BStatement base;
+
+		private final SQLStatistics statistics;
+
+		private MetricsStatement(BStatement base, SQLStatistics statistics) {
+			this.base = base;
+			this.statistics = statistics;
+		}
+
+		@Override
+		protected BStatement base() {
+			return base;
+		}
+
+		@Override
+		public BResultSet executeQuery() {
+			return new MetricsResultSet(Measurement.executeQuery(statistics, base), statistics);
+		}
+
+		@Override
+		public int executeUpdate() {
+			return Measurement.executeUpdate(statistics, base);
+		}
+
+		@Override
+		public boolean execute() {
+			return Measurement.execute(statistics, base);
+		}
+
+		@Override
+		public BResultSet getResultSet() {
+			var result = super.getResultSet();
+			return result == null ? null : new MetricsResultSet(result, statistics);
+		}
+	}
+
+	private static class MetricsPreparedStatement extends PreparedStatementBase {
+
+		private final BPreparedStatement base;
+
+		private final SQLStatistics statistics;
+
+		private MetricsPreparedStatement(BPreparedStatement base, SQLStatistics statistics) {
+			this.base = base;
+			this.statistics = statistics;
+		}
+
+		@Override
+		protected BPreparedStatement base() {
+			return base;
+		}
+
+		@Override
+		public BResultSet executeQuery() {
+			return new MetricsResultSet(Measurement.executeQuery(statistics, base), statistics);
+		}
+
+		@Override
+		public int executeUpdate() {
+			return Measurement.executeUpdate(statistics, base);
+		}
+
+		@Override
+		public boolean execute() {
+			return Measurement.execute(statistics, base);
+		}
+
+		@Override
+		public BResultSet getResultSet() {
+			var result = super.getResultSet();
+			return result == null ? null : new MetricsResultSet(result, statistics);
+		}
+	}
+
+	private static class Measurement {
+
+		private static BResultSet executeQuery(SQLStatistics statistics, BStatement statement) {
+			var start = System.nanoTime();
+			try {
+				return statement.executeQuery();
+			} catch (RuntimeException e) {
+				statistics.recordError();
+				throw e;
+			} finally {
+				statistics.recordExecution(System.nanoTime() - start);
+			}
+		}
+
+		private static int executeUpdate(SQLStatistics statistics, BStatement statement) {
+			var start = System.nanoTime();
+			try {
+				var rows = statement.executeUpdate();
+				statistics.recordUpdate(rows);
+				return rows;
+			} catch (RuntimeException e) {
+				statistics.recordError();
+				throw e;
+			} finally {
+				statistics.recordExecution(System.nanoTime() - start);
+			}
+		}
+
+		private static boolean execute(SQLStatistics statistics, BStatement statement) {
+			var start = System.nanoTime();
+			try {
+				var result = statement.execute();
+				if (!result) statistics.recordUpdate(statement.getUpdateCount());
+				return result;
+			} catch (RuntimeException e) {
+				statistics.recordError();
+				throw e;
+			} finally {
+				statistics.recordExecution(System.nanoTime() - start);
+			}
+		}
+	}
+
+	/**
+	 * 読み込んだ行数を数え、最後まで読み込んだかクローズされた時点でまとめて記録します。
+	 */
+	private static class MetricsResultSet extends ResultSetBase {
+
+		private final BResultSet base;
+
+		private final SQLStatistics statistics;
+
+		private long rows = 0;
+
+		private MetricsResultSet(BResultSet base, SQLStatistics statistics) {
+			this.base = base;
+			this.statistics = statistics;
+		}
+
+		@Override
+		protected BResultSet base() {
+			return base;
+		}
+
+		@Override
+		public boolean next() {
+			var next = super.next();
+			if (next) {
+				rows++;
+			} else {
+				record();
+			}
+
+			return next;
+		}
+
+		@Override
+		public void close() {
+			try {
+				super.close();
+			} finally {
+				record();
+			}
+		}
+
+		private void record() {
+			statistics.recordRows(rows);
+			rows = 0;
+		}
+	}
+
+	private static class MetricsBatch extends BatchBase {
+
+		private final Batch base;
+
+		private final StatementMetrics metrics;
+
+		private int size = 0;
+
+		private MetricsBatch(Batch base, StatementMetrics metrics) {
+			this.base = base;
+			this.metrics = metrics;
+		}
+
+		@Override
+		protected Batch base() {
+			return base;
+		}
+
+		@Override
+		public void add(String sql) {
+			super.add(sql);
+			added(sql);
+		}
+
+		@Override
+		public void add(String sql, PreparedStatementComplementer complementer) {
+			super.add(sql, complementer);
+			added(sql);
+		}
+
+		@Override
+		public int[] execute() {
+			var start = System.nanoTime();
+			try {
+				return super.execute();
+			} finally {
+				metrics.recordBatch(size, System.nanoTime() - start);
+				size = 0;
+			}
+		}
+
+		private void added(String sql) {
+			metrics.statistics(sql).recordBatched();
+			size++;
+		}
+	}
+}
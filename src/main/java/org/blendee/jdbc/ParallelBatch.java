@@ -0,0 +1,424 @@
+package org.blendee.jdbc;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.regex.Pattern;
+
+import org.blendee.internal.U;
+
+/**
+ * 互いに参照関係を持たないテーブルに対する SQL 文を、複数の接続に振り分けて並行にバッチ実行する {@link Batch} です。<br>
+ * 接続ごとに専用の {@link Transaction} を生成し、外部キーで直接的、間接的につながっているテーブルに対する SQL 文は必ず同じ接続で実行されます。<br>
+ * 対象テーブルを判定できない SQL 文は、すべて一つの接続にまとめて実行されます。<br>
+ * {@link #execute()} の戻り値は、 {@link #add(String, PreparedStatementComplementer)} で追加された順に並びます。<br>
+ * 各接続は個別のトランザクションなので、 {@link #commit()} または {@link #rollback()} をこのインスタンスに対して行う必要があります。<br>
+ * また、別の接続で実行されるため、現在のスレッドのトランザクションで行った未コミットの更新は参照できません。
+ * @author 千葉 哲嗣
+ */
+public class ParallelBatch implements Batch {
+
+	private static final Pattern tablePattern = Pattern.compile(
+		"^\\s*(?:INSERT\\s+INTO|UPDATE|DELETE\\s+FROM|MERGE\\s+INTO)\\s+([^\\s(]+)",
+		Pattern.CASE_INSENSITIVE);
+
+	private final String contextName = ContextManager.getCurrentContextName();
+
+	private final Executor executor;
+
+	private final ExecutorService ownExecutor;
+
+	private final Partition[] partitions;
+
+	private final Map<String, Partition> sqlMap = new HashMap<>();
+
+	private final Map<TablePath, Integer> components = new HashMap<>();
+
+	private final Map<Integer, Partition> componentMap = new HashMap<>();
+
+	private int nextPartition = 0;
+
+	private int counter = 0;
+
+	private int batchOrder = 0;
+
+	private int flushedOrder = 0;
+
+	private int threshold = Integer.MAX_VALUE;
+
+	private BatchResultSink sink;
+
+	private int[] currentResults = new int[0];
+
+	/**
+	 * 接続数と同数のスレッドを内部で生成し、使用するインスタンスを生成します。
+	 * @param connections 使用する接続の数
+	 */
+	public ParallelBatch(int connections) {
+		this(connections, null);
+	}
+
+	/**
+	 * 指定された {@link Executor} で各接続のバッチを実行するインスタンスを生成します。
+	 * @param connections 使用する接続の数
+	 * @param executor 各接続のバッチを実行する {@link Executor} null の場合、内部で生成する
+	 */
+	public ParallelBatch(int connections, Executor executor) {
+		if (connections <= 0)
+			//connections は 1 以上である必要があります
+			throw new IllegalArgumentException("connections must be greater than 0");
+
+		if (executor == null) {
+			ownExecutor = Executors.newFixedThreadPool(connections, r -> {
+				var thread = new Thread(r, ParallelBatch.class.getSimpleName());
+				thread.setDaemon(true);
+				return thread;
+			});
+
+			this.executor = ownExecutor;
+		} else {
+			ownExecutor = null;
+			this.executor = executor;
+		}
+
+		var manager = BlendeeManager.get();
+		var factory = manager.getConfigure().getTransactionFactory();
+		var metrics = manager.getStatementMetrics();
+
+		partitions = new Partition[connections];
+		try {
+			for (var i = 0; i < connections; i++) {
+				partitions[i] = new Partition(factory.createTransaction(), metrics);
+			}
+		} catch (RuntimeException e) {
+			close();
+			throw e;
+		}
+	}
+
+	@Override
+	public void add(String sql) {
+		if (isThresholdCrossed()) flushBatch();
+		var partition = partition(sql);
+		counter++;
+		partition.addOrder(batchOrder++ - flushedOrder);
+		partition.batch.add(sql);
+	}
+
+	@Override
+	public void add(String sql, PreparedStatementComplementer complementer) {
+		if (isThresholdCrossed()) flushBatch();
+		var partition = partition(sql);
+		counter++;
+		partition.addOrder(batchOrder++ - flushedOrder);
+		partition.batch.add(sql, complementer);
+	}
+
+	@Override
+	public int[] execute() {
+		flushBatch();
+		batchOrder = 0;
+		flushedOrder = 0;
+		var results = currentResults;
+		currentResults = new int[0];
+		return results;
+	}
+
+	@Override
+	public void setThreshold(int threshold) {
+		this.threshold = threshold;
+		if (isThresholdCrossed()) flushBatch();
+	}
+
+	/**
+	 * 各接続のバッチに設定します。
+	 */
+	@Override
+	public void setThresholdPerStatement(int threshold) {
+		for (var partition : partitions) {
+			partition.batch.setThresholdPerStatement(threshold);
+		}
+	}
+
+	/**
+	 * 各接続のバッチに設定します。
+	 */
+	@Override
+	public void setByteThreshold(long bytes) {
+		for (var partition : partitions) {
+			partition.batch.setByteThreshold(bytes);
+		}
+	}
+
+	@Override
+	public void setResultSink(BatchResultSink sink) {
+		//既に SQL 文が追加されています
+		if (batchOrder > 0) throw new IllegalStateException("statements already added");
+		this.sink = sink;
+	}
+
+	/**
+	 * 全ての接続をコミットします。
+	 */
+	public void commit() {
+		for (var partition : partitions) {
+			partition.transaction.commit();
+		}
+	}
+
+	/**
+	 * 全ての接続をロールバックします。
+	 */
+	public void rollback() {
+		RuntimeException error = null;
+		for (var partition : partitions) {
+			try {
+				partition.transaction.rollback();
+			} catch (RuntimeException e) {
+				if (error == null) {
+					error = e;
+				} else {
+					error.addSuppressed(e);
+				}
+			}
+		}
+
+		if (error != null) throw error;
+	}
+
+	/**
+	 * 全ての接続を閉じます。<br>
+	 * コミットされていない更新は、使用している {@link TransactionFactory} の実装に従って破棄されます。
+	 */
+	@Override
+	public void close() {
+		try {
+			for (var partition : partitions) {
+				if (partition == null) continue;
+
+				try {
+					partition.batch.close();
+				} finally {
+					//close() は現在のスレッドのトランザクションを解除してしまうので使用しない
+					partition.transaction.closeInternal();
+				}
+			}
+		} finally {
+			if (ownExecutor != null) ownExecutor.shutdown();
+		}
+	}
+
+	@Override
+	public String toString() {
+		return U.toString(this);
+	}
+
+	private boolean isThresholdCrossed() {
+		return counter >= threshold;
+	}
+
+	private Partition partition(String sql) {
+		var partition = sqlMap.get(sql);
+		if (partition != null) return partition;
+
+		var component = component(sql);
+		partition = componentMap.get(component);
+		if (partition == null) {
+			partition = selectPartition();
+			componentMap.put(component, partition);
+		}
+
+		sqlMap.put(sql, partition);
+
+		return partition;
+	}
+
+	/**
+	 * まだ割り当てられていない接続があればそれを、なければ SQL 文の種類が最も少ない接続を選択します。
+	 */
+	private Partition selectPartition() {
+		if (nextPartition < partitions.length) return partitions[nextPartition++];
+
+		var selected = partitions[0];
+		for (var partition : partitions) {
+			if (partition.components < selected.components) selected = partition;
+		}
+
+		selected.components++;
+
+		return selected;
+	}
+
+	/**
+	 * SQL 文の対象テーブルが属する、外部キーでつながったテーブルの集合の番号を返します。
+	 * @return 対象テーブルを判定できない場合、 -1
+	 */
+	private int component(String sql) {
+		var path = tablePath(sql);
+		if (path == null) return -1;
+
+		var component = components.get(path);
+		if (component != null) return component;
+
+		//外部キーを両方向にたどり、到達可能なテーブルすべてに同じ番号を付与する
+		var id = components.size();
+		var queue = new LinkedList<TablePath>();
+		components.put(path, id);
+		queue.add(path);
+
+		var metadata = BlendeeManager.get().getMetadata();
+		while (queue.size() > 0) {
+			var current = queue.removeFirst();
+			for (var next : related(metadata, current)) {
+				if (components.containsKey(next)) continue;
+
+				components.put(next, id);
+				queue.add(next);
+			}
+		}
+
+		return id;
+	}
+
+	private static List<TablePath> related(Metadata metadata, TablePath path) {
+		var related = new ArrayList<TablePath>();
+		related.addAll(Arrays.asList(metadata.getResourcesOfImportedKey(path)));
+		related.addAll(Arrays.asList(metadata.getResourcesOfExportedKey(path)));
+		return related;
+	}
+
+	private static TablePath tablePath(String sql) {
+		var matcher = tablePattern.matcher(sql);
+		if (!matcher.find()) return null;
+
+		var names = matcher.group(1).split("\\.");
+
+		String schemaName;
+		String tableName;
+		if (names.length == 1) {
+			var schemaNames = BlendeeManager.get().getConfigure().getSchemaNames();
+			//スキーマを一意に決定できない場合、判定不能とする
+			if (schemaNames.length != 1) return null;
+
+			schemaName = schemaNames[0];
+			tableName = names[0];
+		} else if (names.length == 2) {
+			schemaName = regularize(names[0]);
+			tableName = names[1];
+		} else {
+			return null;
+		}
+
+		return TablePath.of(schemaName, regularize(tableName));
+	}
+
+	private static String regularize(String name) {
+		var length = name.length();
+		if (length > 1) {
+			var first = name.charAt(0);
+			var last = name.charAt(length - 1);
+			if ((first == '"' && last == '"') || (first == '`' && last == '`') || (first == '[' && last == ']'))
+				return name.substring(1, length - 1);
+		}
+
+		return MetadataUtilities.regularize(name);
+	}
+
+	private void flushBatch() {
+		var results = new int[batchOrder - flushedOrder];
+
+		var futures = new ArrayList<CompletableFuture<Void>>(partitions.length);
+		for (var partition : partitions) {
+			if (partition.size == 0) continue;
+
+			futures.add(CompletableFuture.runAsync(() -> {
+				ContextManager.setContext(contextName);
+				try {
+					partition.executeBatch(results);
+				} finally {
+					ContextManager.releaseContext();
+				}
+			}, executor));
+		}
+
+		RuntimeException error = null;
+		for (var future : futures) {
+			try {
+				future.join();
+			} catch (CompletionException e) {
+				var cause = e.getCause();
+				var converted = cause instanceof RuntimeException ? (RuntimeException) cause : e;
+				if (error == null) {
+					error = converted;
+				} else {
+					error.addSuppressed(converted);
+				}
+			}
+		}
+
+		if (error != null) throw error;
+
+		counter = 0;
+
+		var offset = flushedOrder;
+		flushedOrder = batchOrder;
+
+		if (sink != null) {
+			if (results.length > 0) sink.accept(offset, results);
+			return;
+		}
+
+		if (currentResults.length == 0) {
+			currentResults = results;
+			return;
+		}
+
+		var merged = Arrays.copyOf(currentResults, currentResults.length + results.length);
+		System.arraycopy(results, 0, merged, currentResults.length, results.length);
+		currentResults = merged;
+	}
+
+	private static class Partition {
+
+		private final Transaction transaction;
+
+		private final Batch batch;
+
+		private int[] orders = new int[16];
+
+		private int size = 0;
+
+		private int components = 1;
+
+		private Partition(Transaction transaction, StatementMetrics metrics) {
+			this.transaction = transaction;
+			transaction.prepareConnection(metrics);
+			batch = transaction.getConnection().getBatch();
+		}
+
+		private void addOrder(int order) {
+			if (size == orders.length) orders = Arrays.copyOf(orders, size * 2);
+			orders[size++] = order;
+		}
+
+		/**
+		 * 異なる Partition は results の異なる位置にのみ書き込むので、同期は不要です。
+		 */
+		private void executeBatch(int[] allResults) {
+			var results = batch.execute();
+			for (var i = 0; i < results.length; i++) {
+				allResults[orders[i]] = results[i];
+			}
+
+			size = 0;
+		}
+	}
+}
@@ -0,0 +1,211 @@
+package org.blendee.jdbc;
+
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SQL ログの出力方法に対する設定値を保持するクラスです。<br>
+ * SQL ログは、 {@link Initializer#setLoggerClass(Class)} で設定されたロガーが INFO レベルを出力する場合にのみ取得されます。
+ * @author 千葉 哲嗣
+ */
+public class SQLLogConfigure implements ManagementSubject {
+
+	private volatile double samplingRate = 1;
+
+	private volatile long slowThresholdNanos = 0;
+
+	private volatile boolean asynchronous = false;
+
+	private volatile int bufferSize = 8192;
+
+	private volatile SQLLogSink sink;
+
+	private volatile BLogger textSinkLogger;
+
+	private TextSQLLogSink textSink;
+
+	private AsyncSQLLogWriter writer;
+
+	private volatile SQLLogSink effective;
+
+	/**
+	 * 出力する SQL 文の割合を設定します。<br>
+	 * 出力するかどうかは SQL 文ごとに無作為に決定され、出力しない SQL 文はバインドされた値の文字列化、スタックトレースの取得が行われません。
+	 * @param samplingRate 0 以上 1 以下の割合
+	 */
+	public void setSamplingRate(double samplingRate) {
+		//samplingRate は 0 以上 1 以下である必要があります
+		if (samplingRate < 0 || samplingRate > 1) throw new IllegalArgumentException("samplingRate must be between 0 and 1");
+		this.samplingRate = samplingRate;
+	}
+
+	/**
+	 * @return 出力する SQL 文の割合
+	 */
+	public double getSamplingRate() {
+		return samplingRate;
+	}
+
+	/**
+	 * 実行時間が指定された時間以上の SQL 文のみを出力するように設定します。<br>
+	 * 0 以下の場合、全ての SQL 文を出力します。<br>
+	 * 0 より大きい場合、実行時間を計測できない SQL 文（バッチに追加された途中の SQL 文等）は出力されません。
+	 * @param millis 出力対象とする実行時間（ミリ秒）
+	 */
+	public void setSlowThresholdMillis(long millis) {
+		slowThresholdNanos = millis <= 0 ? 0 : TimeUnit.MILLISECONDS.toNanos(millis);
+	}
+
+	/**
+	 * @return 出力対象とする実行時間（ナノ秒）
+	 */
+	public long getSlowThresholdNanos() {
+		return slowThresholdNanos;
+	}
+
+	/**
+	 * SQL ログを専用のスレッドから出力するかを設定します。
+	 * @param asynchronous 専用のスレッドから出力する場合、 true
+	 * @see AsyncSQLLogWriter
+	 */
+	public void setAsynchronous(boolean asynchronous) {
+		AsyncSQLLogWriter old;
+		synchronized (this) {
+			this.asynchronous = asynchronous;
+			old = invalidate();
+		}
+
+		close(old);
+	}
+
+	/**
+	 * @return 専用のスレッドから出力する場合、 true
+	 */
+	public boolean isAsynchronous() {
+		return asynchronous;
+	}
+
+	/**
+	 * 専用のスレッドから出力する場合に、出力を待つことができる SQL ログの最大数を設定します。
+	 * @param bufferSize 出力を待つことができる SQL ログの最大数
+	 */
+	public void setBufferSize(int bufferSize) {
+		//bufferSize は 1 以上である必要があります
+		if (bufferSize <= 0) throw new IllegalArgumentException("bufferSize must be greater than 0");
+
+		AsyncSQLLogWriter old;
+		synchronized (this) {
+			this.bufferSize = bufferSize;
+			old = invalidate();
+		}
+
+		close(old);
+	}
+
+	/**
+	 * @return 出力を待つことができる SQL ログの最大数
+	 */
+	public int getBufferSize() {
+		return bufferSize;
+	}
+
+	/**
+	 * 独自の {@link SQLLogSink} を設定します。<br>
+	 * null の場合、ロガーにテキストとして出力します。
+	 * @param sink 独自の {@link SQLLogSink}
+	 */
+	public void setSink(SQLLogSink sink) {
+		AsyncSQLLogWriter old;
+		synchronized (this) {
+			this.sink = sink;
+			old = invalidate();
+		}
+
+		close(old);
+	}
+
+	/**
+	 * 独自の {@link SQLLogSink} を設定します。
+	 * @param sinkClass 独自の {@link SQLLogSink} クラス
+	 */
+	public void setSinkClass(Class<? extends SQLLogSink> sinkClass) {
+		try {
+			setSink(sinkClass.getDeclaredConstructor().newInstance());
+		} catch (Exception e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	/**
+	 * 専用のスレッドから出力する場合に、出力が追いつかず破棄された SQL ログの数を返します。
+	 * @return 破棄された SQL ログの数
+	 */
+	public synchronized long getDroppedCount() {
+		return writer == null ? 0 : writer.getDroppedCount();
+	}
+
+	/**
+	 * 現在の設定で、実際に使用する {@link SQLLogSink} を返します。
+	 * @param logger 独自の {@link SQLLogSink} が設定されていない場合の出力先
+	 * @return {@link SQLLogSink}
+	 */
+	public SQLLogSink getSink(BLogger logger) {
+		var current = effective;
+		//独自の SQLLogSink が設定されている場合、ロガーは使用しない
+		if (current != null && (sink != null || textSinkLogger == logger)) return current;
+
+		Objects.requireNonNull(logger);
+
+		AsyncSQLLogWriter old;
+		SQLLogSink result;
+		synchronized (this) {
+			//他のスレッドが既に生成している場合
+			if (effective != null && (sink != null || textSinkLogger == logger)) return effective;
+
+			SQLLogSink base;
+			if (sink != null) {
+				base = sink;
+			} else {
+				if (textSink == null || textSinkLogger != logger) {
+					textSink = new TextSQLLogSink(logger);
+					textSinkLogger = logger;
+				}
+
+				base = textSink;
+			}
+
+			old = invalidate();
+
+			if (asynchronous) {
+				writer = new AsyncSQLLogWriter(base, bufferSize);
+				effective = writer;
+			} else {
+				effective = base;
+			}
+
+			result = effective;
+		}
+
+		close(old);
+
+		return result;
+	}
+
+	/**
+	 * 使用中の {@link AsyncSQLLogWriter} を切り離します。<br>
+	 * 切り離した {@link AsyncSQLLogWriter} は、溜まっているログの出力を待つので、ロックの外でクローズします。
+	 * @return 切り離した {@link AsyncSQLLogWriter}、ない場合 null
+	 */
+	private AsyncSQLLogWriter invalidate() {
+		effective = null;
+
+		var old = writer;
+		writer = null;
+
+		return old;
+	}
+
+	private static void close(AsyncSQLLogWriter writer) {
+		if (writer != null) writer.close();
+	}
+}
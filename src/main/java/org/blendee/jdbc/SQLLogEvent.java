@@ -0,0 +1,144 @@
+package org.blendee.jdbc;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.blendee.internal.U;
+
+/**
+ * 一回の SQL 文の実行を表す、構造化されたログです。
+ * @author 千葉 哲嗣
+ * @see SQLLogSink
+ */
+public class SQLLogEvent {
+
+	private final long timestamp;
+
+	private final String threadName;
+
+	private final String sql;
+
+	private final List<Binding> bindings;
+
+	private final long elapsedNanos;
+
+	private final int rows;
+
+	private final List<String> callers;
+
+	SQLLogEvent(
+		long timestamp,
+		String threadName,
+		String sql,
+		List<Binding> bindings,
+		long elapsedNanos,
+		int rows,
+		List<String> callers) {
+		this.timestamp = timestamp;
+		this.threadName = threadName;
+		this.sql = sql;
+		this.bindings = Collections.unmodifiableList(bindings);
+		this.elapsedNanos = elapsedNanos;
+		this.rows = rows;
+		this.callers = callers == null ? null : Collections.unmodifiableList(callers);
+	}
+
+	/**
+	 * @return SQL 文の実行を開始した時刻（エポックミリ秒）
+	 */
+	public long getTimestamp() {
+		return timestamp;
+	}
+
+	/**
+	 * @return SQL 文を実行したスレッドの名前
+	 */
+	public String getThreadName() {
+		return threadName;
+	}
+
+	/**
+	 * @return SQL 文
+	 */
+	public String getSql() {
+		return sql;
+	}
+
+	/**
+	 * @return プレースホルダの位置順に並んだ、バインドされた値
+	 */
+	public List<Binding> getBindings() {
+		return bindings;
+	}
+
+	/**
+	 * @return 実行に要した時間（ナノ秒）、不明な場合 -1
+	 */
+	public long getElapsedNanos() {
+		return elapsedNanos;
+	}
+
+	/**
+	 * @return 更新件数、不明な場合 -1
+	 */
+	public int getRows() {
+		return rows;
+	}
+
+	/**
+	 * @return 呼び出し元のスタックトレースのうち、フィルタに合致したもの、取得していない場合 null
+	 * @see Initializer#setLogStackTraceFilter(java.util.regex.Pattern)
+	 */
+	public List<String> getCallers() {
+		return callers;
+	}
+
+	@Override
+	public String toString() {
+		return U.toString(this);
+	}
+
+	/**
+	 * プレースホルダにバインドされた値です。
+	 */
+	public static class Binding {
+
+		private final int index;
+
+		private final String type;
+
+		private final String value;
+
+		Binding(int index, String type, String value) {
+			this.index = index;
+			this.type = type;
+			this.value = value;
+		}
+
+		/**
+		 * @return プレースホルダの位置
+		 */
+		public int getIndex() {
+			return index;
+		}
+
+		/**
+		 * @return 値をセットしたメソッドの型
+		 */
+		public String getType() {
+			return type;
+		}
+
+		/**
+		 * @return 値の文字列表現
+		 */
+		public String getValue() {
+			return value;
+		}
+
+		@Override
+		public String toString() {
+			return U.toString(this);
+		}
+	}
+}
@@ -0,0 +1,27 @@
+package org.blendee.jdbc;
+
+/**
+ * {@link SQLLogEvent} の出力先を表すインターフェイスです。
+ * @author 千葉 哲嗣
+ * @see SQLLogConfigure#setSink(SQLLogSink)
+ */
+@FunctionalInterface
+public interface SQLLogSink {
+
+	/**
+	 * ログを出力します。
+	 * @param event 出力するログ
+	 */
+	void accept(SQLLogEvent event);
+
+	/**
+	 * 既に {@link #accept(SQLLogEvent)} で出力された SQL 文の、実行時間と件数を出力します。<br>
+	 * 実行時間による絞り込みを行わず、専用のスレッドからも出力しない場合、 SQL 文は実行前に実行時間不明として出力され、実行後にこのメソッドが呼ばれます。<br>
+	 * デフォルトの実装は何もしません。
+	 * @param event 出力済みのログ
+	 * @param elapsedNanos 実行時間（ナノ秒）
+	 * @param rows 件数、不明な場合 -1
+	 */
+	default void acceptElapsed(SQLLogEvent event, long elapsedNanos, int rows) {
+	}
+}
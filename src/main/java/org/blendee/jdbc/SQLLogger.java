@@ -1,36 +1,53 @@
 package org.blendee.jdbc;
 
-import java.math.BigDecimal;
-import java.math.RoundingMode;
-import java.util.Collections;
-import java.util.Date;
-import java.util.LinkedList;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
-import java.util.logging.Level;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.regex.Pattern;
 
 import org.blendee.internal.U;
 
 /**
+ * 実行された SQL 文を {@link SQLLogEvent} として {@link SQLLogSink} に渡すクラスです。<br>
+ * インスタンスはトランザクションごとに生成されるので、 SQL 文の実行中に他のスレッドとロックを共有しません。<br>
+ * 出力するかどうかは {@link SQLLogConfigure} の設定に従い、出力しない SQL 文についてはバインドされた値の文字列化やスタックトレースの取得を行いません。<br>
+ * 実行時間による絞り込みを行う場合、バインドされた値は実行時間が閾値を超えた時点で初めて文字列化されます。<br>
+ * 実行時間による絞り込みを行わず、専用のスレッドからも出力しない場合は、実行中の SQL 文がログから分かるよう {@link #flush()} の時点で出力し、
+ * 実行時間は {@link SQLLogSink#acceptElapsed(SQLLogEvent, long, int)} で別に出力します。
  * @author 千葉 哲嗣
  */
 public class SQLLogger {
 
-	private final List<BindingValue> values = new LinkedList<>();
+	private static final Comparator<BindingValue> indexComparator = (a, b) -> Integer.compare(a.index, b.index);
 
-	private final BLogger logger;
+	private final List<BindingValue> values = new ArrayList<>();
+
+	private final SQLLogConfigure config = ContextManager.get(SQLLogConfigure.class);
+
+	private final SQLLogSink sink;
 
 	private final Pattern stackTracePattern;
 
+	/**
+	 * {@link #flush()} の時点で出力できる場合、 true
+	 */
+	private final boolean synchronous;
+
 	private String sql;
 
+	private boolean sorted = true;
+
+	private Pending pending;
+
 	/**
 	 * @param logger
 	 * @param stackTracePattern
 	 */
 	public SQLLogger(BLogger logger, Pattern stackTracePattern) {
-		this.logger = logger;
+		sink = config.getSink(logger);
 		this.stackTracePattern = stackTracePattern;
+		synchronous = !(sink instanceof AsyncSQLLogWriter);
 	}
 
 	/**
@@ -46,51 +63,89 @@ public class SQLLogger {
 	 * @param value
 	 */
 	public void addBindingValue(String type, int index, Object value) {
+		var size = values.size();
+		if (size > 0 && values.get(size - 1).index > index) sorted = false;
 		values.add(new BindingValue(type, index, value));
 	}
 
 	/**
+	 * 実行件数が不明な SQL 文の実行時間を記録します。
 	 * @param startNanos
 	 */
 	public void logElapsed(long startNanos) {
-		synchronized (getClass()) {
-			var elapsed = (System.nanoTime() - startNanos) / 1000000f;
-			logger.println("elapsed: " + new BigDecimal(elapsed).setScale(2, RoundingMode.DOWN) + "ms");
-			logger.flush(Level.INFO);
+		logElapsed(startNanos, -1);
+	}
+
+	/**
+	 * 直前に {@link #flush()} された SQL 文の実行時間と件数を記録し、出力対象であれば出力します。
+	 * @param startNanos
+	 * @param rows 件数、不明な場合 -1
+	 */
+	public void logElapsed(long startNanos, int rows) {
+		var target = pending;
+		pending = null;
+
+		if (target == null) return;
+
+		var elapsed = System.nanoTime() - startNanos;
+
+		if (target.emitted != null) {
+			sink.acceptElapsed(target.emitted, elapsed, rows);
+			return;
 		}
+
+		if (elapsed < config.getSlowThresholdNanos()) return;
+
+		emit(target, elapsed, rows);
+	}
+
+	/**
+	 * バッチの実行時間と、更新件数の合計を記録します。
+	 * @param startNanos
+	 * @param results バッチの実行結果、失敗した場合 null
+	 */
+	public void logElapsed(long startNanos, int[] results) {
+		if (results == null) {
+			logElapsed(startNanos, -1);
+			return;
+		}
+
+		var rows = 0;
+		for (var result : results) {
+			//件数が不明なもの（SUCCESS_NO_INFO 等）は除外する
+			if (result > 0) rows += result;
+		}
+
+		logElapsed(startNanos, rows);
 	}
 
 	/**
 	 * flush log
 	 */
 	public void flush() {
-		//ログ出力が輻輳した場合でもSQL単位でまとまって出力するようにsynchronized
-		synchronized (getClass()) {
-			if (logger == null) return;
-			logger.println("Blendee SQL Log: [" + new Date() + "]");
-			logger.println("------ SQL START ------");
-
-			if (stackTracePattern != null) {
-				logger.println("call from:");
-				var elements = new Throwable().getStackTrace();
-				for (var element : elements) {
-					var elementString = element.toString();
-					if (stackTracePattern.matcher(elementString).find()) logger.println(" " + elementString);
-				}
-			}
-
-			logger.println("sql:");
-			logger.println(" " + sql);
-
-			Collections.sort(values);
-			if (values.size() > 0) logger.println("binding value:");
-			for (var value : values) {
-				logger.println(" " + value.createLog());
-			}
-
-			logger.println("------  SQL END  ------");
+		var previous = pending;
+		pending = null;
+
+		var all = config.getSlowThresholdNanos() <= 0;
+
+		//実行時間が記録されないまま次の SQL 文が来た場合（バッチ等）、実行時間不明として出力する
+		if (previous != null && previous.emitted == null && all) emit(previous, -1, -1);
+
+		try {
+			if (!sampled()) return;
+
+			if (!sorted) values.sort(indexComparator);
+
+			//閾値がない場合は必ず出力されるが、実行時間が記録されず次の SQL 文の実行時に出力される場合もあるので、呼び出し元はここで取得しておく
+			var target = new Pending(System.currentTimeMillis(), sql, new ArrayList<>(values), all ? callers() : null);
+
+			//同期出力で閾値もない場合、実行前に出力し、実行時間は後から別に出力する
+			if (all && synchronous) target.emitted = emit(target, -1, -1);
+
+			pending = target;
+		} finally {
 			values.clear();
-			logger.flush(Level.INFO);
+			sorted = true;
 		}
 	}
 
@@ -99,7 +154,73 @@ public class SQLLogger {
 		return U.toString(this);
 	}
 
-	private static class BindingValue implements Comparable<BindingValue> {
+	private boolean sampled() {
+		var rate = config.getSamplingRate();
+		if (rate >= 1) return true;
+		if (rate <= 0) return false;
+		return ThreadLocalRandom.current().nextDouble() < rate;
+	}
+
+	private SQLLogEvent emit(Pending target, long elapsed, int rows) {
+		var bindings = new ArrayList<SQLLogEvent.Binding>(target.values.size());
+		for (var value : target.values) {
+			bindings.add(new SQLLogEvent.Binding(value.index, value.type, String.valueOf(value.value)));
+		}
+
+		var event = new SQLLogEvent(
+			target.timestamp,
+			Thread.currentThread().getName(),
+			target.sql,
+			bindings,
+			elapsed,
+			rows,
+			target.callers != null ? target.callers : callers());
+
+		sink.accept(event);
+
+		return event;
+	}
+
+	/**
+	 * 出力が確定してから取得するので、出力しない SQL 文についてはスタックトレースを取得しません。<br>
+	 * 実行時間による絞り込みを行う場合、 {@link #logElapsed(long, int)} から呼ばれるので、呼び出し元は SQL 文を実行した箇所となります。
+	 */
+	private List<String> callers() {
+		if (stackTracePattern == null) return null;
+
+		var callers = new ArrayList<String>();
+		for (var element : new Throwable().getStackTrace()) {
+			var elementString = element.toString();
+			if (stackTracePattern.matcher(elementString).find()) callers.add(elementString);
+		}
+
+		return callers;
+	}
+
+	private static class Pending {
+
+		private final long timestamp;
+
+		private final String sql;
+
+		private final List<BindingValue> values;
+
+		private final List<String> callers;
+
+		/**
+		 * {@link SQLLogger#flush()} の時点で出力済みの場合、そのログ
+		 */
+		private SQLLogEvent emitted;
+
+		private Pending(long timestamp, String sql, List<BindingValue> values, List<String> callers) {
+			this.timestamp = timestamp;
+			this.sql = sql;
+			this.values = values;
+			this.callers = callers;
+		}
+	}
+
+	private static class BindingValue {
 
 		private final String type;
 
@@ -112,14 +233,5 @@ public class SQLLogger {
 			this.index = index;
 			this.value = value;
 		}
-
-		@Override
-		public int compareTo(BindingValue value) {
-			return Integer.valueOf(index).compareTo(Integer.valueOf(value.index));
-		}
-
-		private String createLog() {
-			return "index:[" + index + "] type:[" + type + "] value:[" + value + "]";
-		}
 	}
 }
@@ -0,0 +1,239 @@
+package org.blendee.jdbc;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import org.blendee.internal.U;
+
+/**
+ * 正規化された一つの SQL 文に対する、実行統計です。<br>
+ * 値は実行中のスレッドから随時加算されます。
+ * @author 千葉 哲嗣
+ * @see StatementMetrics
+ */
+public class SQLStatistics {
+
+	private final String sql;
+
+	private final LatencyHistogram latency = new LatencyHistogram();
+
+	private final LongAdder rowsFetched = new LongAdder();
+
+	private final LongAdder updateCount = new LongAdder();
+
+	private final LongAdder batchedCount = new LongAdder();
+
+	private final LongAdder errorCount = new LongAdder();
+
+	SQLStatistics(String sql) {
+		this.sql = sql;
+	}
+
+	/**
+	 * @return 正規化された SQL 文
+	 */
+	public String getSql() {
+		return sql;
+	}
+
+	/**
+	 * @return 実行時間（ナノ秒）のヒストグラム
+	 */
+	public LatencyHistogram getLatency() {
+		return latency;
+	}
+
+	/**
+	 * @return 検索結果から読み込まれた行数の合計
+	 */
+	public long getRowsFetched() {
+		return rowsFetched.sum();
+	}
+
+	/**
+	 * @return 更新件数の合計
+	 */
+	public long getUpdateCount() {
+		return updateCount.sum();
+	}
+
+	/**
+	 * @return バッチに追加された回数
+	 */
+	public long getBatchedCount() {
+		return batchedCount.sum();
+	}
+
+	/**
+	 * @return 実行時に例外が発生した回数
+	 */
+	public long getErrorCount() {
+		return errorCount.sum();
+	}
+
+	/**
+	 * 現時点の値を複製します。
+	 * @return 現時点の値
+	 */
+	public Snapshot snapshot() {
+		return new Snapshot(this);
+	}
+
+	@Override
+	public String toString() {
+		return U.toString(this);
+	}
+
+	void recordExecution(long elapsedNanos) {
+		latency.record(elapsedNanos);
+	}
+
+	void recordRows(long rows) {
+		if (rows > 0) rowsFetched.add(rows);
+	}
+
+	void recordUpdate(long rows) {
+		if (rows > 0) updateCount.add(rows);
+	}
+
+	void recordBatched() {
+		batchedCount.increment();
+	}
+
+	void recordError() {
+		errorCount.increment();
+	}
+
+	void reset() {
+		latency.reset();
+		rowsFetched.reset();
+		updateCount.reset();
+		batchedCount.reset();
+		errorCount.reset();
+	}
+
+	/**
+	 * {@link SQLStatistics} のある時点の値です。<br>
+	 * JMX から参照できるよう、値はすべてプリミティブ型か String で保持されます。
+	 */
+	public static class Snapshot {
+
+		private final String sql;
+
+		private final long executionCount;
+
+		private final long totalNanos;
+
+		private final long maxNanos;
+
+		private final long p50Nanos;
+
+		private final long p95Nanos;
+
+		private final long p99Nanos;
+
+		private final long rowsFetched;
+
+		private final long updateCount;
+
+		private final long batchedCount;
+
+		private final long errorCount;
+
+		private Snapshot(SQLStatistics statistics) {
+			var latency = statistics.latency;
+			sql = statistics.sql;
+			executionCount = latency.getCount();
+			totalNanos = latency.getSum();
+			maxNanos = latency.getMax();
+			p50Nanos = latency.getPercentile(50);
+			p95Nanos = latency.getPercentile(95);
+			p99Nanos = latency.getPercentile(99);
+			rowsFetched = statistics.getRowsFetched();
+			updateCount = statistics.getUpdateCount();
+			batchedCount = statistics.getBatchedCount();
+			errorCount = statistics.getErrorCount();
+		}
+
+		/**
+		 * @return 正規化された SQL 文
+		 */
+		public String getSql() {
+			return sql;
+		}
+
+		/**
+		 * @return 実行回数
+		 */
+		public long getExecutionCount() {
+			return executionCount;
+		}
+
+		/**
+		 * @return 実行時間の合計（ナノ秒）
+		 */
+		public long getTotalNanos() {
+			return totalNanos;
+		}
+
+		/**
+		 * @return 実行時間の最大値（ナノ秒）
+		 */
+		public long getMaxNanos() {
+			return maxNanos;
+		}
+
+		/**
+		 * @return 実行時間の中央値（ナノ秒）
+		 */
+		public long getP50Nanos() {
+			return p50Nanos;
+		}
+
+		/**
+		 * @return 実行時間の 95 パーセンタイル（ナノ秒）
+		 */
+		public long getP95Nanos() {
+			return p95Nanos;
+		}
+
+		/**
+		 * @return 実行時間の 99 パーセンタイル（ナノ秒）
+		 */
+		public long getP99Nanos() {
+			return p99Nanos;
+		}
+
+		/**
+		 * @return 検索結果から読み込まれた行数の合計
+		 */
+		public long getRowsFetched() {
+			return rowsFetched;
+		}
+
+		/**
+		 * @return 更新件数の合計
+		 */
+		public long getUpdateCount() {
+			return updateCount;
+		}
+
+		/**
+		 * @return バッチに追加された回数
+		 */
+		public long getBatchedCount() {
+			return batchedCount;
+		}
+
+		/**
+		 * @return 実行時に例外が発生した回数
+		 */
+		public long getErrorCount() {
+			return errorCount;
+		}
+
+		@Override
+		public String toString() {
+			return U.toString(this);
+		}
+	}
+}
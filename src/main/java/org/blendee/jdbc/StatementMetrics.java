@@ -0,0 +1,315 @@
+package org.blendee.jdbc;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import javax.management.StandardMBean;
+
+import org.blendee.internal.U;
+
+/**
+ * SQL 文ごとの実行時間、読み込み行数、更新件数と、バッチ、接続取得の所要時間を計測するクラスです。<br>
+ * 計測を有効にすると、トランザクションが使用する接続に {@link StatementWrapper} が設定されます。<br>
+ * SQL 文はリテラルを ? に置き換え、空白をまとめた形に正規化して集計されます。<br>
+ * 集計する SQL 文の種類が上限に達した場合、以降の新しい SQL 文は {@link #OTHERS} にまとめて集計されます。
+ * @author 千葉 哲嗣
+ * @see BConnection#setStatementWrapper(StatementWrapper)
+ */
+public class StatementMetrics implements ManagementSubject {
+
+	/**
+	 * 上限を超えた SQL 文を集計する際の名称
+	 */
+	public static final String OTHERS = "<others>";
+
+	private static final Comparator<SQLStatistics.Snapshot> totalDescending = (a, b) -> Long.compare(b.getTotalNanos(), a.getTotalNanos());
+
+	private final Map<String, SQLStatistics> statistics = new ConcurrentHashMap<>();
+
+	/**
+	 * 正規化前の SQL 文から、集計先を引くためのキャッシュ
+	 */
+	private final Map<String, SQLStatistics> rawStatistics = new ConcurrentHashMap<>();
+
+	private final SQLStatistics others = new SQLStatistics(OTHERS);
+
+	private final LatencyHistogram connectionWait = new LatencyHistogram();
+
+	private final LatencyHistogram batchSize = new LatencyHistogram();
+
+	private final LatencyHistogram batchFlush = new LatencyHistogram();
+
+	private final Object lock = new Object();
+
+	private volatile boolean enabled = false;
+
+	private volatile int maxStatements = 1000;
+
+	private ObjectName objectName;
+
+	/**
+	 * 計測するかを設定します。<br>
+	 * 設定は、以降に開始されたトランザクションから有効になります。
+	 * @param enabled 計測する場合、 true
+	 */
+	public void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	/**
+	 * @return 計測中の場合、 true
+	 */
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * 集計する SQL 文の種類の上限を設定します。
+	 * @param maxStatements 集計する SQL 文の種類の上限
+	 */
+	public void setMaxStatements(int maxStatements) {
+		//maxStatements は 1 以上である必要があります
+		if (maxStatements <= 0) throw new IllegalArgumentException("maxStatements must be greater than 0");
+		this.maxStatements = maxStatements;
+	}
+
+	/**
+	 * 集計中の SQL 文ごとの実行統計を返します。<br>
+	 * 返される値は、以降の実行も反映されます。
+	 * @return SQL 文ごとの実行統計
+	 */
+	public Collection<SQLStatistics> getStatistics() {
+		var result = new ArrayList<SQLStatistics>(statistics.values());
+		if (others.getLatency().getCount() > 0 || others.getBatchedCount() > 0) result.add(others);
+		return Collections.unmodifiableList(result);
+	}
+
+	/**
+	 * 実行時間の合計の降順に、現時点の SQL 文ごとの実行統計を返します。
+	 * @return SQL 文ごとの実行統計
+	 */
+	public List<SQLStatistics.Snapshot> snapshot() {
+		var result = new ArrayList<SQLStatistics.Snapshot>();
+		getStatistics().forEach(s -> result.add(s.snapshot()));
+		result.sort(totalDescending);
+		return result;
+	}
+
+	/**
+	 * @return 接続の取得に要した時間（ナノ秒）のヒストグラム
+	 */
+	public LatencyHistogram getConnectionWait() {
+		return connectionWait;
+	}
+
+	/**
+	 * @return 一回のバッチの実行に含まれる SQL 文の数のヒストグラム
+	 */
+	public LatencyHistogram getBatchSize() {
+		return batchSize;
+	}
+
+	/**
+	 * @return バッチの実行に要した時間（ナノ秒）のヒストグラム
+	 */
+	public LatencyHistogram getBatchFlush() {
+		return batchFlush;
+	}
+
+	/**
+	 * 計測値をすべて破棄します。
+	 */
+	public void reset() {
+		rawStatistics.clear();
+		statistics.clear();
+		others.reset();
+		connectionWait.reset();
+		batchSize.reset();
+		batchFlush.reset();
+	}
+
+	/**
+	 * このインスタンスを、プラットフォームの MBean サーバーに登録します。<br>
+	 * 名前は org.blendee:type=StatementMetrics,context=現在のコンテキスト名 となります。<br>
+	 * 既に登録されている場合、何もしません。
+	 */
+	public void registerMBean() {
+		synchronized (lock) {
+			if (objectName != null) return;
+
+			try {
+				var name = new ObjectName(
+					"org.blendee:type=" + StatementMetrics.class.getSimpleName() + ",context=" + ObjectName.quote(ContextManager.getCurrentContextName()));
+				ManagementFactory.getPlatformMBeanServer().registerMBean(new StandardMBean(new MXBean(), StatementMetricsMXBean.class, true), name);
+				objectName = name;
+			} catch (JMException e) {
+				throw new BlendeeException(e);
+			}
+		}
+	}
+
+	/**
+	 * このインスタンスを、プラットフォームの MBean サーバーから登録解除します。
+	 */
+	public void unregisterMBean() {
+		synchronized (lock) {
+			if (objectName == null) return;
+
+			try {
+				ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+			} catch (JMException e) {
+				throw new BlendeeException(e);
+			} finally {
+				objectName = null;
+			}
+		}
+	}
+
+	/**
+	 * SQL 文のリテラルを ? に置き換え、連続する空白を一つの空白にまとめます。
+	 * @param sql 対象となる SQL 文
+	 * @return 正規化された SQL 文
+	 */
+	public static String normalize(String sql) {
+		var length = sql.length();
+		var builder = new StringBuilder(length);
+
+		var i = 0;
+		while (i < length) {
+			var c = sql.charAt(i);
+
+			if (Character.isWhitespace(c)) {
+				while (i < length && Character.isWhitespace(sql.charAt(i))) i++;
+				if (builder.length() > 0 && i < length) builder.append(' ');
+				continue;
+			}
+
+			if (c == '\'') {
+				i++;
+				while (i < length) {
+					if (sql.charAt(i++) != '\'') continue;
+					//'' はエスケープされた ' なので、リテラルの終端ではない
+					if (i < length && sql.charAt(i) == '\'') {
+						i++;
+						continue;
+					}
+
+					break;
+				}
+
+				builder.append('?');
+				continue;
+			}
+
+			if (Character.isDigit(c) && !isIdentifierPart(builder)) {
+				while (i < length && (Character.isDigit(sql.charAt(i)) || sql.charAt(i) == '.')) i++;
+				builder.append('?');
+				continue;
+			}
+
+			builder.append(c);
+			i++;
+		}
+
+		return builder.toString();
+	}
+
+	@Override
+	public String toString() {
+		return U.toString(this);
+	}
+
+	SQLStatistics statistics(String sql) {
+		var cached = rawStatistics.get(sql);
+		if (cached != null) return cached;
+
+		var result = normalizedStatistics(normalize(sql));
+
+		//リテラルを含む SQL 文で際限なく増えないよう、集計する SQL 文の種類の上限までのみ保持する
+		if (rawStatistics.size() < maxStatements) rawStatistics.put(sql, result);
+
+		return result;
+	}
+
+	void recordConnectionWait(long nanos) {
+		if (enabled) connectionWait.record(nanos);
+	}
+
+	void recordBatch(int size, long nanos) {
+		batchSize.record(size);
+		batchFlush.record(nanos);
+	}
+
+	private SQLStatistics normalizedStatistics(String normalized) {
+		var current = statistics.get(normalized);
+		if (current != null) return current;
+
+		if (statistics.size() >= maxStatements) return others;
+
+		return statistics.computeIfAbsent(normalized, SQLStatistics::new);
+	}
+
+	private static boolean isIdentifierPart(StringBuilder builder) {
+		var length = builder.length();
+		if (length == 0) return false;
+
+		var last = builder.charAt(length - 1);
+		return Character.isLetterOrDigit(last) || last == '_' || last == '$' || last == '"';
+	}
+
+	private class MXBean implements StatementMetricsMXBean {
+
+		@Override
+		public boolean isEnabled() {
+			return StatementMetrics.this.isEnabled();
+		}
+
+		@Override
+		public void setEnabled(boolean enabled) {
+			StatementMetrics.this.setEnabled(enabled);
+		}
+
+		@Override
+		public List<SQLStatistics.Snapshot> getStatistics() {
+			return snapshot();
+		}
+
+		@Override
+		public long getConnectionWaitCount() {
+			return connectionWait.getCount();
+		}
+
+		@Override
+		public long getConnectionWaitP99Nanos() {
+			return connectionWait.getPercentile(99);
+		}
+
+		@Override
+		public long getBatchCount() {
+			return batchSize.getCount();
+		}
+
+		@Override
+		public double getBatchSizeMean() {
+			return batchSize.getMean();
+		}
+
+		@Override
+		public long getBatchFlushP99Nanos() {
+			return batchFlush.getPercentile(99);
+		}
+
+		@Override
+		public void reset() {
+			StatementMetrics.this.reset();
+		}
+	}
+}
@@ -0,0 +1,56 @@
+package org.blendee.jdbc;
+
+import java.util.List;
+
+/**
+ * {@link StatementMetrics} を JMX から参照するためのインターフェイスです。
+ * @author 千葉 哲嗣
+ * @see StatementMetrics#registerMBean()
+ */
+public interface StatementMetricsMXBean {
+
+	/**
+	 * @return 計測中の場合、 true
+	 */
+	boolean isEnabled();
+
+	/**
+	 * @param enabled 計測する場合、 true
+	 */
+	void setEnabled(boolean enabled);
+
+	/**
+	 * @return 実行時間の合計の降順に並んだ、 SQL 文ごとの実行統計
+	 */
+	List<SQLStatistics.Snapshot> getStatistics();
+
+	/**
+	 * @return 接続の取得回数
+	 */
+	long getConnectionWaitCount();
+
+	/**
+	 * @return 接続の取得に要した時間の 99 パーセンタイル（ナノ秒）
+	 */
+	long getConnectionWaitP99Nanos();
+
+	/**
+	 * @return バッチの実行回数
+	 */
+	long getBatchCount();
+
+	/**
+	 * @return 一回のバッチの実行に含まれる SQL 文の数の平均
+	 */
+	double getBatchSizeMean();
+
+	/**
+	 * @return バッチの実行に要した時間の 99 パーセンタイル（ナノ秒）
+	 */
+	long getBatchFlushP99Nanos();
+
+	/**
+	 * 計測値をすべて破棄します。
+	 */
+	void reset();
+}
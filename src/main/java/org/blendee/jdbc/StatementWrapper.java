@@ -27,4 +27,26 @@ public interface StatementWrapper {
 	 * @return ラップされた {@link Batch}
 	 */
 	Batch wrap(Batch batch);
+
+	/**
+	 * {@link BStatement} が生成されたときに、その SQL 文とともに呼び出されます。<br>
+	 * デフォルトでは {@link #wrap(BStatement)} を呼び出します。
+	 * @param statement 元の {@link BStatement}
+	 * @param sql statement の SQL 文
+	 * @return ラップされた {@link BStatement}
+	 */
+	default BStatement wrap(BStatement statement, String sql) {
+		return wrap(statement);
+	}
+
+	/**
+	 * {@link BPreparedStatement} が生成されたときに、その SQL 文とともに呼び出されます。<br>
+	 * デフォルトでは {@link #wrap(BPreparedStatement)} を呼び出します。
+	 * @param statement 元の {@link BPreparedStatement}
+	 * @param sql statement の SQL 文
+	 * @return ラップされた {@link BPreparedStatement}
+	 */
+	default BPreparedStatement wrap(BPreparedStatement statement, String sql) {
+		return wrap(statement);
+	}
 }
@@ -3,7 +3,10 @@ package org.blendee.jdbc;
 import java.util.Objects;
 
 /**
- * スキーマ名、テーブル名を持ち、テーブルを一意で特定する指標となるクラスです。
+ * スキーマ名、テーブル名を持ち、テーブルを一意で特定する指標となるクラスです。<br>
+ * スキーマ名を持つインスタンスは、比較用の文字列とハッシュ値を生成時に計算しておくので、 {@link java.util.Map} のキーとして使用しても検索のたびに文字列を生成しません。<br>
+ * {@link #of(String, String)} で取得したインスタンスは、スキーマ名とテーブル名の綴りが同じであればコンテキスト内で一意なので、参照の比較のみで一致と判定されます。<br>
+ * 大文字、小文字だけが異なる綴りからは別のインスタンスが返されますが、それらも {@link #equals(Object)} では一致と判定されます。
  * @author 千葉 哲嗣
  */
 public class TablePath implements Comparable<TablePath> {
@@ -19,6 +22,13 @@ public class TablePath implements Comparable<TablePath> {
 
 	private final String tableName;
 
+	/**
+	 * 事前に計算された比較用の文字列、スキーマ名を持たない場合とサブクラスの場合は null
+	 */
+	private final String identity;
+
+	private final int hash;
+
 	/**
 	 * スキーマ名とテーブル名から、インスタンスを生成します。
 	 * @param schemaName スキーマ名
@@ -30,6 +40,15 @@ public class TablePath implements Comparable<TablePath> {
 		Objects.requireNonNull(tableName);
 		this.schemaName = schemaName;
 		this.tableName = tableName;
+
+		//サブクラスは toString() をオーバーライドしている可能性があるので、事前に計算しない
+		if (getClass() == TablePath.class) {
+			identity = (schemaName + delimiter + tableName).toUpperCase();
+			hash = identity.hashCode();
+		} else {
+			identity = null;
+			hash = 0;
+		}
 	}
 
 	/**
@@ -44,6 +63,10 @@ public class TablePath implements Comparable<TablePath> {
 		Objects.requireNonNull(tableName);
 		schemaName = null;
 		this.tableName = tableName;
+
+		//デフォルトスキーマ名は使用時に決まるので、事前に計算しない
+		identity = null;
+		hash = 0;
 	}
 
 	/**
@@ -55,7 +78,24 @@ public class TablePath implements Comparable<TablePath> {
 	}
 
 	/**
-	 * テーブルを一意で特定する指標から、このクラスのインスタンスを生成します。
+	 * スキーマ名とテーブル名に対応する、現在のコンテキストで一意なインスタンスを返します。<br>
+	 * 返したインスタンスは {@link TablePathCache#clearCache()} まで保持され続けるので、メタデータ由来のような種類の限られた名前に使用し、
+	 * 任意の入力から生成する場合はコンストラクタを使用してください。
+	 * @param schemaName スキーマ名
+	 * @param tableName テーブル名
+	 * @return 正規のインスタンス
+	 * @see TablePathCache
+	 */
+	public static TablePath of(String schemaName, String tableName) {
+		Objects.requireNonNull(schemaName);
+		Objects.requireNonNull(tableName);
+		return ContextManager.get(TablePathCache.class).get(schemaName, tableName);
+	}
+
+	/**
+	 * テーブルを一意で特定する指標から、このクラスのインスタンスを生成します。<br>
+	 * 任意の文字列を受け付けるため、生成したインスタンスは {@link TablePathCache} に登録しません。
+	 * 一意なインスタンスが必要な場合は {@link #intern()} を使用してください。
 	 * @param tablePath テーブルを一意で特定する指標
 	 * @return tablePath に対応するインスタンス
 	 * @see TablePath#toString()
@@ -66,6 +106,15 @@ public class TablePath implements Comparable<TablePath> {
 		return new TablePath(tablePath.substring(0, index), tablePath.substring(index + 1));
 	}
 
+	/**
+	 * このインスタンスと同じテーブルを指す、現在のコンテキストで一意なインスタンスを返します。<br>
+	 * スキーマ名を省略している場合、この時点のデフォルトスキーマ名で決定されます。
+	 * @return 正規のインスタンス
+	 */
+	public TablePath intern() {
+		return of(getSchemaName(), tableName);
+	}
+
 	/**
 	 * このインスタンスが持つスキーマ名を返します。
 	 * @return スキーマ名
@@ -91,12 +140,19 @@ public class TablePath implements Comparable<TablePath> {
 
 	@Override
 	public boolean equals(Object o) {
-		return o instanceof TablePath && id().equals(((TablePath) o).id());
+		if (this == o) return true;
+		if (!(o instanceof TablePath)) return false;
+
+		var other = (TablePath) o;
+		if (identity != null && other.identity != null)
+			return hash == other.hash && identity.equals(other.identity);
+
+		return id().equals(other.id());
 	}
 
 	@Override
 	public int hashCode() {
-		return id().hashCode();
+		return identity != null ? hash : id().hashCode();
 	}
 
 	/**
@@ -111,6 +167,7 @@ public class TablePath implements Comparable<TablePath> {
 
 	@Override
 	public int compareTo(TablePath target) {
+		if (this == target) return 0;
 		return id().compareTo(target.id());
 	}
 
@@ -127,6 +184,7 @@ public class TablePath implements Comparable<TablePath> {
 	 * @return 識別用 ID
 	 */
 	protected String id() {
+		if (identity != null) return identity;
 		return toString().toUpperCase();
 	}
 }
@@ -0,0 +1,56 @@
+package org.blendee.jdbc;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * コンテキストごとに、同じスキーマ名、テーブル名の綴りを持つ {@link TablePath} を一つのインスタンスに集約するクラスです。<br>
+ * 検索はスキーマ名、テーブル名をそのままキーとして行うので、既に登録されている場合は文字列の生成もロックの取得も発生しません。<br>
+ * そのため大文字、小文字だけが異なる綴りは別のインスタンスとなり、参照ではなく {@link TablePath#equals(Object)} で一致と判定されます。<br>
+ * 登録されたインスタンスは {@link #clearCache()} まで破棄されないので、メタデータから取得した名前のような、種類の限られた名前のみを登録します。
+ * @author 千葉 哲嗣
+ * @see TablePath#of(String, String)
+ */
+public class TablePathCache implements ManagementSubject {
+
+	private final Map<String, Map<String, TablePath>> cache = new ConcurrentHashMap<>();
+
+	/**
+	 * このクラスのコンストラクタです。<br>
+	 * {@link ContextManager} 管理対象です。
+	 * @see ContextManager#get(Class)
+	 */
+	public TablePathCache() {
+	}
+
+	/**
+	 * スキーマ名とテーブル名に対応する、正規のインスタンスを返します。
+	 * @param schemaName スキーマ名
+	 * @param tableName テーブル名
+	 * @return 正規のインスタンス
+	 */
+	public TablePath get(String schemaName, String tableName) {
+		var tables = cache.get(schemaName);
+		if (tables == null) tables = cache.computeIfAbsent(schemaName, k -> new ConcurrentHashMap<>());
+
+		var path = tables.get(tableName);
+		if (path != null) return path;
+
+		return tables.computeIfAbsent(tableName, k -> new TablePath(schemaName, tableName));
+	}
+
+	/**
+	 * @return 保持している {@link TablePath} の数
+	 */
+	public int size() {
+		return cache.values().stream().mapToInt(Map::size).sum();
+	}
+
+	/**
+	 * キャッシュを消去します。<br>
+	 * 既に返したインスタンスは引き続き使用できますが、以降に返すインスタンスとは同一ではなくなります。
+	 */
+	public void clearCache() {
+		cache.clear();
+	}
+}
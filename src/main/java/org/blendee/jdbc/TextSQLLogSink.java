@@ -0,0 +1,77 @@
+package org.blendee.jdbc;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Date;
+import java.util.Objects;
+import java.util.logging.Level;
+
+import org.blendee.internal.U;
+
+/**
+ * {@link SQLLogEvent} を、 {@link BLogger} にテキストとして出力する {@link SQLLogSink} です。
+ * @author 千葉 哲嗣
+ */
+public class TextSQLLogSink implements SQLLogSink {
+
+	private final BLogger logger;
+
+	/**
+	 * @param logger 出力先
+	 */
+	public TextSQLLogSink(BLogger logger) {
+		this.logger = Objects.requireNonNull(logger);
+	}
+
+	@Override
+	public void accept(SQLLogEvent event) {
+		//ログ出力が輻輳した場合でもSQL単位でまとまって出力するようにsynchronized
+		synchronized (this) {
+			logger.println("Blendee SQL Log: [" + new Date(event.getTimestamp()) + "]");
+			logger.println("------ SQL START ------");
+
+			var callers = event.getCallers();
+			if (callers != null) {
+				logger.println("call from:");
+				for (var caller : callers) {
+					logger.println(" " + caller);
+				}
+			}
+
+			logger.println("sql:");
+			logger.println(" " + event.getSql());
+
+			var bindings = event.getBindings();
+			if (bindings.size() > 0) logger.println("binding value:");
+			for (var binding : bindings) {
+				logger.println(" index:[" + binding.getIndex() + "] type:[" + binding.getType() + "] value:[" + binding.getValue() + "]");
+			}
+
+			logger.println("------  SQL END  ------");
+
+			printElapsed(event.getElapsedNanos(), event.getRows());
+
+			logger.flush(Level.INFO);
+		}
+	}
+
+	@Override
+	public void acceptElapsed(SQLLogEvent event, long elapsedNanos, int rows) {
+		synchronized (this) {
+			printElapsed(elapsedNanos, rows);
+			logger.flush(Level.INFO);
+		}
+	}
+
+	@Override
+	public String toString() {
+		return U.toString(this);
+	}
+
+	private void printElapsed(long elapsed, int rows) {
+		if (elapsed >= 0)
+			logger.println("elapsed: " + new BigDecimal(elapsed / 1000000f).setScale(2, RoundingMode.DOWN) + "ms");
+
+		if (rows >= 0) logger.println("rows: " + rows);
+	}
+}
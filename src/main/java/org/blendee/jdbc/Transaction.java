@@ -105,11 +105,27 @@ public abstract class Transaction implements AutoCloseable {
 		return config;
 	}
 
-	void prepareConnection() {
+	/**
+	 * factory からトランザクションを生成します。<br>
+	 * 計測が有効な場合のみ、接続の取得に要した時間を記録します。
+	 */
+	static Transaction create(TransactionFactory factory, StatementMetrics metrics) {
+		if (!metrics.isEnabled()) return factory.createTransaction();
+
+		var start = System.nanoTime();
+		var transaction = factory.createTransaction();
+		metrics.recordConnectionWait(System.nanoTime() - start);
+
+		return transaction;
+	}
+
+	void prepareConnection(StatementMetrics metrics) {
 		var config = getConfigure();
 
 		var connection = getConnection();
 
+		if (metrics.isEnabled()) connection = new MetricsConnection(connection, metrics);
+
 		if (config.getLoggerWithoutCheck().isLoggable(LoggingConnection.level)) {
 			var logger = new SQLLogger(config.getLoggerWithoutCheck(), config.getLogStackTracePatternWithoutCheck());
 			connection = config.getSQLExtractor().newLoggingConnection(connection, logger);
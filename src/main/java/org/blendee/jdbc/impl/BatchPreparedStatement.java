@@ -40,11 +40,14 @@ class BatchPreparedStatement extends ConcretePreparedStatement {
 		} catch (SQLException e) {
 			close();
 			throw config.getErrorConverter().convert(e);
+		} finally {
+			freeArrays();
 		}
 	}
 
 	@Override
 	public void close() {
+		freeArrays();
 		U.close(statement);
 	}
 
@@ -0,0 +1,81 @@
+package org.blendee.jdbc.impl;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+import org.blendee.internal.U;
+import org.blendee.jdbc.AutoCloseableFinalizer;
+import org.blendee.jdbc.BPreparedStatement;
+import org.blendee.jdbc.Configure;
+
+/**
+ * {@link StatementCache} で使用する {@link BPreparedStatement} の実装クラスです。<br>
+ * close() を実行しても実際にはクローズせず、開いたままの検索結果を閉じ、パラメータをクリアしてキャッシュに戻します。
+ * @author 千葉 哲嗣
+ */
+class CachedPreparedStatement extends ConcretePreparedStatement {
+
+	private final StatementCache cache;
+
+	private final String sql;
+
+	private final PreparedStatement statement;
+
+	private boolean released;
+
+	CachedPreparedStatement(
+		Configure config,
+		StatementCache cache,
+		String sql,
+		PreparedStatement statement,
+		AutoCloseableFinalizer finalizer) {
+		super(config, statement, finalizer);
+		this.cache = cache;
+		this.sql = sql;
+		this.statement = statement;
+	}
+
+	@Override
+	public void close() {
+		if (released) return;
+
+		released = true;
+
+		untrack();
+
+		//実行されずに戻される場合も、設定された配列を次の利用者に引き継がない
+		freeArrays();
+
+		try {
+			resetFetchSize();
+			//前の利用者が閉じていない検索結果を、次の利用者に引き継がない
+			var result = statement.getResultSet();
+			if (result != null) result.close();
+			statement.clearParameters();
+		} catch (SQLException | RuntimeException e) {
+			//再利用できないので、実際にクローズする
+			closeStatement();
+			return;
+		}
+
+		cache.release(this);
+	}
+
+	@Override
+	void forceClose() {
+		released = true;
+		super.forceClose();
+	}
+
+	String sql() {
+		return sql;
+	}
+
+	void reuse() {
+		released = false;
+	}
+
+	void closeStatement() {
+		U.close(statement);
+	}
+}
@@ -0,0 +1,82 @@
+package org.blendee.jdbc.impl;
+
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+
+import org.blendee.internal.U;
+
+/**
+ * 検索結果のカラム名、型、数を {@link ResultSetMetaData} から一度だけ読み込み、保持するクラスです。<br>
+ * 同一の SQL 文の検索結果は同じ構成となるので、 {@link ColumnLayoutCache} で SQL 文ごとに共有されます。<br>
+ * 型名は {@link ResultSetMetaData#getColumnTypeName(int)} がドライバによっては高価なため、必要とされた時点で初めて読み込みます。
+ * @author 千葉 哲嗣
+ */
+class ColumnLayout {
+
+	private final String[] names;
+
+	private final int[] types;
+
+	private volatile String[] typeNames;
+
+	ColumnLayout(ResultSetMetaData metadata) throws SQLException {
+		var count = metadata.getColumnCount();
+		names = new String[count];
+		types = new int[count];
+		for (var i = 0; i < count; i++) {
+			var index = i + 1;
+			names[i] = metadata.getColumnName(index);
+			types[i] = metadata.getColumnType(index);
+		}
+	}
+
+	@Override
+	public String toString() {
+		return U.toString(this);
+	}
+
+	int count() {
+		return names.length;
+	}
+
+	String name(int columnIndex) {
+		return names[columnIndex - 1];
+	}
+
+	int type(int columnIndex) {
+		return types[columnIndex - 1];
+	}
+
+	/**
+	 * @return 型名が読み込み済みの場合、 true
+	 */
+	boolean hasTypeNames() {
+		return typeNames != null;
+	}
+
+	/**
+	 * 型名を読み込みます。
+	 * @param metadata このインスタンスと同じ構成の検索結果の {@link ResultSetMetaData}
+	 * @return null
+	 * @throws SQLException JDBC から投げられた例外
+	 */
+	Void loadTypeNames(ResultSetMetaData metadata) throws SQLException {
+		var loaded = new String[names.length];
+		for (var i = 0; i < loaded.length; i++) {
+			loaded[i] = metadata.getColumnTypeName(i + 1);
+		}
+
+		typeNames = loaded;
+
+		return null;
+	}
+
+	/**
+	 * {@link #loadTypeNames(ResultSetMetaData)} で読み込まれた型名を返します。
+	 * @param columnIndex カラムの位置
+	 * @return 型名
+	 */
+	String typeName(int columnIndex) {
+		return typeNames[columnIndex - 1];
+	}
+}
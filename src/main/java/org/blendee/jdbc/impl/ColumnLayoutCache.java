@@ -0,0 +1,46 @@
+package org.blendee.jdbc.impl;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.blendee.internal.U;
+
+/**
+ * 一つの JDBC 接続で実行された検索の {@link ColumnLayout} を、 SQL 文をキーに保持するキャッシュです。<br>
+ * {@link StatementCache} を使用する場合はそれと同じ期間、使用しない場合は {@link ConcreteConnection} と同じ期間存在します。
+ * @author 千葉 哲嗣
+ */
+class ColumnLayoutCache {
+
+	/**
+	 * 保持する {@link ColumnLayout} の上限数
+	 */
+	static final int DEFAULT_MAX_SIZE = 256;
+
+	private final Map<String, ColumnLayout> cache;
+
+	ColumnLayoutCache(int maxSize) {
+		cache = new LinkedHashMap<>(16, 0.75f, true) {
+
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, ColumnLayout> eldest) {
+				return size() > maxSize;
+			}
+		};
+	}
+
+	@Override
+	public String toString() {
+		return U.toString(this);
+	}
+
+	synchronized ColumnLayout get(String sql) {
+		return cache.get(sql);
+	}
+
+	synchronized void put(String sql, ColumnLayout layout) {
+		cache.put(sql, layout);
+	}
+}
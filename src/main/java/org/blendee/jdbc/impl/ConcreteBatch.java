@@ -1,13 +1,21 @@
 package org.blendee.jdbc.impl;
 
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
+import java.io.InputStream;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.sql.Blob;
+import java.sql.Clob;
+import java.sql.Timestamp;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 import org.blendee.internal.U;
+import org.blendee.jdbc.BPreparedStatement;
 import org.blendee.jdbc.Batch;
+import org.blendee.jdbc.BatchResultSink;
 import org.blendee.jdbc.PreparedStatementComplementer;
+import org.blendee.jdbc.wrapperbase.PreparedStatementBase;
 
 /**
  * @author 千葉 哲嗣
@@ -17,17 +25,36 @@ class ConcreteBatch implements Batch {
 	private static final PreparedStatementComplementer nullComplementer = statement -> {
 	};
 
+	private static final int[] emptyResults = {};
+
 	private final ConcreteConnection connection;
 
-	private final Map<String, BatchResultHolder> batchMap = new HashMap<>();
+	/**
+	 * 外部キーで参照される側の行を先に追加した場合にその順で実行されるよう、 SQL 文が最初に追加された順を保持する
+	 */
+	private final Map<String, BatchResultHolder> batchMap = new LinkedHashMap<>();
 
 	private int counter = 0;
 
+	private int maxStatementCounter = 0;
+
+	private long bytes = 0;
+
 	private int batchOrder = 0;
 
+	private int flushedOrder = 0;
+
 	private int threshold = Integer.MAX_VALUE;
 
-	private int[] currentResults = new int[0];
+	private int statementThreshold = Integer.MAX_VALUE;
+
+	private long byteThreshold = Long.MAX_VALUE;
+
+	private BatchResultSink sink;
+
+	private int[] currentResults = emptyResults;
+
+	private int currentResultsSize = 0;
 
 	ConcreteBatch(ConcreteConnection connection) {
 		this.connection = connection;
@@ -52,8 +79,16 @@ class ConcreteBatch implements Batch {
 		}
 
 		counter++;
-		holder.addGlobalOrder(batchOrder++);
-		complementer.complement(connection.wrap(statement));
+		holder.addOrder(batchOrder++ - flushedOrder);
+		maxStatementCounter = Math.max(maxStatementCounter, holder.size);
+
+		var wrapped = connection.wrap(statement, sql);
+		if (byteThreshold == Long.MAX_VALUE) {
+			complementer.complement(wrapped);
+		} else {
+			complementer.complement(new SizeEstimatingStatement(wrapped));
+		}
+
 		statement.addBatch();
 	}
 
@@ -61,8 +96,15 @@ class ConcreteBatch implements Batch {
 	public int[] execute() {
 		flushBatch();
 		batchOrder = 0;
-		var results = currentResults;
-		currentResults = new int[0];
+		flushedOrder = 0;
+
+		var results = currentResults.length == currentResultsSize
+			? currentResults
+			: Arrays.copyOf(currentResults, currentResultsSize);
+
+		currentResults = emptyResults;
+		currentResultsSize = 0;
+
 		return results;
 	}
 
@@ -72,6 +114,25 @@ class ConcreteBatch implements Batch {
 		if (isThresholdCrossed()) flushBatch();
 	}
 
+	@Override
+	public void setThresholdPerStatement(int threshold) {
+		statementThreshold = threshold;
+		if (isThresholdCrossed()) flushBatch();
+	}
+
+	@Override
+	public void setByteThreshold(long bytes) {
+		byteThreshold = bytes;
+		if (isThresholdCrossed()) flushBatch();
+	}
+
+	@Override
+	public void setResultSink(BatchResultSink sink) {
+		//既に SQL 文が追加されています
+		if (batchOrder > 0) throw new IllegalStateException("statements already added");
+		this.sink = sink;
+	}
+
 	@Override
 	public void close() {
 		for (BatchResultHolder holder : batchMap.values()) {
@@ -85,48 +146,199 @@ class ConcreteBatch implements Batch {
 	}
 
 	private boolean isThresholdCrossed() {
-		return counter >= threshold;
+		return counter >= threshold || maxStatementCounter >= statementThreshold || bytes >= byteThreshold;
 	}
 
 	private void flushBatch() {
-		var results = new int[batchOrder];
-		if (currentResults.length > 0)
-			System.arraycopy(currentResults, 0, results, 0, currentResults.length);
+		var results = new int[batchOrder - flushedOrder];
 
-		for (var entry : batchMap.entrySet()) {
-			var holder = entry.getValue();
+		//ステートメントは次回以降も再利用する
+		for (var holder : batchMap.values()) {
 			holder.executeBatch(results);
 		}
 
-		batchMap.clear();
 		counter = 0;
-		currentResults = results;
+		maxStatementCounter = 0;
+		bytes = 0;
+
+		var offset = flushedOrder;
+		flushedOrder = batchOrder;
+
+		if (sink != null) {
+			if (results.length > 0) sink.accept(offset, results);
+			return;
+		}
+
+		if (currentResultsSize == 0) {
+			currentResults = results;
+			currentResultsSize = results.length;
+			return;
+		}
+
+		var required = currentResultsSize + results.length;
+		if (required > currentResults.length)
+			currentResults = Arrays.copyOf(currentResults, Math.max(required, currentResults.length * 2));
+
+		System.arraycopy(results, 0, currentResults, currentResultsSize, results.length);
+		currentResultsSize = required;
 	}
 
 	private class BatchResultHolder {
 
 		private final BatchPreparedStatement statement;
 
-		private final List<Integer> orders = new ArrayList<>();
+		private int[] orders = new int[16];
+
+		private int size = 0;
 
 		private BatchResultHolder(BatchPreparedStatement statement) {
 			this.statement = statement;
 		}
 
-		private void addGlobalOrder(int order) {
-			orders.add(order);
+		private void addOrder(int order) {
+			if (size == orders.length) orders = Arrays.copyOf(orders, size * 2);
+			orders[size++] = order;
 		}
 
 		private void executeBatch(int[] allResults) {
+			if (size == 0) return;
+
 			var results = statement.executeBatch();
 			for (var i = 0; i < results.length; i++) {
-				var globalOrder = orders.get(i);
-				allResults[globalOrder] = results[i];
+				allResults[orders[i]] = results[i];
 			}
+
+			size = 0;
 		}
 
 		private BatchPreparedStatement getStatement() {
 			return statement;
 		}
 	}
+
+	/**
+	 * セットされた値のバイト数を推定し、加算する {@link BPreparedStatement} です。
+	 */
+	private class SizeEstimatingStatement extends PreparedStatementBase {
+
+		private final BPreparedStatement base;
+
+		private SizeEstimatingStatement(BPreparedStatement base) {
+			this.base = base;
+		}
+
+		@Override
+		protected BPreparedStatement base() {
+			return base;
+		}
+
+		@Override
+		public void setBoolean(int parameterIndex, boolean x) {
+			bytes += 1;
+			super.setBoolean(parameterIndex, x);
+		}
+
+		@Override
+		public void setDouble(int parameterIndex, double x) {
+			bytes += Double.BYTES;
+			super.setDouble(parameterIndex, x);
+		}
+
+		@Override
+		public void setFloat(int parameterIndex, float x) {
+			bytes += Float.BYTES;
+			super.setFloat(parameterIndex, x);
+		}
+
+		@Override
+		public void setInt(int parameterIndex, int x) {
+			bytes += Integer.BYTES;
+			super.setInt(parameterIndex, x);
+		}
+
+		@Override
+		public void setLong(int parameterIndex, long x) {
+			bytes += Long.BYTES;
+			super.setLong(parameterIndex, x);
+		}
+
+		@Override
+		public void setString(int parameterIndex, String x) {
+			bytes += estimate(x);
+			super.setString(parameterIndex, x);
+		}
+
+		@Override
+		public void setTimestamp(int parameterIndex, Timestamp x) {
+			bytes += estimate(x);
+			super.setTimestamp(parameterIndex, x);
+		}
+
+		@Override
+		public void setBigDecimal(int parameterIndex, BigDecimal x) {
+			bytes += estimate(x);
+			super.setBigDecimal(parameterIndex, x);
+		}
+
+		@Override
+		public void setObject(int parameterIndex, Object x) {
+			bytes += estimate(x);
+			super.setObject(parameterIndex, x);
+		}
+
+		@Override
+		public void setArray(int parameterIndex, String typeName, Object[] elements) {
+			for (var element : elements) {
+				bytes += estimate(element);
+			}
+
+			super.setArray(parameterIndex, typeName, elements);
+		}
+
+		@Override
+		public void setBinaryStream(int parameterIndex, InputStream stream, int length) {
+			bytes += length;
+			super.setBinaryStream(parameterIndex, stream, length);
+		}
+
+		@Override
+		public void setCharacterStream(int parameterIndex, Reader reader, int length) {
+			bytes += length * 2L;
+			super.setCharacterStream(parameterIndex, reader, length);
+		}
+
+		@Override
+		public void setBytes(int parameterIndex, byte[] x) {
+			bytes += estimate(x);
+			super.setBytes(parameterIndex, x);
+		}
+
+		@Override
+		public void setBlob(int parameterIndex, Blob blob) {
+			bytes += Long.BYTES;
+			super.setBlob(parameterIndex, blob);
+		}
+
+		@Override
+		public void setClob(int parameterIndex, Clob clob) {
+			bytes += Long.BYTES;
+			super.setClob(parameterIndex, clob);
+		}
+
+		@Override
+		public void setNull(int parameterIndex, int type) {
+			bytes += 1;
+			super.setNull(parameterIndex, type);
+		}
+	}
+
+	private static long estimate(Object value) {
+		if (value == null) return 1;
+		if (value instanceof String) return ((String) value).length() * 2L;
+		if (value instanceof byte[]) return ((byte[]) value).length;
+		if (value instanceof BigDecimal) return ((BigDecimal) value).unscaledValue().bitLength() / 8 + Integer.BYTES * 2;
+		if (value instanceof Timestamp) return Long.BYTES + Integer.BYTES;
+		if (value instanceof Number) return Long.BYTES;
+		return Long.BYTES * 2;
+	}
 }
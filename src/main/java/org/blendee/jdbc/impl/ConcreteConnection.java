@@ -2,7 +2,11 @@ package org.blendee.jdbc.impl;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.Set;
 
@@ -18,6 +22,7 @@ import org.blendee.jdbc.Configure;
 import org.blendee.jdbc.ContextManager;
 import org.blendee.jdbc.JDBCBorrower;
 import org.blendee.jdbc.PreparedStatementComplementer;
+import org.blendee.jdbc.ReturningJDBCBorrower;
 import org.blendee.jdbc.StatementWrapper;
 
 /**
@@ -34,12 +39,54 @@ public class ConcreteConnection implements BConnection {
 
 	private final AutoCloseableFinalizer finalizer;
 
+	private final StatementCache statementCache;
+
+	private final boolean ownsStatementCache;
+
+	private final ColumnLayoutCache columnLayouts;
+
+	private final Set<ConcretePreparedStatement> openStatements;
+
+	private final int fetchSize;
+
 	/**
 	 * JDBC 接続を使用してインスタンスを生成します。
 	 * @param config {@link Configure}
 	 * @param connection JDBC 接続
 	 */
 	public ConcreteConnection(Configure config, Connection connection) {
+		this(config, connection, true);
+	}
+
+	/**
+	 * JDBC 接続を使用してインスタンスを生成します。<br>
+	 * プール等で JDBC 接続がこのインスタンスより長く使用される場合、 autoClose に false を指定します。
+	 * @param config {@link Configure}
+	 * @param connection JDBC 接続
+	 * @param autoClose このインスタンスが参照されなくなった場合に、 JDBC 接続を {@link AutoCloseableFinalizer} で自動的にクローズするか
+	 */
+	public ConcreteConnection(Configure config, Connection connection, boolean autoClose) {
+		this(config, connection, autoClose, createStatementCache(config), true);
+	}
+
+	/**
+	 * JDBC 接続と、その接続に対するステートメントキャッシュを使用してインスタンスを生成します。<br>
+	 * statementCache は JDBC 接続と同じ期間使用されるものとし、このインスタンスはクローズしません。
+	 * @param config {@link Configure}
+	 * @param connection JDBC 接続
+	 * @param autoClose このインスタンスが参照されなくなった場合に、 JDBC 接続を {@link AutoCloseableFinalizer} で自動的にクローズするか
+	 * @param statementCache JDBC 接続のステートメントキャッシュ、使用しない場合 null
+	 */
+	public ConcreteConnection(Configure config, Connection connection, boolean autoClose, StatementCache statementCache) {
+		this(config, connection, autoClose, statementCache, false);
+	}
+
+	private ConcreteConnection(
+		Configure config,
+		Connection connection,
+		boolean autoClose,
+		StatementCache statementCache,
+		boolean ownsStatementCache) {
 		try {
 			if (!config.usesAutoCommit())
 				connection.setAutoCommit(false);
@@ -49,7 +96,7 @@ public class ConcreteConnection implements BConnection {
 
 		AutoCloseableFinalizer finalizer = ContextManager.get(BlendeeManager.class).getAutoCloseableFinalizer();
 		if (finalizer != null && finalizer.started()) {
-			finalizer.register(this, connection);
+			if (autoClose) finalizer.register(this, connection);
 			this.finalizer = finalizer;
 		} else {
 			this.finalizer = null;
@@ -57,18 +104,29 @@ public class ConcreteConnection implements BConnection {
 
 		this.config = config;
 		this.connection = connection;
+
+		this.statementCache = statementCache;
+		this.ownsStatementCache = ownsStatementCache;
+
+		//ステートメントキャッシュがある場合は、それと同じくトランザクションをまたいで共有する
+		columnLayouts = statementCache != null ? statementCache.columnLayouts() : new ColumnLayoutCache(ColumnLayoutCache.DEFAULT_MAX_SIZE);
+
+		//JDBC 接続がこのインスタンスより長く使用される場合、使用中のまま残ったステートメントを次の利用者に引き継がないよう記録する
+		openStatements = statementCache != null || !autoClose ? new HashSet<>() : null;
+
+		fetchSize = config.getFetchSize();
 	}
 
 	@Override
 	public BStatement getStatement(String sql) {
 		var statement = create(sql);
-		return wrap((BStatement) statement, statementWrappers);
+		return wrap((BStatement) statement, sql, statementWrappers);
 	}
 
 	@Override
 	public BPreparedStatement getStatement(String sql, PreparedStatementComplementer complementer) {
 		var statement = create(sql);
-		var wrapped = wrap(statement, statementWrappers);
+		var wrapped = wrap(statement, sql, statementWrappers);
 		complementer.complement(wrapped);
 		return wrapped;
 	}
@@ -76,7 +134,7 @@ public class ConcreteConnection implements BConnection {
 	@Override
 	public BPreparedStatement prepareStatement(String sql) {
 		var statement = create(sql);
-		var wrapped = wrap(statement, statementWrappers);
+		var wrapped = wrap(statement, sql, statementWrappers);
 		return wrapped;
 	}
 
@@ -100,6 +158,25 @@ public class ConcreteConnection implements BConnection {
 		}
 	}
 
+	/**
+	 * このインスタンスから取得され、まだクローズされていないステートメントを全てクローズします。<br>
+	 * このインスタンスがステートメントキャッシュを生成した場合、キャッシュもクローズします。<br>
+	 * トランザクションの終了時に実行されます。
+	 */
+	public void closeStatements() {
+		if (openStatements != null) {
+			ArrayList<ConcretePreparedStatement> statements;
+			synchronized (openStatements) {
+				statements = new ArrayList<>(openStatements);
+				openStatements.clear();
+			}
+
+			statements.forEach(ConcretePreparedStatement::forceClose);
+		}
+
+		if (ownsStatementCache && statementCache != null) statementCache.close();
+	}
+
 	@Override
 	public String toString() {
 		return U.toString(this);
@@ -109,28 +186,92 @@ public class ConcreteConnection implements BConnection {
 		return new BatchPreparedStatement(config, createStatement(sql), finalizer);
 	}
 
-	BPreparedStatement wrap(ConcretePreparedStatement statement) {
-		return wrap(statement, statementWrappers);
+	BPreparedStatement wrap(ConcretePreparedStatement statement, String sql) {
+		return wrap(statement, sql, statementWrappers);
+	}
+
+	/**
+	 * SQL 文の検索結果のカラム情報を、キャッシュから、なければ検索結果かプリペアした SQL 文から読み込んで返します。
+	 * @param sql SQL 文
+	 * @param result 開いている検索結果、既にクローズされている場合 null
+	 * @return カラム情報
+	 * @throws SQLException JDBC から投げられた例外
+	 */
+	ColumnLayout columnLayout(String sql, ResultSet result) throws SQLException {
+		var layout = columnLayouts.get(sql);
+		if (layout != null) return layout;
+
+		layout = readMetadata(sql, result, ColumnLayout::new);
+		columnLayouts.put(sql, layout);
+
+		return layout;
+	}
+
+	/**
+	 * カラム情報に、型名を読み込みます。
+	 * @param sql SQL 文
+	 * @param layout sql のカラム情報
+	 * @param result 開いている検索結果、既にクローズされている場合 null
+	 * @throws SQLException JDBC から投げられた例外
+	 */
+	void loadTypeNames(String sql, ColumnLayout layout, ResultSet result) throws SQLException {
+		readMetadata(sql, result, layout::loadTypeNames);
+	}
+
+	void untrack(ConcretePreparedStatement statement) {
+		synchronized (openStatements) {
+			openStatements.remove(statement);
+		}
 	}
 
 	private ConcretePreparedStatement create(String sql) {
-		return new ConcretePreparedStatement(config, createStatement(sql), finalizer);
+		var statement = createUntracked(sql);
+		statement.sharesLayoutWith(this, sql);
+
+		if (openStatements != null) {
+			statement.trackedBy(this);
+			synchronized (openStatements) {
+				openStatements.add(statement);
+			}
+		}
+
+		return statement;
+	}
+
+	private ConcretePreparedStatement createUntracked(String sql) {
+		if (statementCache == null)
+			return new ConcretePreparedStatement(config, createStatement(sql), finalizer);
+
+		var cached = statementCache.take(sql);
+		if (cached != null) {
+			cached.reuse();
+			return cached;
+		}
+
+		return new CachedPreparedStatement(config, statementCache, sql, createStatement(sql), finalizer);
+	}
+
+	private static StatementCache createStatementCache(Configure config) {
+		var cacheSize = config.getStatementCacheSize();
+		return cacheSize > 0 ? new StatementCache(cacheSize) : null;
 	}
 
 	private static BStatement wrap(
 		BStatement statement,
+		String sql,
 		Set<StatementWrapper> wrappers) {
 		for (var wrapper : wrappers)
-			statement = wrapper.wrap(statement);
+			statement = wrapper.wrap(statement, sql);
 
 		return statement;
 	}
 
 	private static BPreparedStatement wrap(
 		BPreparedStatement statement,
+		String sql,
 		Set<StatementWrapper> wrappers) {
 		for (var wrapper : wrappers)
-			statement = wrapper.wrap(statement);
+			statement = wrapper.wrap(statement, sql);
 
 		return statement;
 	}
@@ -143,9 +284,26 @@ public class ConcreteConnection implements BConnection {
 		return batch;
 	}
 
+	private <R> R readMetadata(String sql, ResultSet result, ReturningJDBCBorrower<ResultSetMetaData, R> reader) throws SQLException {
+		if (result != null) return reader.apply(result.getMetaData());
+
+		//検索結果がクローズされた後は、 SQL 文を実行せずにプリペアだけ行い、カラム情報を取得する
+		try (var statement = connection.prepareStatement(sql)) {
+			var metadata = statement.getMetaData();
+			if (metadata == null)
+				//ドライバが実行前のカラム情報の取得に対応していません
+				throw new SQLException("The driver does not provide column metadata before execution: " + sql);
+
+			return reader.apply(metadata);
+		}
+	}
+
 	private PreparedStatement createStatement(String sql) {
 		try {
-			return connection.prepareStatement(sql);
+			//検索結果は先頭から一度だけ読むので、ドライバがカーソルで少しずつ読み込めるよう前方向読み取り専用を明示する
+			var statement = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+			if (fetchSize > 0) statement.setFetchSize(fetchSize);
+			return statement;
 		} catch (SQLException e) {
 			throw config.getErrorConverter().convert(e);
 		}
@@ -3,12 +3,15 @@ package org.blendee.jdbc.impl;
 import java.io.InputStream;
 import java.io.Reader;
 import java.math.BigDecimal;
+import java.sql.Array;
 import java.sql.Blob;
 import java.sql.Clob;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.sql.Timestamp;
+import java.util.LinkedList;
+import java.util.List;
 
 import org.blendee.internal.U;
 import org.blendee.jdbc.AutoCloseableFinalizer;
@@ -31,6 +34,16 @@ public class ConcretePreparedStatement implements BPreparedStatement {
 
 	private final AutoCloseableFinalizer finalizer;
 
+	private boolean fetchSizeChanged;
+
+	private List<Array> arrays;
+
+	private ConcreteConnection layoutSource;
+
+	private String layoutSQL;
+
+	private ConcreteConnection owner;
+
 	/**
 	 * インスタンスを生成します。
 	 * @param config {@link Configure}
@@ -180,12 +193,30 @@ public class ConcretePreparedStatement implements BPreparedStatement {
 		}
 	}
 
+	@Override
+	public void setArray(int parameterIndex, String typeName, Object[] elements) {
+		try {
+			var array = statement.getConnection().createArrayOf(typeName, elements);
+			if (arrays == null) arrays = new LinkedList<>();
+			//実行後に解放するため、保持しておく
+			arrays.add(array);
+			statement.setArray(parameterIndex, array);
+		} catch (SQLException e) {
+			throw config.getErrorConverter().convert(e);
+		}
+	}
+
 	@Override
 	public BResultSet executeQuery() {
 		try {
-			return new ConcreteResultSet(config, statement.executeQuery(), this, finalizer);
+			var result = statement.executeQuery();
+			if (layoutSource == null) return new ConcreteResultSet(config, result, this, finalizer);
+
+			return new ConcreteResultSet(config, result, this, finalizer, layoutSource, layoutSQL);
 		} catch (SQLException e) {
 			throw config.getErrorConverter().convert(e);
+		} finally {
+			freeArrays();
 		}
 	}
 
@@ -195,6 +226,8 @@ public class ConcretePreparedStatement implements BPreparedStatement {
 			return statement.executeUpdate();
 		} catch (SQLException e) {
 			throw config.getErrorConverter().convert(e);
+		} finally {
+			freeArrays();
 		}
 	}
 
@@ -204,6 +237,8 @@ public class ConcretePreparedStatement implements BPreparedStatement {
 			return statement.execute();
 		} catch (SQLException e) {
 			throw config.getErrorConverter().convert(e);
+		} finally {
+			freeArrays();
 		}
 	}
 
@@ -234,6 +269,16 @@ public class ConcretePreparedStatement implements BPreparedStatement {
 		}
 	}
 
+	@Override
+	public void setFetchSize(int rows) {
+		try {
+			statement.setFetchSize(rows);
+			fetchSizeChanged = true;
+		} catch (SQLException e) {
+			throw config.getErrorConverter().convert(e);
+		}
+	}
+
 	@Override
 	public void lendStatement(JDBCBorrower<Statement> borrower) {
 		try {
@@ -272,6 +317,75 @@ public class ConcretePreparedStatement implements BPreparedStatement {
 
 	@Override
 	public void close() {
+		untrack();
+		freeArrays();
 		U.close(statement);
 	}
+
+	/**
+	 * トランザクション終了時にクローズされるよう、取得元の {@link ConcreteConnection} に登録されたことを記録します。
+	 * @param owner 取得元
+	 */
+	void trackedBy(ConcreteConnection owner) {
+		this.owner = owner;
+	}
+
+	/**
+	 * 取得元の {@link ConcreteConnection} から登録を解除します。
+	 */
+	void untrack() {
+		if (owner == null) return;
+
+		owner.untrack(this);
+		owner = null;
+	}
+
+	/**
+	 * 取得元の {@link ConcreteConnection} のトランザクション終了時に、使用中のままのステートメントを実際にクローズします。<br>
+	 * ステートメントをクローズすることで、開いたままの検索結果もクローズされます。
+	 */
+	void forceClose() {
+		owner = null;
+		freeArrays();
+		U.close(statement);
+	}
+
+	/**
+	 * {@link #setArray(int, String, Object[])} で生成した配列を解放します。<br>
+	 * 実行後は、ドライバが配列の内容を保持する必要はないため、実行ごとに解放します。
+	 */
+	void freeArrays() {
+		if (arrays == null) return;
+
+		arrays.forEach(array -> {
+			try {
+				array.free();
+			} catch (SQLException e) {
+				//解放に失敗しても、実行結果には影響しないので無視する
+			}
+		});
+
+		arrays = null;
+	}
+
+	/**
+	 * {@link #executeQuery()} の検索結果のカラム情報を、取得元の {@link ConcreteConnection} が SQL 文ごとに保持するカラム情報と共有するようにします。
+	 * @param connection 取得元
+	 * @param sql このステートメントの SQL 文
+	 */
+	void sharesLayoutWith(ConcreteConnection connection, String sql) {
+		layoutSource = connection;
+		layoutSQL = sql;
+	}
+
+	/**
+	 * {@link #setFetchSize(int)} で変更された値を、設定値に戻します。
+	 * @throws SQLException JDBC から投げられた例外
+	 */
+	void resetFetchSize() throws SQLException {
+		if (!fetchSizeChanged) return;
+
+		statement.setFetchSize(config.getFetchSize());
+		fetchSizeChanged = false;
+	}
 }
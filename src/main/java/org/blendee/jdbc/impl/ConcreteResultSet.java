@@ -27,7 +27,13 @@ public class ConcreteResultSet implements BResultSet {
 
 	private final ResultSet base;
 
-	private final ResultSetMetaData metadata;
+	private final ConcreteConnection layoutSource;
+
+	private final String layoutSQL;
+
+	private ColumnLayout layout;
+
+	private boolean closed;
 
 	//statementをここで参照しておかないと、statementが先に解放され自動クローズがかかった場合
 	//ResultSetをnext()中でもResultSetがクローズされてしまう
@@ -39,15 +45,25 @@ public class ConcreteResultSet implements BResultSet {
 		ResultSet base,
 		ConcretePreparedStatement statement,
 		AutoCloseableFinalizer finalizer) {
+		this(config, base, statement, finalizer, null, null);
+	}
+
+	/**
+	 * @param layoutSource SQL 文ごとのカラム情報を保持する statement の取得元
+	 * @param layoutSQL statement の SQL 文
+	 */
+	ConcreteResultSet(
+		Configure config,
+		ResultSet base,
+		ConcretePreparedStatement statement,
+		AutoCloseableFinalizer finalizer,
+		ConcreteConnection layoutSource,
+		String layoutSQL) {
 		this.config = config;
 		this.base = base;
 		this.statement = statement;
-
-		try {
-			this.metadata = base.getMetaData();
-		} catch (SQLException e) {
-			throw config.getErrorConverter().convert(e);
-		}
+		this.layoutSource = layoutSource;
+		this.layoutSQL = layoutSQL;
 
 		if (finalizer != null)
 			finalizer.register(this, base);
@@ -328,7 +344,7 @@ public class ConcreteResultSet implements BResultSet {
 	@Override
 	public int getColumnCount() {
 		try {
-			return metadata.getColumnCount();
+			return layout().count();
 		} catch (SQLException e) {
 			throw config.getErrorConverter().convert(e);
 		}
@@ -337,7 +353,7 @@ public class ConcreteResultSet implements BResultSet {
 	@Override
 	public String getColumnName(int columnIndex) {
 		try {
-			return metadata.getColumnName(columnIndex);
+			return layout().name(columnIndex);
 		} catch (SQLException e) {
 			throw config.getErrorConverter().convert(e);
 		}
@@ -346,7 +362,7 @@ public class ConcreteResultSet implements BResultSet {
 	@Override
 	public int getColumnType(int columnIndex) {
 		try {
-			return metadata.getColumnType(columnIndex);
+			return layout().type(columnIndex);
 		} catch (SQLException e) {
 			throw config.getErrorConverter().convert(e);
 		}
@@ -355,14 +371,43 @@ public class ConcreteResultSet implements BResultSet {
 	@Override
 	public String getColumnTypeName(int columnIndex) {
 		try {
-			return metadata.getColumnTypeName(columnIndex);
+			var layout = layout();
+			if (!layout.hasTypeNames()) {
+				if (layoutSource != null) {
+					layoutSource.loadTypeNames(layoutSQL, layout, closed ? null : base);
+				} else {
+					layout.loadTypeNames(base.getMetaData());
+				}
+			}
+
+			return layout.typeName(columnIndex);
 		} catch (SQLException e) {
 			throw config.getErrorConverter().convert(e);
 		}
 	}
 
+	/**
+	 * {@link ResultSetMetaData} は、カラム情報が必要になった時点で初めて取得します。<br>
+	 * 取得元の接続が SQL 文ごとのカラム情報を保持している場合はそれを使用するので、 next() による自動クローズの後でも参照できます。
+	 */
+	private ColumnLayout layout() throws SQLException {
+		if (layout == null) {
+			if (layoutSource != null) {
+				layout = layoutSource.columnLayout(layoutSQL, closed ? null : base);
+			} else {
+				layout = new ColumnLayout(base.getMetaData());
+			}
+		}
+
+		return layout;
+	}
+
 	@Override
 	public void close() {
+		if (closed) return;
+
+		closed = true;
+
 		U.close(base);
 		//ここで statement の参照をなくし、 statement が自動クローズの対象になるようにする
 		statement = null;
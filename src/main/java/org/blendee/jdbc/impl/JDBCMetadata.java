@@ -5,12 +5,16 @@ import java.sql.DatabaseMetaData;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.blendee.internal.U;
 import org.blendee.jdbc.BlendeeManager;
@@ -19,13 +23,18 @@ import org.blendee.jdbc.Configure;
 import org.blendee.jdbc.ContextManager;
 import org.blendee.jdbc.CrossReference;
 import org.blendee.jdbc.Metadata;
+import org.blendee.jdbc.MetadataCache;
+import org.blendee.jdbc.MetadataConfigure;
 import org.blendee.jdbc.PrimaryKeyMetadata;
 import org.blendee.jdbc.StoredIdentifier;
 import org.blendee.jdbc.TableMetadata;
 import org.blendee.jdbc.TablePath;
 
 /**
- * Blendee が使用する {@link Metadata} の標準実装クラスです。
+ * Blendee が使用する {@link Metadata} の標準実装クラスです。<br>
+ * {@link MetadataConfigure#usesBulkLoading()} が true の場合、カラム、主キー、外部キーの情報をスキーマごとに一度だけ一括で取得し、以降はその結果から応答します。<br>
+ * false の場合も、 {@link #preload(String)} で読み込んだスキーマについては、その結果から応答します。<br>
+ * 一括で取得した結果は {@link MetadataCache#clearCache()} で破棄されます。 {@link Configure#usesMetadataCache()} が false の場合、一括取得は行いません。
  * @author 千葉 哲嗣
  */
 public class JDBCMetadata implements Metadata {
@@ -38,6 +47,12 @@ public class JDBCMetadata implements Metadata {
 
 	private final Configure config = ContextManager.get(BlendeeManager.class).getConfigure();
 
+	private final boolean usesBulkLoading = ContextManager.get(MetadataConfigure.class).usesBulkLoading() && config.usesMetadataCache();
+
+	private final MetadataCache cache = ContextManager.get(MetadataCache.class);
+
+	private final Map<String, SchemaIndex> indexes = new ConcurrentHashMap<>();
+
 	/**
 	 */
 	public JDBCMetadata() {
@@ -74,7 +89,7 @@ public class JDBCMetadata implements Metadata {
 
 			var paths = new TablePath[tables.size()];
 			for (var i = 0; i < paths.length; i++) {
-				paths[i] = new TablePath(schemaName, tables.get(i));
+				paths[i] = TablePath.of(schemaName, tables.get(i));
 			}
 
 			return paths;
@@ -103,6 +118,9 @@ public class JDBCMetadata implements Metadata {
 
 	@Override
 	public ColumnMetadata[] getColumnMetadatas(TablePath path) {
+		var index = bulkIndex(path);
+		if (index != null) return index.columns(path);
+
 		try (var result = connection().getMetaData()
 			.getColumns(null, identifier.regularize(path.getSchemaName()), identifier.regularize(path.getTableName()), null)) {
 
@@ -124,32 +142,16 @@ public class JDBCMetadata implements Metadata {
 
 	@Override
 	public Optional<PrimaryKeyMetadata> primaryKeyMetadata(TablePath path) {
+		var index = bulkIndex(path);
+		if (index != null && index.primaryKeys != null) return Optional.ofNullable(index.primaryKeys.get(index.key(path)));
+
 		try (var result = connection().getMetaData()
 			.getPrimaryKeys(
 				null,
 				identifier.regularize(path.getSchemaName()),
 				identifier.regularize(path.getTableName()))) {
 
-			String name = null;
-			var columnList = new ArrayList<Column>();
-			while (result.next()) {
-				name = name == null ? result.getString("PK_NAME") : name;
-				columnList.add(
-					new Column(
-						result.getInt("KEY_SEQ"),
-						result.getString("COLUMN_NAME")));
-			}
-
-			if (columnList.size() == 0) return Optional.empty();
-
-			Collections.sort(columnList);
-			var size = columnList.size();
-			var columnNames = new String[size];
-			for (var i = 0; i < size; i++) {
-				columnNames[i] = columnList.get(i).name;
-			}
-
-			return Optional.of(new SimplePrimaryKeyMetadata(name, columnNames, false));
+			return buildPrimaryKeys(result, null).values().stream().findFirst();
 		} catch (SQLException e) {
 			throw config.getErrorConverter().convert(e);
 		}
@@ -157,6 +159,18 @@ public class JDBCMetadata implements Metadata {
 
 	@Override
 	public TablePath[] getResourcesOfImportedKey(TablePath path) {
+		var index = bulkIndex(path);
+		if (index != null && index.importedKeys != null) {
+			var targets = new TreeSet<TablePath>();
+			for (var result : index.importedKeys(path)) {
+				//もし、使用不可となっている文字を含む場合、使用できるテーブルには含めない
+				if (!checkObjectName(result.pkTable)) continue;
+				targets.add(TablePath.of(result.pkSchema, result.pkTable));
+			}
+
+			return targets.toArray(new TablePath[targets.size()]);
+		}
+
 		try {
 			return getOtherResources(
 				connection().getMetaData()
@@ -189,6 +203,19 @@ public class JDBCMetadata implements Metadata {
 
 	@Override
 	public CrossReference[] getCrossReferences(TablePath exportedTable, TablePath importedTable) {
+		var index = bulkIndex(importedTable);
+		if (index != null && index.importedKeys != null) {
+			var exportedSchema = identifier.regularize(exportedTable.getSchemaName());
+			var exportedName = identifier.regularize(exportedTable.getTableName());
+
+			var resultList = new LinkedList<CrossReferenceResult>();
+			for (var result : index.importedKeys(importedTable)) {
+				if (exportedSchema.equals(result.pkSchema) && exportedName.equals(result.pkTable)) resultList.add(result);
+			}
+
+			return buildCrossReferences(resultList);
+		}
+
 		var resultList = new LinkedList<CrossReferenceResult>();
 		try (var jdbcResult = connection().getMetaData()
 			.getCrossReference(
@@ -206,6 +233,181 @@ public class JDBCMetadata implements Metadata {
 			throw config.getErrorConverter().convert(e);
 		}
 
+		return buildCrossReferences(resultList);
+	}
+
+	/**
+	 * スキーマ内の全テーブルの情報を一度に取得し、 {@link MetadataConfigure#usesBulkLoading()} が false の場合も、以降はその結果から応答するようにします。<br>
+	 * {@link Configure#usesMetadataCache()} が false の場合、結果を保持しないので何も行いません。
+	 */
+	@Override
+	public void preload(String schemaName) {
+		if (!config.usesMetadataCache()) return;
+
+		index(identifier.regularize(schemaName));
+	}
+
+	/*
+	 * DatabaseMetaData の各検索に条件として使用するスキーマ名、テーブル名の識別子パターンは、 JDBC の実装によっては
+	 * 大文字小文字が厳密に適用される可能性があり、その場合は実際には存在するにもかかわらず結果が取得できない
+	 * そこで、 DatabaseMetaData の情報を使用して登録された識別子名に変換後検索に使用するようにする
+	 * ただし、データベースが全角英字識別子の大文字化小文字化を行わない場合、実際には存在するにもかかわらず
+	 * 見つからなくなってしまうので、そのようなデータベースでは、全角英数を識別子内で使用しないこと
+	 */
+	@Override
+	public StoredIdentifier getStoredIdentifier() {
+		return identifier;
+	}
+
+	private Connection connection() {
+		Connection[] container = { null };
+		BlendeeManager.getConnection().lend(c -> container[0] = c);
+		return container[0];
+	}
+
+	/**
+	 * 一括取得を使用する場合と、 {@link #preload(String)} で読み込まれたスキーマの場合に、スキーマ全体の情報を返します。
+	 * @return 使用しない場合、 null
+	 */
+	private SchemaIndex bulkIndex(TablePath path) {
+		var schemaName = identifier.regularize(path.getSchemaName());
+		if (usesBulkLoading) return index(schemaName);
+
+		//事前に読み込まれていても、 MetadataCache が消去された後はテーブルごとの取得に戻る
+		var index = indexes.get(schemaName);
+		return index != null && index.generation == cache.generation() ? index : null;
+	}
+
+	private SchemaIndex index(String schemaName) {
+		var generation = cache.generation();
+
+		//取得済みの場合はロックを取得せずに返す
+		var current = indexes.get(schemaName);
+		if (current != null && current.generation == generation) return current;
+
+		//MetadataCache が消去された後は、取得し直す
+		//compute で行うのは、同じスキーマを同時に取得しないようにするため
+		return indexes.compute(
+			schemaName,
+			(k, index) -> index != null && index.generation == generation ? index : createIndex(schemaName, generation));
+	}
+
+	/**
+	 * テーブル名パターンを指定せずに DatabaseMetaData を検索し、スキーマ内の全テーブルの情報を一度に取得します。<br>
+	 * スキーマ名はパターンとして扱われ、他のスキーマのテーブルも含まれ得るので、結果はスキーマ名とテーブル名の組で保持します。<br>
+	 * 主キー、外部キーはテーブル名の省略を許可しない JDBC の実装もあるので、取得できなかった場合はテーブルごとの取得に切り替えます。
+	 */
+	private SchemaIndex createIndex(String schemaName, long generation) {
+		try {
+			var connection = connection();
+			var metadata = connection.getMetaData();
+
+			var columns = new HashMap<List<String>, List<ColumnMetadata>>();
+			try (var result = metadata.getColumns(null, schemaName, "%", null)) {
+				while (result.next()) {
+					var key = key(result.getString("TABLE_SCHEM"), result.getString("TABLE_NAME"), schemaName);
+					columns.computeIfAbsent(key, k -> new ArrayList<>()).add(new ConcreteColumnMetadata(result));
+				}
+			}
+
+			var primaryKeys = attempt(connection, () -> {
+				try (var result = metadata.getPrimaryKeys(null, schemaName, null)) {
+					return buildPrimaryKeys(result, schemaName);
+				}
+			});
+
+			var importedKeys = attempt(connection, () -> {
+				var map = new HashMap<List<String>, List<CrossReferenceResult>>();
+				try (var result = metadata.getImportedKeys(null, schemaName, null)) {
+					while (result.next()) {
+						var crossReference = new CrossReferenceResult(result);
+						map.computeIfAbsent(key(crossReference.fkSchema, crossReference.fkTable, schemaName), k -> new ArrayList<>())
+							.add(crossReference);
+					}
+				}
+
+				return map;
+			});
+
+			//テーブルが存在するにもかかわらず一件も取得できない場合、一括取得に対応していないとみなす
+			var hasTables = columns.size() > 0;
+			return new SchemaIndex(
+				schemaName,
+				generation,
+				columns,
+				primaryKeys == null || hasTables && primaryKeys.isEmpty() ? null : primaryKeys,
+				importedKeys == null || hasTables && importedKeys.isEmpty() ? null : importedKeys);
+		} catch (SQLException e) {
+			throw config.getErrorConverter().convert(e);
+		}
+	}
+
+	/**
+	 * 一括取得を試み、失敗した場合は null を返します。<br>
+	 * PostgreSQL 等、トランザクション内でエラーが発生するとそのトランザクションが使用できなくなるデータベースがあるので、
+	 * トランザクション内ではセーブポイントを設定し、失敗した場合はそこまでロールバックします。<br>
+	 * セーブポイントが使用できない場合、トランザクション内では一括取得を試みません。
+	 */
+	private static <T> T attempt(Connection connection, BulkLoader<T> loader) throws SQLException {
+		if (connection.getAutoCommit()) {
+			try {
+				return loader.load();
+			} catch (SQLException e) {
+				return null;
+			}
+		}
+
+		if (!connection.getMetaData().supportsSavepoints()) return null;
+
+		var savepoint = connection.setSavepoint();
+		try {
+			var loaded = loader.load();
+			connection.releaseSavepoint(savepoint);
+			return loaded;
+		} catch (SQLException e) {
+			connection.rollback(savepoint);
+			return null;
+		}
+	}
+
+	/**
+	 * @param schemaName 結果のスキーマ名
+	 * @param tableName 結果のテーブル名
+	 * @param defaultSchemaName スキーマをサポートしないデータベースの場合に使用する、検索したスキーマ名
+	 */
+	private static List<String> key(String schemaName, String tableName, String defaultSchemaName) {
+		return Arrays.asList(schemaName == null ? defaultSchemaName : schemaName, tableName);
+	}
+
+	private static Map<List<String>, PrimaryKeyMetadata> buildPrimaryKeys(ResultSet result, String defaultSchemaName) throws SQLException {
+		var names = new HashMap<List<String>, String>();
+		var columnLists = new HashMap<List<String>, List<Column>>();
+		while (result.next()) {
+			var key = key(result.getString("TABLE_SCHEM"), result.getString("TABLE_NAME"), defaultSchemaName);
+			names.putIfAbsent(key, result.getString("PK_NAME"));
+			columnLists.computeIfAbsent(key, k -> new ArrayList<>())
+				.add(
+					new Column(
+						result.getInt("KEY_SEQ"),
+						result.getString("COLUMN_NAME")));
+		}
+
+		var primaryKeys = new HashMap<List<String>, PrimaryKeyMetadata>();
+		columnLists.forEach((key, columnList) -> {
+			Collections.sort(columnList);
+			var size = columnList.size();
+			var columnNames = new String[size];
+			for (var i = 0; i < size; i++) {
+				columnNames[i] = columnList.get(i).name;
+			}
+
+			primaryKeys.put(key, new SimplePrimaryKeyMetadata(names.get(key), columnNames, false));
+		});
+
+		return primaryKeys;
+	}
+
+	private static CrossReference[] buildCrossReferences(List<CrossReferenceResult> resultList) {
 		Collections.sort(resultList);
 
 		var builders = new LinkedList<CrossReferenceBuilder>();
@@ -229,24 +431,6 @@ public class JDBCMetadata implements Metadata {
 		return references;
 	}
 
-	/*
-	 * DatabaseMetaData の各検索に条件として使用するスキーマ名、テーブル名の識別子パターンは、 JDBC の実装によっては
-	 * 大文字小文字が厳密に適用される可能性があり、その場合は実際には存在するにもかかわらず結果が取得できない
-	 * そこで、 DatabaseMetaData の情報を使用して登録された識別子名に変換後検索に使用するようにする
-	 * ただし、データベースが全角英字識別子の大文字化小文字化を行わない場合、実際には存在するにもかかわらず
-	 * 見つからなくなってしまうので、そのようなデータベースでは、全角英数を識別子内で使用しないこと
-	 */
-	@Override
-	public StoredIdentifier getStoredIdentifier() {
-		return identifier;
-	}
-
-	private Connection connection() {
-		Connection[] container = { null };
-		BlendeeManager.getConnection().lend(c -> container[0] = c);
-		return container[0];
-	}
-
 	private static final TablePath[] getOtherResources(
 		ResultSet result,
 		String schemaColumnName,
@@ -258,7 +442,7 @@ public class JDBCMetadata implements Metadata {
 				var tableName = result.getString(tableColumnName);
 				//もし、使用不可となっている文字を含む場合、使用できるテーブルには含めない
 				if (!checkObjectName(tableName)) continue;
-				var path = new TablePath(result.getString(schemaColumnName), tableName);
+				var path = TablePath.of(result.getString(schemaColumnName), tableName);
 				targets.add(path);
 			}
 			return targets.toArray(new TablePath[targets.size()]);
@@ -347,8 +531,8 @@ public class JDBCMetadata implements Metadata {
 		private CrossReferenceBuilder(CrossReferenceResult result) {
 			pkName = result.pkName;
 			fkName = result.fkName;
-			pkTable = new TablePath(result.pkSchema, result.pkTable);
-			fkTable = new TablePath(result.fkSchema, result.fkTable);
+			pkTable = TablePath.of(result.pkSchema, result.pkTable);
+			fkTable = TablePath.of(result.fkSchema, result.fkTable);
 		}
 
 		private void add(CrossReferenceResult result) {
@@ -384,4 +568,55 @@ public class JDBCMetadata implements Metadata {
 			return sequence - column.sequence;
 		}
 	}
+
+	@FunctionalInterface
+	private interface BulkLoader<T> {
+
+		T load() throws SQLException;
+	}
+
+	/**
+	 * 一括で取得した、一つのスキーマのメタデータです。<br>
+	 * 主キー、外部キーが null の場合、一括取得に対応していないので、テーブルごとに取得します。
+	 */
+	private class SchemaIndex {
+
+		private final String schemaName;
+
+		private final long generation;
+
+		private final Map<List<String>, List<ColumnMetadata>> columns;
+
+		private final Map<List<String>, PrimaryKeyMetadata> primaryKeys;
+
+		private final Map<List<String>, List<CrossReferenceResult>> importedKeys;
+
+		private SchemaIndex(
+			String schemaName,
+			long generation,
+			Map<List<String>, List<ColumnMetadata>> columns,
+			Map<List<String>, PrimaryKeyMetadata> primaryKeys,
+			Map<List<String>, List<CrossReferenceResult>> importedKeys) {
+			this.schemaName = schemaName;
+			this.generation = generation;
+			this.columns = columns;
+			this.primaryKeys = primaryKeys;
+			this.importedKeys = importedKeys;
+		}
+
+		private List<String> key(TablePath path) {
+			return Arrays.asList(schemaName, identifier.regularize(path.getTableName()));
+		}
+
+		private ColumnMetadata[] columns(TablePath path) {
+			var list = columns.get(key(path));
+			if (list == null) return new ColumnMetadata[0];
+			return list.toArray(new ColumnMetadata[list.size()]);
+		}
+
+		private List<CrossReferenceResult> importedKeys(TablePath path) {
+			var list = importedKeys.get(key(path));
+			return list == null ? Collections.emptyList() : list;
+		}
+	}
 }
@@ -28,10 +28,35 @@ public class JDBCTransaction extends Transaction {
 	 * @param jdbcConnection JDBC 接続
 	 */
 	public JDBCTransaction(Connection jdbcConnection) {
+		this(jdbcConnection, true);
+	}
+
+	/**
+	 * JDBC 接続を使用してインスタンスを生成します。
+	 * @param jdbcConnection JDBC 接続
+	 * @param autoClose このインスタンスが参照されなくなった場合に、 JDBC 接続を自動的にクローズするか
+	 * @see ConcreteConnection#ConcreteConnection(Configure, Connection, boolean)
+	 */
+	protected JDBCTransaction(Connection jdbcConnection, boolean autoClose) {
 		Objects.requireNonNull(jdbcConnection);
 
 		this.jdbcConnection = jdbcConnection;
-		connection = new ConcreteConnection(config, jdbcConnection);
+		connection = new ConcreteConnection(config, jdbcConnection, autoClose);
+	}
+
+	/**
+	 * JDBC 接続と、その接続に対するステートメントキャッシュを使用してインスタンスを生成します。<br>
+	 * プール等で JDBC 接続がトランザクションより長く使用される場合に、トランザクションをまたいでステートメントを再利用するために使用します。
+	 * @param jdbcConnection JDBC 接続
+	 * @param autoClose このインスタンスが参照されなくなった場合に、 JDBC 接続を自動的にクローズするか
+	 * @param statementCache JDBC 接続のステートメントキャッシュ、使用しない場合 null
+	 * @see ConcreteConnection#ConcreteConnection(Configure, Connection, boolean, StatementCache)
+	 */
+	protected JDBCTransaction(Connection jdbcConnection, boolean autoClose, StatementCache statementCache) {
+		Objects.requireNonNull(jdbcConnection);
+
+		this.jdbcConnection = jdbcConnection;
+		connection = new ConcreteConnection(config, jdbcConnection, autoClose, statementCache);
 	}
 
 	@Override
@@ -61,6 +86,15 @@ public class JDBCTransaction extends Transaction {
 		}
 	}
 
+	@Override
+	public void close() {
+		try {
+			connection.closeStatements();
+		} finally {
+			super.close();
+		}
+	}
+
 	/**
 	 * 内部で使用する {@link Connection} を閉じます。<br>
 	 * 何らかの理由で接続を後で閉じたい場合、このメソッドをオーバーライドしてください。
@@ -1,25 +1,49 @@
 package org.blendee.jdbc.impl;
 
-import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.blendee.jdbc.ContextStrategy;
 
 /**
- * {@link ContextStrategy} の簡易実装クラスです。
+ * {@link ContextStrategy} の簡易実装クラスです。<br>
+ * 既に生成されたインスタンスの取得はロックを使用せずに行われます。
  * @author 千葉 哲嗣
  */
 public class SimpleContextStrategy implements ContextStrategy {
 
 	private final Object lock = new Object();
 
-	private final Map<String, Map<Class<?>, Object>> contextMap = new HashMap<>();
+	private final Map<String, Map<Class<?>, Object>> contextMap = new ConcurrentHashMap<>();
 
 	@Override
 	public <T> T getManagedInstance(String contextName, Class<T> clazz) {
 		Objects.requireNonNull(clazz);
 
+		var map = contextMap.get(contextName);
+		var instance = map == null ? null : map.get(clazz);
+
+		if (instance == null) instance = createManagedInstance(contextName, clazz);
+
+		@SuppressWarnings("unchecked")
+		var result = (T) instance;
+
+		return result;
+	}
+
+	@Override
+	public void release(String contextName) {
+		synchronized (lock) {
+			contextMap.remove(contextName);
+		}
+	}
+
+	/**
+	 * インスタンスの生成は一度だけ行われるよう同期化します。<br>
+	 * 生成中のインスタンスのコンストラクタから、同一スレッドで他のインスタンスを取得することが可能です。
+	 */
+	private Object createManagedInstance(String contextName, Class<?> clazz) {
 		Object instance;
 		synchronized (lock) {
 			var map = getContextMap(contextMap, contextName);
@@ -37,23 +61,13 @@ public class SimpleContextStrategy implements ContextStrategy {
 			}
 		}
 
-		@SuppressWarnings("unchecked")
-		var result = (T) instance;
-
-		return result;
-	}
-
-	@Override
-	public void release(String contextName) {
-		synchronized (lock) {
-			contextMap.remove(contextName);
-		}
+		return instance;
 	}
 
 	private static Map<Class<?>, Object> getContextMap(Map<String, Map<Class<?>, Object>> map, String name) {
 		var contextMap = map.get(name);
 		if (contextMap == null) {
-			contextMap = new HashMap<>();
+			contextMap = new ConcurrentHashMap<>();
 			map.put(name, contextMap);
 		}
 
@@ -0,0 +1,90 @@
+package org.blendee.jdbc.impl;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.blendee.internal.U;
+
+/**
+ * 一つの JDBC 接続で使用されていないプリペアドステートメントを、 SQL 文をキーに保持するキャッシュです。<br>
+ * JDBC 接続と同じ期間存在し、その接続を使用するトランザクションをまたいでステートメントを再利用します。<br>
+ * プール等で JDBC 接続をトランザクションより長く使用する場合は、接続ごとにこのクラスのインスタンスを生成し、接続を閉じる前に {@link #close()} を実行してください。
+ * @author 千葉 哲嗣
+ * @see JDBCTransaction#JDBCTransaction(java.sql.Connection, boolean, StatementCache)
+ */
+public class StatementCache {
+
+	private final Map<String, CachedPreparedStatement> cache;
+
+	private final ColumnLayoutCache columnLayouts = new ColumnLayoutCache(ColumnLayoutCache.DEFAULT_MAX_SIZE);
+
+	private boolean closed;
+
+	/**
+	 * インスタンスを生成します。
+	 * @param maxSize 保持するステートメントの上限数
+	 */
+	public StatementCache(int maxSize) {
+		//maxSize は 1 以上である必要があります
+		if (maxSize <= 0) throw new IllegalArgumentException("maxSize must be greater than 0");
+
+		cache = new LinkedHashMap<>(16, 0.75f, true) {
+
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, CachedPreparedStatement> eldest) {
+				if (size() <= maxSize) return false;
+
+				eldest.getValue().closeStatement();
+
+				return true;
+			}
+		};
+	}
+
+	/**
+	 * 保持しているステートメントを全てクローズし、以降に返却されるステートメントは保持せずにクローズします。
+	 */
+	public synchronized void close() {
+		closed = true;
+		cache.values().forEach(CachedPreparedStatement::closeStatement);
+		cache.clear();
+	}
+
+	@Override
+	public String toString() {
+		return U.toString(this);
+	}
+
+	/**
+	 * @return このキャッシュと同じ JDBC 接続で使用する {@link ColumnLayoutCache}
+	 */
+	ColumnLayoutCache columnLayouts() {
+		return columnLayouts;
+	}
+
+	/**
+	 * SQL 文に対応するステートメントをキャッシュから取り出します。
+	 * @param sql SQL 文
+	 * @return ステートメント、保持していない場合 null
+	 */
+	synchronized CachedPreparedStatement take(String sql) {
+		return cache.remove(sql);
+	}
+
+	/**
+	 * 使用が終わったステートメントをキャッシュに戻します。
+	 * @param statement ステートメント
+	 */
+	synchronized void release(CachedPreparedStatement statement) {
+		if (closed) {
+			statement.closeStatement();
+			return;
+		}
+
+		//同じ SQL のステートメントが既に保持されている場合、古い方をクローズする
+		var old = cache.put(statement.sql(), statement);
+		if (old != null) old.closeStatement();
+	}
+}
@@ -1,6 +1,7 @@
 package org.blendee.jdbc.wrapperbase;
 
 import org.blendee.jdbc.Batch;
+import org.blendee.jdbc.BatchResultSink;
 import org.blendee.jdbc.PreparedStatementComplementer;
 
 /**
@@ -35,6 +36,21 @@ public abstract class BatchBase implements Batch {
 		base().setThreshold(threshold);
 	}
 
+	@Override
+	public void setThresholdPerStatement(int threshold) {
+		base().setThresholdPerStatement(threshold);
+	}
+
+	@Override
+	public void setByteThreshold(long bytes) {
+		base().setByteThreshold(bytes);
+	}
+
+	@Override
+	public void setResultSink(BatchResultSink sink) {
+		base().setResultSink(sink);
+	}
+
 	@Override
 	public void close() {
 		base().close();
@@ -62,6 +62,11 @@ public abstract class MetadataBase implements Metadata {
 		return base().getResourcesOfExportedKey(path);
 	}
 
+	@Override
+	public void preload(String schemaName) {
+		base().preload(schemaName);
+	}
+
 	@Override
 	public CrossReference[] getCrossReferences(
 		TablePath exportedTable,
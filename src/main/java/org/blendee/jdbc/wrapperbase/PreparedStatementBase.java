@@ -71,6 +71,11 @@ public abstract class PreparedStatementBase implements BPreparedStatement {
 		base().setObject(parameterIndex, x);
 	}
 
+	@Override
+	public void setArray(int parameterIndex, String typeName, Object[] elements) {
+		base().setArray(parameterIndex, typeName, elements);
+	}
+
 	@Override
 	public void setBinaryStream(int parameterIndex, InputStream stream, int length) {
 		base().setBinaryStream(parameterIndex, stream, length);
@@ -151,6 +156,11 @@ public abstract class PreparedStatementBase implements BPreparedStatement {
 		return base().hashCode();
 	}
 
+	@Override
+	public void setFetchSize(int rows) {
+		base().setFetchSize(rows);
+	}
+
 	@Override
 	public void lendStatement(JDBCBorrower<Statement> borrower) {
 		base().lendStatement(borrower);
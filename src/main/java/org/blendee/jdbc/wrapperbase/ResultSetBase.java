@@ -1,6 +1,9 @@
 package org.blendee.jdbc.wrapperbase;
 
+import java.sql.ResultSet;
+
 import org.blendee.jdbc.BResultSet;
+import org.blendee.jdbc.JDBCBorrower;
 
 /**
  * {@link BResultSet} のラッパーを実装するベースとなる、抽象基底クラスです。
@@ -24,4 +27,9 @@ public abstract class ResultSetBase extends ResultBase implements BResultSet {
 	public void close() {
 		base().close();
 	}
+
+	@Override
+	public void lend(JDBCBorrower<ResultSet> borrower) {
+		base().lend(borrower);
+	}
 }
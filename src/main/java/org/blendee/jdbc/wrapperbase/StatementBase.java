@@ -70,6 +70,11 @@ public abstract class StatementBase implements BStatement {
 		return base().hashCode();
 	}
 
+	@Override
+	public void setFetchSize(int rows) {
+		base().setFetchSize(rows);
+	}
+
 	@Override
 	public void lendStatement(JDBCBorrower<Statement> borrower) {
 		base().lendStatement(borrower);
@@ -4,10 +4,7 @@ import java.math.BigDecimal;
 import java.sql.Blob;
 import java.sql.Clob;
 import java.sql.Timestamp;
-import java.util.Arrays;
-import java.util.HashMap;
-import java.util.LinkedHashMap;
-import java.util.Map;
+import java.util.BitSet;
 import java.util.UUID;
 import java.util.logging.Level;
 
@@ -18,83 +15,144 @@ import org.blendee.sql.Binder;
 import org.blendee.sql.Column;
 import org.blendee.sql.Relationship;
 import org.blendee.sql.ValueExtractors;
-import org.blendee.sql.binder.NullBinder;
 
 /**
  * @author 千葉 哲嗣
  */
 class ConcreteSelectedValues implements SelectedValues {
 
-	private final Map<Column, Object> values = new HashMap<>();
+	private final SelectedValuesLayout layout;
 
-	private final Map<Column, NullBinder> nullValues = new HashMap<>();
+	private final Object[] values;
 
-	private final ValueExtractors extractors;
+	/**
+	 * プリミティブ値として保持するカラムの値<br>
+	 * double は {@link Double#doubleToRawLongBits(double)} で、 boolean は 1 か 0 で保持する
+	 */
+	private final long[] primitives;
+
+	private final BitSet nulls;
 
 	ConcreteSelectedValues(
 		Result result,
 		Column[] selected,
 		ValueExtractors extractors) {
-		this.extractors = extractors;
-		for (int i = 0; i < selected.length; i++) {
-			var column = selected[i];
-			var extractor = extractors.selectValueExtractor(column.getType());
-			values.put(column, extractor.extract(result, i + 1));
-			if (result.wasNull()) nullValues.put(column, new NullBinder(result.getColumnType(i + 1)));
-		}
+		this(result, new SelectedValuesLayout(selected, extractors));
 	}
 
 	ConcreteSelectedValues(
 		Result result,
 		Relationship relation,
 		ValueExtractors extractors) {
-		this.extractors = extractors;
+		this(result, new SelectedValuesLayout(result, relation, extractors));
+	}
+
+	ConcreteSelectedValues(Result result, SelectedValuesLayout layout) {
+		this.layout = layout;
 
-		var columnMap = new LinkedHashMap<String, Integer>();
-		var columnCount = result.getColumnCount();
-		for (var i = 0; i < columnCount; i++) {
-			var index = i + 1;
-			columnMap.put(result.getColumnName(index), index);
+		var size = layout.size();
+		values = new Object[size];
+		primitives = layout.hasPrimitive() ? new long[size] : null;
+
+		//NULL を含まない行では BitSet を生成しない
+		BitSet nulls = null;
+		for (var i = 0; i < size; i++) {
+			var index = layout.resultIndex(i);
+			switch (layout.kind(i)) {
+			case SelectedValuesLayout.INT:
+				primitives[i] = result.getInt(index);
+				break;
+			case SelectedValuesLayout.LONG:
+				primitives[i] = result.getLong(index);
+				break;
+			case SelectedValuesLayout.DOUBLE:
+				primitives[i] = Double.doubleToRawLongBits(result.getDouble(index));
+				break;
+			case SelectedValuesLayout.BOOLEAN:
+				primitives[i] = result.getBoolean(index) ? 1 : 0;
+				break;
+			default:
+				values[i] = layout.extractor(i).extract(result, index);
+			}
+
+			if (result.wasNull()) {
+				if (nulls == null) nulls = new BitSet(size);
+				nulls.set(i);
+				if (primitives != null) primitives[i] = 0;
+				layout.prepareNullBinder(result, i);
+			}
 		}
 
-		Arrays.stream(relation.getColumns())
-			.filter(c -> columnMap.containsKey(c.getName()))
-			.forEach(c -> {
-				var extractor = extractors.selectValueExtractor(c.getType());
-				var index = columnMap.get(c.getName());
-				values.put(c, extractor.extract(result, index));
-				if (result.wasNull()) nullValues.put(c, new NullBinder(result.getColumnType(index)));
-			});
+		this.nulls = nulls;
 	}
 
 	@Override
 	public boolean getBoolean(Column column) {
-		var value = (Boolean) getObject(column);
+		var position = position(column);
+		if (layout.kind(position) == SelectedValuesLayout.BOOLEAN) return primitives[position] != 0;
+
+		var value = (Boolean) value(position);
 		return value != null ? value.booleanValue() : false;
 	}
 
 	@Override
 	public double getDouble(Column column) {
-		var value = (Number) getObject(column);
-		return value != null ? value.doubleValue() : 0;
+		var position = position(column);
+		switch (layout.kind(position)) {
+		case SelectedValuesLayout.INT:
+		case SelectedValuesLayout.LONG:
+			return primitives[position];
+		case SelectedValuesLayout.DOUBLE:
+			return Double.longBitsToDouble(primitives[position]);
+		default:
+			var value = (Number) value(position);
+			return value != null ? value.doubleValue() : 0;
+		}
 	}
 
 	@Override
 	public float getFloat(Column column) {
-		var value = (Number) getObject(column);
-		return value != null ? value.floatValue() : 0;
+		var position = position(column);
+		switch (layout.kind(position)) {
+		case SelectedValuesLayout.INT:
+		case SelectedValuesLayout.LONG:
+			return primitives[position];
+		case SelectedValuesLayout.DOUBLE:
+			return (float) Double.longBitsToDouble(primitives[position]);
+		default:
+			var value = (Number) value(position);
+			return value != null ? value.floatValue() : 0;
+		}
 	}
 
 	@Override
 	public int getInt(Column column) {
-		var value = (Number) getObject(column);
-		return value != null ? value.intValue() : 0;
+		var position = position(column);
+		switch (layout.kind(position)) {
+		case SelectedValuesLayout.INT:
+		case SelectedValuesLayout.LONG:
+			return (int) primitives[position];
+		case SelectedValuesLayout.DOUBLE:
+			return (int) Double.longBitsToDouble(primitives[position]);
+		default:
+			var value = (Number) value(position);
+			return value != null ? value.intValue() : 0;
+		}
 	}
 
 	@Override
 	public long getLong(Column column) {
-		var value = (Number) getObject(column);
-		return value != null ? value.longValue() : 0;
+		var position = position(column);
+		switch (layout.kind(position)) {
+		case SelectedValuesLayout.INT:
+		case SelectedValuesLayout.LONG:
+			return primitives[position];
+		case SelectedValuesLayout.DOUBLE:
+			return (long) Double.longBitsToDouble(primitives[position]);
+		default:
+			var value = (Number) value(position);
+			return value != null ? value.longValue() : 0;
+		}
 	}
 
 	@Override
@@ -136,33 +194,52 @@ class ConcreteSelectedValues implements SelectedValues {
 
 	@Override
 	public Binder getBinder(Column column) {
-		var nullBinder = nullValues.get(column);
-		if (nullBinder != null) return nullBinder;
+		var position = position(column);
 
-		var value = getObject(column);
-		return extractors.selectValueExtractor(value.getClass()).extractAsBinder(value);
+		if (nulls != null && nulls.get(position)) return layout.nullBinder(position);
+
+		var value = value(position);
+		return layout.valueExtractors().selectValueExtractor(value.getClass()).extractAsBinder(value);
 	}
 
 	@Override
 	public Object getObject(Column column) {
-		checkContains(column);
-		return values.get(column);
+		return value(position(column));
 	}
 
 	@Override
 	public boolean isNull(Column column) {
-		checkContains(column);
-		return nullValues.containsKey(column);
+		var position = position(column);
+		return nulls != null && nulls.get(position);
 	}
 
 	@Override
 	public Column[] getSelectedColumns() {
-		return values.keySet().toArray(new Column[values.size()]);
+		return layout.columns();
 	}
 
 	@Override
 	public boolean isSelected(Column column) {
-		return values.containsKey(column);
+		return layout.position(column) != -1;
+	}
+
+	@Override
+	public boolean valueEquals(Column column, SelectedValues another) {
+		var position = position(column);
+
+		//同じ検索結果の行同士であれば、プリミティブ値のまま比較する
+		if (layout.kind(position) != SelectedValuesLayout.OBJECT && another instanceof ConcreteSelectedValues) {
+			var target = (ConcreteSelectedValues) another;
+			if (target.layout == layout) {
+				var isNull = nulls != null && nulls.get(position);
+				var targetIsNull = target.nulls != null && target.nulls.get(position);
+				if (isNull || targetIsNull) return isNull == targetIsNull;
+
+				return primitives[position] == target.primitives[position];
+			}
+		}
+
+		return SelectedValues.super.valueEquals(column, another);
 	}
 
 	@Override
@@ -170,11 +247,36 @@ class ConcreteSelectedValues implements SelectedValues {
 		return U.toString(this);
 	}
 
-	private void checkContains(Column column) {
-		if (!values.containsKey(column)) {
+	/**
+	 * プリミティブ値として保持している値は、ここで初めてボクシングする
+	 */
+	private Object value(int position) {
+		var kind = layout.kind(position);
+		if (kind == SelectedValuesLayout.OBJECT) return values[position];
+
+		if (nulls != null && nulls.get(position)) return null;
+
+		var primitive = primitives[position];
+		switch (kind) {
+		case SelectedValuesLayout.INT:
+			return Integer.valueOf((int) primitive);
+		case SelectedValuesLayout.LONG:
+			return Long.valueOf(primitive);
+		case SelectedValuesLayout.DOUBLE:
+			return Double.valueOf(Double.longBitsToDouble(primitive));
+		default:
+			return Boolean.valueOf(primitive != 0);
+		}
+	}
+
+	private int position(Column column) {
+		var position = layout.position(column);
+		if (position == -1) {
 			var message = IllegalValueException.buildMessage(column);
 			BlendeeManager.getLogger().log(Level.WARNING, message);
 			throw new IllegalValueException(message);
 		}
+
+		return position;
 	}
 }
@@ -18,6 +18,7 @@ import org.blendee.sql.Column;
 import org.blendee.sql.Criteria;
 import org.blendee.sql.CriteriaFactory;
 import org.blendee.sql.DeleteDMLBuilder;
+import org.blendee.sql.FetchSizeHint;
 import org.blendee.sql.FromClause;
 import org.blendee.sql.InsertDMLBuilder;
 import org.blendee.sql.OrderByClause;
@@ -429,7 +430,11 @@ public class DataAccessHelper {
 		var builder = buildSQLQueryBuilder(context, criteria, order, options);
 		return new DataObjectIterator(
 			factory.getInstance(context.tablePath()),
-			selectInternal(builder.sql(), builder, builder.getSelectClause().getColumns(), context),
+			selectInternal(
+				builder.sql(),
+				FetchSizeHint.apply(options == null ? 0 : FetchSizeHint.find(options), builder),
+				builder.getSelectClause().getColumns(),
+				context),
 			readonly);
 	}
 
@@ -589,6 +589,32 @@ public class DataObject
 		return new PrimaryKey(relationship.getTablePath(), getPrimaryKeyBinders());
 	}
 
+	/**
+	 * このインスタンスと another の主キーの値が等しいかを検査します。<br>
+	 * {@link #getPrimaryKey()} 同士の比較と同じ結果となりますが、同じ {@link Relationship} を持つ場合は {@link PrimaryKey} を生成せずに比較します。
+	 * @param another 比較対象
+	 * @return 主キーの値が等しい場合、 true
+	 * @throws IllegalStateException このテーブルが主キーを持たない場合
+	 * @throws NullPrimaryKeyException 主キーが NULL の場合
+	 */
+	public boolean primaryKeyEquals(DataObject another) {
+		if (!relationship.equals(another.relationship)) return getPrimaryKey().equals(another.getPrimaryKey());
+
+		var columns = relationship.getPrimaryKeyColumns();
+		if (columns.length == 0)
+			//relationship.getTablePath() + " は PK を持ちません"
+			throw new IllegalStateException(relationship.getTablePath() + " has not PK");
+
+		for (var i = 0; i < columns.length; i++) {
+			var column = columns[i];
+			if (values.isNull(column)) throw new NullPrimaryKeyException(relationship);
+			if (another.values.isNull(column)) throw new NullPrimaryKeyException(another.relationship);
+			if (!values.valueEquals(column, another.values)) return false;
+		}
+
+		return true;
+	}
+
 	/**
 	 * このインスタンスのテーブルが持つ外部キーを返します。
 	 * @param foreignKeyName 外部キー名
@@ -4,6 +4,7 @@ import java.math.BigDecimal;
 import java.sql.Blob;
 import java.sql.Clob;
 import java.sql.Timestamp;
+import java.util.Objects;
 import java.util.UUID;
 
 import org.blendee.sql.Binder;
@@ -148,4 +149,15 @@ public interface SelectedValues {
 	 * @return SELECT されたかどうか
 	 */
 	boolean isSelected(Column column);
+
+	/**
+	 * 指定されたカラムの値が、 another の同じカラムの値と等しいかを検査します。
+	 * @param column {@link Column} インスタンス
+	 * @param another 比較対象
+	 * @return 等しい場合、 true
+	 * @throws IllegalValueException 検索結果にカラムが存在しない場合
+	 */
+	default boolean valueEquals(Column column, SelectedValues another) {
+		return Objects.deepEquals(getObject(column), another.getObject(column));
+	}
 }
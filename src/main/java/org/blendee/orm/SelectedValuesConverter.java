@@ -17,4 +17,14 @@ public interface SelectedValuesConverter {
 	 * @return {@link SelectedValues}
 	 */
 	SelectedValues convert(Result result, Column[] columns);
+
+	/**
+	 * 一回の検索ごとに、その検索結果の変換に使用する {@link SelectedValuesConverter} を返します。<br>
+	 * 検索中変わらない情報を事前に準備しておきたい場合に、オーバーライドしてください。
+	 * @param columns 検索時に指定したカラム
+	 * @return この検索で使用する {@link SelectedValuesConverter}
+	 */
+	default SelectedValuesConverter prepare(Column[] columns) {
+		return this;
+	}
 }
@@ -40,7 +40,7 @@ public class SelectedValuesIterator implements AutoCloseableIterator<SelectedVal
 		this.statement = statement;
 		this.result = result;
 		this.columns = columns;
-		this.converter = converter;
+		this.converter = converter.prepare(columns);
 	}
 
 	/**
@@ -0,0 +1,213 @@
+package org.blendee.orm;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.Map;
+
+import org.blendee.internal.U;
+import org.blendee.jdbc.Result;
+import org.blendee.sql.Column;
+import org.blendee.sql.Relationship;
+import org.blendee.sql.ValueExtractor;
+import org.blendee.sql.ValueExtractors;
+import org.blendee.sql.binder.NullBinder;
+
+/**
+ * 一回の検索で共通となる、カラムと検索結果内の位置、 {@link ValueExtractor} の対応を保持するクラスです。<br>
+ * 検索結果の各行は、このクラスのインスタンスを共有します。
+ * @author 千葉 哲嗣
+ */
+class SelectedValuesLayout implements SelectedValuesConverter {
+
+	/**
+	 * 値をオブジェクトとして保持するカラム
+	 */
+	static final byte OBJECT = 0;
+
+	/**
+	 * 値を int として保持するカラム
+	 */
+	static final byte INT = 1;
+
+	/**
+	 * 値を long として保持するカラム
+	 */
+	static final byte LONG = 2;
+
+	/**
+	 * 値を double として保持するカラム
+	 */
+	static final byte DOUBLE = 3;
+
+	/**
+	 * 値を boolean として保持するカラム
+	 */
+	static final byte BOOLEAN = 4;
+
+	private final Column[] columns;
+
+	private final int[] resultIndexes;
+
+	private final ValueExtractor[] extractors;
+
+	private final Map<Column, Integer> positions;
+
+	private final ValueExtractors valueExtractors;
+
+	private final NullBinder[] nullBinders;
+
+	private final byte[] kinds;
+
+	private final boolean hasPrimitive;
+
+	SelectedValuesLayout(Column[] selected, ValueExtractors extractors) {
+		this(selected, extractors, false);
+	}
+
+	SelectedValuesLayout(Column[] selected, ValueExtractors extractors, boolean usesPrimitiveFetch) {
+		var length = selected.length;
+
+		columns = selected.clone();
+		resultIndexes = new int[length];
+		this.extractors = new ValueExtractor[length];
+		positions = new HashMap<>(length * 2);
+		valueExtractors = extractors;
+		nullBinders = new NullBinder[length];
+
+		for (var i = 0; i < length; i++) {
+			var column = columns[i];
+			resultIndexes[i] = i + 1;
+			this.extractors[i] = extractors.selectValueExtractor(column.getType());
+			positions.put(column, i);
+		}
+
+		kinds = new byte[length];
+		hasPrimitive = usesPrimitiveFetch && prepareKinds(this.extractors, kinds);
+	}
+
+	SelectedValuesLayout(Result result, Relationship relation, ValueExtractors extractors) {
+		var columnMap = new LinkedHashMap<String, Integer>();
+		var columnCount = result.getColumnCount();
+		for (var i = 0; i < columnCount; i++) {
+			var index = i + 1;
+			columnMap.put(result.getColumnName(index), index);
+		}
+
+		var selected = new LinkedList<Column>();
+		var indexes = new LinkedList<Integer>();
+		for (var column : relation.getColumns()) {
+			var index = columnMap.get(column.getName());
+			if (index == null) continue;
+
+			selected.add(column);
+			indexes.add(index);
+		}
+
+		var length = selected.size();
+
+		columns = selected.toArray(new Column[length]);
+		resultIndexes = new int[length];
+		this.extractors = new ValueExtractor[length];
+		positions = new HashMap<>(length * 2);
+		valueExtractors = extractors;
+		nullBinders = new NullBinder[length];
+
+		var iterator = indexes.iterator();
+		for (var i = 0; i < length; i++) {
+			var column = columns[i];
+			resultIndexes[i] = iterator.next();
+			this.extractors[i] = extractors.selectValueExtractor(column.getType());
+			positions.put(column, i);
+		}
+
+		kinds = new byte[length];
+		hasPrimitive = false;
+	}
+
+	@Override
+	public SelectedValues convert(Result result, Column[] columns) {
+		return new ConcreteSelectedValues(result, this);
+	}
+
+	@Override
+	public String toString() {
+		return U.toString(this);
+	}
+
+	int size() {
+		return columns.length;
+	}
+
+	Column[] columns() {
+		return columns.clone();
+	}
+
+	int resultIndex(int position) {
+		return resultIndexes[position];
+	}
+
+	ValueExtractor extractor(int position) {
+		return extractors[position];
+	}
+
+	byte kind(int position) {
+		return kinds[position];
+	}
+
+	/**
+	 * @return プリミティブ値として保持するカラムを含む場合、 true
+	 */
+	boolean hasPrimitive() {
+		return hasPrimitive;
+	}
+
+	ValueExtractors valueExtractors() {
+		return valueExtractors;
+	}
+
+	/**
+	 * @return 含まれない場合、 -1
+	 */
+	int position(Column column) {
+		var position = positions.get(column);
+		return position == null ? -1 : position;
+	}
+
+	/**
+	 * 検索結果のカラムの型は検索中変わらないので、最初に NULL を検出した際に {@link NullBinder} を作成し、以降はそれを使用します。
+	 */
+	void prepareNullBinder(Result result, int position) {
+		if (nullBinders[position] == null)
+			nullBinders[position] = new NullBinder(result.getColumnType(resultIndexes[position]));
+	}
+
+	NullBinder nullBinder(int position) {
+		return nullBinders[position];
+	}
+
+	private static boolean prepareKinds(ValueExtractor[] extractors, byte[] kinds) {
+		var hasPrimitive = false;
+		for (var i = 0; i < extractors.length; i++) {
+			var type = extractors[i].primitiveType();
+
+			byte kind;
+			if (type == int.class) {
+				kind = INT;
+			} else if (type == long.class) {
+				kind = LONG;
+			} else if (type == double.class) {
+				kind = DOUBLE;
+			} else if (type == boolean.class) {
+				kind = BOOLEAN;
+			} else {
+				kind = OBJECT;
+			}
+
+			kinds[i] = kind;
+			if (kind != OBJECT) hasPrimitive = true;
+		}
+
+		return hasPrimitive;
+	}
+}
@@ -65,6 +65,14 @@ public class SimpleSelectContext implements SelectContext {
 		return new ConcreteSelectedValues(result, columns, extractors);
 	}
 
+	@Override
+	public SelectedValuesConverter prepare(Column[] columns) {
+		return new SelectedValuesLayout(
+			columns,
+			extractors,
+			ContextManager.get(ValueExtractorsConfigure.class).usesPrimitiveFetch());
+	}
+
 	@Override
 	public TablePath tablePath() {
 		return path;
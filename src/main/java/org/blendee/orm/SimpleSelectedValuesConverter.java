@@ -18,4 +18,12 @@ public class SimpleSelectedValuesConverter implements SelectedValuesConverter {
 	public SelectedValues convert(Result result, Column[] columns) {
 		return new ConcreteSelectedValues(result, columns, extractors);
 	}
+
+	@Override
+	public SelectedValuesConverter prepare(Column[] columns) {
+		return new SelectedValuesLayout(
+			columns,
+			extractors,
+			ContextManager.get(ValueExtractorsConfigure.class).usesPrimitiveFetch());
+	}
 }
@@ -41,6 +41,7 @@ class AsyncRecorder extends Recorder {
 		}
 	};
 
+	@SuppressWarnings("deprecation")
 	@Override
 	protected Lock lock() {
 		return lock;
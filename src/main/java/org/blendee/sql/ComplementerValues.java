@@ -21,7 +21,9 @@ import org.blendee.jdbc.ChainPreparedStatementComplementer;
 import org.blendee.jdbc.ContextManager;
 import org.blendee.jdbc.JDBCBorrower;
 import org.blendee.jdbc.PreparedStatementComplementer;
+import org.blendee.jdbc.Result;
 import org.blendee.jdbc.ReturningJDBCBorrower;
+import org.blendee.sql.binder.ArrayBinder;
 
 /**
  * {@link BPreparedStatement} にセットする値を持つ入れ物クラスです。
@@ -106,6 +108,13 @@ public class ComplementerValues implements ChainPreparedStatementComplementer, R
 				throw new UnsupportedOperationException();
 			}
 
+			@Override
+			public void setArray(int parameterIndex, String typeName, Object[] elements) {
+				Objects.requireNonNull(elements);
+				checkParameterIndex(parameterIndex);
+				map.put(parameterIndex, new ArrayBinder(typeName, elements));
+			}
+
 			@Override
 			public void setLong(int parameterIndex, long x) {
 				Objects.requireNonNull(x);
@@ -206,6 +215,15 @@ public class ComplementerValues implements ChainPreparedStatementComplementer, R
 		var binders = Arrays.asList(new Binder[map.size()]);
 		map.forEach((k, v) -> {
 			var position = k - 1;
+
+			//配列は要素の型名が必要なため、型ごとの ValueExtractor を使用せずにそのまま保持する
+			if (v instanceof ArrayBinder) {
+				var binder = (ArrayBinder) v;
+				extractors.set(position, new ArrayValueExtractor(binder.getTypeName()));
+				binders.set(position, binder);
+				return;
+			}
+
 			var extractor = valueExtractors.selectValueExtractor(v.getClass());
 			extractors.set(position, extractor);
 			binders.set(position, extractor.extractAsBinder(v));
@@ -290,6 +308,28 @@ public class ComplementerValues implements ChainPreparedStatementComplementer, R
 		return index[0];
 	}
 
+	/**
+	 * {@link BPreparedStatement#setArray(int, String, Object[])} でセットされた値を、新しいプレースホルダ値で複製するための {@link ValueExtractor} です。
+	 */
+	private static class ArrayValueExtractor implements ValueExtractor {
+
+		private final String typeName;
+
+		private ArrayValueExtractor(String typeName) {
+			this.typeName = typeName;
+		}
+
+		@Override
+		public Object extract(Result result, int columnIndex) {
+			return result.getObject(columnIndex);
+		}
+
+		@Override
+		public Binder extractAsBinder(Object value) {
+			return new ArrayBinder(typeName, (Object[]) value);
+		}
+	}
+
 	private static void checkParameterIndex(int i) {
 		if (i < 1) throw new IllegalStateException("invalid parameterIndex: " + i);
 	}
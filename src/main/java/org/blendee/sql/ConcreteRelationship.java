@@ -12,7 +12,8 @@ import org.blendee.jdbc.MetadataUtilities;
 import org.blendee.jdbc.TablePath;
 
 /**
- * {@link Relationship} の実装クラスです。
+ * {@link Relationship} の実装クラスです。<br>
+ * 子要素は最初に必要になった時点で一度だけ生成され、以降の参照はロックを取得せずに行われます。
  * @author 千葉 哲嗣
  */
 final class ConcreteRelationship implements Relationship {
@@ -37,11 +38,10 @@ final class ConcreteRelationship implements Relationship {
 
 	private final Object lock = new Object();
 
-	private TraversableNode node;
-
-	private Map<String, ConcreteRelationship> foreignKeyNameMap;
-
-	private Map<String, ConcreteRelationship> foreignKeyIdMap;
+	/**
+	 * 生成後は変更されないので、 volatile による公開のみで安全に参照できる
+	 */
+	private volatile SubNode subNode;
 
 	ConcreteRelationship(
 		ConcreteRelationship root,
@@ -106,44 +106,12 @@ final class ConcreteRelationship implements Relationship {
 
 	@Override
 	public Relationship[] getRelationships() {
-		var traversables = getSubNode().getTraversables();
-		var relations = new ConcreteRelationship[traversables.length];
-		for (var i = 0; i < traversables.length; i++) {
-			relations[i] = (ConcreteRelationship) traversables[i];
-		}
-
-		return relations;
+		return subNode().relationships.clone();
 	}
 
 	@Override
 	public TraversableNode getSubNode() {
-		synchronized (lock) {
-			if (node != null) return node;
-
-			node = new TraversableNode();
-
-			var references = MetadataUtilities.getCrossReferencesOfImportedKeys(path);
-
-			foreignKeyNameMap = new HashMap<>();
-			foreignKeyIdMap = new HashMap<>();
-
-			for (var i = 0; i < references.length; i++) {
-				var element = references[i];
-				var child = new ConcreteRelationship(
-					root,
-					this,
-					element,
-					element.getPrimaryKeyTable(),
-					id + "_" + i,
-					converter);
-				foreignKeyNameMap.put(MetadataUtilities.regularize(element.getForeignKeyName()), child);
-				String[] foreignKeyColumns = element.getForeignKeyColumnNames();
-				foreignKeyIdMap.put(createForeignKeyId(foreignKeyColumns), child);
-				node.add(child);
-			}
-		}
-
-		return node;
+		return subNode().node;
 	}
 
 	@Override
@@ -185,11 +153,7 @@ final class ConcreteRelationship implements Relationship {
 
 	@Override
 	public ConcreteRelationship find(String foreignKeyName) {
-		ConcreteRelationship relationship;
-		synchronized (lock) {
-			if (foreignKeyNameMap == null) getSubNode();
-			relationship = foreignKeyNameMap.get(MetadataUtilities.regularize(foreignKeyName));
-		}
+		var relationship = subNode().foreignKeyNameMap.get(MetadataUtilities.regularize(foreignKeyName));
 
 		if (relationship == null)
 			throw new NotFoundException(createErrorMessage(foreignKeyName));
@@ -201,11 +165,7 @@ final class ConcreteRelationship implements Relationship {
 	public ConcreteRelationship find(String[] foreignKeyColumnNames) {
 		var keyId = createForeignKeyId(MetadataUtilities.regularize(foreignKeyColumnNames));
 
-		ConcreteRelationship relationship;
-		synchronized (lock) {
-			if (foreignKeyIdMap == null) getSubNode();
-			relationship = foreignKeyIdMap.get(keyId);
-		}
+		var relationship = subNode().foreignKeyIdMap.get(keyId);
 
 		if (relationship == null)
 			throw new NotFoundException(createErrorMessage(String.join(" ", foreignKeyColumnNames)));
@@ -247,6 +207,44 @@ final class ConcreteRelationship implements Relationship {
 		return path + " " + id;
 	}
 
+	private SubNode subNode() {
+		var current = subNode;
+		if (current != null) return current;
+
+		synchronized (lock) {
+			if (subNode != null) return subNode;
+
+			var node = new TraversableNode();
+
+			var references = MetadataUtilities.getCrossReferencesOfImportedKeys(path);
+
+			var foreignKeyNameMap = new HashMap<String, ConcreteRelationship>();
+			var foreignKeyIdMap = new HashMap<String, ConcreteRelationship>();
+
+			var relationships = new ConcreteRelationship[references.length];
+
+			for (var i = 0; i < references.length; i++) {
+				var element = references[i];
+				var child = new ConcreteRelationship(
+					root,
+					this,
+					element,
+					element.getPrimaryKeyTable(),
+					id + "_" + i,
+					converter);
+				foreignKeyNameMap.put(MetadataUtilities.regularize(element.getForeignKeyName()), child);
+				String[] foreignKeyColumns = element.getForeignKeyColumnNames();
+				foreignKeyIdMap.put(createForeignKeyId(foreignKeyColumns), child);
+				node.add(child);
+				relationships[i] = child;
+			}
+
+			subNode = new SubNode(node, relationships, foreignKeyNameMap, foreignKeyIdMap);
+
+			return subNode;
+		}
+	}
+
 	private String createErrorMessage(String base) {
 		//this + " では " + base + " は使用できません"
 		return base + " can not be used in " + this;
@@ -256,4 +254,26 @@ final class ConcreteRelationship implements Relationship {
 		Arrays.sort(foreignKeyColumnNames);
 		return String.join(",", foreignKeyColumnNames);
 	}
+
+	private static class SubNode {
+
+		private final TraversableNode node;
+
+		private final ConcreteRelationship[] relationships;
+
+		private final Map<String, ConcreteRelationship> foreignKeyNameMap;
+
+		private final Map<String, ConcreteRelationship> foreignKeyIdMap;
+
+		private SubNode(
+			TraversableNode node,
+			ConcreteRelationship[] relationships,
+			Map<String, ConcreteRelationship> foreignKeyNameMap,
+			Map<String, ConcreteRelationship> foreignKeyIdMap) {
+			this.node = node;
+			this.relationships = relationships;
+			this.foreignKeyNameMap = foreignKeyNameMap;
+			this.foreignKeyIdMap = foreignKeyIdMap;
+		}
+	}
 }
@@ -0,0 +1,148 @@
+package org.blendee.sql;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * 一度生成した SQL をキャッシュし、次回実行時にその SQL を使用することで処理を高速化するためのクラスです。<br>
+ * キャッシュ済みの SQL の参照はロックを使用せずに行われ、 SQL の生成はキーごとに一度だけ行われます。<br>
+ * decision によってキャッシュされる SQL は件数に上限があり、上限を超えた場合、最近使用されていないものから破棄されます。<br>
+ * 破棄する対象は CLOCK 方式の近似 LRU で選択するので、参照時に共有されるのは一度だけ書き込まれる参照ビットのみです。
+ * @author 千葉 哲嗣
+ */
+class ConcurrentRecorder extends Recorder {
+
+	/**
+	 * decision によるキャッシュの、 supplier ごとのデフォルト上限件数
+	 */
+	static final int DEFAULT_MAX_DECISION_ENTRIES = 256;
+
+	private final Map<Class<?>, Entry> executorCache = new ConcurrentHashMap<>();
+
+	private final Map<Class<?>, DecisionCache> executorMapCache = new ConcurrentHashMap<>();
+
+	private final int maxDecisionEntries;
+
+	ConcurrentRecorder(int maxDecisionEntries) {
+		super(false);
+		this.maxDecisionEntries = maxDecisionEntries;
+	}
+
+	@Override
+	public void clearCache() {
+		executorCache.clear();
+		executorMapCache.clear();
+	}
+
+	@Override
+	Reproducer reproducer(Class<?> lambdaClass, Supplier<Reproducer> creator) {
+		var entry = executorCache.get(lambdaClass);
+		if (entry == null) entry = executorCache.computeIfAbsent(lambdaClass, k -> new Entry());
+
+		return entry.get(creator);
+	}
+
+	@Override
+	Reproducer reproducer(Class<?> lambdaClass, Object result, Supplier<Reproducer> creator) {
+		var cache = executorMapCache.get(lambdaClass);
+		if (cache == null) cache = executorMapCache.computeIfAbsent(lambdaClass, k -> new DecisionCache());
+
+		return cache.get(result).get(creator);
+	}
+
+	private class DecisionCache {
+
+		private final Map<Object, Entry> map = new ConcurrentHashMap<>();
+
+		private final AtomicBoolean evicting = new AtomicBoolean();
+
+		/**
+		 * CLOCK の針
+		 * evicting を取得したスレッドのみが使用する
+		 */
+		private Iterator<Map.Entry<Object, Entry>> hand;
+
+		private Entry get(Object result) {
+			var entry = map.get(result);
+			if (entry != null) {
+				//既に立っている場合は書き込まず、キャッシュラインを共有のまま保つ
+				if (!entry.referenced) entry.referenced = true;
+				return entry;
+			}
+
+			var newEntry = new Entry();
+			entry = map.putIfAbsent(result, newEntry);
+			if (entry != null) return entry;
+
+			if (map.size() > maxDecisionEntries) evict();
+
+			return newEntry;
+		}
+
+		/**
+		 * 参照ビットが立っていないエントリを、上限件数に収まるまで破棄します。<br>
+		 * 参照ビットが立っているエントリはビットを倒して次の周回まで残します。<br>
+		 * 同時に破棄を行うのは一つのスレッドのみで、他のスレッドは破棄を待たずに処理を続けます。
+		 */
+		private void evict() {
+			if (!evicting.compareAndSet(false, true)) return;
+
+			try {
+				//全エントリの参照ビットが立っていても、二周すれば必ず倒れたエントリが見つかる
+				var limit = map.size() * 2;
+				for (var i = 0; i < limit && map.size() > maxDecisionEntries; i++) {
+					if (hand == null || !hand.hasNext()) {
+						hand = map.entrySet().iterator();
+						if (!hand.hasNext()) return;
+					}
+
+					var candidate = hand.next();
+					var entry = candidate.getValue();
+					if (entry.referenced) {
+						entry.referenced = false;
+						continue;
+					}
+
+					if (map.remove(candidate.getKey(), entry)) evicted();
+				}
+			} finally {
+				evicting.set(false);
+			}
+		}
+	}
+
+	private class Entry {
+
+		private volatile Reproducer reproducer;
+
+		/**
+		 * CLOCK の参照ビット
+		 * 新規のエントリは、直後の破棄で対象とならないよう立てた状態で生成する
+		 */
+		private volatile boolean referenced = true;
+
+		private Reproducer get(Supplier<Reproducer> creator) {
+			var current = reproducer;
+			if (current != null) {
+				hit();
+				return current;
+			}
+
+			synchronized (this) {
+				current = reproducer;
+				if (current != null) {
+					hit();
+					return current;
+				}
+
+				current = creator.get();
+				reproducer = current;
+
+				return current;
+			}
+		}
+	}
+}
@@ -1,5 +1,6 @@
 package org.blendee.sql;
 
+import java.math.BigDecimal;
 import java.sql.Timestamp;
 import java.util.Arrays;
 import java.util.LinkedList;
@@ -10,7 +11,9 @@ import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
+import org.blendee.jdbc.ContextManager;
 import org.blendee.sql.Criteria.ProxyCriteria;
+import org.blendee.sql.binder.ArrayBinder;
 import org.blendee.sql.binder.StringBinder;
 
 /**
@@ -291,10 +294,10 @@ public class CriteriaFactory {
 	public Criteria createInCriteria(
 		Column column,
 		String... values) {
-		return createCriteria(
-			buildInClause(values.length),
-			new Column[] { column },
-			toBindables(values));
+		return buildInCriteria(
+			column,
+			toBindables(values),
+			false);
 	}
 
 	/**
@@ -306,10 +309,10 @@ public class CriteriaFactory {
 	public Criteria createInCriteria(
 		Column column,
 		Number... values) {
-		return createCriteria(
-			buildInClause(values.length),
-			new Column[] { column },
-			BindableConverter.convert(values));
+		return buildInCriteria(
+			column,
+			BindableConverter.convert(values),
+			false);
 	}
 
 	/**
@@ -321,10 +324,10 @@ public class CriteriaFactory {
 	public Criteria createInCriteria(
 		Column column,
 		Timestamp... values) {
-		return createCriteria(
-			buildInClause(values.length),
-			new Column[] { column },
-			BindableConverter.convert(values));
+		return buildInCriteria(
+			column,
+			BindableConverter.convert(values),
+			false);
 	}
 
 	/**
@@ -336,10 +339,10 @@ public class CriteriaFactory {
 	public Criteria createInCriteria(
 		Column column,
 		UUID... values) {
-		return createCriteria(
-			buildInClause(values.length),
-			new Column[] { column },
-			BindableConverter.convert(values));
+		return buildInCriteria(
+			column,
+			BindableConverter.convert(values),
+			false);
 	}
 
 	/**
@@ -351,10 +354,10 @@ public class CriteriaFactory {
 	public Criteria createInCriteria(
 		Column column,
 		Bindable... values) {
-		return createCriteria(
-			buildInClause(values.length),
-			new Column[] { column },
-			values);
+		return buildInCriteria(
+			column,
+			values,
+			false);
 	}
 
 	/**
@@ -366,10 +369,10 @@ public class CriteriaFactory {
 	public Criteria createInCriteria(
 		String columnName,
 		String... values) {
-		return createCriteria(
-			buildInClause(values.length),
-			new Column[] { new PhantomColumn(columnName) },
-			toBindables(values));
+		return buildInCriteria(
+			new PhantomColumn(columnName),
+			toBindables(values),
+			false);
 	}
 
 	/**
@@ -381,10 +384,10 @@ public class CriteriaFactory {
 	public Criteria createInCriteria(
 		String columnName,
 		Number... values) {
-		return createCriteria(
-			buildInClause(values.length),
-			new Column[] { new PhantomColumn(columnName) },
-			BindableConverter.convert(values));
+		return buildInCriteria(
+			new PhantomColumn(columnName),
+			BindableConverter.convert(values),
+			false);
 	}
 
 	/**
@@ -396,10 +399,10 @@ public class CriteriaFactory {
 	public Criteria createInCriteria(
 		String columnName,
 		Timestamp... values) {
-		return createCriteria(
-			buildInClause(values.length),
-			new Column[] { new PhantomColumn(columnName) },
-			BindableConverter.convert(values));
+		return buildInCriteria(
+			new PhantomColumn(columnName),
+			BindableConverter.convert(values),
+			false);
 	}
 
 	/**
@@ -411,10 +414,10 @@ public class CriteriaFactory {
 	public Criteria createInCriteria(
 		String columnName,
 		Bindable... values) {
-		return createCriteria(
-			buildInClause(values.length),
-			new Column[] { new PhantomColumn(columnName) },
-			values);
+		return buildInCriteria(
+			new PhantomColumn(columnName),
+			values,
+			false);
 	}
 
 	/**
@@ -426,10 +429,10 @@ public class CriteriaFactory {
 	public Criteria createNotInCriteria(
 		Column column,
 		String... values) {
-		return createCriteria(
-			buildNotInClause(values.length),
-			new Column[] { column },
-			toBindables(values));
+		return buildInCriteria(
+			column,
+			toBindables(values),
+			true);
 	}
 
 	/**
@@ -441,10 +444,10 @@ public class CriteriaFactory {
 	public Criteria createNotInCriteria(
 		Column column,
 		Number... values) {
-		return createCriteria(
-			buildNotInClause(values.length),
-			new Column[] { column },
-			BindableConverter.convert(values));
+		return buildInCriteria(
+			column,
+			BindableConverter.convert(values),
+			true);
 	}
 
 	/**
@@ -456,10 +459,10 @@ public class CriteriaFactory {
 	public Criteria createNotInCriteria(
 		Column column,
 		Timestamp... values) {
-		return createCriteria(
-			buildNotInClause(values.length),
-			new Column[] { column },
-			BindableConverter.convert(values));
+		return buildInCriteria(
+			column,
+			BindableConverter.convert(values),
+			true);
 	}
 
 	/**
@@ -471,10 +474,10 @@ public class CriteriaFactory {
 	public Criteria createNotInCriteria(
 		Column column,
 		Bindable... values) {
-		return createCriteria(
-			buildNotInClause(values.length),
-			new Column[] { column },
-			values);
+		return buildInCriteria(
+			column,
+			values,
+			true);
 	}
 
 	/**
@@ -486,10 +489,10 @@ public class CriteriaFactory {
 	public Criteria createNotInCriteria(
 		String columnName,
 		String... values) {
-		return createCriteria(
-			buildNotInClause(values.length),
-			new Column[] { new PhantomColumn(columnName) },
-			toBindables(values));
+		return buildInCriteria(
+			new PhantomColumn(columnName),
+			toBindables(values),
+			true);
 	}
 
 	/**
@@ -501,10 +504,10 @@ public class CriteriaFactory {
 	public Criteria createNotInCriteria(
 		String columnName,
 		Number... values) {
-		return createCriteria(
-			buildNotInClause(values.length),
-			new Column[] { new PhantomColumn(columnName) },
-			BindableConverter.convert(values));
+		return buildInCriteria(
+			new PhantomColumn(columnName),
+			BindableConverter.convert(values),
+			true);
 	}
 
 	/**
@@ -516,10 +519,10 @@ public class CriteriaFactory {
 	public Criteria createNotInCriteria(
 		String columnName,
 		Timestamp... values) {
-		return createCriteria(
-			buildNotInClause(values.length),
-			new Column[] { new PhantomColumn(columnName) },
-			BindableConverter.convert(values));
+		return buildInCriteria(
+			new PhantomColumn(columnName),
+			BindableConverter.convert(values),
+			true);
 	}
 
 	/**
@@ -531,10 +534,10 @@ public class CriteriaFactory {
 	public Criteria createNotInCriteria(
 		String columnName,
 		Bindable... values) {
-		return createCriteria(
-			buildNotInClause(values.length),
-			new Column[] { new PhantomColumn(columnName) },
-			values);
+		return buildInCriteria(
+			new PhantomColumn(columnName),
+			values,
+			true);
 	}
 
 	private static final String BETWEEN_TEMPLATE = "{0} BETWEEN ? AND ?";
@@ -1231,18 +1234,121 @@ public class CriteriaFactory {
 		return new Criteria(id, subqueryString, new Column[] { column }, subquery.currentBinders());
 	}
 
-	private static String buildInClause(int length) {
-		return "{0} IN ("
-			+ Stream.generate(() -> "?").limit(length).collect(Collectors.joining(", "))
-			+ ")";
+	/**
+	 * {@link InListConfigure} の設定に従い、 IN もしくは NOT IN 条件を生成します。
+	 */
+	private Criteria buildInCriteria(Column column, Bindable[] values, boolean not) {
+		//Placeholder の数が変わると Recorder で再利用する際の値の数と合わなくなるので、形を変えない
+		if (containsPlaceholder(values))
+			return createCriteria(buildInClause(values.length, not), new Column[] { column }, values);
+
+		var config = ContextManager.get(InListConfigure.class);
+
+		if (config.usesArrayBinding() && values.length > 0) {
+			var binder = toArrayBinder(values);
+			if (binder != null)
+				return createCriteria(
+					not ? "{0} <> ALL (?)" : "{0} = ANY (?)",
+					new Column[] { column },
+					new Bindable[] { binder });
+		}
+
+		var maxSize = config.getMaxSize();
+		if (maxSize <= 0 || values.length <= maxSize)
+			return createCriteria(
+				buildInClause(paddedLength(values.length, config), not),
+				new Column[] { column },
+				pad(values, config));
+
+		//最大数ごとに分割し、 IN は OR で、 NOT IN は AND で結合する
+		var clauses = new LinkedList<String>();
+		var bindables = new LinkedList<Bindable>();
+		for (var from = 0; from < values.length; from += maxSize) {
+			var chunk = Arrays.copyOfRange(values, from, Math.min(from + maxSize, values.length));
+			var padded = pad(chunk, config);
+			clauses.add(buildInClause(padded.length, not));
+			bindables.addAll(Arrays.asList(padded));
+		}
+
+		return createCriteria(
+			"(" + String.join(not ? " AND " : " OR ", clauses) + ")",
+			new Column[] { column },
+			bindables.toArray(new Bindable[bindables.size()]));
 	}
 
-	private static String buildNotInClause(int length) {
-		return "{0} NOT IN ("
+	private static String buildInClause(int length, boolean not) {
+		return (not ? "{0} NOT IN (" : "{0} IN (")
 			+ Stream.generate(() -> "?").limit(length).collect(Collectors.joining(", "))
 			+ ")";
 	}
 
+	private static boolean containsPlaceholder(Bindable[] values) {
+		for (var value : values) {
+			if (value.toBinder() instanceof Placeholder) return true;
+		}
+
+		return false;
+	}
+
+	private static int paddedLength(int length, InListConfigure config) {
+		if (!config.usesPadding() || length <= 1) return length;
+
+		var padded = Integer.highestOneBit(length - 1) << 1;
+
+		var maxSize = config.getMaxSize();
+		return maxSize > 0 ? Math.min(padded, maxSize) : padded;
+	}
+
+	private static Bindable[] pad(Bindable[] values, InListConfigure config) {
+		var length = paddedLength(values.length, config);
+		if (length == values.length) return values;
+
+		var padded = Arrays.copyOf(values, length);
+		//結果が変わらないよう、最後の値を繰り返す
+		Arrays.fill(padded, values.length, length, values[values.length - 1]);
+		return padded;
+	}
+
+	/**
+	 * 値の型から配列の要素の型を決定し、 {@link ArrayBinder} を生成します。
+	 * @return 型を決定できない場合、 null
+	 */
+	private static ArrayBinder toArrayBinder(Bindable[] values) {
+		var objects = new Object[values.length];
+		String typeName = null;
+		for (var i = 0; i < values.length; i++) {
+			var value = values[i].toBinder().getValue();
+			objects[i] = value;
+
+			if (value == null) continue;
+
+			var current = arrayTypeName(value);
+			if (current == null) return null;
+
+			if (typeName == null) {
+				typeName = current;
+			} else if (!typeName.equals(current)) {
+				return null;
+			}
+		}
+
+		return typeName == null ? null : new ArrayBinder(typeName, objects);
+	}
+
+	private static String arrayTypeName(Object value) {
+		if (value instanceof String) return "text";
+		if (value instanceof Integer) return "int4";
+		if (value instanceof Long) return "int8";
+		if (value instanceof Short) return "int2";
+		if (value instanceof BigDecimal) return "numeric";
+		if (value instanceof Double) return "float8";
+		if (value instanceof Float) return "float4";
+		if (value instanceof Boolean) return "bool";
+		if (value instanceof Timestamp) return "timestamp";
+		if (value instanceof UUID) return "uuid";
+		return null;
+	}
+
 	private static Bindable[] toBindables(String[] values) {
 		var bindables = Arrays.stream(values)
 			.map(v -> new StringBinder(v))
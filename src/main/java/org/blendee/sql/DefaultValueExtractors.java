@@ -163,6 +163,11 @@ public class DefaultValueExtractors implements ValueExtractors {
 			if (value == null) return new NullBinder(Types.BOOLEAN);
 			return new BooleanBinder(((Boolean) value).booleanValue());
 		}
+
+		@Override
+		public Class<?> primitiveType() {
+			return boolean.class;
+		}
 	}
 
 	private static class ByteArrayValueExtractor implements ValueExtractor {
@@ -238,6 +243,11 @@ public class DefaultValueExtractors implements ValueExtractors {
 			if (value == null) return new NullBinder(Types.DOUBLE);
 			return new DoubleBinder(((Double) value).doubleValue());
 		}
+
+		@Override
+		public Class<?> primitiveType() {
+			return double.class;
+		}
 	}
 
 	private static class FloatValueExtractor implements ValueExtractor {
@@ -280,6 +290,11 @@ public class DefaultValueExtractors implements ValueExtractors {
 			if (value == null) return new NullBinder(Types.INTEGER);
 			return new IntBinder(((Integer) value).intValue());
 		}
+
+		@Override
+		public Class<?> primitiveType() {
+			return int.class;
+		}
 	}
 
 	private static class LongValueExtractor implements ValueExtractor {
@@ -301,6 +316,11 @@ public class DefaultValueExtractors implements ValueExtractors {
 			if (value == null) return new NullBinder(Types.BIGINT);
 			return new LongBinder(((Long) value).longValue());
 		}
+
+		@Override
+		public Class<?> primitiveType() {
+			return long.class;
+		}
 	}
 
 	private static class ObjectValueExtractor implements ValueExtractor {
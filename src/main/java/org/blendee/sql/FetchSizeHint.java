@@ -0,0 +1,72 @@
+package org.blendee.sql;
+
+import org.blendee.internal.U;
+import org.blendee.jdbc.PreparedStatementComplementer;
+
+/**
+ * 検索時に一度にデータベースから取得する行数を、検索ごとに指定するための {@link SQLDecorator} です。<br>
+ * SQL 文は変更せず、検索実行時に JDBC の fetch size として設定されます。<br>
+ * 大量の行を順に読む検索で指定することで、 JDBC ドライバが全件をメモリに読み込むことを防ぎます。
+ * @author 千葉 哲嗣
+ * @see org.blendee.jdbc.Initializer#setFetchSize(int)
+ */
+public class FetchSizeHint implements SQLDecorator {
+
+	private final int rows;
+
+	/**
+	 * インスタンスを生成します。
+	 * @param rows 一度に取得する行数
+	 */
+	public FetchSizeHint(int rows) {
+		//rows は 1 以上である必要があります
+		if (rows <= 0) throw new IllegalArgumentException("rows must be greater than 0");
+		this.rows = rows;
+	}
+
+	/**
+	 * @return 一度に取得する行数
+	 */
+	public int rows() {
+		return rows;
+	}
+
+	@Override
+	public String decorate(String sql) {
+		return sql;
+	}
+
+	@Override
+	public String toString() {
+		return U.toString(this);
+	}
+
+	/**
+	 * decorators に含まれる、最後の {@link FetchSizeHint} の行数を返します。
+	 * @param decorators 検索に使用する {@link SQLDecorator}
+	 * @return 一度に取得する行数、含まれない場合 0
+	 */
+	public static int find(SQLDecorator... decorators) {
+		var rows = 0;
+		for (var decorator : decorators) {
+			if (decorator instanceof FetchSizeHint) rows = ((FetchSizeHint) decorator).rows;
+		}
+
+		return rows;
+	}
+
+	/**
+	 * fetch size を設定してから complementer を実行する {@link PreparedStatementComplementer} を返します。
+	 * @param rows 一度に取得する行数、 0 の場合 complementer をそのまま返す
+	 * @param complementer 元の {@link PreparedStatementComplementer}
+	 * @return {@link PreparedStatementComplementer}
+	 */
+	public static PreparedStatementComplementer apply(int rows, PreparedStatementComplementer complementer) {
+		if (rows == 0) return complementer;
+
+		return statement -> {
+			statement.setFetchSize(rows);
+			complementer.complement(statement);
+		};
+	}
+}
@@ -0,0 +1,67 @@
+package org.blendee.sql;
+
+import org.blendee.jdbc.ManagementSubject;
+
+/**
+ * {@link CriteriaFactory} が生成する IN 条件の形に対する設定値を保持するクラスです。<br>
+ * 値の数ごとに異なる SQL 文が生成されると、ステートメントの再利用やデータベースの実行計画のキャッシュが効かなくなるため、 SQL 文の種類を抑える方法を選択できます。
+ * @author 千葉 哲嗣
+ */
+public class InListConfigure implements ManagementSubject {
+
+	private volatile boolean usesPadding = false;
+
+	private volatile int maxSize = 0;
+
+	private volatile boolean usesArrayBinding = false;
+
+	/**
+	 * IN 条件のプレースホルダの数を 2 の累乗に切り上げるかを設定します。<br>
+	 * 追加されたプレースホルダには、最後の値が繰り返しセットされます。
+	 * @param usesPadding 切り上げる場合、 true
+	 */
+	public void setUsesPadding(boolean usesPadding) {
+		this.usesPadding = usesPadding;
+	}
+
+	/**
+	 * @return 切り上げる場合、 true
+	 */
+	public boolean usesPadding() {
+		return usesPadding;
+	}
+
+	/**
+	 * 一つの IN 条件に含めるプレースホルダの最大数を設定します。<br>
+	 * 値の数が最大数を超える場合、複数の IN 条件に分割して OR で（NOT IN の場合は AND で）結合します。<br>
+	 * 0 以下の場合、分割しません。
+	 * @param maxSize 一つの IN 条件に含めるプレースホルダの最大数
+	 */
+	public void setMaxSize(int maxSize) {
+		this.maxSize = maxSize;
+	}
+
+	/**
+	 * @return 一つの IN 条件に含めるプレースホルダの最大数
+	 */
+	public int getMaxSize() {
+		return maxSize;
+	}
+
+	/**
+	 * IN 条件を、配列を一つだけバインドする = ANY (?) の形で生成するかを設定します。<br>
+	 * PostgreSQL のように、配列型とその比較をサポートするデータベースでのみ使用可能です。<br>
+	 * 値の型から配列の要素の型を決定できない場合は、通常の IN 条件が生成されます。
+	 * @param usesArrayBinding = ANY (?) の形で生成する場合、 true
+	 */
+	public void setUsesArrayBinding(boolean usesArrayBinding) {
+		this.usesArrayBinding = usesArrayBinding;
+	}
+
+	/**
+	 * @return = ANY (?) の形で生成する場合、 true
+	 */
+	public boolean usesArrayBinding() {
+		return usesArrayBinding;
+	}
+}
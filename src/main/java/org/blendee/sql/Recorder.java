@@ -2,22 +2,45 @@ package org.blendee.sql;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.concurrent.locks.Lock;
 import java.util.function.Function;
 import java.util.function.Supplier;
 
 /**
- * 一度生成した SQL をキャッシュし、次回実行時にその SQL を使用することで処理を高速化するためのクラスです。
+ * 一度生成した SQL をキャッシュし、次回実行時にその SQL を使用することで処理を高速化するためのクラスです。<br>
+ * このクラスを継承する場合、 {@link #lock()} で返す {@link Lock} によってキャッシュへのアクセスが制御されます。
  * @author 千葉 哲嗣
  */
 public abstract class Recorder {
 
-	private final Map<Class<?>, Reproducer> executorCache = new HashMap<>();
+	private final Map<Class<?>, Reproducer> executorCache;
 
-	private final Map<Class<?>, Map<?, Reproducer>> executorMapCache = new HashMap<>();
+	private final Map<Class<?>, Map<Object, Reproducer>> executorMapCache;
 
 	private static final Recorder syncRecorder = new SyncRecorder();
 
+	private final LongAdder hitCounter = new LongAdder();
+
+	private final LongAdder missCounter = new LongAdder();
+
+	private final LongAdder evictionCounter = new LongAdder();
+
+	/**
+	 * {@link #lock()} でアクセスを制御するキャッシュをもつインスタンスを生成します。
+	 */
+	protected Recorder() {
+		this(true);
+	}
+
+	/**
+	 * @param usesLock {@link #lock()} でアクセスを制御するキャッシュを使用する場合、 true
+	 */
+	Recorder(boolean usesLock) {
+		executorCache = usesLock ? new HashMap<>() : null;
+		executorMapCache = usesLock ? new HashMap<>() : null;
+	}
+
 	/**
 	 * 単一の SQL キャッシュをもつ {@link Recorder} を返します。<br>
 	 * SQL キャッシュのアクセスは同期化されます。
@@ -36,6 +59,31 @@ public abstract class Recorder {
 		return new AsyncRecorder();
 	}
 
+	/**
+	 * 複数スレッドから同時に使用可能な SQL キャッシュをもつ {@link Recorder} を新たに生成し返します。<br>
+	 * キャッシュ済みの SQL の参照はロックを使用せずに行われ、 SQL の生成はキーごとに一度だけ行われます。<br>
+	 * decision によってキャッシュされる SQL は、 supplier ごとに 256 件を上限とし、それを超えると最近使用されていないものから近似的に選んで破棄されます。
+	 * @return {@link Recorder}
+	 */
+	public static Recorder newConcurrentInstance() {
+		return new ConcurrentRecorder(ConcurrentRecorder.DEFAULT_MAX_DECISION_ENTRIES);
+	}
+
+	/**
+	 * 複数スレッドから同時に使用可能な SQL キャッシュをもつ {@link Recorder} を新たに生成し返します。<br>
+	 * キャッシュ済みの SQL の参照はロックを使用せずに行われ、 SQL の生成はキーごとに一度だけ行われます。<br>
+	 * decision によってキャッシュされる SQL は、 supplier ごとに maxDecisionEntries 件を上限とし、それを超えると最近使用されていないものから近似的に選んで破棄されます。
+	 * @param maxDecisionEntries supplier ごとの decision によるキャッシュの上限件数
+	 * @return {@link Recorder}
+	 */
+	public static Recorder newConcurrentInstance(int maxDecisionEntries) {
+		if (maxDecisionEntries <= 0)
+			//"maxDecisionEntries は 1 以上である必要があります"
+			throw new IllegalArgumentException("maxDecisionEntries must be greater than 0");
+
+		return new ConcurrentRecorder(maxDecisionEntries);
+	}
+
 	/**
 	 * {@link Reproducible} を生成する処理を実行します。<br>
 	 * 既に一度 {@link Reproducible} が生成されていた場合、新たに {@link Reproducible} を生成せず、以前の {@link Reproducible} を返します。<br>
@@ -49,9 +97,9 @@ public abstract class Recorder {
 	@SuppressWarnings("unchecked")
 	public <E extends Reproducible<E>> E play(Supplier<E> supplier, Object... playbackPlaceHolderValues) {
 		if (playbackPlaceHolderValues.length == 0)
-			return (E) prepare(supplier, lock()).reproduce();
+			return (E) prepare(supplier).reproduce();
 
-		return (E) prepare(supplier, lock()).reproduce(playbackPlaceHolderValues);
+		return (E) prepare(supplier).reproduce(playbackPlaceHolderValues);
 	}
 
 	/**
@@ -69,7 +117,7 @@ public abstract class Recorder {
 		Supplier<R> keySupplier,
 		Supplier<E> supplier,
 		Object... playbackPlaceHolderValues) {
-		return play(keySupplier, r -> supplier.get(), r -> playbackPlaceHolderValues, lock());
+		return playInternal(keySupplier, r -> supplier.get(), r -> playbackPlaceHolderValues);
 	}
 
 	/**
@@ -89,7 +137,7 @@ public abstract class Recorder {
 		Supplier<R> decision,
 		Function<R, E> supplier,
 		Function<R, Object[]> playbackPlaceHolderValuesSupplier) {
-		return play(decision, supplier, playbackPlaceHolderValuesSupplier, lock());
+		return playInternal(decision, supplier, playbackPlaceHolderValuesSupplier);
 	}
 
 	/**
@@ -107,28 +155,47 @@ public abstract class Recorder {
 	}
 
 	/**
-	 * @return {@link Lock}
+	 * キャッシュ済みの SQL が使用された回数を返します。
+	 * @return キャッシュヒット数
 	 */
-	protected abstract Lock lock();
+	public long getHitCount() {
+		return hitCounter.sum();
+	}
 
-	private <E extends Reproducible<E>> Reproducer prepare(Supplier<E> supplier, Lock lock) {
-		var lambdaClass = supplier.getClass();
+	/**
+	 * SQL が新たに生成された回数を返します。
+	 * @return キャッシュミス数
+	 */
+	public long getMissCount() {
+		return missCounter.sum();
+	}
 
+	/**
+	 * 上限を超えたためにキャッシュから破棄された SQL の件数を返します。
+	 * @return 破棄件数
+	 */
+	public long getEvictionCount() {
+		return evictionCounter.sum();
+	}
+
+	/**
+	 * supplier のクラスをキーに、キャッシュされた {@link Reproducer} を返します。<br>
+	 * キャッシュされていない場合、 creator で生成しキャッシュします。
+	 * @param lambdaClass supplier のクラス
+	 * @param creator {@link Reproducer} を生成する処理
+	 * @return {@link Reproducer}
+	 */
+	Reproducer reproducer(Class<?> lambdaClass, Supplier<Reproducer> creator) {
 		Reproducer reproducer = null;
 
+		Lock lock = lock();
 		lock.lock();
 		try {
 			if ((reproducer = executorCache.get(lambdaClass)) == null) {
-				var reproducible = supplier.get();
-				try {
-					Placeholder.start();
-					//ここで初めてSQLをreproduceし、Placeholderの位置を記録
-					reproducer = new Reproducer(reproducible.reproduce());
-				} finally {
-					Placeholder.remove();
-				}
-
+				reproducer = creator.get();
 				executorCache.put(lambdaClass, reproducer);
+			} else {
+				hit();
 			}
 		} finally {
 			lock.unlock();
@@ -137,23 +204,21 @@ public abstract class Recorder {
 		return reproducer;
 	}
 
-	@SuppressWarnings("unchecked")
-	private <R, E extends Reproducible<E>> E play(
-		Supplier<R> decision,
-		Function<R, E> supplier,
-		Function<R, Object[]> playbackPlaceHolderValuesSupplier,
-		Lock lock) {
-		var lambdaClass = supplier.getClass();
-
-		var result = decision.get();
-
-		var values = playbackPlaceHolderValuesSupplier.apply(result);
-
+	/**
+	 * supplier のクラスと decision の結果をキーに、キャッシュされた {@link Reproducer} を返します。<br>
+	 * キャッシュされていない場合、 creator で生成しキャッシュします。
+	 * @param lambdaClass supplier のクラス
+	 * @param result decision の結果
+	 * @param creator {@link Reproducer} を生成する処理
+	 * @return {@link Reproducer}
+	 */
+	Reproducer reproducer(Class<?> lambdaClass, Object result, Supplier<Reproducer> creator) {
 		Reproducer reproducer = null;
 
+		Lock lock = lock();
 		lock.lock();
 		try {
-			var map = (Map<R, Reproducer>) executorMapCache.get(lambdaClass);
+			var map = executorMapCache.get(lambdaClass);
 
 			if (map == null) {
 				map = new HashMap<>();
@@ -162,25 +227,69 @@ public abstract class Recorder {
 
 			reproducer = map.get(result);
 			if (reproducer == null) {
-				var reproducible = supplier.apply(result);
-				try {
-					Placeholder.start();
-					//ここで初めてSQLをreproduceし、Placeholderの位置を記録
-					reproducer = new Reproducer(reproducible.reproduce());
-				} finally {
-					Placeholder.remove();
-				}
-
+				reproducer = creator.get();
 				map.put(result, reproducer);
+			} else {
+				hit();
 			}
 		} finally {
 			lock.unlock();
 		}
 
+		return reproducer;
+	}
+
+	/**
+	 * キャッシュへのアクセスを制御する {@link Lock} を返します。<br>
+	 * {@link #newConcurrentInstance()} が返す {@link Recorder} はこのメソッドを使用しません。<br>
+	 * 以前は抽象メソッドでしたが、互換性のために残しているもので、このクラスを継承して使用すること自体が推奨されません。
+	 * @return {@link Lock}
+	 * @deprecated 複数スレッドから使用する場合は {@link #newConcurrentInstance()} を使用してください
+	 */
+	@Deprecated
+	protected Lock lock() {
+		//lock() をオーバーライドせずに継承したクラスでは、ロックによるキャッシュは使用できません
+		throw new UnsupportedOperationException("lock() must be overridden");
+	}
+
+	void hit() {
+		hitCounter.increment();
+	}
+
+	void evicted() {
+		evictionCounter.increment();
+	}
+
+	private Reproducer create(Reproducible<?> reproducible) {
+		missCounter.increment();
+		try {
+			Placeholder.start();
+			//ここで初めてSQLをreproduceし、Placeholderの位置を記録
+			return new Reproducer(reproducible.reproduce());
+		} finally {
+			Placeholder.remove();
+		}
+	}
+
+	private <E extends Reproducible<E>> Reproducer prepare(Supplier<E> supplier) {
+		return reproducer(supplier.getClass(), () -> create(supplier.get()));
+	}
+
+	@SuppressWarnings("unchecked")
+	private <R, E extends Reproducible<E>> E playInternal(
+		Supplier<R> decision,
+		Function<R, E> supplier,
+		Function<R, Object[]> playbackPlaceHolderValuesSupplier) {
+		var result = decision.get();
+
+		var values = playbackPlaceHolderValuesSupplier.apply(result);
+
+		var reproducer = reproducer(supplier.getClass(), result, () -> create(supplier.apply(result)));
+
 		return (E) reproducer.reproduce(values);
 	}
 
-	private static class Reproducer {
+	static class Reproducer {
 
 		private final Reproducible<?> reproducible;
 
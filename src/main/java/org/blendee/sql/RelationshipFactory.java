@@ -2,6 +2,7 @@ package org.blendee.sql;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.blendee.jdbc.BlendeeManager;
 import org.blendee.jdbc.ContextManager;
@@ -10,16 +11,21 @@ import org.blendee.jdbc.MetadataUtilities;
 import org.blendee.jdbc.TablePath;
 
 /**
- * {@link Relationship} の生成、管理を行うファクトリクラスです。
+ * {@link Relationship} の生成、管理を行うファクトリクラスです。<br>
+ * 一度生成した {@link Relationship} の取得はロックを取得せずに行われます。<br>
+ * 生成はメタデータの読み込みを伴うため、キャッシュのロックを保持したまま行わず、同時に生成された場合は先に登録されたものを使用します。
  * @author 千葉 哲嗣
  */
 public class RelationshipFactory implements ManagementSubject {
 
 	private final Object lock = new Object();
 
-	private final Map<TablePath, Relationship> relationshipCache = new HashMap<>();
+	private final Map<TablePath, Relationship> relationshipCache = new ConcurrentHashMap<>();
 
-	private final Map<TablePath, String> pathIdMap = new HashMap<>();
+	/**
+	 * 生成後は変更されないので、 volatile による公開のみで安全に参照できる
+	 */
+	private volatile Map<TablePath, String> pathIdMap;
 
 	/**
 	 * 現在のコンテキストのインスタンスを返します。
@@ -43,20 +49,17 @@ public class RelationshipFactory implements ManagementSubject {
 	 * @return ツリーのルート要素
 	 */
 	public Relationship getInstance(TablePath path) {
-		synchronized (lock) {
-			if (pathIdMap.size() == 0) preparePathIdMap();
-			var relationship = relationshipCache.get(path);
-			if (relationship == null) {
-				var pathId = pathIdMap.get(path);
-				//path + " は使用できるテーブルに含まれていません"
-				if (pathId == null) throw new IllegalArgumentException(path + " is not in the usable tables.");
-
-				relationship = createRelationship(path, pathId);
-				relationshipCache.put(path, relationship);
-			}
+		var relationship = relationshipCache.get(path);
+		if (relationship != null) return relationship;
 
-			return relationship;
-		}
+		var pathId = pathIdMap().get(path);
+		//path + " は使用できるテーブルに含まれていません"
+		if (pathId == null) throw new IllegalArgumentException(path + " is not in the usable tables.");
+
+		//computeIfAbsent ではメタデータの読み込みの間、同じビンの他のキーまで待たされるので、キャッシュの外で生成する
+		var created = createRelationship(path, pathId);
+		var registered = relationshipCache.putIfAbsent(path, created);
+		return registered != null ? registered : created;
 	}
 
 	/**
@@ -64,26 +67,30 @@ public class RelationshipFactory implements ManagementSubject {
 	 */
 	public void clearCache() {
 		synchronized (lock) {
+			pathIdMap = null;
 			relationshipCache.clear();
-			pathIdMap.clear();
 		}
 	}
 
-	private void preparePathIdMap() {
-		var schemaNames = BlendeeManager.get().getConfigure().getSchemaNames();
-		var counter = 0;
-		for (var name : schemaNames) {
-			var paths = MetadataUtilities.getTables(name);
-			counter += paths.length;
-		}
+	private Map<TablePath, String> pathIdMap() {
+		var current = pathIdMap;
+		if (current != null) return current;
+
+		synchronized (lock) {
+			if (pathIdMap != null) return pathIdMap;
 
-		counter = 0;
-		for (var name : schemaNames) {
-			var paths = MetadataUtilities.getTables(name);
-			for (var path : paths) {
-				pathIdMap.put(path, "t" + counter);
-				counter++;
+			var map = new HashMap<TablePath, String>();
+			var counter = 0;
+			for (var name : BlendeeManager.get().getConfigure().getSchemaNames()) {
+				for (var path : MetadataUtilities.getTables(name)) {
+					map.put(path, "t" + counter);
+					counter++;
+				}
 			}
+
+			pathIdMap = map;
+
+			return map;
 		}
 	}
 
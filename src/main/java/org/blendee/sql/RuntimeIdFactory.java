@@ -1,30 +1,38 @@
 package org.blendee.sql;
 
-import java.util.ArrayList;
-import java.util.LinkedList;
-import java.util.List;
+import java.lang.ref.PhantomReference;
+import java.lang.ref.ReferenceQueue;
+import java.util.Deque;
 import java.util.Objects;
-import java.util.WeakHashMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
- * {@link RuntimeId} 生成用ファクトリクラスです。
+ * {@link RuntimeId} 生成用ファクトリクラスです。<br>
+ * インスタンスの生成はロックを取得せずに行われます。<br>
+ * 破棄された {@link RuntimeId} のエイリアスは {@link ReferenceQueue} によって検出され、次回以降の生成時に再利用されます。
  * @author 千葉 哲嗣
  */
 public class RuntimeIdFactory {
 
-	private static final Object lock = new Object();
-
 	private static final String aliasPrefix = "r";
 
-	private static final int threshold = 100;
-
-	private static long next = 0;
+	private static final AtomicLong next = new AtomicLong();
 
-	private static final WeakHashMap<RuntimeId, String> weakMap = new WeakHashMap<>();
+	private static final ReferenceQueue<RuntimeId> queue = new ReferenceQueue<>();
 
-	private static final List<String> allIds = new ArrayList<>();
+	/**
+	 * 参照が回収されるまで {@link AliasReference} 自体を保持しておくためのセット
+	 */
+	private static final Set<AliasReference> references = ConcurrentHashMap.newKeySet();
 
-	private static final LinkedList<String> idPool = new LinkedList<>();
+	/**
+	 * 再利用可能なエイリアス<br>
+	 * 直近に返却されたものから再利用し、エイリアスの種類が増えないようにする
+	 */
+	private static final Deque<String> idPool = new ConcurrentLinkedDeque<>();
 
 	private static final RuntimeId stubInstance = new StubRuntimeId();
 
@@ -34,22 +42,16 @@ public class RuntimeIdFactory {
 	 * @return instance
 	 */
 	public static RuntimeId runtimeInstance() {
-		synchronized (lock) {
-			var allSize = allIds.size();
-			if (allSize == 0 || allSize < threshold) {
-				newId();
-			} else if (idPool.size() == 0) {
-				preparePool();
-			}
+		reclaim();
 
-			var idString = idPool.pop();
+		var idString = idPool.pollFirst();
+		if (idString == null) idString = aliasPrefix + next.getAndIncrement();
 
-			var id = new ConcreteRuntimeId(idString);
+		var id = new ConcreteRuntimeId(idString);
 
-			weakMap.put(id, idString);
+		references.add(new AliasReference(id, idString));
 
-			return id;
-		}
+		return id;
 	}
 
 	/**
@@ -61,22 +63,26 @@ public class RuntimeIdFactory {
 		return stubInstance;
 	}
 
-	private static void newId() {
-		var alias = aliasPrefix + next++;
-		allIds.add(alias);
-		idPool.add(alias);
+	/**
+	 * 破棄されたインスタンスのエイリアスを再利用可能にします。
+	 */
+	private static void reclaim() {
+		AliasReference reference;
+		while ((reference = (AliasReference) queue.poll()) != null) {
+			//同じ参照が二度キューに入ることはないので、 remove の成否で重複を防ぐ必要はない
+			references.remove(reference);
+			idPool.offerFirst(reference.alias);
+		}
 	}
 
-	private static void preparePool() {
-		var remain = new ArrayList<>(allIds);
-		remain.removeAll(weakMap.values());
+	private static class AliasReference extends PhantomReference<RuntimeId> {
 
-		if (remain.size() == 0) {
-			newId();
-			return;
-		}
+		private final String alias;
 
-		idPool.addAll(remain);
+		private AliasReference(RuntimeId referent, String alias) {
+			super(referent, queue);
+			this.alias = alias;
+		}
 	}
 
 	private static class ConcreteRuntimeId implements RuntimeId {
@@ -11,6 +11,7 @@ class SyncRecorder extends Recorder {
 
 	private final Lock lock = new ReentrantLock();
 
+	@SuppressWarnings("deprecation")
 	@Override
 	protected Lock lock() {
 		return lock;
@@ -23,4 +23,15 @@ public interface ValueExtractor {
 	 * @return 対応する {@link Binder}
 	 */
 	Binder extractAsBinder(Object value);
+
+	/**
+	 * このインスタンスが {@link #extract(Result, int)} で返す値が、プリミティブ型のラッパーであり、
+	 * 検索結果から直接プリミティブ値として取り出しても同じ値となる場合、そのプリミティブ型を返します。<br>
+	 * 対象となるのは int, long, double, boolean です。
+	 * @return プリミティブ型、該当しない場合 null
+	 * @see ValueExtractorsConfigure#setUsesPrimitiveFetch(boolean)
+	 */
+	default Class<?> primitiveType() {
+		return null;
+	}
 }
@@ -10,6 +10,8 @@ public class ValueExtractorsConfigure implements ManagementSubject {
 
 	private ValueExtractors extractors = new DefaultValueExtractors();
 
+	private volatile boolean usesPrimitiveFetch = false;
+
 	/**
 	 * 独自の新しい {@link ValueExtractors} を設定します。
 	 * @param extractorsClass 独自の新しい {@link ValueExtractors} クラス
@@ -37,4 +39,21 @@ public class ValueExtractorsConfigure implements ManagementSubject {
 	public synchronized ValueExtractors getValueExtractors() {
 		return extractors;
 	}
+
+	/**
+	 * 検索結果の int, long, double, boolean のカラムを、ボクシングせずにプリミティブ値のまま保持するかを設定します。<br>
+	 * 対象となるのは、 {@link ValueExtractor#primitiveType()} がプリミティブ型を返すカラムです。
+	 * @param usesPrimitiveFetch プリミティブ値のまま保持する場合、 true
+	 */
+	public void setUsesPrimitiveFetch(boolean usesPrimitiveFetch) {
+		this.usesPrimitiveFetch = usesPrimitiveFetch;
+	}
+
+	/**
+	 * 検索結果の int, long, double, boolean のカラムを、ボクシングせずにプリミティブ値のまま保持するかを返します。
+	 * @return プリミティブ値のまま保持する場合、 true
+	 */
+	public boolean usesPrimitiveFetch() {
+		return usesPrimitiveFetch;
+	}
 }
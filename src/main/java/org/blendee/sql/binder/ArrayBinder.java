@@ -0,0 +1,68 @@
+package org.blendee.sql.binder;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+import org.blendee.jdbc.BPreparedStatement;
+import org.blendee.sql.Binder;
+
+/**
+ * {@link BPreparedStatement} に {@link java.sql.Array} の値を設定するための {@link Binder} です。<br>
+ * 配列は、設定時に {@link BPreparedStatement#setArray(int, String, Object[])} で生成されます。
+ * @author 千葉 哲嗣
+ */
+public final class ArrayBinder extends Binder {
+
+	private final String typeName;
+
+	private final Object[] values;
+
+	/**
+	 * パラメータの値を持つインスタンスを生成します。
+	 * @param typeName 配列の要素のデータベース上の型名
+	 * @param values このインスタンスの値
+	 */
+	public ArrayBinder(String typeName, Object[] values) {
+		this.typeName = Objects.requireNonNull(typeName);
+		this.values = values.clone();
+	}
+
+	@Override
+	public void bind(int index, BPreparedStatement statement) {
+		statement.setArray(index, typeName, values);
+	}
+
+	@Override
+	public String toString() {
+		return typeName + Arrays.toString(values);
+	}
+
+	@Override
+	public Binder replicate() {
+		return this;
+	}
+
+	@Override
+	public boolean canEvalValue() {
+		return true;
+	}
+
+	@Override
+	public Object getValue() {
+		return values.clone();
+	}
+
+	/**
+	 * @return 配列の要素のデータベース上の型名
+	 */
+	public String getTypeName() {
+		return typeName;
+	}
+
+	@Override
+	protected Object getSpecificallyValue() {
+		List<Object> list = Arrays.asList(values);
+		return list;
+	}
+}
@@ -230,7 +230,7 @@ public class AnnotationMetadataFactory implements MetadataFactory {
 			table.remarks());
 
 		return new TableSource(
-			new TablePath(table.schema(), table.name()),
+			TablePath.of(table.schema(), table.name()),
 			tableMetadata,
 			columnMetadatas.toArray(new ColumnMetadata[columnMetadatas.size()]),
 			pk == null ? new PrimaryKeySource(null, new String[] {}, false) : createSource(pk),
@@ -76,6 +76,15 @@ public class Blendee {
 		environment.clearCache();
 	}
 
+	/**
+	 * {@link WarmUp} の設定に従い、メタデータ、 {@link org.blendee.sql.Relationship} 、 SQL テンプレートを事前に準備します。
+	 * @param warmUp 準備の対象
+	 * @throws BlendeeException 処理内で起こった例外
+	 */
+	public static void warmUp(WarmUp warmUp) {
+		environment.warmUp(warmUp);
+	}
+
 	/**
 	 * デフォルト {@link MetadataFactory} を返します。
 	 * @return デフォルト {@link MetadataFactory}
@@ -2,6 +2,7 @@ package org.blendee.util;
 
 import static org.blendee.util.ParsableOptionKey.OptionValueParser.TO_BOOLEAN;
 import static org.blendee.util.ParsableOptionKey.OptionValueParser.TO_CLASS;
+import static org.blendee.util.ParsableOptionKey.OptionValueParser.TO_DOUBLE;
 import static org.blendee.util.ParsableOptionKey.OptionValueParser.TO_INTEGER;
 import static org.blendee.util.ParsableOptionKey.OptionValueParser.TO_STRING;
 import static org.blendee.util.ParsableOptionKey.OptionValueParser.TO_STRING_ARRAY;
@@ -11,10 +12,15 @@ import org.blendee.jdbc.DefaultErrorConverter;
 import org.blendee.jdbc.DefaultLogger;
 import org.blendee.jdbc.ErrorConverter;
 import org.blendee.jdbc.Initializer;
+import org.blendee.jdbc.MetadataConfigure;
 import org.blendee.jdbc.MetadataFactory;
 import org.blendee.jdbc.SQLExtractor;
+import org.blendee.jdbc.SQLLogConfigure;
+import org.blendee.jdbc.SQLLogSink;
+import org.blendee.jdbc.StatementMetrics;
 import org.blendee.jdbc.TransactionFactory;
 import org.blendee.sql.DefaultValueExtractors;
+import org.blendee.sql.InListConfigure;
 import org.blendee.sql.ValueExtractors;
 import org.blendee.sql.ValueExtractorsConfigure;
 
@@ -59,6 +65,15 @@ public interface BlendeeConstants {
 		"use-metadata-cache",
 		TO_BOOLEAN);
 
+	/**
+	 * default: false
+	 * (Boolean) USE_BULK_METADATA_LOADING
+	 * @see MetadataConfigure#setUsesBulkLoading(boolean)
+	 */
+	public static final ParsableOptionKey<Boolean> USE_BULK_METADATA_LOADING = new ParsableOptionKey<>(
+		"use-bulk-metadata-loading",
+		TO_BOOLEAN);
+
 	/**
 	 * default: 0
 	 * (Boolean) AUTO_CLOSE_INTERVAL_MILLIS
@@ -68,6 +83,24 @@ public interface BlendeeConstants {
 		"auto-close-interval-millis",
 		TO_INTEGER);
 
+	/**
+	 * default: 0
+	 * (Integer) STATEMENT_CACHE_SIZE
+	 * @see Initializer#setStatementCacheSize(int)
+	 */
+	public static final ParsableOptionKey<Integer> STATEMENT_CACHE_SIZE = new ParsableOptionKey<>(
+		"statement-cache-size",
+		TO_INTEGER);
+
+	/**
+	 * default: 0
+	 * (Integer) FETCH_SIZE
+	 * @see Initializer#setFetchSize(int)
+	 */
+	public static final ParsableOptionKey<Integer> FETCH_SIZE = new ParsableOptionKey<>(
+		"fetch-size",
+		TO_INTEGER);
+
 	/**
 	 * default: ^(?!org\.blendee\.)
 	 * (String) LOG_STACKTRACE_FILTER
@@ -131,6 +164,24 @@ public interface BlendeeConstants {
 		"metadata-xml-file",
 		TO_STRING);
 
+	/**
+	 * default: blendee-metadata.snapshot
+	 * (String) METADATA_SNAPSHOT_FILE
+	 * @see SnapshotMetadataFactory
+	 */
+	public static final ParsableOptionKey<String> METADATA_SNAPSHOT_FILE = new ParsableOptionKey<>(
+		"metadata-snapshot-file",
+		TO_STRING);
+
+	/**
+	 * default: なし (指定しない場合、データベースのカラム定義から算出する)
+	 * (String) METADATA_SNAPSHOT_FINGERPRINT
+	 * @see SnapshotMetadataFactory
+	 */
+	public static final ParsableOptionKey<String> METADATA_SNAPSHOT_FINGERPRINT = new ParsableOptionKey<>(
+		"metadata-snapshot-fingerprint",
+		TO_STRING);
+
 	/**
 	 * default: {@link DefaultValueExtractors}
 	 * (Class&lt;ValueExtractors&gt;) VALUE_EXTRACTORS_CLASS
@@ -140,6 +191,113 @@ public interface BlendeeConstants {
 		"value-extractors-class",
 		TO_CLASS);
 
+	/**
+	 * default: false
+	 * (Boolean) USE_PRIMITIVE_FETCH
+	 * @see ValueExtractorsConfigure#setUsesPrimitiveFetch(boolean)
+	 */
+	public static final ParsableOptionKey<Boolean> USE_PRIMITIVE_FETCH = new ParsableOptionKey<>(
+		"use-primitive-fetch",
+		TO_BOOLEAN);
+
+	/**
+	 * default: false
+	 * (Boolean) USE_IN_LIST_PADDING
+	 * @see InListConfigure#setUsesPadding(boolean)
+	 */
+	public static final ParsableOptionKey<Boolean> USE_IN_LIST_PADDING = new ParsableOptionKey<>(
+		"use-in-list-padding",
+		TO_BOOLEAN);
+
+	/**
+	 * default: 0
+	 * (Integer) IN_LIST_MAX_SIZE
+	 * @see InListConfigure#setMaxSize(int)
+	 */
+	public static final ParsableOptionKey<Integer> IN_LIST_MAX_SIZE = new ParsableOptionKey<>(
+		"in-list-max-size",
+		TO_INTEGER);
+
+	/**
+	 * default: false
+	 * (Boolean) USE_IN_LIST_ARRAY_BINDING
+	 * @see InListConfigure#setUsesArrayBinding(boolean)
+	 */
+	public static final ParsableOptionKey<Boolean> USE_IN_LIST_ARRAY_BINDING = new ParsableOptionKey<>(
+		"use-in-list-array-binding",
+		TO_BOOLEAN);
+
+	/**
+	 * default: 1
+	 * (Double) SQL_LOG_SAMPLING_RATE
+	 * @see SQLLogConfigure#setSamplingRate(double)
+	 */
+	public static final ParsableOptionKey<Double> SQL_LOG_SAMPLING_RATE = new ParsableOptionKey<>(
+		"sql-log-sampling-rate",
+		TO_DOUBLE);
+
+	/**
+	 * default: 0
+	 * (Integer) SQL_LOG_SLOW_THRESHOLD_MILLIS
+	 * @see SQLLogConfigure#setSlowThresholdMillis(long)
+	 */
+	public static final ParsableOptionKey<Integer> SQL_LOG_SLOW_THRESHOLD_MILLIS = new ParsableOptionKey<>(
+		"sql-log-slow-threshold-millis",
+		TO_INTEGER);
+
+	/**
+	 * default: false
+	 * (Boolean) USE_ASYNC_SQL_LOG
+	 * @see SQLLogConfigure#setAsynchronous(boolean)
+	 */
+	public static final ParsableOptionKey<Boolean> USE_ASYNC_SQL_LOG = new ParsableOptionKey<>(
+		"use-async-sql-log",
+		TO_BOOLEAN);
+
+	/**
+	 * default: 8192
+	 * (Integer) SQL_LOG_BUFFER_SIZE
+	 * @see SQLLogConfigure#setBufferSize(int)
+	 */
+	public static final ParsableOptionKey<Integer> SQL_LOG_BUFFER_SIZE = new ParsableOptionKey<>(
+		"sql-log-buffer-size",
+		TO_INTEGER);
+
+	/**
+	 * (Class&lt;SQLLogSink&gt;) SQL_LOG_SINK_CLASS
+	 * @see SQLLogConfigure#setSinkClass(Class)
+	 */
+	public static final ParsableOptionKey<Class<? extends SQLLogSink>> SQL_LOG_SINK_CLASS = new ParsableOptionKey<>(
+		"sql-log-sink-class",
+		TO_CLASS);
+
+	/**
+	 * default: false
+	 * (Boolean) USE_STATEMENT_METRICS
+	 * @see StatementMetrics#setEnabled(boolean)
+	 */
+	public static final ParsableOptionKey<Boolean> USE_STATEMENT_METRICS = new ParsableOptionKey<>(
+		"use-statement-metrics",
+		TO_BOOLEAN);
+
+	/**
+	 * default: 1000
+	 * (Integer) STATEMENT_METRICS_MAX_STATEMENTS
+	 * @see StatementMetrics#setMaxStatements(int)
+	 */
+	public static final ParsableOptionKey<Integer> STATEMENT_METRICS_MAX_STATEMENTS = new ParsableOptionKey<>(
+		"statement-metrics-max-statements",
+		TO_INTEGER);
+
+	/**
+	 * default: false
+	 * (Boolean) REGISTER_STATEMENT_METRICS_MBEAN
+	 * @see StatementMetrics#registerMBean()
+	 */
+	public static final ParsableOptionKey<Boolean> REGISTER_STATEMENT_METRICS_MBEAN = new ParsableOptionKey<>(
+		"register-statement-metrics-mbean",
+		TO_BOOLEAN);
+
 	/**
 	 * (String) JDBC_DRIVER_CLASS
 	 * @see DriverTransactionFactory
@@ -166,6 +324,51 @@ public interface BlendeeConstants {
 	 */
 	public static final ParsableOptionKey<String> JDBC_PASSWORD = new ParsableOptionKey<>("jdbc-password", TO_STRING);
 
+	/**
+	 * default: 10
+	 * (Integer) POOL_MAX_SIZE
+	 * @see PooledTransactionFactory
+	 */
+	public static final ParsableOptionKey<Integer> POOL_MAX_SIZE = new ParsableOptionKey<>(
+		"pool-max-size",
+		TO_INTEGER);
+
+	/**
+	 * default: 30000
+	 * (Integer) POOL_BORROW_TIMEOUT_MILLIS
+	 * @see PooledTransactionFactory
+	 */
+	public static final ParsableOptionKey<Integer> POOL_BORROW_TIMEOUT_MILLIS = new ParsableOptionKey<>(
+		"pool-borrow-timeout-millis",
+		TO_INTEGER);
+
+	/**
+	 * default: 600000 (0 の場合、アイドル状態の接続を閉じない)
+	 * (Integer) POOL_IDLE_TIMEOUT_MILLIS
+	 * @see PooledTransactionFactory
+	 */
+	public static final ParsableOptionKey<Integer> POOL_IDLE_TIMEOUT_MILLIS = new ParsableOptionKey<>(
+		"pool-idle-timeout-millis",
+		TO_INTEGER);
+
+	/**
+	 * default: 1800000 (0 の場合、無制限)
+	 * (Integer) POOL_MAX_LIFETIME_MILLIS
+	 * @see PooledTransactionFactory
+	 */
+	public static final ParsableOptionKey<Integer> POOL_MAX_LIFETIME_MILLIS = new ParsableOptionKey<>(
+		"pool-max-lifetime-millis",
+		TO_INTEGER);
+
+	/**
+	 * default: 5 (0 の場合、取得時に検証しない)
+	 * (Integer) POOL_VALIDATION_TIMEOUT_SECONDS
+	 * @see PooledTransactionFactory
+	 */
+	public static final ParsableOptionKey<Integer> POOL_VALIDATION_TIMEOUT_SECONDS = new ParsableOptionKey<>(
+		"pool-validation-timeout-seconds",
+		TO_INTEGER);
+
 	/**
 	 * (String) TABLE_FACADE_PACKAGE
 	 * @see AnnotationMetadataFactory
@@ -14,10 +14,14 @@ import org.blendee.jdbc.BlendeeException;
 import org.blendee.jdbc.BlendeeManager;
 import org.blendee.jdbc.ContextManager;
 import org.blendee.jdbc.Initializer;
+import org.blendee.jdbc.MetadataConfigure;
 import org.blendee.jdbc.MetadataFactory;
 import org.blendee.jdbc.OptionKey;
+import org.blendee.jdbc.SQLLogConfigure;
+import org.blendee.jdbc.StatementMetrics;
 import org.blendee.jdbc.Transaction;
 import org.blendee.jdbc.TransactionFactory;
+import org.blendee.sql.InListConfigure;
 import org.blendee.sql.RelationshipFactory;
 import org.blendee.sql.ValueExtractorsConfigure;
 
@@ -199,6 +203,10 @@ public class BlendeeEnvironment {
 
 			BlendeeConstants.AUTO_CLOSE_INTERVAL_MILLIS.extract(initValues).ifPresent(millis -> init.setAutoCloseIntervalMillis(millis));
 
+			BlendeeConstants.STATEMENT_CACHE_SIZE.extract(initValues).ifPresent(size -> init.setStatementCacheSize(size));
+
+			BlendeeConstants.FETCH_SIZE.extract(initValues).ifPresent(rows -> init.setFetchSize(rows));
+
 			BlendeeConstants.LOGGER_CLASS.extract(initValues).ifPresent(clazz -> init.setLoggerClass(clazz));
 
 			BlendeeConstants.SQL_EXTRACTOR_CLASS.extract(initValues).ifPresent(clazz -> init.setSQLExtractorClass(clazz));
@@ -237,6 +245,42 @@ public class BlendeeEnvironment {
 			BlendeeConstants.VALUE_EXTRACTORS_CLASS.extract(initValues)
 				.ifPresent(clazz -> ContextManager.get(ValueExtractorsConfigure.class).setValueExtractorsClass(clazz));
 
+			BlendeeConstants.USE_PRIMITIVE_FETCH.extract(initValues)
+				.ifPresent(flag -> ContextManager.get(ValueExtractorsConfigure.class).setUsesPrimitiveFetch(flag));
+
+			BlendeeConstants.USE_BULK_METADATA_LOADING.extract(initValues)
+				.ifPresent(flag -> ContextManager.get(MetadataConfigure.class).setUsesBulkLoading(flag));
+
+			var inListConfig = ContextManager.get(InListConfigure.class);
+
+			BlendeeConstants.USE_IN_LIST_PADDING.extract(initValues).ifPresent(flag -> inListConfig.setUsesPadding(flag));
+
+			BlendeeConstants.IN_LIST_MAX_SIZE.extract(initValues).ifPresent(size -> inListConfig.setMaxSize(size));
+
+			BlendeeConstants.USE_IN_LIST_ARRAY_BINDING.extract(initValues).ifPresent(flag -> inListConfig.setUsesArrayBinding(flag));
+
+			var sqlLogConfig = ContextManager.get(SQLLogConfigure.class);
+
+			BlendeeConstants.SQL_LOG_SAMPLING_RATE.extract(initValues).ifPresent(rate -> sqlLogConfig.setSamplingRate(rate));
+
+			BlendeeConstants.SQL_LOG_SLOW_THRESHOLD_MILLIS.extract(initValues).ifPresent(millis -> sqlLogConfig.setSlowThresholdMillis(millis));
+
+			BlendeeConstants.USE_ASYNC_SQL_LOG.extract(initValues).ifPresent(flag -> sqlLogConfig.setAsynchronous(flag));
+
+			BlendeeConstants.SQL_LOG_BUFFER_SIZE.extract(initValues).ifPresent(size -> sqlLogConfig.setBufferSize(size));
+
+			BlendeeConstants.SQL_LOG_SINK_CLASS.extract(initValues).ifPresent(clazz -> sqlLogConfig.setSinkClass(clazz));
+
+			var metrics = ContextManager.get(StatementMetrics.class);
+
+			BlendeeConstants.USE_STATEMENT_METRICS.extract(initValues).ifPresent(flag -> metrics.setEnabled(flag));
+
+			BlendeeConstants.STATEMENT_METRICS_MAX_STATEMENTS.extract(initValues).ifPresent(max -> metrics.setMaxStatements(max));
+
+			BlendeeConstants.REGISTER_STATEMENT_METRICS_MBEAN.extract(initValues).ifPresent(flag -> {
+				if (flag) metrics.registerMBean();
+			});
+
 			BlendeeManager.getLogger().log(Level.INFO, "Blendee [" + contextName + "] start");
 
 			return this;
@@ -254,18 +298,38 @@ public class BlendeeEnvironment {
 			var manager = ContextManager.get(BlendeeManager.class);
 			if (manager.initialized()) {
 				var finalizer = manager.getAutoCloseableFinalizer();
-				finalizer.stop();
-				finalizer.closeAll();
+				//auto-close-interval-millis が 0 以下の場合、 finalizer は生成されていない
+				if (finalizer != null) {
+					finalizer.stop();
+					finalizer.closeAll();
+				}
+
+				//接続プール等、資源を保持する TransactionFactory を閉じる
+				var factory = manager.getConfigure().getTransactionFactory();
+				if (factory instanceof AutoCloseable) close((AutoCloseable) factory);
 			}
 
+			var logger = BlendeeManager.getLogger();
+
+			//clearCache() はスレッドのコンテキストを解放するので、ロガーは先に取得しておく
 			clearCache();
 
-			BlendeeManager.getLogger().log(Level.INFO, "Blendee [" + contextName + "] stopped.");
+			logger.log(Level.INFO, "Blendee [" + contextName + "] stopped.");
 		} finally {
 			ContextManager.releaseContext();
 		}
 	}
 
+	private static void close(AutoCloseable closeable) {
+		try {
+			closeable.close();
+		} catch (RuntimeException e) {
+			throw e;
+		} catch (Exception e) {
+			throw new BlendeeException(e);
+		}
+	}
+
 	/**
 	 * トランザクション内で任意の処理を実行します。
 	 * @param consumer {@link BlendeeEnvironmentConsumer} の実装
@@ -401,6 +465,16 @@ public class BlendeeEnvironment {
 		}
 	}
 
+	/**
+	 * {@link WarmUp} の設定に従い、メタデータ、 {@link org.blendee.sql.Relationship} 、 SQL テンプレートを事前に準備します。<br>
+	 * 起動直後の処理が準備のために遅延しないよう、 {@link #start()} の後、リクエストの受付を開始する前に実行してください。
+	 * @param warmUp 準備の対象
+	 * @throws BlendeeException 処理内で起こった例外
+	 */
+	public void warmUp(WarmUp warmUp) {
+		warmUp.execute(this);
+	}
+
 	/**
 	 * トランザクション内で行う任意の処理を表します。
 	 */
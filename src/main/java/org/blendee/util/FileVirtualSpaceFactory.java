@@ -77,7 +77,7 @@ class FileVirtualSpaceFactory {
 			//"テーブル名 " + tableName + " は使用できない文字を含んでいます"
 			throw new IllegalStateException("Table name " + tableName + " contains invalid characters");
 
-		var path = new TablePath(tableMetadata.getSchemaName(), tableName);
+		var path = TablePath.of(tableMetadata.getSchemaName(), tableName);
 
 		var columnMetadatas = processColumnMetadatas(
 			path,
@@ -33,6 +33,7 @@ import org.blendee.assist.InsertColumn;
 import org.blendee.assist.InsertOfferFunction;
 import org.blendee.assist.InsertStatementIntermediate;
 import org.blendee.assist.InstantOneToManyQuery;
+import org.blendee.assist.Keyset;
 import org.blendee.assist.ListGroupByClauseAssist;
 import org.blendee.assist.ListInsertClauseAssist;
 import org.blendee.assist.ListOrderByClauseAssist;
@@ -1359,6 +1360,18 @@ public class GenericTable
 		return new Query(selectBehavior().query().reproduce());
 	}
 
+	/**
+	 * キーセットページングで、 after の位置から pager で制限した件数を検索する {@link Query} を生成します。<br>
+	 * 次のページの開始位置は、最後の行から {@link Keyset#of(OrderByClause, org.blendee.assist.Row)} で取得します。
+	 * @param after 開始位置、先頭のページの場合 null
+	 * @param pager 先頭のページの行数を制限する、データベースの方言の {@link SQLDecorator}
+	 * @return {@link Query}
+	 * @see SelectStatementBehavior#seek(Keyset, SQLDecorator)
+	 */
+	public Query seek(Keyset after, SQLDecorator pager) {
+		return new Query(selectBehavior().seek(after, pager));
+	}
+
 	@Override
 	public Binder[] currentBinders() {
 		return selectBehavior().query().currentBinders();
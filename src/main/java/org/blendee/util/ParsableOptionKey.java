@@ -51,6 +51,15 @@ public class ParsableOptionKey<T> extends OptionKey<T> {
 			}
 		},
 
+		TO_DOUBLE {
+
+			@Override
+			@SuppressWarnings("unchecked")
+			<T> T parse(String value) {
+				return (T) Double.valueOf(value);
+			}
+		},
+
 		TO_CLASS {
 
 			@Override
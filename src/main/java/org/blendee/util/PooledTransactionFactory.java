@@ -0,0 +1,418 @@
+package org.blendee.util;
+
+import java.lang.ref.Cleaner;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Deque;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+
+import org.blendee.internal.U;
+import org.blendee.jdbc.BLogger;
+import org.blendee.jdbc.BlendeeException;
+import org.blendee.jdbc.BlendeeManager;
+import org.blendee.jdbc.Configure;
+import org.blendee.jdbc.ContextManager;
+import org.blendee.jdbc.Transaction;
+import org.blendee.jdbc.TransactionFactory;
+import org.blendee.jdbc.impl.JDBCTransaction;
+import org.blendee.jdbc.impl.StatementCache;
+
+/**
+ * 接続をプールし、トランザクション終了後も再利用する {@link TransactionFactory} です。<br>
+ * 接続の確立には {@link DriverManagerTransactionFactory} と同じ設定値を使用します。<br>
+ * プールの動作は {@link BlendeeConstants} の POOL_ で始まるキーで設定します。<br>
+ * 空きのない状態で接続を要求したスレッドは、要求した順に接続を取得します。<br>
+ * クローズされないまま参照されなくなったトランザクションの接続は、警告をログに出力したうえで閉じられ、プールの空きに戻されます。
+ * @author 千葉 哲嗣
+ * @see BlendeeConstants#POOL_MAX_SIZE
+ * @see BlendeeConstants#POOL_BORROW_TIMEOUT_MILLIS
+ * @see BlendeeConstants#POOL_IDLE_TIMEOUT_MILLIS
+ * @see BlendeeConstants#POOL_MAX_LIFETIME_MILLIS
+ * @see BlendeeConstants#POOL_VALIDATION_TIMEOUT_SECONDS
+ */
+public class PooledTransactionFactory extends DriverManagerTransactionFactory implements AutoCloseable {
+
+	/**
+	 * 直前まで使用されていた接続は、検証を省略する
+	 */
+	private static final long validationBypassNanos = TimeUnit.MILLISECONDS.toNanos(500);
+
+	/**
+	 * クローズ漏れのトランザクションを検出する
+	 */
+	private static final Cleaner cleaner = Cleaner.create();
+
+	private final Configure config;
+
+	private final int maxSize;
+
+	private final long borrowTimeoutMillis;
+
+	private final long idleTimeoutNanos;
+
+	private final long maxLifetimeNanos;
+
+	private final int validationTimeoutSeconds;
+
+	private final int statementCacheSize;
+
+	private final Semaphore permits;
+
+	private final Deque<PooledConnection> idle = new ConcurrentLinkedDeque<>();
+
+	private final AtomicInteger active = new AtomicInteger();
+
+	private final LongAdder borrowCount = new LongAdder();
+
+	private final LongAdder createdCount = new LongAdder();
+
+	private final LongAdder destroyedCount = new LongAdder();
+
+	private final LongAdder timeoutCount = new LongAdder();
+
+	private final LongAdder waitNanos = new LongAdder();
+
+	private final LongAdder leakedCount = new LongAdder();
+
+	private volatile boolean closed;
+
+	/**
+	 * このクラスのコンストラクタです。
+	 * @throws IllegalStateException ドライバークラスのロード時に発生した例外
+	 */
+	public PooledTransactionFactory() {
+		config = ContextManager.get(BlendeeManager.class).getConfigure();
+
+		maxSize = config.getOption(BlendeeConstants.POOL_MAX_SIZE).orElse(10);
+		//pool-max-size は 1 以上である必要があります
+		if (maxSize <= 0) throw new IllegalStateException(BlendeeConstants.POOL_MAX_SIZE.getKey() + " must be greater than 0");
+
+		borrowTimeoutMillis = config.getOption(BlendeeConstants.POOL_BORROW_TIMEOUT_MILLIS).orElse(30000);
+		idleTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(config.getOption(BlendeeConstants.POOL_IDLE_TIMEOUT_MILLIS).orElse(600000));
+		maxLifetimeNanos = TimeUnit.MILLISECONDS.toNanos(config.getOption(BlendeeConstants.POOL_MAX_LIFETIME_MILLIS).orElse(1800000));
+		validationTimeoutSeconds = config.getOption(BlendeeConstants.POOL_VALIDATION_TIMEOUT_SECONDS).orElse(5);
+
+		statementCacheSize = config.getStatementCacheSize();
+
+		permits = new Semaphore(maxSize, true);
+	}
+
+	@Override
+	public Transaction createTransaction() {
+		var connection = borrow();
+		try {
+			return new PooledTransaction(connection);
+		} catch (RuntimeException e) {
+			release(connection);
+			throw e;
+		}
+	}
+
+	/**
+	 * プール内の待機中の接続をすべて閉じ、以降の接続の要求を拒否します。<br>
+	 * 使用中の接続は、トランザクション終了時に閉じられます。
+	 */
+	@Override
+	public void close() {
+		closed = true;
+
+		PooledConnection connection;
+		while ((connection = idle.pollFirst()) != null) {
+			destroy(connection);
+		}
+	}
+
+	/**
+	 * @return プールの最大接続数
+	 */
+	public int getMaxSize() {
+		return maxSize;
+	}
+
+	/**
+	 * @return 現在トランザクションで使用中の接続数
+	 */
+	public int getActiveCount() {
+		return active.get();
+	}
+
+	/**
+	 * @return 現在プール内で待機中の接続数
+	 */
+	public int getIdleCount() {
+		return idle.size();
+	}
+
+	/**
+	 * @return 現在接続の取得を待っているスレッドのおおよその数
+	 */
+	public int getWaitingCount() {
+		return permits.getQueueLength();
+	}
+
+	/**
+	 * @return これまでに接続が取得された回数
+	 */
+	public long getBorrowCount() {
+		return borrowCount.sum();
+	}
+
+	/**
+	 * @return これまでに新たに確立した接続の数
+	 */
+	public long getCreatedCount() {
+		return createdCount.sum();
+	}
+
+	/**
+	 * @return これまでに閉じた接続の数
+	 */
+	public long getDestroyedCount() {
+		return destroyedCount.sum();
+	}
+
+	/**
+	 * @return これまでに接続の取得がタイムアウトした回数
+	 */
+	public long getTimeoutCount() {
+		return timeoutCount.sum();
+	}
+
+	/**
+	 * @return これまでに接続の取得を待った時間の合計（ナノ秒）
+	 */
+	public long getTotalWaitNanos() {
+		return waitNanos.sum();
+	}
+
+	/**
+	 * @return クローズされないまま参照されなくなり、このプールが回収したトランザクションの数
+	 */
+	public long getLeakedCount() {
+		return leakedCount.sum();
+	}
+
+	@Override
+	public String toString() {
+		return U.toString(this);
+	}
+
+	private PooledConnection borrow() {
+		//このプールは既に閉じられています
+		if (closed) throw new IllegalStateException("pool already closed");
+
+		var start = System.nanoTime();
+		try {
+			if (!permits.tryAcquire(borrowTimeoutMillis, TimeUnit.MILLISECONDS)) {
+				timeoutCount.increment();
+				//接続の取得がタイムアウトしました
+				throw new BlendeeException("connection borrow timed out after " + borrowTimeoutMillis + "ms");
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new BlendeeException(e);
+		} finally {
+			waitNanos.add(System.nanoTime() - start);
+		}
+
+		try {
+			PooledConnection connection;
+			while ((connection = idle.pollFirst()) != null) {
+				var now = System.nanoTime();
+				if (isExpired(connection, now) || isIdleTimedOut(connection, now) || !isValid(connection)) {
+					destroy(connection);
+					continue;
+				}
+
+				break;
+			}
+
+			if (connection == null) {
+				connection = new PooledConnection(
+					getJDBCConnection(),
+					statementCacheSize > 0 ? new StatementCache(statementCacheSize) : null);
+				createdCount.increment();
+			}
+
+			active.incrementAndGet();
+			borrowCount.increment();
+
+			return connection;
+		} catch (RuntimeException e) {
+			permits.release();
+			throw e;
+		}
+	}
+
+	private void release(PooledConnection connection) {
+		try {
+			var now = System.nanoTime();
+			if (closed || isExpired(connection, now) || !reset(connection)) {
+				destroy(connection);
+			} else {
+				connection.lastUsed = now;
+				//最近使用した接続から再利用することで、使用されない接続がアイドル状態として破棄されるようにする
+				idle.offerFirst(connection);
+			}
+		} finally {
+			active.decrementAndGet();
+			permits.release();
+		}
+
+		evictIdle();
+	}
+
+	/**
+	 * 利用者の状態が分からないので、接続は再利用せずに閉じ、空きだけを戻します。
+	 */
+	private void reclaim(PooledConnection connection) {
+		leakedCount.increment();
+
+		try {
+			destroy(connection);
+		} finally {
+			active.decrementAndGet();
+			permits.release();
+		}
+
+		try {
+			logger().log(
+				Level.WARNING,
+				PooledTransactionFactory.class.getSimpleName() + ": a transaction was not closed; its connection has been reclaimed.");
+		} catch (RuntimeException e) {
+			//ログ出力の失敗で Cleaner のスレッドを終了させない
+		}
+	}
+
+	/**
+	 * コンストラクタは {@link Configure} の初期化中に呼ばれるので、ロガーはその後に取得する
+	 */
+	private BLogger logger() {
+		return config.getLogger();
+	}
+
+	/**
+	 * 最も長く待機している側から、アイドル時間を超えた接続を閉じます。
+	 */
+	private void evictIdle() {
+		if (idleTimeoutNanos <= 0) return;
+
+		var now = System.nanoTime();
+		var iterator = idle.descendingIterator();
+		while (iterator.hasNext()) {
+			var connection = iterator.next();
+			if (!isIdleTimedOut(connection, now)) return;
+
+			if (idle.removeLastOccurrence(connection)) destroy(connection);
+		}
+	}
+
+	private boolean isExpired(PooledConnection connection, long now) {
+		return maxLifetimeNanos > 0 && now - connection.created >= maxLifetimeNanos;
+	}
+
+	private boolean isIdleTimedOut(PooledConnection connection, long now) {
+		return idleTimeoutNanos > 0 && now - connection.lastUsed >= idleTimeoutNanos;
+	}
+
+	private boolean isValid(PooledConnection connection) {
+		if (validationTimeoutSeconds <= 0) return true;
+		if (System.nanoTime() - connection.lastUsed < validationBypassNanos) return true;
+
+		try {
+			return connection.connection.isValid(validationTimeoutSeconds);
+		} catch (SQLException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * 次の利用者に未確定の更新が引き継がれないよう、ロールバックします。
+	 * @return 再利用可能な場合、 true
+	 */
+	private static boolean reset(PooledConnection connection) {
+		var jdbcConnection = connection.connection;
+		try {
+			if (jdbcConnection.isClosed()) return false;
+			if (!jdbcConnection.getAutoCommit()) jdbcConnection.rollback();
+			return true;
+		} catch (SQLException e) {
+			return false;
+		}
+	}
+
+	private void destroy(PooledConnection connection) {
+		if (connection.statementCache != null) connection.statementCache.close();
+		U.close(connection.connection);
+		destroyedCount.increment();
+	}
+
+	private static class PooledConnection {
+
+		private final Connection connection;
+
+		/**
+		 * ステートメントは JDBC 接続に属するので、キャッシュも接続ごとに保持し、トランザクションをまたいで再利用する
+		 */
+		private final StatementCache statementCache;
+
+		private final long created = System.nanoTime();
+
+		private volatile long lastUsed = created;
+
+		private PooledConnection(Connection connection, StatementCache statementCache) {
+			this.connection = connection;
+			this.statementCache = statementCache;
+		}
+	}
+
+	/**
+	 * {@link Cleaner} から実行される処理です。<br>
+	 * トランザクションを参照してしまうと回収されなくなるので、接続のみを保持します。
+	 */
+	private class Lease implements Runnable {
+
+		private final PooledConnection connection;
+
+		private volatile boolean released;
+
+		private Lease(PooledConnection connection) {
+			this.connection = connection;
+		}
+
+		@Override
+		public void run() {
+			if (released) {
+				release(connection);
+			} else {
+				reclaim(connection);
+			}
+		}
+	}
+
+	private class PooledTransaction extends JDBCTransaction {
+
+		private final Lease lease;
+
+		private final Cleaner.Cleanable cleanable;
+
+		private PooledTransaction(PooledConnection connection) {
+			//JDBC 接続はプールで再利用するので、自動クローズの対象外とする
+			super(connection.connection, false, connection.statementCache);
+			lease = new Lease(connection);
+			cleanable = cleaner.register(this, lease);
+		}
+
+		@Override
+		protected void closeInternal() {
+			//Cleanable は一度しか実行されないので、多重に返却されることはない
+			lease.released = true;
+			cleanable.clean();
+		}
+	}
+}
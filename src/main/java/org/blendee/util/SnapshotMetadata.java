@@ -0,0 +1,699 @@
+package org.blendee.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+import org.blendee.internal.U;
+import org.blendee.jdbc.ColumnMetadata;
+import org.blendee.jdbc.CrossReference;
+import org.blendee.jdbc.Metadata;
+import org.blendee.jdbc.PrimaryKeyMetadata;
+import org.blendee.jdbc.StoredIdentifier;
+import org.blendee.jdbc.TableMetadata;
+import org.blendee.jdbc.TablePath;
+import org.blendee.jdbc.impl.SimpleCrossReference;
+import org.blendee.jdbc.impl.SimplePrimaryKeyMetadata;
+
+/**
+ * 全てのテーブルの情報をメモリ上に保持し、データベースにアクセスせずに応答する {@link Metadata} です。<br>
+ * 内容はバイナリ形式で読み書きすることができます。<br>
+ * バイナリ形式の末尾には、それより前の全てのバイト列の CRC32 を付加します。
+ * @author 千葉 哲嗣
+ * @see SnapshotMetadataFactory
+ */
+class SnapshotMetadata implements Metadata {
+
+	private static final int magic = 0x424c4d53;
+
+	private static final int version = 2;
+
+	private static final TablePath[] emptyPaths = {};
+
+	private static final CrossReference[] emptyReferences = {};
+
+	private final String fingerprint;
+
+	private final StoredIdentifier identifier;
+
+	private final Map<String, TablePath[]> schemas;
+
+	private final Map<TablePath, Table> tables;
+
+	private final Map<List<TablePath>, CrossReference[]> crossReferences;
+
+	private SnapshotMetadata(
+		String fingerprint,
+		StoredIdentifier identifier,
+		Map<String, TablePath[]> schemas,
+		Map<TablePath, Table> tables,
+		Map<List<TablePath>, CrossReference[]> crossReferences) {
+		this.fingerprint = fingerprint;
+		this.identifier = identifier;
+		this.schemas = schemas;
+		this.tables = tables;
+		this.crossReferences = crossReferences;
+	}
+
+	/**
+	 * 元となる {@link Metadata} から、指定されたスキーマの全ての情報を読み込みます。
+	 * @param fingerprint スキーマの状態を表す文字列
+	 * @param schemaNames 対象となるスキーマ
+	 * @param base 元となる {@link Metadata}
+	 * @return 読み込んだ {@link SnapshotMetadata}
+	 */
+	static SnapshotMetadata build(String fingerprint, String[] schemaNames, Metadata base) {
+		var schemas = new LinkedHashMap<String, TablePath[]>();
+		var tables = new LinkedHashMap<TablePath, Table>();
+		var crossReferences = new HashMap<List<TablePath>, CrossReference[]>();
+
+		for (var schemaName : schemaNames) {
+			var paths = base.getTables(schemaName);
+			schemas.put(schemaName, paths);
+
+			for (var path : paths) {
+				var imported = base.getResourcesOfImportedKey(path);
+				var exported = base.getResourcesOfExportedKey(path);
+
+				tables.put(
+					path,
+					new Table(
+						base.getTableMetadata(path),
+						base.getColumnMetadatas(path),
+						base.getPrimaryKeyMetadata(path),
+						imported,
+						exported));
+
+				for (var other : imported) {
+					crossReferences.computeIfAbsent(Arrays.asList(other, path), k -> base.getCrossReferences(other, path));
+				}
+
+				for (var other : exported) {
+					crossReferences.computeIfAbsent(Arrays.asList(path, other), k -> base.getCrossReferences(path, other));
+				}
+			}
+		}
+
+		return new SnapshotMetadata(fingerprint, base.getStoredIdentifier(), schemas, tables, crossReferences);
+	}
+
+	/**
+	 * バイナリ形式のデータを読み込みます。<br>
+	 * 件数、長さ、番号は残りのバイト数と {@link TablePath} の数で検査するので、壊れたデータから巨大な配列を確保することはありません。
+	 * @param data {@link #write(DataOutputStream)} で書き出されたバイト列
+	 * @return 読み込んだ {@link SnapshotMetadata}
+	 * @throws IOException 形式が正しくない場合
+	 */
+	static SnapshotMetadata read(byte[] data) throws IOException {
+		//CRC32 の分にも満たない
+		if (data.length < Long.BYTES) throw new IOException("truncated snapshot");
+
+		var bodyLength = data.length - Long.BYTES;
+
+		var checksum = new CRC32();
+		checksum.update(data, 0, bodyLength);
+		//途中で書き換えられた、または途中までしか書き出されていない
+		if (ByteBuffer.wrap(data, bodyLength, Long.BYTES).getLong() != checksum.getValue())
+			throw new IOException("checksum mismatch");
+
+		var input = new DataInputStream(new ByteArrayInputStream(data, 0, bodyLength));
+
+		var snapshot = read(input);
+
+		//書き出した内容より後ろにデータがある
+		if (input.available() > 0) throw new IOException("trailing data in snapshot");
+
+		return snapshot;
+	}
+
+	private static SnapshotMetadata read(DataInputStream input) throws IOException {
+		//スナップショットファイルではありません
+		if (input.readInt() != magic) throw new IOException("not a metadata snapshot");
+		//形式のバージョンが異なります
+		if (input.readInt() != version) throw new IOException("unsupported snapshot version");
+
+		var fingerprint = readRequiredString(input);
+		var identifier = readIdentifier(input);
+
+		var pathTable = new TablePath[readCount(input)];
+		for (var i = 0; i < pathTable.length; i++) {
+			pathTable[i] = TablePath.of(readRequiredString(input), readRequiredString(input));
+		}
+
+		var schemaCount = readCount(input);
+		var schemas = new LinkedHashMap<String, TablePath[]>();
+		for (var i = 0; i < schemaCount; i++) {
+			schemas.put(readRequiredString(input), readPaths(input, pathTable));
+		}
+
+		var tableCount = readCount(input);
+		var tables = new LinkedHashMap<TablePath, Table>();
+		for (var i = 0; i < tableCount; i++) {
+			var path = readPath(input, pathTable);
+			tables.put(path, Table.read(input, pathTable));
+		}
+
+		var referenceCount = readCount(input);
+		var crossReferences = new HashMap<List<TablePath>, CrossReference[]>();
+		for (var i = 0; i < referenceCount; i++) {
+			var exported = readPath(input, pathTable);
+			var imported = readPath(input, pathTable);
+
+			var references = new CrossReference[readCount(input)];
+			for (var j = 0; j < references.length; j++) {
+				references[j] = new SimpleCrossReference(
+					readString(input),
+					readString(input),
+					readPath(input, pathTable),
+					readPath(input, pathTable),
+					readStrings(input),
+					readStrings(input),
+					input.readBoolean());
+			}
+
+			crossReferences.put(Arrays.asList(exported, imported), references);
+		}
+
+		return new SnapshotMetadata(fingerprint, identifier, schemas, tables, crossReferences);
+	}
+
+	/**
+	 * バイナリ形式で書き出します。<br>
+	 * {@link TablePath} は先頭にまとめて書き出し、以降は番号で参照します。<br>
+	 * 最後に、書き出した全てのバイト列の CRC32 を書き出します。
+	 * @param output 出力
+	 * @throws IOException 書き出しに失敗した場合
+	 */
+	void write(DataOutputStream output) throws IOException {
+		var checksum = new CRC32();
+		var checked = new DataOutputStream(new CheckedOutputStream(output, checksum));
+
+		writeBody(checked);
+
+		checked.flush();
+		output.writeLong(checksum.getValue());
+	}
+
+	private void writeBody(DataOutputStream output) throws IOException {
+		output.writeInt(magic);
+		output.writeInt(version);
+
+		writeString(output, fingerprint);
+		writeString(output, identifier.name());
+
+		var pathIndexes = new LinkedHashMap<TablePath, Integer>();
+		schemas.values().forEach(paths -> Arrays.stream(paths).forEach(p -> index(pathIndexes, p)));
+		tables.forEach((path, table) -> {
+			index(pathIndexes, path);
+			Arrays.stream(table.imported).forEach(p -> index(pathIndexes, p));
+			Arrays.stream(table.exported).forEach(p -> index(pathIndexes, p));
+		});
+		crossReferences.forEach((key, references) -> {
+			key.forEach(p -> index(pathIndexes, p));
+			for (var reference : references) {
+				index(pathIndexes, reference.getPrimaryKeyTable());
+				index(pathIndexes, reference.getForeignKeyTable());
+			}
+		});
+
+		output.writeInt(pathIndexes.size());
+		for (var path : pathIndexes.keySet()) {
+			writeString(output, path.getSchemaName());
+			writeString(output, path.getTableName());
+		}
+
+		output.writeInt(schemas.size());
+		for (var entry : schemas.entrySet()) {
+			writeString(output, entry.getKey());
+			writePaths(output, entry.getValue(), pathIndexes);
+		}
+
+		output.writeInt(tables.size());
+		for (var entry : tables.entrySet()) {
+			output.writeInt(pathIndexes.get(entry.getKey()));
+			entry.getValue().write(output, pathIndexes);
+		}
+
+		output.writeInt(crossReferences.size());
+		for (var entry : crossReferences.entrySet()) {
+			var key = entry.getKey();
+			output.writeInt(pathIndexes.get(key.get(0)));
+			output.writeInt(pathIndexes.get(key.get(1)));
+
+			var references = entry.getValue();
+			output.writeInt(references.length);
+			for (var reference : references) {
+				writeString(output, reference.getPrimaryKeyName());
+				writeString(output, reference.getForeignKeyName());
+				output.writeInt(pathIndexes.get(reference.getPrimaryKeyTable()));
+				output.writeInt(pathIndexes.get(reference.getForeignKeyTable()));
+				writeStrings(output, reference.getPrimaryKeyColumnNames());
+				writeStrings(output, reference.getForeignKeyColumnNames());
+				output.writeBoolean(reference.isPseudo());
+			}
+		}
+	}
+
+	/**
+	 * @return このインスタンスを作成した時点のスキーマの状態を表す文字列
+	 */
+	String getFingerprint() {
+		return fingerprint;
+	}
+
+	/**
+	 * @param schemaNames 対象となるスキーマ
+	 * @return 指定されたスキーマを全て含む場合、 true
+	 */
+	boolean containsAll(String[] schemaNames) {
+		return schemas.keySet().containsAll(Arrays.asList(schemaNames));
+	}
+
+	@Override
+	public TablePath[] getTables(String schemaName) {
+		var paths = schemas.get(schemaName);
+		//スナップショットに含まれていないスキーマ名です
+		if (paths == null) throw new IllegalArgumentException("Schema name [" + schemaName + "] not found");
+		return paths.clone();
+	}
+
+	@Override
+	public TableMetadata getTableMetadata(TablePath path) {
+		return tableMetadata(path).orElse(null);
+	}
+
+	@Override
+	public Optional<TableMetadata> tableMetadata(TablePath path) {
+		var table = tables.get(path);
+		return table == null ? Optional.empty() : Optional.ofNullable(table.metadata);
+	}
+
+	@Override
+	public ColumnMetadata[] getColumnMetadatas(TablePath path) {
+		var table = tables.get(path);
+		return table == null ? new ColumnMetadata[0] : table.columns.clone();
+	}
+
+	@Override
+	public PrimaryKeyMetadata getPrimaryKeyMetadata(TablePath path) {
+		return primaryKeyMetadata(path).orElse(null);
+	}
+
+	@Override
+	public Optional<PrimaryKeyMetadata> primaryKeyMetadata(TablePath path) {
+		var table = tables.get(path);
+		return table == null ? Optional.empty() : Optional.ofNullable(table.primaryKey);
+	}
+
+	@Override
+	public TablePath[] getResourcesOfImportedKey(TablePath path) {
+		var table = tables.get(path);
+		return table == null ? emptyPaths : table.imported.clone();
+	}
+
+	@Override
+	public TablePath[] getResourcesOfExportedKey(TablePath path) {
+		var table = tables.get(path);
+		return table == null ? emptyPaths : table.exported.clone();
+	}
+
+	@Override
+	public CrossReference[] getCrossReferences(TablePath exported, TablePath imported) {
+		var references = crossReferences.get(Arrays.asList(exported, imported));
+		return references == null ? emptyReferences : references.clone();
+	}
+
+	@Override
+	public StoredIdentifier getStoredIdentifier() {
+		return identifier;
+	}
+
+	@Override
+	public String toString() {
+		return U.toString(this);
+	}
+
+	private static void index(Map<TablePath, Integer> indexes, TablePath path) {
+		indexes.putIfAbsent(path, indexes.size());
+	}
+
+	private static void writePaths(DataOutputStream output, TablePath[] paths, Map<TablePath, Integer> indexes) throws IOException {
+		output.writeInt(paths.length);
+		for (var path : paths) {
+			output.writeInt(indexes.get(path));
+		}
+	}
+
+	private static TablePath[] readPaths(DataInputStream input, TablePath[] pathTable) throws IOException {
+		var paths = new TablePath[readCount(input)];
+		for (var i = 0; i < paths.length; i++) {
+			paths[i] = readPath(input, pathTable);
+		}
+
+		return paths;
+	}
+
+	private static TablePath readPath(DataInputStream input, TablePath[] pathTable) throws IOException {
+		var index = input.readInt();
+		//存在しない TablePath の番号
+		if (index < 0 || index >= pathTable.length) throw new IOException("table path index out of range: " + index);
+
+		return pathTable[index];
+	}
+
+	/**
+	 * 件数を読み込みます。<br>
+	 * 要素は少なくとも 1 バイトを占めるので、残りのバイト数を超える件数は壊れたデータです。
+	 */
+	private static int readCount(DataInputStream input) throws IOException {
+		var count = input.readInt();
+		//負の件数、または残りのデータに収まらない件数
+		if (count < 0 || count > input.available()) throw new IOException("invalid count: " + count);
+
+		return count;
+	}
+
+	private static StoredIdentifier readIdentifier(DataInputStream input) throws IOException {
+		var name = readRequiredString(input);
+		for (var identifier : StoredIdentifier.values()) {
+			if (identifier.name().equals(name)) return identifier;
+		}
+
+		//StoredIdentifier に存在しない名前
+		throw new IOException("unknown stored identifier: " + name);
+	}
+
+	private static void writeStrings(DataOutputStream output, String[] values) throws IOException {
+		output.writeInt(values.length);
+		for (var value : values) {
+			writeString(output, value);
+		}
+	}
+
+	private static String[] readStrings(DataInputStream input) throws IOException {
+		var values = new String[readCount(input)];
+		for (var i = 0; i < values.length; i++) {
+			values[i] = readString(input);
+		}
+
+		return values;
+	}
+
+	/**
+	 * {@link DataOutputStream#writeUTF(String)} は 64KB までしか扱えず null も書けないので、長さと UTF-8 のバイト列で書き出します。
+	 */
+	private static void writeString(DataOutputStream output, String value) throws IOException {
+		if (value == null) {
+			output.writeInt(-1);
+			return;
+		}
+
+		var bytes = value.getBytes(StandardCharsets.UTF_8);
+		output.writeInt(bytes.length);
+		output.write(bytes);
+	}
+
+	private static String readString(DataInputStream input) throws IOException {
+		var length = input.readInt();
+		if (length == -1) return null;
+
+		//null を表す -1 以外の負の長さ、または残りのデータに収まらない長さ
+		if (length < 0 || length > input.available()) throw new IOException("invalid string length: " + length);
+
+		var bytes = new byte[length];
+		input.readFully(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	private static String readRequiredString(DataInputStream input) throws IOException {
+		var value = readString(input);
+		//null が書き出されることのない項目
+		if (value == null) throw new IOException("unexpected null in snapshot");
+
+		return value;
+	}
+
+	private static class Table {
+
+		private final TableMetadata metadata;
+
+		private final ColumnMetadata[] columns;
+
+		private final PrimaryKeyMetadata primaryKey;
+
+		private final TablePath[] imported;
+
+		private final TablePath[] exported;
+
+		private Table(
+			TableMetadata metadata,
+			ColumnMetadata[] columns,
+			PrimaryKeyMetadata primaryKey,
+			TablePath[] imported,
+			TablePath[] exported) {
+			this.metadata = metadata;
+			this.columns = columns;
+			this.primaryKey = primaryKey;
+			this.imported = imported;
+			this.exported = exported;
+		}
+
+		private static Table read(DataInputStream input, TablePath[] pathTable) throws IOException {
+			TableMetadata metadata = null;
+			if (input.readBoolean())
+				metadata = new SnapshotTableMetadata(readString(input), readString(input), readString(input), readString(input));
+
+			var columns = new ColumnMetadata[readCount(input)];
+			for (var i = 0; i < columns.length; i++) {
+				columns[i] = new SnapshotColumnMetadata(
+					readString(input),
+					readString(input),
+					readString(input),
+					input.readInt(),
+					readString(input),
+					input.readInt(),
+					input.readBoolean(),
+					input.readInt(),
+					readString(input),
+					readString(input),
+					input.readInt(),
+					input.readBoolean());
+			}
+
+			PrimaryKeyMetadata primaryKey = null;
+			if (input.readBoolean())
+				primaryKey = new SimplePrimaryKeyMetadata(readString(input), readStrings(input), input.readBoolean());
+
+			return new Table(metadata, columns, primaryKey, readPaths(input, pathTable), readPaths(input, pathTable));
+		}
+
+		private void write(DataOutputStream output, Map<TablePath, Integer> indexes) throws IOException {
+			output.writeBoolean(metadata != null);
+			if (metadata != null) {
+				writeString(output, metadata.getSchemaName());
+				writeString(output, metadata.getName());
+				writeString(output, metadata.getType());
+				writeString(output, metadata.getRemarks());
+			}
+
+			output.writeInt(columns.length);
+			for (var column : columns) {
+				writeString(output, column.getSchemaName());
+				writeString(output, column.getTableName());
+				writeString(output, column.getName());
+				output.writeInt(column.getType());
+				writeString(output, column.getTypeName());
+				output.writeInt(column.getSize());
+				output.writeBoolean(column.hasDecimalDigits());
+				output.writeInt(column.getDecimalDigits());
+				writeString(output, column.getRemarks());
+				writeString(output, column.getDefaultValue());
+				output.writeInt(column.getOrdinalPosition());
+				output.writeBoolean(column.isNotNull());
+			}
+
+			output.writeBoolean(primaryKey != null);
+			if (primaryKey != null) {
+				writeString(output, primaryKey.getName());
+				writeStrings(output, primaryKey.getColumnNames());
+				output.writeBoolean(primaryKey.isPseudo());
+			}
+
+			writePaths(output, imported, indexes);
+			writePaths(output, exported, indexes);
+		}
+	}
+
+	private static class SnapshotTableMetadata implements TableMetadata {
+
+		private final String schemaName;
+
+		private final String name;
+
+		private final String type;
+
+		private final String remarks;
+
+		private SnapshotTableMetadata(String schemaName, String name, String type, String remarks) {
+			this.schemaName = schemaName;
+			this.name = name;
+			this.type = type;
+			this.remarks = remarks;
+		}
+
+		@Override
+		public String getSchemaName() {
+			return schemaName;
+		}
+
+		@Override
+		public String getName() {
+			return name;
+		}
+
+		@Override
+		public String getType() {
+			return type;
+		}
+
+		@Override
+		public String getRemarks() {
+			return remarks;
+		}
+
+		@Override
+		public String toString() {
+			return U.toString(this);
+		}
+	}
+
+	private static class SnapshotColumnMetadata implements ColumnMetadata {
+
+		private final String schemaName;
+
+		private final String tableName;
+
+		private final String name;
+
+		private final int type;
+
+		private final String typeName;
+
+		private final int size;
+
+		private final boolean hasDecimalDigits;
+
+		private final int decimalDigits;
+
+		private final String remarks;
+
+		private final String defaultValue;
+
+		private final int ordinalPosition;
+
+		private final boolean notNull;
+
+		private SnapshotColumnMetadata(
+			String schemaName,
+			String tableName,
+			String name,
+			int type,
+			String typeName,
+			int size,
+			boolean hasDecimalDigits,
+			int decimalDigits,
+			String remarks,
+			String defaultValue,
+			int ordinalPosition,
+			boolean notNull) {
+			this.schemaName = schemaName;
+			this.tableName = tableName;
+			this.name = name;
+			this.type = type;
+			this.typeName = typeName;
+			this.size = size;
+			this.hasDecimalDigits = hasDecimalDigits;
+			this.decimalDigits = decimalDigits;
+			this.remarks = remarks;
+			this.defaultValue = defaultValue;
+			this.ordinalPosition = ordinalPosition;
+			this.notNull = notNull;
+		}
+
+		@Override
+		public String getSchemaName() {
+			return schemaName;
+		}
+
+		@Override
+		public String getTableName() {
+			return tableName;
+		}
+
+		@Override
+		public String getName() {
+			return name;
+		}
+
+		@Override
+		public int getType() {
+			return type;
+		}
+
+		@Override
+		public String getTypeName() {
+			return typeName;
+		}
+
+		@Override
+		public int getSize() {
+			return size;
+		}
+
+		@Override
+		public boolean hasDecimalDigits() {
+			return hasDecimalDigits;
+		}
+
+		@Override
+		public int getDecimalDigits() {
+			return decimalDigits;
+		}
+
+		@Override
+		public String getRemarks() {
+			return remarks;
+		}
+
+		@Override
+		public String getDefaultValue() {
+			return defaultValue;
+		}
+
+		@Override
+		public int getOrdinalPosition() {
+			return ordinalPosition;
+		}
+
+		@Override
+		public boolean isNotNull() {
+			return notNull;
+		}
+
+		@Override
+		public String toString() {
+			return U.toString(this);
+		}
+	}
+}
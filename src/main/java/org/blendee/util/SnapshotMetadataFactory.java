@@ -0,0 +1,195 @@
+package org.blendee.util;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Arrays;
+
+import org.blendee.internal.U;
+import org.blendee.jdbc.BlendeeManager;
+import org.blendee.jdbc.Configure;
+import org.blendee.jdbc.ContextManager;
+import org.blendee.jdbc.Metadata;
+import org.blendee.jdbc.MetadataFactory;
+import org.blendee.jdbc.StoredIdentifier;
+import org.blendee.jdbc.impl.JDBCMetadata;
+
+/**
+ * データベースから取得したメタデータをバイナリ形式のスナップショットファイルに保存し、次回以降の起動時にはそのファイルから読み込む {@link MetadataFactory} です。<br>
+ * スナップショットはスキーマの状態を表すフィンガープリントと共に保存され、フィンガープリントが変化した場合は {@link JDBCMetadata} から読み込み直し、ファイルを書き換えます。<br>
+ * フィンガープリントは {@link BlendeeConstants#METADATA_SNAPSHOT_FINGERPRINT} が指定されていればその値（例えばマイグレーションのバージョン）を使用し、データベースへの問い合わせを行いません。<br>
+ * 指定されていない場合、スキーマごとに一度だけ全カラムの定義を取得し、そのハッシュ値を使用します。<br>
+ * この場合、外部キーのみの変更は検出されないので、スナップショットファイルを削除してください。<br>
+ * {@link AnnotationMetadataFactory} 等と組み合わせる場合は、 {@link AnnotationMetadataFactory#getDepends()} をオーバーライドしてこのクラスが生成する {@link Metadata} を返すようにしてください。
+ * @author 千葉 哲嗣
+ * @see BlendeeConstants#METADATA_SNAPSHOT_FILE
+ * @see BlendeeConstants#METADATA_SNAPSHOT_FINGERPRINT
+ */
+public class SnapshotMetadataFactory implements MetadataFactory {
+
+	/**
+	 * デフォルトのスナップショットファイルの場所
+	 */
+	public static final String SNAPSHOT_LOCATION = "blendee-metadata.snapshot";
+
+	private final Configure config;
+
+	private final Path file;
+
+	private final String fingerprintOfOption;
+
+	private Metadata metadata;
+
+	/**
+	 * このクラスのインスタンスを生成します。
+	 */
+	public SnapshotMetadataFactory() {
+		config = ContextManager.get(BlendeeManager.class).getConfigure();
+		file = Paths.get(config.getOption(BlendeeConstants.METADATA_SNAPSHOT_FILE).orElse(SNAPSHOT_LOCATION));
+		fingerprintOfOption = config.getOption(BlendeeConstants.METADATA_SNAPSHOT_FINGERPRINT).orElse(null);
+	}
+
+	@Override
+	public synchronized Metadata createMetadata() {
+		if (metadata != null) return metadata;
+
+		var schemaNames = config.getSchemaNames();
+		var fingerprint = fingerprintOfOption != null ? fingerprintOfOption : computeFingerprint(schemaNames);
+
+		var snapshot = load();
+		if (snapshot == null || !snapshot.getFingerprint().equals(fingerprint) || !snapshot.containsAll(schemaNames)) {
+			snapshot = SnapshotMetadata.build(fingerprint, schemaNames, new JDBCMetadata());
+			store(snapshot);
+		}
+
+		metadata = snapshot;
+
+		return metadata;
+	}
+
+	/**
+	 * @return スナップショットファイルの場所
+	 */
+	public Path getFile() {
+		return file;
+	}
+
+	@Override
+	public String toString() {
+		return U.toString(this);
+	}
+
+	private SnapshotMetadata load() {
+		if (!Files.isRegularFile(file)) return null;
+
+		try {
+			return SnapshotMetadata.read(Files.readAllBytes(file));
+		} catch (IOException | RuntimeException e) {
+			//壊れている、形式が古い、または内容が不正なファイルは、理由によらず読み込み直して書き換える
+			return null;
+		}
+	}
+
+	/**
+	 * 途中まで書き出されたファイルを他のプロセスが読み込まないよう、一時ファイルに書き出してから置き換えます。
+	 */
+	private void store(SnapshotMetadata snapshot) {
+		Path temp = null;
+		try {
+			var parent = file.toAbsolutePath().getParent();
+			Files.createDirectories(parent);
+
+			temp = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+
+			try (var output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+				snapshot.write(output);
+			}
+
+			try {
+				Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			} catch (IOException e) {
+				Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+			}
+		} catch (IOException e) {
+			//スナップショットが書き出せなくても、今回の起動には影響しないので無視する
+			if (temp != null) {
+				try {
+					Files.deleteIfExists(temp);
+				} catch (IOException ignored) {}
+			}
+		}
+	}
+
+	/**
+	 * データベース製品のバージョンと、対象スキーマの全カラムの定義からフィンガープリントを作成します。<br>
+	 * テーブルごとではなくスキーマごとに一度だけ問い合わせるので、テーブル数に比例した往復は発生しません。
+	 */
+	private String computeFingerprint(String[] schemaNames) {
+		var digest = sha256();
+
+		Connection[] container = { null };
+		BlendeeManager.getConnection().lend(c -> container[0] = c);
+
+		try {
+			var metadata = container[0].getMetaData();
+
+			update(digest, metadata.getDatabaseProductName());
+			update(digest, metadata.getDatabaseProductVersion());
+
+			var sorted = schemaNames.clone();
+			Arrays.sort(sorted);
+
+			var identifier = StoredIdentifier.getInstance(
+				metadata.storesUpperCaseIdentifiers(),
+				metadata.storesLowerCaseIdentifiers());
+
+			for (var schemaName : sorted) {
+				update(digest, schemaName);
+
+				try (var result = metadata.getColumns(null, identifier.regularize(schemaName), "%", "%")) {
+					while (result.next()) {
+						update(digest, result.getString("TABLE_NAME"));
+						update(digest, result.getString("COLUMN_NAME"));
+						update(digest, result.getString("TYPE_NAME"));
+						update(digest, result.getString("COLUMN_SIZE"));
+						update(digest, result.getString("DECIMAL_DIGITS"));
+						update(digest, result.getString("NULLABLE"));
+						update(digest, result.getString("ORDINAL_POSITION"));
+					}
+				}
+			}
+		} catch (SQLException e) {
+			throw config.getErrorConverter().convert(e);
+		}
+
+		var builder = new StringBuilder();
+		for (var b : digest.digest()) {
+			builder.append(String.format("%02x", b & 0xff));
+		}
+
+		return builder.toString();
+	}
+
+	private static MessageDigest sha256() {
+		try {
+			return MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private static void update(MessageDigest digest, String value) {
+		if (value != null) digest.update(value.getBytes(StandardCharsets.UTF_8));
+		//値の区切り
+		digest.update((byte) 0);
+	}
+}
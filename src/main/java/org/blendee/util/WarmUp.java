@@ -0,0 +1,166 @@
+package org.blendee.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import org.blendee.assist.TableFacade;
+import org.blendee.internal.U;
+import org.blendee.jdbc.BlendeeManager;
+import org.blendee.jdbc.MetadataUtilities;
+import org.blendee.jdbc.TablePath;
+import org.blendee.sql.Recorder;
+import org.blendee.sql.Relationship;
+import org.blendee.sql.RelationshipFactory;
+import org.blendee.sql.Reproducible;
+
+/**
+ * 起動直後の最初の処理で、メタデータの取得や {@link Relationship} の生成、 SQL テンプレートの生成が集中しないよう、それらを事前に行うための設定クラスです。<br>
+ * 対象となるテーブルのメタデータをスキーマごとに一度の走査で読み込み、指定された外部キーの深さまで {@link Relationship} を生成し、登録された SQL テンプレートを {@link Recorder} に記録します。<br>
+ * 各処理は {@link ForkJoinPool} 上でスキーマごと、テーブルごとに並行に、それぞれ個別のトランザクション内で実行されます。
+ * @author 千葉 哲嗣
+ * @see BlendeeEnvironment#warmUp(WarmUp)
+ * @see Blendee#warmUp(WarmUp)
+ */
+public class WarmUp {
+
+	private final List<String> schemaNames = new ArrayList<>();
+
+	private final List<TablePath> paths = new ArrayList<>();
+
+	private final List<Runnable> templates = new ArrayList<>();
+
+	private int depth = 1;
+
+	private ForkJoinPool pool = ForkJoinPool.commonPool();
+
+	/**
+	 * 指定されたスキーマに含まれる全てのテーブルを対象に加えます。
+	 * @param schemaNames スキーマ名
+	 * @return this
+	 */
+	public WarmUp addSchemas(String... schemaNames) {
+		this.schemaNames.addAll(Arrays.asList(schemaNames));
+		return this;
+	}
+
+	/**
+	 * 指定されたテーブルを対象に加えます。
+	 * @param paths 対象となるテーブル
+	 * @return this
+	 */
+	public WarmUp addTables(TablePath... paths) {
+		this.paths.addAll(Arrays.asList(paths));
+		return this;
+	}
+
+	/**
+	 * 指定された {@link TableFacade} のテーブルを対象に加えます。
+	 * @param facades 対象となるテーブルの {@link TableFacade}
+	 * @return this
+	 */
+	public WarmUp addTables(TableFacade<?>... facades) {
+		for (var facade : facades) {
+			paths.add(facade.getTablePath());
+		}
+
+		return this;
+	}
+
+	/**
+	 * {@link Recorder} に記録させる SQL テンプレートを登録します。<br>
+	 * {@link Recorder} は supplier のクラスでキャッシュするので、実際に使用する箇所と同じ supplier を渡す必要があります。
+	 * @param recorder 記録する {@link Recorder}
+	 * @param supplier {@link Reproducible} を生成する処理
+	 * @param <E> {@link Reproducible} の実装
+	 * @return this
+	 */
+	public <E extends Reproducible<E>> WarmUp addTemplate(Recorder recorder, Supplier<E> supplier) {
+		templates.add(() -> recorder.play(supplier));
+		return this;
+	}
+
+	/**
+	 * 事前に生成する {@link Relationship} の、ルートからの外部キーの深さを設定します。<br>
+	 * デフォルトは 1 で、 0 の場合ルートのみを生成します。
+	 * @param depth 外部キーの深さ
+	 * @return this
+	 */
+	public WarmUp setDepth(int depth) {
+		if (depth < 0)
+			//depth は 0 以上である必要があります
+			throw new IllegalArgumentException("depth must be greater than or equal to 0");
+
+		this.depth = depth;
+		return this;
+	}
+
+	/**
+	 * 並行に処理を行う {@link ForkJoinPool} を設定します。<br>
+	 * デフォルトは {@link ForkJoinPool#commonPool()} です。
+	 * @param pool {@link ForkJoinPool}
+	 * @return this
+	 */
+	public WarmUp setPool(ForkJoinPool pool) {
+		this.pool = pool;
+		return this;
+	}
+
+	@Override
+	public String toString() {
+		return U.toString(this);
+	}
+
+	void execute(BlendeeEnvironment environment) {
+		var targets = environment.executeAndGet(t -> targets());
+		var schemas = environment.executeAndGet(t -> schemas(targets));
+
+		//テーブルごとに取得するとテーブルの数だけデータベースとの往復が発生するので、スキーマごとに一度で読み込んでおく
+		parallel(schemas, schemaName -> environment.execute(t -> BlendeeManager.get().getMetadata().preload(schemaName)));
+
+		parallel(targets, path -> environment.execute(t -> loadMetadata(path)));
+
+		parallel(targets, path -> environment.execute(t -> walk(RelationshipFactory.getInstance().getInstance(path), depth)));
+
+		parallel(templates, template -> environment.execute(t -> template.run()));
+	}
+
+	private Collection<TablePath> targets() {
+		var targets = new LinkedHashSet<TablePath>(paths);
+		for (var schemaName : schemaNames) {
+			targets.addAll(Arrays.asList(MetadataUtilities.getTables(schemaName)));
+		}
+
+		return targets;
+	}
+
+	private static Collection<String> schemas(Collection<TablePath> targets) {
+		var schemas = new LinkedHashSet<String>();
+		targets.forEach(path -> schemas.add(path.getSchemaName()));
+		return schemas;
+	}
+
+	private <T> void parallel(Collection<T> elements, Consumer<T> action) {
+		if (elements.size() == 0) return;
+		pool.submit(() -> elements.parallelStream().forEach(action)).join();
+	}
+
+	private static void loadMetadata(TablePath path) {
+		MetadataUtilities.getColumnMetadatas(path);
+		MetadataUtilities.getPrimaryKeyColumnNames(path);
+		MetadataUtilities.getCrossReferencesOfImportedKeys(path);
+	}
+
+	private static void walk(Relationship relationship, int depth) {
+		if (depth == 0) return;
+
+		for (var child : relationship.getRelationships()) {
+			walk(child, depth - 1);
+		}
+	}
+}
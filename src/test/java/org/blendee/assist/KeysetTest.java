@@ -0,0 +1,197 @@
+package org.blendee.assist;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.function.Supplier;
+
+import org.blendee.dialect.postgresql.Pager;
+import org.blendee.jdbc.OptionKey;
+import org.blendee.jdbc.TablePath;
+import org.blendee.jdbc.VoidLogger;
+import org.blendee.sql.SQLDecorator;
+import org.blendee.util.BlendeeConstants;
+import org.blendee.util.BlendeeEnvironment;
+import org.blendee.util.GenericTable;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+/**
+ * {@link Keyset} と {@link SelectStatementBehavior#seek(Keyset, SQLDecorator)} によるキーセットページングを、インメモリの H2 データベースに対して確認するテストです。<br>
+ * ENTRY の SCORE は重複するので、同じ SCORE の行の順序は ID で決まります。
+ */
+public class KeysetTest {
+
+	private static final String url = "jdbc:h2:mem:keyset;DB_CLOSE_DELAY=-1";
+
+	private static final BlendeeEnvironment environment = new BlendeeEnvironment(KeysetTest.class.getName());
+
+	private static final int entries = 10;
+
+	private static final int rowsPerPage = 3;
+
+	@BeforeAll
+	public static void start() throws SQLException {
+		try (var connection = DriverManager.getConnection(url, "sa", ""); var statement = connection.createStatement()) {
+			statement.execute("CREATE TABLE entry (id INT PRIMARY KEY, score INT NOT NULL, name VARCHAR(10))");
+			for (var i = 1; i <= entries; i++) {
+				statement.execute("INSERT INTO entry VALUES (" + i + ", " + i % 3 + ", 'entry" + i + "')");
+			}
+		}
+
+		var options = new HashMap<OptionKey<?>, Object>();
+		options.put(BlendeeConstants.JDBC_URL, url);
+		options.put(BlendeeConstants.JDBC_USER, "sa");
+		options.put(BlendeeConstants.JDBC_PASSWORD, "");
+		options.put(BlendeeConstants.SCHEMA_NAMES, new String[] { "PUBLIC" });
+		options.put(BlendeeConstants.LOGGER_CLASS, VoidLogger.class);
+
+		environment.start(options);
+	}
+
+	@AfterAll
+	public static void stop() {
+		environment.stop();
+	}
+
+	/**
+	 * 先頭のページから順にたどった結果が、重複する SCORE の行も含め、ページングしない検索と同じ順序で全ての行を返すことを確認します。<br>
+	 * 行値式を生成する方言の {@link Pager} と、 OR 条件となる方言を持たない {@link SQLDecorator} の両方で確認します。
+	 */
+	@Test
+	public void pagesThroughTies() {
+		environment.execute(t -> {
+			var expected = ids(ascending().retrieve());
+			assertEquals(List.of(3, 6, 9, 1, 4, 7, 10, 2, 5, 8), expected);
+
+			assertEquals(expected, pageThrough(KeysetTest::ascending, () -> new Pager(1, rowsPerPage)));
+			assertEquals(expected, pageThrough(KeysetTest::ascending, KeysetTest::limit));
+		});
+	}
+
+	/**
+	 * ソート方向が混在する場合も、全ての行を同じ順序で返すことを確認します。
+	 */
+	@Test
+	public void pagesThroughMixedDirections() {
+		environment.execute(t -> {
+			var expected = ids(mixed().retrieve());
+			assertEquals(List.of(2, 5, 8, 1, 4, 7, 10, 3, 6, 9), expected);
+
+			assertEquals(expected, pageThrough(KeysetTest::mixed, () -> new Pager(1, rowsPerPage)));
+		});
+	}
+
+	/**
+	 * 先頭のページには開始位置の条件が加わらず、 2 ページ目以降の SQL 文はページによらず同一であることと、
+	 * 行値式が {@link Keyset.RowValueComparison} を実装した方言の場合のみ生成されることを確認します。
+	 */
+	@Test
+	public void generatesCriteriaByDialect() {
+		environment.execute(t -> {
+			var first = ascending();
+			var firstPage = new ArrayList<GenericTable.Row>();
+			first.seek(null, new Pager(1, rowsPerPage)).retrieve().forEachRemaining(firstPage::add);
+			var after = Keyset.of(first.getOrderByClause(), firstPage.get(firstPage.size() - 1));
+
+			var firstSQL = ascending().seek(null, new Pager(1, rowsPerPage)).sql();
+			assertFalse(firstSQL.contains("WHERE"), firstSQL);
+
+			var rowValue = first.seek(after, new Pager(1, rowsPerPage)).sql();
+			assertTrue(rowValue.contains(") > (?, ?)"), rowValue);
+
+			var expanded = ascending().seek(after, limit()).sql();
+			assertFalse(expanded.contains(") > (?, ?)"), expanded);
+			assertTrue(expanded.contains(" OR "), expanded);
+
+			//方向が混在する場合は、方言によらず OR 条件となる
+			var mixedAfter = Keyset.of(mixed().getOrderByClause(), firstPage.get(0));
+			var mixed = mixed().seek(mixedAfter, new Pager(1, rowsPerPage)).sql();
+			assertTrue(mixed.contains(" OR "), mixed);
+
+			//開始位置が異なっても SQL 文は変わらない
+			var later = Keyset.of(first.getOrderByClause(), firstPage.get(0));
+			assertEquals(rowValue, first.seek(later, new Pager(1, rowsPerPage)).sql());
+		});
+	}
+
+	/**
+	 * {@link Keyset#toToken()} で生成した文字列から復元したインスタンスで、同じ次のページが取得できることと、
+	 * 不正な文字列が拒否されることを確認します。
+	 */
+	@Test
+	public void roundTripsToken() {
+		environment.execute(t -> {
+			var table = ascending();
+			var firstPage = new ArrayList<GenericTable.Row>();
+			table.seek(null, new Pager(1, rowsPerPage)).retrieve().forEachRemaining(firstPage::add);
+
+			var keyset = Keyset.of(table.getOrderByClause(), firstPage.get(firstPage.size() - 1));
+			var token = keyset.toToken();
+			var parsed = Keyset.parse(token);
+
+			assertEquals(token, parsed.toToken());
+			assertEquals(
+				ids(ascending().seek(keyset, new Pager(1, rowsPerPage)).retrieve()),
+				ids(ascending().seek(parsed, new Pager(1, rowsPerPage)).retrieve()));
+
+			assertThrows(IllegalArgumentException.class, () -> Keyset.parse("!"));
+			assertThrows(IllegalArgumentException.class, () -> Keyset.parse(token + "AAAA"));
+			assertNotEquals(token, Keyset.of(table.getOrderByClause(), firstPage.get(0)).toToken());
+		});
+	}
+
+	private static GenericTable ascending() {
+		return new GenericTable(TablePath.of("PUBLIC", "ENTRY"))
+			.SELECT(a -> a.ls(a.col("ID"), a.col("SCORE")))
+			.ORDER_BY(a -> a.ls(a.col("SCORE").ASC, a.col("ID").ASC));
+	}
+
+	private static GenericTable mixed() {
+		return new GenericTable(TablePath.of("PUBLIC", "ENTRY"))
+			.SELECT(a -> a.ls(a.col("ID"), a.col("SCORE")))
+			.ORDER_BY(a -> a.ls(a.col("SCORE").DESC, a.col("ID").ASC));
+	}
+
+	/**
+	 * {@link Keyset.RowValueComparison} を実装しない、件数の制限のみを行う {@link SQLDecorator} です。
+	 */
+	private static SQLDecorator limit() {
+		return sql -> sql + " LIMIT " + rowsPerPage;
+	}
+
+	/**
+	 * 先頭のページから、行が返されなくなるまで順にページをたどります。
+	 */
+	private static List<Integer> pageThrough(Supplier<GenericTable> tables, Supplier<SQLDecorator> pagers) {
+		var ids = new ArrayList<Integer>();
+		Keyset after = null;
+		while (true) {
+			var table = tables.get();
+			var page = new ArrayList<GenericTable.Row>();
+			table.seek(after, pagers.get()).retrieve().forEachRemaining(page::add);
+
+			if (page.isEmpty()) return ids;
+
+			assertTrue(page.size() <= rowsPerPage);
+			page.forEach(row -> ids.add(row.getInt("ID")));
+
+			after = Keyset.parse(Keyset.of(table.getOrderByClause(), page.get(page.size() - 1)).toToken());
+		}
+	}
+
+	private static List<Integer> ids(GenericTable.Iterator iterator) {
+		var ids = new ArrayList<Integer>();
+		iterator.forEachRemaining(row -> ids.add(row.getInt("ID")));
+		return ids;
+	}
+}
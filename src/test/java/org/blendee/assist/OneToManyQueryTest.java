@@ -0,0 +1,197 @@
+package org.blendee.assist;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+import org.blendee.jdbc.OptionKey;
+import org.blendee.jdbc.TablePath;
+import org.blendee.jdbc.VoidLogger;
+import org.blendee.util.BlendeeConstants;
+import org.blendee.util.BlendeeEnvironment;
+import org.blendee.util.GenericTable;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+/**
+ * {@link OneToManyQuery#retrieveSeparately(int)} が {@link OneToManyQuery#retrieve()} と同じ結果を返すことを、インメモリの H2 データベースに対して確認するテストです。<br>
+ * GROUPS → PARENT → CHILD の三階層で、中間の PARENT は複合主キーを持ちます。
+ */
+public class OneToManyQueryTest {
+
+	private static final String url = "jdbc:h2:mem:one-to-many-query;DB_CLOSE_DELAY=-1";
+
+	private static final BlendeeEnvironment environment = new BlendeeEnvironment(OneToManyQueryTest.class.getName());
+
+	private static final int children = 12;
+
+	private static final String[][] columns = {
+		{ "ID", "NAME" },
+		{ "CODE", "SEQ", "NAME" },
+		{ "ID", "VAL" } };
+
+	@BeforeAll
+	public static void start() throws SQLException {
+		try (var connection = DriverManager.getConnection(url, "sa", ""); var statement = connection.createStatement()) {
+			statement.execute("CREATE TABLE groups (id INT PRIMARY KEY, name VARCHAR(10))");
+			statement.execute(
+				"CREATE TABLE parent (code VARCHAR(10), seq INT, group_id INT, name VARCHAR(10), PRIMARY KEY (code, seq), "
+					+ "CONSTRAINT parent_group FOREIGN KEY (group_id) REFERENCES groups (id))");
+			statement.execute(
+				"CREATE TABLE child (id INT PRIMARY KEY, parent_code VARCHAR(10), parent_seq INT, val INT, "
+					+ "CONSTRAINT child_parent FOREIGN KEY (parent_code, parent_seq) REFERENCES parent (code, seq))");
+
+			statement.execute("INSERT INTO groups VALUES (1, 'g1'), (2, 'g2')");
+			statement.execute(
+				"INSERT INTO parent VALUES ('A', 1, 1, 'a1'), ('A', 2, 1, 'a2'), ('B', 1, 2, 'b1'), ('B', 2, 1, 'b2'), ('C', 1, 2, 'c1')");
+
+			var parents = new String[][] { { "A", "1" }, { "A", "2" }, { "B", "1" }, { "B", "2" }, { "C", "1" } };
+			for (var i = 1; i <= children; i++) {
+				var parent = parents[i % parents.length];
+				statement.execute("INSERT INTO child VALUES (" + i + ", '" + parent[0] + "', " + parent[1] + ", " + i * 10 + ")");
+			}
+		}
+
+		var options = new HashMap<OptionKey<?>, Object>();
+		options.put(BlendeeConstants.JDBC_URL, url);
+		options.put(BlendeeConstants.JDBC_USER, "sa");
+		options.put(BlendeeConstants.JDBC_PASSWORD, "");
+		options.put(BlendeeConstants.SCHEMA_NAMES, new String[] { "PUBLIC" });
+		options.put(BlendeeConstants.LOGGER_CLASS, VoidLogger.class);
+
+		environment.start(options);
+	}
+
+	@AfterAll
+	public static void stop() {
+		environment.stop();
+	}
+
+	/**
+	 * 一つの IN 句に全ての主キーが収まる場合、収まらない場合、ちょうど境界となる場合のいずれでも、結合による検索と同じ結果となることを確認します。
+	 */
+	@Test
+	public void retrievesSameRowsAcrossChunkBoundaries() {
+		environment.execute(t -> {
+			var expected = describe(threeLevels(false).retrieve(), 0);
+
+			//GROUPS 2 件、 PARENT 5 件、 CHILD 12 件
+			assertEquals(2 + 5 + children, expected.size());
+
+			for (var chunkSize : new int[] { 1, 2, 3, 4, 5, 6, children - 1, children, children + 1, 500 }) {
+				assertEquals(expected, describe(threeLevels(false).retrieveSeparately(chunkSize), 0), "chunkSize=" + chunkSize);
+			}
+		});
+	}
+
+	/**
+	 * WHERE 句の条件が、主キーのみの検索にも適用されることを確認します。
+	 */
+	@Test
+	public void appliesCriteria() {
+		environment.execute(t -> {
+			var expected = describe(threeLevels(true).retrieve(), 0);
+
+			//VAL > 60 の CHILD は 6 件
+			assertEquals(6, expected.stream().filter(line -> line.startsWith("    ")).count());
+
+			for (var chunkSize : new int[] { 1, 2, 7, 500 }) {
+				assertEquals(expected, describe(threeLevels(true).retrieveSeparately(chunkSize), 0), "chunkSize=" + chunkSize);
+			}
+		});
+	}
+
+	/**
+	 * 再実行用に複製された検索でも、分割した検索が同じ結果となることを確認します。
+	 */
+	@Test
+	public void retrievesSeparatelyAfterReproduce() {
+		environment.execute(t -> {
+			var query = threeLevels(true);
+			var expected = describe(query.retrieve(), 0);
+
+			assertEquals(expected, describe(separately(query.reproduce(), 3), 0));
+			assertEquals(expected, describe(separately(query.reproduce(60), 3), 0));
+		});
+	}
+
+	/**
+	 * 不正な chunkSize と、 route 上にないテーブルのカラムが、検索を行う前に拒否されることを確認します。
+	 */
+	@Test
+	public void rejectsInvalidArguments() {
+		environment.execute(t -> {
+			assertThrows(IllegalArgumentException.class, () -> threeLevels(false).retrieveSeparately(0));
+
+			//CHILD → PARENT の二階層に、 route 上にない GROUPS のカラムを含める
+			var query = new GenericTable(TablePath.of("PUBLIC", "CHILD"))
+				.SELECT(a -> a.ls(a.col("ID"), a.fk("CHILD_PARENT").col("NAME"), a.fk("CHILD_PARENT").fk("PARENT_GROUP").col("NAME")))
+				.assist()
+				.fk("CHILD_PARENT")
+				.intercept();
+
+			assertThrows(IllegalStateException.class, () -> query.retrieveSeparately(500));
+		});
+	}
+
+	private static OneToManyQuery<GenericTable.Row, ?> threeLevels(boolean filtered) {
+		var table = new GenericTable(TablePath.of("PUBLIC", "CHILD"))
+			.SELECT(a -> {
+				var parent = a.fk("CHILD_PARENT");
+				var group = parent.fk("PARENT_GROUP");
+				return a.ls(
+					a.col("ID"),
+					a.col("VAL"),
+					parent.col("CODE"),
+					parent.col("SEQ"),
+					parent.col("NAME"),
+					group.col("ID"),
+					group.col("NAME"));
+			})
+			.ORDER_BY(
+				a -> a.ls(
+					a.fk("CHILD_PARENT").fk("PARENT_GROUP").col("ID").ASC,
+					a.fk("CHILD_PARENT").col("CODE").ASC,
+					a.fk("CHILD_PARENT").col("SEQ").ASC,
+					a.col("ID").ASC));
+
+		if (filtered) table.WHERE(a -> a.col("VAL").gt(60));
+
+		return table.assist().fk("CHILD_PARENT").fk("PARENT_GROUP").intercept();
+	}
+
+	/**
+	 * {@link OneToManyQuery#reproduce()} の戻り値の型は {@link Query} なので、 {@link OneToManyQuery} として分割した検索を行います。
+	 */
+	private static Many<?, ?> separately(Object reproduced, int chunkSize) {
+		return ((OneToManyQuery<?, ?>) reproduced).retrieveSeparately(chunkSize);
+	}
+
+	/**
+	 * 各階層の行を、階層の深さだけ字下げした文字列の一覧にします。
+	 */
+	private static List<String> describe(Many<?, ?> many, int depth) {
+		var lines = new ArrayList<String>();
+		for (One<?, ?> one : many) {
+			var row = (GenericTable.Row) one.get();
+
+			var values = new ArrayList<String>();
+			for (var column : columns[depth]) {
+				values.add(String.valueOf(row.getObject(column)));
+			}
+
+			lines.add("  ".repeat(depth) + String.join("/", values));
+
+			var children = one.many();
+			if (children instanceof Many) lines.addAll(describe((Many<?, ?>) children, depth + 1));
+		}
+
+		return lines;
+	}
+}
@@ -0,0 +1,240 @@
+package org.blendee.jdbc;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.TreeSet;
+
+import org.blendee.util.BlendeeConstants;
+import org.blendee.util.BlendeeEnvironment;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * {@link ParallelBatch} を、インメモリの H2 データベースに対して実行するテストです。<br>
+ * PARENT と CHILD は外部キーでつながっており、 OTHER はどちらともつながっていません。
+ */
+public class ParallelBatchTest {
+
+	private static final String url = "jdbc:h2:mem:parallel-batch;DB_CLOSE_DELAY=-1";
+
+	private static final BlendeeEnvironment environment = new BlendeeEnvironment(ParallelBatchTest.class.getName());
+
+	@BeforeAll
+	public static void start() throws SQLException {
+		try (var connection = connect(); var statement = connection.createStatement()) {
+			statement.execute("CREATE TABLE parent (id INT PRIMARY KEY, session_id INT, v INT)");
+			statement.execute("CREATE TABLE child (id INT PRIMARY KEY, parent_id INT REFERENCES parent (id), session_id INT)");
+			statement.execute("CREATE TABLE other (id INT PRIMARY KEY, session_id INT, v INT)");
+		}
+
+		var options = new HashMap<OptionKey<?>, Object>();
+		options.put(BlendeeConstants.JDBC_URL, url);
+		options.put(BlendeeConstants.JDBC_USER, "sa");
+		options.put(BlendeeConstants.JDBC_PASSWORD, "");
+		options.put(BlendeeConstants.SCHEMA_NAMES, new String[] { "PUBLIC" });
+
+		environment.start(options);
+	}
+
+	@AfterAll
+	public static void stop() {
+		environment.stop();
+	}
+
+	@BeforeEach
+	public void clear() throws SQLException {
+		try (var connection = connect(); var statement = connection.createStatement()) {
+			statement.execute("DELETE FROM child");
+			statement.execute("DELETE FROM parent");
+			statement.execute("DELETE FROM other");
+		}
+	}
+
+	/**
+	 * 外部キーでつながったテーブルは同じ接続で、つながっていないテーブルは別の接続で実行されることを確認します。
+	 */
+	@Test
+	public void partitionsByForeignKey() throws SQLException {
+		environment.execute(t -> {
+			try (var batch = new ParallelBatch(2)) {
+				for (var i = 1; i <= 3; i++) {
+					var id = i;
+					batch.add("INSERT INTO parent (id, session_id) VALUES (?, SESSION_ID())", s -> s.setInt(1, id));
+					batch.add("INSERT INTO other (id, session_id) VALUES (?, SESSION_ID())", s -> s.setInt(1, id));
+					//同じ接続で実行されなければ、未コミットの parent を参照できず失敗する
+					batch.add("INSERT INTO child (id, parent_id, session_id) VALUES (?, ?, SESSION_ID())", s -> {
+						s.setInt(1, id);
+						s.setInt(2, id);
+					});
+				}
+
+				batch.execute();
+				batch.commit();
+			}
+		});
+
+		var parentSessions = sessions("parent");
+		var childSessions = sessions("child");
+		var otherSessions = sessions("other");
+
+		assertEquals(1, parentSessions.size());
+		assertEquals(parentSessions, childSessions);
+		assertEquals(1, otherSessions.size());
+		assertNotEquals(parentSessions, otherSessions);
+	}
+
+	/**
+	 * 結果が、接続ごとの実行順ではなく、追加された順に並ぶことを確認します。
+	 */
+	@Test
+	public void keepsResultOrder() throws SQLException {
+		try (var connection = connect(); var statement = connection.createStatement()) {
+			for (var i = 1; i <= 10; i++) {
+				statement.execute("INSERT INTO parent (id, v) VALUES (" + i + ", 0)");
+				statement.execute("INSERT INTO other (id, v) VALUES (" + i + ", 0)");
+			}
+		}
+
+		var expected = new int[] { 1, 2, 3, 4, 5, 6, 7, 8, 9, 10 };
+
+		environment.execute(t -> {
+			try (var batch = new ParallelBatch(2)) {
+				//更新件数が追加順に 1 から 10 となるよう、二つのテーブルに交互に振り分ける
+				for (var count : expected) {
+					var table = count % 2 == 0 ? "parent" : "other";
+					batch.add("UPDATE " + table + " SET v = v + 1 WHERE id <= ?", s -> s.setInt(1, count));
+				}
+
+				assertArrayEquals(expected, batch.execute());
+
+				batch.commit();
+			}
+		});
+	}
+
+	/**
+	 * 閾値によって途中で実行された場合も、結果が追加された順に並ぶことを確認します。
+	 */
+	@Test
+	public void keepsResultOrderAcrossFlushes() {
+		environment.execute(t -> {
+			try (var batch = new ParallelBatch(3)) {
+				batch.setThreshold(4);
+
+				for (var i = 1; i <= 10; i++) {
+					var id = i;
+					batch.add("INSERT INTO parent (id) VALUES (?)", s -> s.setInt(1, id));
+					batch.add("UPDATE other SET v = 0 WHERE id = ?", s -> s.setInt(1, id));
+				}
+
+				var results = batch.execute();
+
+				assertEquals(20, results.length);
+				for (var i = 0; i < results.length; i++) {
+					//INSERT は 1 件、存在しない行の UPDATE は 0 件
+					assertEquals(i % 2 == 0 ? 1 : 0, results[i]);
+				}
+
+				batch.commit();
+			}
+		});
+	}
+
+	/**
+	 * 全ての接続の更新がコミットされることを確認します。
+	 */
+	@Test
+	public void commitsAllPartitions() throws SQLException {
+		environment.execute(t -> {
+			try (var batch = new ParallelBatch(2)) {
+				insertAll(batch);
+				batch.execute();
+				batch.commit();
+			}
+		});
+
+		assertEquals(2, count("parent"));
+		assertEquals(2, count("child"));
+		assertEquals(2, count("other"));
+	}
+
+	/**
+	 * 全ての接続の更新がロールバックされることを確認します。
+	 */
+	@Test
+	public void rollsBackAllPartitions() throws SQLException {
+		environment.execute(t -> {
+			try (var batch = new ParallelBatch(2)) {
+				insertAll(batch);
+				batch.execute();
+				batch.rollback();
+			}
+		});
+
+		assertEquals(0, count("parent"));
+		assertEquals(0, count("child"));
+		assertEquals(0, count("other"));
+	}
+
+	/**
+	 * コミットせずに閉じた場合、更新が破棄されることを確認します。
+	 */
+	@Test
+	public void discardsUncommittedOnClose() throws SQLException {
+		environment.execute(t -> {
+			try (var batch = new ParallelBatch(2)) {
+				insertAll(batch);
+				batch.execute();
+			}
+		});
+
+		assertEquals(0, count("parent"));
+		assertEquals(0, count("other"));
+	}
+
+	private static void insertAll(ParallelBatch batch) {
+		for (var i = 1; i <= 2; i++) {
+			var id = i;
+			batch.add("INSERT INTO parent (id) VALUES (?)", s -> s.setInt(1, id));
+			batch.add("INSERT INTO child (id, parent_id) VALUES (?, ?)", s -> {
+				s.setInt(1, id);
+				s.setInt(2, id);
+			});
+			batch.add("INSERT INTO other (id) VALUES (?)", s -> s.setInt(1, id));
+		}
+	}
+
+	private static Connection connect() throws SQLException {
+		return DriverManager.getConnection(url, "sa", "");
+	}
+
+	private static TreeSet<Integer> sessions(String table) throws SQLException {
+		var sessions = new TreeSet<Integer>();
+		try (var connection = connect();
+			var statement = connection.createStatement();
+			var result = statement.executeQuery("SELECT session_id FROM " + table)) {
+			while (result.next()) {
+				sessions.add(result.getInt(1));
+			}
+		}
+
+		return sessions;
+	}
+
+	private static int count(String table) throws SQLException {
+		try (var connection = connect();
+			var statement = connection.createStatement();
+			var result = statement.executeQuery("SELECT COUNT(*) FROM " + table)) {
+			result.next();
+			return result.getInt(1);
+		}
+	}
+}
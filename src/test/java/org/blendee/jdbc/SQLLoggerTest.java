@@ -0,0 +1,276 @@
+package org.blendee.jdbc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * {@link SQLLogger} の抽出、閾値による絞り込み、出力の時点と、 {@link AsyncSQLLogWriter} を確認するテストです。
+ */
+public class SQLLoggerTest {
+
+	private SQLLogConfigure config;
+
+	private Recording recording;
+
+	@BeforeEach
+	public void setContext() {
+		//テストごとに新しい設定を使用する
+		ContextManager.setContext(SQLLoggerTest.class.getName() + "." + System.nanoTime());
+
+		config = ContextManager.get(SQLLogConfigure.class);
+		recording = new Recording();
+		config.setSink(recording);
+	}
+
+	@AfterEach
+	public void releaseContext() {
+		config.setAsynchronous(false);
+		ContextManager.releaseContext();
+	}
+
+	/**
+	 * 閾値がなく同期出力の場合、 SQL 文は {@link SQLLogger#flush()} の時点で出力され、実行時間は別に出力されることを確認します。
+	 */
+	@Test
+	public void emitsAtFlushWithoutThreshold() {
+		var logger = logger();
+
+		logger.setSql("SELECT * FROM item WHERE id = ?");
+		logger.addBindingValue("int", 1, 10);
+		logger.flush();
+
+		assertEquals(1, recording.events.size());
+
+		var event = recording.events.get(0);
+		assertEquals("SELECT * FROM item WHERE id = ?", event.getSql());
+		assertEquals("10", event.getBindings().get(0).getValue());
+		assertEquals(-1, event.getElapsedNanos());
+		assertTrue(recording.elapsed.isEmpty());
+
+		logger.logElapsed(System.nanoTime(), 3);
+
+		assertEquals(1, recording.events.size());
+		assertEquals(1, recording.elapsed.size());
+		assertSame(event, recording.elapsed.get(0).event);
+		assertTrue(recording.elapsed.get(0).elapsedNanos >= 0);
+		assertEquals(3, recording.elapsed.get(0).rows);
+	}
+
+	/**
+	 * 閾値がある場合、閾値未満の SQL 文は出力されず、閾値以上の SQL 文は実行時間と共に一度だけ出力されることを確認します。
+	 */
+	@Test
+	public void filtersByThreshold() {
+		config.setSlowThresholdMillis(1000);
+
+		var logger = logger();
+
+		logger.setSql("fast");
+		logger.flush();
+		logger.logElapsed(System.nanoTime(), 1);
+
+		logger.setSql("slow");
+		logger.addBindingValue("String", 1, "a");
+		logger.flush();
+
+		assertEquals(0, recording.events.size());
+
+		logger.logElapsed(System.nanoTime() - TimeUnit.SECONDS.toNanos(2), 1);
+
+		assertEquals(1, recording.events.size());
+
+		var event = recording.events.get(0);
+		assertEquals("slow", event.getSql());
+		assertEquals("a", event.getBindings().get(0).getValue());
+		assertTrue(event.getElapsedNanos() >= TimeUnit.SECONDS.toNanos(2));
+		assertTrue(recording.elapsed.isEmpty());
+	}
+
+	/**
+	 * 抽出の割合が 0 の場合は出力されず、 1 の場合は全て出力され、その間では概ね割合の通りに出力されることを確認します。
+	 */
+	@Test
+	public void samples() {
+		var logger = logger();
+
+		config.setSamplingRate(0);
+		execute(logger, 100);
+		assertEquals(0, recording.events.size());
+
+		config.setSamplingRate(1);
+		execute(logger, 100);
+		assertEquals(100, recording.events.size());
+
+		recording.events.clear();
+
+		config.setSamplingRate(0.5);
+		execute(logger, 2000);
+
+		//二項分布の標準偏差は約 22 なので、十分に広い範囲で確認する
+		var count = recording.events.size();
+		assertTrue(count > 800 && count < 1200, "count=" + count);
+	}
+
+	/**
+	 * 専用のスレッドから出力する場合、 SQL 文は実行時間と共に一度だけ出力されることを確認します。
+	 */
+	@Test
+	public void emitsAsynchronously() {
+		config.setAsynchronous(true);
+
+		var logger = logger();
+		execute(logger, 100);
+
+		//溜まっているログの出力を待つ
+		config.setAsynchronous(false);
+
+		assertEquals(100, recording.events.size());
+		recording.events.forEach(event -> assertTrue(event.getElapsedNanos() >= 0));
+		assertTrue(recording.elapsed.isEmpty());
+	}
+
+	/**
+	 * 出力が止まっている間にキューが上限に達した場合、それ以上のログは破棄され、数えられることを確認します。
+	 */
+	@Test
+	public void dropsWhenFull() throws InterruptedException {
+		var blocked = new CountDownLatch(1);
+		var delivered = Collections.synchronizedList(new ArrayList<SQLLogEvent>());
+
+		var writer = new AsyncSQLLogWriter(event -> {
+			try {
+				blocked.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+
+			delivered.add(event);
+		}, 4);
+
+		for (var i = 0; i < 10; i++) {
+			writer.accept(event("sql" + i));
+		}
+
+		//出力スレッドが取り出せるのは高々一件で、残りのうちキューに入るのは 4 件まで
+		assertTrue(writer.getDroppedCount() >= 5);
+
+		blocked.countDown();
+		writer.close();
+
+		assertEquals(10, delivered.size() + writer.getDroppedCount());
+		assertEquals(0, writer.getPendingCount());
+	}
+
+	/**
+	 * 複数のスレッドから同時に追加した場合に、ログが失われず、スレッドごとの順序が保たれることを確認します。<br>
+	 * キューが何周もするよう、件数よりも小さい上限で確認します。
+	 */
+	@Test
+	public void keepsOrderPerProducer() throws InterruptedException {
+		var threads = 4;
+		var count = 20000;
+
+		var delivered = new ArrayList<SQLLogEvent>();
+		var writer = new AsyncSQLLogWriter(delivered::add, 64);
+
+		var start = new CountDownLatch(1);
+		var executor = Executors.newFixedThreadPool(threads);
+		try {
+			for (var t = 0; t < threads; t++) {
+				var producer = "producer" + t;
+				executor.execute(() -> {
+					try {
+						start.await();
+					} catch (InterruptedException e) {
+						return;
+					}
+
+					for (var i = 0; i < count; i++) {
+						writer.accept(event(producer + ":" + i));
+					}
+				});
+			}
+
+			start.countDown();
+		} finally {
+			executor.shutdown();
+			executor.awaitTermination(1, TimeUnit.MINUTES);
+		}
+
+		writer.close();
+
+		assertEquals((long) threads * count, delivered.size() + writer.getDroppedCount());
+
+		var last = new int[threads];
+		Arrays.fill(last, -1);
+		for (var event : delivered) {
+			var parts = event.getSql().substring("producer".length()).split(":");
+			var producer = Integer.parseInt(parts[0]);
+			var sequence = Integer.parseInt(parts[1]);
+
+			assertTrue(sequence > last[producer], event.getSql());
+			last[producer] = sequence;
+		}
+	}
+
+	private SQLLogger logger() {
+		return new SQLLogger(new VoidLogger(), null);
+	}
+
+	private static void execute(SQLLogger logger, int times) {
+		for (var i = 0; i < times; i++) {
+			logger.setSql("sql" + i);
+			logger.flush();
+			logger.logElapsed(System.nanoTime(), 0);
+		}
+	}
+
+	private static SQLLogEvent event(String sql) {
+		return new SQLLogEvent(System.currentTimeMillis(), Thread.currentThread().getName(), sql, List.of(), 0, 0, null);
+	}
+
+	private static class Recording implements SQLLogSink {
+
+		private final List<SQLLogEvent> events = new ArrayList<>();
+
+		private final List<Elapsed> elapsed = new ArrayList<>();
+
+		@Override
+		public synchronized void accept(SQLLogEvent event) {
+			events.add(event);
+		}
+
+		@Override
+		public synchronized void acceptElapsed(SQLLogEvent event, long elapsedNanos, int rows) {
+			elapsed.add(new Elapsed(event, elapsedNanos, rows));
+		}
+	}
+
+	private static class Elapsed {
+
+		private final SQLLogEvent event;
+
+		private final long elapsedNanos;
+
+		private final int rows;
+
+		private Elapsed(SQLLogEvent event, long elapsedNanos, int rows) {
+			this.event = event;
+			this.elapsedNanos = elapsedNanos;
+			this.rows = rows;
+		}
+	}
+}
@@ -0,0 +1,110 @@
+package org.blendee.jdbc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.HashMap;
+
+import org.blendee.util.BlendeeConstants;
+import org.blendee.util.BlendeeEnvironment;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * {@link StatementMetrics} を、インメモリの H2 データベースに対して実行するテストです。
+ */
+public class StatementMetricsTest {
+
+	private static final String url = "jdbc:h2:mem:statement-metrics;DB_CLOSE_DELAY=-1";
+
+	private static final BlendeeEnvironment environment = new BlendeeEnvironment(StatementMetricsTest.class.getName());
+
+	@BeforeAll
+	public static void start() throws SQLException {
+		try (var connection = DriverManager.getConnection(url, "sa", ""); var statement = connection.createStatement()) {
+			statement.execute("CREATE TABLE item (id INT PRIMARY KEY)");
+		}
+
+		var options = new HashMap<OptionKey<?>, Object>();
+		options.put(BlendeeConstants.JDBC_URL, url);
+		options.put(BlendeeConstants.JDBC_USER, "sa");
+		options.put(BlendeeConstants.JDBC_PASSWORD, "");
+		options.put(BlendeeConstants.SCHEMA_NAMES, new String[] { "PUBLIC" });
+		options.put(BlendeeConstants.LOGGER_CLASS, VoidLogger.class);
+		options.put(BlendeeConstants.USE_STATEMENT_METRICS, true);
+
+		environment.start(options);
+	}
+
+	@AfterAll
+	public static void stop() {
+		environment.stop();
+	}
+
+	@BeforeEach
+	public void reset() {
+		environment.execute(t -> {
+			t.getConnection().getStatement("DELETE FROM item").executeUpdate();
+			ContextManager.get(StatementMetrics.class).reset();
+		});
+	}
+
+	/**
+	 * 後から生成したステートメントがあっても、各ステートメントの実行がその SQL 文に集計されることを確認します。
+	 */
+	@Test
+	public void recordsBySql() {
+		environment.execute(t -> {
+			var connection = t.getConnection();
+
+			try (var insert = connection.prepareStatement("INSERT INTO item (id) VALUES (1)");
+				var select = connection.getStatement("SELECT id FROM item")) {
+				insert.executeUpdate();
+
+				try (var result = select.executeQuery()) {
+					while (result.next());
+				}
+			}
+
+			var metrics = ContextManager.get(StatementMetrics.class);
+
+			var insert = statistics(metrics, "INSERT INTO item (id) VALUES (?)");
+			assertEquals(1, insert.getLatency().getCount());
+			assertEquals(1, insert.getUpdateCount());
+
+			var select = statistics(metrics, "SELECT id FROM item");
+			assertEquals(1, select.getLatency().getCount());
+			assertEquals(1, select.getRowsFetched());
+		});
+	}
+
+	/**
+	 * バッチに追加された SQL 文が、それぞれの SQL 文に集計されることを確認します。
+	 */
+	@Test
+	public void recordsBatchedBySql() {
+		environment.execute(t -> {
+			var batch = t.getConnection().getBatch();
+			for (var i = 0; i < 3; i++) {
+				var id = i;
+				batch.add("INSERT INTO item (id) VALUES (?)", s -> s.setInt(1, id));
+				batch.add("UPDATE item SET id = id WHERE id = ?", s -> s.setInt(1, id));
+			}
+
+			batch.execute();
+
+			var metrics = ContextManager.get(StatementMetrics.class);
+
+			assertEquals(3, statistics(metrics, "INSERT INTO item (id) VALUES (?)").getBatchedCount());
+			assertEquals(3, statistics(metrics, "UPDATE item SET id = id WHERE id = ?").getBatchedCount());
+			assertEquals(1, metrics.getBatchSize().getCount());
+		});
+	}
+
+	private static SQLStatistics statistics(StatementMetrics metrics, String sql) {
+		return metrics.getStatistics().stream().filter(s -> s.getSql().equals(sql)).findFirst().orElseThrow();
+	}
+}
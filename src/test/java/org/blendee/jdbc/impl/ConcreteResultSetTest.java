@@ -0,0 +1,99 @@
+package org.blendee.jdbc.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.HashMap;
+
+import org.blendee.jdbc.BlendeeManager;
+import org.blendee.jdbc.OptionKey;
+import org.blendee.jdbc.VoidLogger;
+import org.blendee.util.BlendeeConstants;
+import org.blendee.util.BlendeeEnvironment;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+/**
+ * {@link ConcreteResultSet} を、インメモリの H2 データベースに対して実行するテストです。
+ */
+public class ConcreteResultSetTest {
+
+	private static final String url = "jdbc:h2:mem:concrete-result-set;DB_CLOSE_DELAY=-1";
+
+	private static final BlendeeEnvironment environment = new BlendeeEnvironment(ConcreteResultSetTest.class.getName());
+
+	@BeforeAll
+	public static void start() throws SQLException {
+		try (var connection = DriverManager.getConnection(url, "sa", ""); var statement = connection.createStatement()) {
+			statement.execute("CREATE TABLE item (id INT PRIMARY KEY, name VARCHAR(10))");
+			statement.execute("INSERT INTO item VALUES (1, 'a')");
+		}
+
+		var options = new HashMap<OptionKey<?>, Object>();
+		options.put(BlendeeConstants.JDBC_URL, url);
+		options.put(BlendeeConstants.JDBC_USER, "sa");
+		options.put(BlendeeConstants.JDBC_PASSWORD, "");
+		options.put(BlendeeConstants.SCHEMA_NAMES, new String[] { "PUBLIC" });
+		options.put(BlendeeConstants.LOGGER_CLASS, VoidLogger.class);
+
+		environment.start(options);
+	}
+
+	@AfterAll
+	public static void stop() {
+		environment.stop();
+	}
+
+	/**
+	 * 全行を読み終えて自動クローズされた後も、カラム情報を参照できることを確認します。
+	 */
+	@Test
+	public void readsLayoutAfterAutoClose() {
+		environment.execute(t -> {
+			try (var statement = BlendeeManager.getConnection().getStatement("SELECT id, name FROM item")) {
+				var result = statement.executeQuery();
+
+				assertTrue(result.next());
+				assertFalse(result.next());
+
+				assertEquals(2, result.getColumnCount());
+				assertEquals("ID", result.getColumnName(1));
+				assertEquals(Types.VARCHAR, result.getColumnType(2));
+			}
+		});
+	}
+
+	/**
+	 * 型名は、一度も読み込まれないまま自動クローズされた後でも、要求された時点で読み込めることを確認します。
+	 */
+	@Test
+	public void readsTypeNameOnDemand() {
+		environment.execute(t -> {
+			try (var statement = BlendeeManager.getConnection().getStatement("SELECT id, name FROM item WHERE id = 1")) {
+				var first = statement.executeQuery();
+				assertTrue(first.next());
+
+				//開いている間にカラム情報だけを読み込み、型名は読み込まない
+				assertEquals(2, first.getColumnCount());
+				assertFalse(first.next());
+
+				assertEquals("CHARACTER VARYING", first.getColumnTypeName(2));
+			}
+
+			try (var statement = BlendeeManager.getConnection().getStatement("SELECT id, name FROM item WHERE id = 1")) {
+				var second = statement.executeQuery();
+				while (second.next()) {
+				}
+
+				//同じ SQL 文のカラム情報は、接続が保持しているものが使用される
+				assertEquals("ID", second.getColumnName(1));
+				assertEquals("INTEGER", second.getColumnTypeName(1));
+			}
+		});
+	}
+}
@@ -0,0 +1,170 @@
+package org.blendee.jdbc.impl;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.blendee.jdbc.BlendeeManager;
+import org.blendee.jdbc.ColumnMetadata;
+import org.blendee.jdbc.OptionKey;
+import org.blendee.jdbc.TablePath;
+import org.blendee.jdbc.VoidLogger;
+import org.blendee.util.BlendeeConstants;
+import org.blendee.util.BlendeeEnvironment;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+/**
+ * {@link JDBCMetadata} の一括取得を、インメモリの H2 データベースに対して確認するテストです。
+ */
+public class JDBCMetadataTest {
+
+	private static final String url = "jdbc:h2:mem:jdbc-metadata;DB_CLOSE_DELAY=-1";
+
+	private static final BlendeeEnvironment environment = new BlendeeEnvironment(JDBCMetadataTest.class.getName());
+
+	@BeforeAll
+	public static void start() throws SQLException {
+		execute(
+			//A_B の _ は LIKE パターンでは任意の一文字となり、 AXB にも一致する
+			"CREATE SCHEMA a_b",
+			"CREATE SCHEMA axb",
+			"CREATE TABLE a_b.item (id INT PRIMARY KEY, name VARCHAR(10))",
+			"CREATE TABLE axb.item (code VARCHAR(10), seq INT, PRIMARY KEY (code, seq))");
+
+		environment.start(options(true));
+	}
+
+	@AfterAll
+	public static void stop() {
+		environment.stop();
+	}
+
+	/**
+	 * スキーマ名がパターンとして他のスキーマに一致しても、同名の別テーブルの情報が混ざらないことを確認します。
+	 */
+	@Test
+	public void separatesTablesBySchema() {
+		environment.execute(t -> {
+			var metadata = new JDBCMetadata();
+			var path = TablePath.of("A_B", "ITEM");
+
+			assertArrayEquals(new String[] { "ID", "NAME" }, names(metadata.getColumnMetadatas(path)));
+			assertArrayEquals(new String[] { "ID" }, metadata.getPrimaryKeyMetadata(path).getColumnNames());
+		});
+	}
+
+	/**
+	 * {@link BlendeeManager#clearMetadataCache()} の後は、一括取得した情報が取得し直されることを確認します。
+	 */
+	@Test
+	public void reloadsAfterClearingCache() throws SQLException {
+		execute("CREATE TABLE axb.reloaded (id INT PRIMARY KEY)");
+
+		var metadata = environment.executeAndGet(t -> new JDBCMetadata());
+		var path = environment.executeAndGet(t -> TablePath.of("AXB", "RELOADED"));
+
+		environment.execute(t -> assertEquals(1, metadata.getColumnMetadatas(path).length));
+
+		execute("ALTER TABLE axb.reloaded ADD COLUMN name VARCHAR(10)");
+
+		environment.execute(t -> {
+			assertEquals(1, metadata.getColumnMetadatas(path).length);
+
+			BlendeeManager.get().clearMetadataCache();
+
+			assertEquals(2, metadata.getColumnMetadatas(path).length);
+		});
+	}
+
+	/**
+	 * メタデータのキャッシュを使用しない場合、一括取得の設定があっても、毎回データベースから取得することを確認します。
+	 */
+	@Test
+	public void doesNotHoldIndexWithoutMetadataCache() throws SQLException {
+		execute("CREATE TABLE axb.uncached (id INT PRIMARY KEY)");
+
+		var other = new BlendeeEnvironment(JDBCMetadataTest.class.getName() + ".doesNotHoldIndexWithoutMetadataCache");
+		other.start(options(false));
+		try {
+			other.execute(t -> {
+				var metadata = new JDBCMetadata();
+				var path = TablePath.of("AXB", "UNCACHED");
+
+				assertEquals(1, metadata.getColumnMetadatas(path).length);
+
+				execute("ALTER TABLE axb.uncached ADD COLUMN name VARCHAR(10)");
+
+				assertEquals(2, metadata.getColumnMetadatas(path).length);
+			});
+		} finally {
+			other.stop();
+		}
+	}
+
+	/**
+	 * 一括取得を使用しない場合も、 {@link JDBCMetadata#preload(String)} で読み込んだスキーマについては、
+	 * {@link BlendeeManager#clearMetadataCache()} まで読み込んだ情報から応答することを確認します。
+	 */
+	@Test
+	public void answersFromPreloadedSchema() throws SQLException {
+		execute("CREATE TABLE axb.preloaded (id INT PRIMARY KEY)");
+
+		var other = new BlendeeEnvironment(JDBCMetadataTest.class.getName() + ".answersFromPreloadedSchema");
+		other.start(options(true, false));
+		try {
+			other.execute(t -> {
+				var metadata = new JDBCMetadata();
+				var path = TablePath.of("AXB", "PRELOADED");
+
+				metadata.preload("AXB");
+
+				execute("ALTER TABLE axb.preloaded ADD COLUMN name VARCHAR(10)");
+
+				assertEquals(1, metadata.getColumnMetadatas(path).length);
+				assertArrayEquals(new String[] { "ID" }, metadata.getPrimaryKeyMetadata(path).getColumnNames());
+
+				BlendeeManager.get().clearMetadataCache();
+
+				assertEquals(2, metadata.getColumnMetadatas(path).length);
+			});
+		} finally {
+			other.stop();
+		}
+	}
+
+	private static Map<OptionKey<?>, Object> options(boolean usesMetadataCache) {
+		return options(usesMetadataCache, true);
+	}
+
+	private static Map<OptionKey<?>, Object> options(boolean usesMetadataCache, boolean usesBulkLoading) {
+		var options = new HashMap<OptionKey<?>, Object>();
+		options.put(BlendeeConstants.JDBC_URL, url);
+		options.put(BlendeeConstants.JDBC_USER, "sa");
+		options.put(BlendeeConstants.JDBC_PASSWORD, "");
+		options.put(BlendeeConstants.SCHEMA_NAMES, new String[] { "A_B", "AXB" });
+		options.put(BlendeeConstants.USE_METADATA_CACHE, usesMetadataCache);
+		options.put(BlendeeConstants.USE_BULK_METADATA_LOADING, usesBulkLoading);
+		options.put(BlendeeConstants.LOGGER_CLASS, VoidLogger.class);
+
+		return options;
+	}
+
+	private static String[] names(ColumnMetadata[] columns) {
+		return Arrays.stream(columns).map(ColumnMetadata::getName).toArray(String[]::new);
+	}
+
+	private static void execute(String... statements) throws SQLException {
+		try (var connection = DriverManager.getConnection(url, "sa", ""); var statement = connection.createStatement()) {
+			for (var sql : statements) {
+				statement.execute(sql);
+			}
+		}
+	}
+}
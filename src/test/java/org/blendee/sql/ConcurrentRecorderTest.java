@@ -0,0 +1,136 @@
+package org.blendee.sql;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * {@link Recorder#newConcurrentInstance(int)} が返す {@link Recorder} のキャッシュと、各カウンタを確認するテストです。
+ */
+public class ConcurrentRecorderTest {
+
+	/**
+	 * 二回目以降の実行がキャッシュから返され、ヒット数、ミス数に数えられることを確認します。
+	 */
+	@Test
+	public void countsHitsAndMisses() {
+		var recorder = Recorder.newConcurrentInstance();
+		var created = new AtomicInteger();
+
+		for (var i = 0; i < 3; i++) {
+			recorder.play(() -> {
+				created.incrementAndGet();
+				return new Fixed();
+			});
+		}
+
+		assertEquals(1, created.get());
+		assertEquals(1, recorder.getMissCount());
+		assertEquals(2, recorder.getHitCount());
+		assertEquals(0, recorder.getEvictionCount());
+	}
+
+	/**
+	 * 上限を超えた場合に、参照ビットの立っていないエントリが破棄され、参照されたエントリは次の周回まで残ることを確認します。
+	 */
+	@Test
+	public void evictsByClock() {
+		var recorder = Recorder.newConcurrentInstance(4);
+
+		for (var i = 0; i < 4; i++) {
+			play(recorder, i);
+		}
+
+		assertEquals(4, recorder.getMissCount());
+		assertEquals(0, recorder.getEvictionCount());
+
+		//全エントリの参照ビットが立っているので、一周目で全て倒され、二周目で先頭の 0 が破棄される
+		play(recorder, 4);
+		assertEquals(1, recorder.getEvictionCount());
+
+		//1 は参照されたので、次の破棄では飛ばされて 2 が破棄される
+		play(recorder, 1);
+		assertEquals(1, recorder.getHitCount());
+
+		play(recorder, 5);
+		assertEquals(2, recorder.getEvictionCount());
+
+		var misses = recorder.getMissCount();
+
+		play(recorder, 1);
+		assertEquals(misses, recorder.getMissCount());
+
+		play(recorder, 2);
+		assertEquals(misses + 1, recorder.getMissCount());
+	}
+
+	/**
+	 * 複数のスレッドから同じキーを同時に実行しても、生成は一度だけ行われることを確認します。
+	 */
+	@Test
+	public void createsOncePerKeyConcurrently() throws InterruptedException {
+		var recorder = Recorder.newConcurrentInstance(1024);
+		var created = new AtomicInteger();
+
+		var threads = 8;
+		var keys = 64;
+		var start = new CountDownLatch(1);
+		var executor = Executors.newFixedThreadPool(threads);
+		try {
+			for (var t = 0; t < threads; t++) {
+				executor.execute(() -> {
+					try {
+						start.await();
+					} catch (InterruptedException e) {
+						return;
+					}
+
+					for (var i = 0; i < keys; i++) {
+						var key = i;
+						recorder.play(() -> key, r -> {
+							created.incrementAndGet();
+							return new Fixed();
+						}, r -> new Object[0]);
+					}
+				});
+			}
+
+			start.countDown();
+		} finally {
+			executor.shutdown();
+			executor.awaitTermination(1, TimeUnit.MINUTES);
+		}
+
+		assertEquals(keys, created.get());
+		assertEquals(keys, recorder.getMissCount());
+		assertEquals(keys * (threads - 1), recorder.getHitCount());
+		assertEquals(0, recorder.getEvictionCount());
+	}
+
+	private static void play(Recorder recorder, int key) {
+		recorder.play(() -> key, r -> new Fixed(), r -> new Object[0]);
+	}
+
+	private static class Fixed implements Reproducible<Fixed> {
+
+		@Override
+		public Fixed reproduce(Object... placeHolderValues) {
+			return this;
+		}
+
+		@Override
+		public Fixed reproduce() {
+			return this;
+		}
+
+		@Override
+		public Binder[] currentBinders() {
+			return new Binder[0];
+		}
+	}
+}
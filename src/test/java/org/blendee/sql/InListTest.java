@@ -0,0 +1,277 @@
+package org.blendee.sql;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.reflect.Proxy;
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.blendee.jdbc.ContextManager;
+import org.blendee.jdbc.OptionKey;
+import org.blendee.jdbc.SQLLogConfigure;
+import org.blendee.jdbc.SQLLogEvent;
+import org.blendee.jdbc.SQLLogSink;
+import org.blendee.jdbc.TablePath;
+import org.blendee.jdbc.VoidLogger;
+import org.blendee.jdbc.impl.ConcretePreparedStatement;
+import org.blendee.sql.binder.ArrayBinder;
+import org.blendee.util.BlendeeConstants;
+import org.blendee.util.BlendeeEnvironment;
+import org.blendee.util.GenericTable;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+/**
+ * {@link InListConfigure} の設定による IN 条件の形と、 {@link ArrayBinder} による配列のバインドを、インメモリの H2 データベースに対して確認するテストです。
+ */
+public class InListTest {
+
+	private static final String url = "jdbc:h2:mem:in-list;DB_CLOSE_DELAY=-1";
+
+	private static final BlendeeEnvironment environment = new BlendeeEnvironment(InListTest.class.getName());
+
+	private static final int items = 20;
+
+	@BeforeAll
+	public static void start() throws SQLException {
+		try (var connection = DriverManager.getConnection(url, "sa", ""); var statement = connection.createStatement()) {
+			statement.execute("CREATE TABLE item (id INT PRIMARY KEY, name VARCHAR(10))");
+			for (var i = 1; i <= items; i++) {
+				statement.execute("INSERT INTO item VALUES (" + i + ", 'item" + i + "')");
+			}
+		}
+
+		var options = new HashMap<OptionKey<?>, Object>();
+		options.put(BlendeeConstants.JDBC_URL, url);
+		options.put(BlendeeConstants.JDBC_USER, "sa");
+		options.put(BlendeeConstants.JDBC_PASSWORD, "");
+		options.put(BlendeeConstants.SCHEMA_NAMES, new String[] { "PUBLIC" });
+		options.put(BlendeeConstants.LOGGER_CLASS, VoidLogger.class);
+
+		environment.start(options);
+	}
+
+	@AfterAll
+	public static void stop() {
+		environment.stop();
+	}
+
+	/**
+	 * プレースホルダの数が 2 の累乗に切り上げられ、追加されたプレースホルダに最後の値が繰り返しセットされることを確認します。
+	 */
+	@Test
+	public void padsToPowerOfTwo() {
+		configure(config -> config.setUsesPadding(true), recording -> {
+			var table = items(false, 1, 2, 3, 4, 5);
+
+			assertEquals(1, count(table.sql(), " IN ("));
+			assertEquals(8, count(table.sql(), "?"));
+
+			assertEquals(List.of(1, 2, 3, 4, 5), ids(table));
+
+			var bindings = recording.last().getBindings();
+			assertEquals(8, bindings.size());
+			for (var i = 4; i < 8; i++) {
+				assertEquals("5", bindings.get(i).getValue());
+			}
+
+			//値が一つの場合と、既に 2 の累乗の場合は切り上げない
+			assertEquals(1, count(items(false, 7).sql(), "?"));
+			assertEquals(4, count(items(false, 1, 2, 3, 4).sql(), "?"));
+		});
+	}
+
+	/**
+	 * 値の数が最大数を超える場合、 IN 条件は OR で、 NOT IN 条件は AND で分割され、切り上げは分割された条件ごとに行われることを確認します。
+	 */
+	@Test
+	public void splitsByMaxSize() {
+		configure(config -> {
+			config.setUsesPadding(true);
+			config.setMaxSize(4);
+		}, recording -> {
+			var values = IntStream.rangeClosed(1, 11).toArray();
+			var expected = IntStream.rangeClosed(1, 11).boxed().collect(Collectors.toList());
+
+			var in = items(false, values);
+			assertEquals(3, count(in.sql(), " IN ("));
+			assertEquals(2, count(in.sql(), " OR "));
+			//4 + 4 + 3 を 4 に切り上げる
+			assertEquals(12, count(in.sql(), "?"));
+			assertEquals(expected, ids(in));
+
+			var notIn = items(true, values);
+			assertEquals(3, count(notIn.sql(), " NOT IN ("));
+			assertEquals(2, count(notIn.sql(), " AND "));
+			assertEquals(
+				IntStream.rangeClosed(12, items).boxed().collect(Collectors.toList()),
+				ids(notIn));
+		});
+	}
+
+	/**
+	 * 配列のバインドを使用する場合、 = ANY (?) と &lt;&gt; ALL (?) の形で生成され、配列の値が SQL のログに出力されることを確認します。
+	 */
+	@Test
+	public void bindsArray() {
+		configure(config -> config.setUsesArrayBinding(true), recording -> {
+			var in = items(false, 1, 3, 5);
+			assertTrue(in.sql().contains(" = ANY (?)"), in.sql());
+			assertEquals(List.of(1, 3, 5), ids(in));
+
+			var bindings = recording.last().getBindings();
+			assertEquals(1, bindings.size());
+			assertEquals("Array", bindings.get(0).getType());
+			assertEquals("int4[1, 3, 5]", bindings.get(0).getValue());
+
+			var notIn = items(true, IntStream.rangeClosed(2, items).toArray());
+			assertTrue(notIn.sql().contains(" <> ALL (?)"), notIn.sql());
+			assertEquals(List.of(1), ids(notIn));
+		});
+	}
+
+	/**
+	 * {@link ArrayBinder} が生成した配列が、実行後とクローズ時に解放されることを確認します。
+	 */
+	@Test
+	public void freesArrays() {
+		var created = new AtomicInteger();
+		var freed = new AtomicInteger();
+
+		var array = (Array) Proxy.newProxyInstance(
+			Array.class.getClassLoader(),
+			new Class<?>[] { Array.class },
+			(proxy, method, args) -> {
+				if (method.getName().equals("free")) freed.incrementAndGet();
+				return null;
+			});
+
+		var connection = (Connection) Proxy.newProxyInstance(
+			Connection.class.getClassLoader(),
+			new Class<?>[] { Connection.class },
+			(proxy, method, args) -> {
+				if (!method.getName().equals("createArrayOf")) return null;
+
+				created.incrementAndGet();
+				return array;
+			});
+
+		var prepared = (PreparedStatement) Proxy.newProxyInstance(
+			PreparedStatement.class.getClassLoader(),
+			new Class<?>[] { PreparedStatement.class },
+			(proxy, method, args) -> {
+				switch (method.getName()) {
+				case "getConnection":
+					return connection;
+				case "executeUpdate":
+					return 0;
+				case "execute":
+					return false;
+				default:
+					return null;
+				}
+			});
+
+		var statement = new ConcretePreparedStatement(null, prepared, null);
+		var binder = new ArrayBinder("int4", new Object[] { 1, 2 });
+
+		binder.bind(1, statement);
+		statement.executeUpdate();
+		assertEquals(1, created.get());
+		assertEquals(1, freed.get());
+
+		//再度バインドして実行した場合、前回の配列を二重に解放しない
+		binder.bind(1, statement);
+		statement.execute();
+		assertEquals(2, freed.get());
+
+		//実行せずにクローズした場合も解放する
+		binder.bind(1, statement);
+		statement.close();
+		assertEquals(3, created.get());
+		assertEquals(3, freed.get());
+	}
+
+	/**
+	 * {@link InListConfigure} を変更して実行し、終了後に元に戻します。<br>
+	 * SQL のログの出力先はトランザクションの開始時に決まるため、設定と実行は別のトランザクションで行います。
+	 */
+	private static void configure(Consumer<InListConfigure> configurator, Consumer<Recording> test) {
+		var recording = new Recording();
+		environment.execute(t -> {
+			configurator.accept(ContextManager.get(InListConfigure.class));
+			ContextManager.get(SQLLogConfigure.class).setSink(recording);
+		});
+
+		try {
+			environment.execute(t -> test.accept(recording));
+		} finally {
+			environment.execute(t -> {
+				var config = ContextManager.get(InListConfigure.class);
+				config.setUsesPadding(false);
+				config.setMaxSize(0);
+				config.setUsesArrayBinding(false);
+				ContextManager.get(SQLLogConfigure.class).setSink(null);
+			});
+		}
+	}
+
+	private static GenericTable items(boolean not, int... values) {
+		var numbers = IntStream.of(values).boxed().toArray(Number[]::new);
+		return new GenericTable(TablePath.of("PUBLIC", "ITEM"))
+			.SELECT(a -> a.col("ID"))
+			.WHERE(a -> {
+				if (not) {
+					a.col("ID").NOT_IN(numbers);
+				} else {
+					a.col("ID").IN(numbers);
+				}
+			})
+			.ORDER_BY(a -> a.col("ID").ASC);
+	}
+
+	private static List<Integer> ids(GenericTable table) {
+		var ids = new ArrayList<Integer>();
+		var iterator = table.retrieve();
+		while (iterator.hasNext()) {
+			ids.add(iterator.next().getInt("ID"));
+		}
+
+		return ids;
+	}
+
+	private static int count(String sql, String target) {
+		var count = 0;
+		for (var index = sql.indexOf(target); index >= 0; index = sql.indexOf(target, index + target.length())) {
+			count++;
+		}
+
+		return count;
+	}
+
+	private static class Recording implements SQLLogSink {
+
+		private final List<SQLLogEvent> events = new ArrayList<>();
+
+		@Override
+		public synchronized void accept(SQLLogEvent event) {
+			events.add(event);
+		}
+
+		private synchronized SQLLogEvent last() {
+			return events.get(events.size() - 1);
+		}
+	}
+}
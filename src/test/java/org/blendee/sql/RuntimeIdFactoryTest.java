@@ -0,0 +1,124 @@
+package org.blendee.sql;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * {@link RuntimeIdFactory#runtimeInstance()} のエイリアスの一意性と再利用を確認するテストです。
+ */
+public class RuntimeIdFactoryTest {
+
+	/**
+	 * 複数のスレッドが、 GC による再利用と並行して生成しても、生存している {@link RuntimeId} 同士でエイリアスが重複しないことを確認します。
+	 */
+	@Test
+	public void keepsAliasesUniqueAmongLiveIds() throws InterruptedException {
+		var threads = 8;
+		var count = 5000;
+
+		var live = new ArrayList<List<RuntimeId>>();
+		for (var t = 0; t < threads; t++) {
+			live.add(new ArrayList<>());
+		}
+
+		var start = new CountDownLatch(1);
+		var running = new AtomicBoolean(true);
+
+		//生成と並行して GC を起こし、破棄されたエイリアスが再利用される状況を作る
+		var collector = new Thread(() -> {
+			while (running.get()) {
+				System.gc();
+				try {
+					Thread.sleep(5);
+				} catch (InterruptedException e) {
+					return;
+				}
+			}
+		});
+
+		var executor = Executors.newFixedThreadPool(threads);
+		try {
+			collector.start();
+
+			for (var t = 0; t < threads; t++) {
+				var kept = live.get(t);
+				executor.execute(() -> {
+					try {
+						start.await();
+					} catch (InterruptedException e) {
+						return;
+					}
+
+					for (var i = 0; i < count; i++) {
+						var id = RuntimeIdFactory.runtimeInstance();
+						//半分だけ保持し、残りは破棄して再利用の対象にする
+						if (i % 2 == 0) kept.add(id);
+					}
+				});
+			}
+
+			start.countDown();
+		} finally {
+			executor.shutdown();
+			executor.awaitTermination(1, TimeUnit.MINUTES);
+
+			running.set(false);
+			collector.join();
+		}
+
+		var aliases = new HashSet<String>();
+		var total = 0;
+		for (var kept : live) {
+			for (var id : kept) {
+				aliases.add(id.getId());
+				total++;
+			}
+		}
+
+		assertEquals(threads * (count / 2), total);
+		assertEquals(total, aliases.size());
+	}
+
+	/**
+	 * 破棄された {@link RuntimeId} のエイリアスが、 GC の後に生成されるインスタンスで再利用されることを確認します。
+	 */
+	@Test
+	public void recyclesAliasesAfterGc() throws InterruptedException {
+		var dropped = new HashSet<String>();
+		var ids = new ArrayList<RuntimeId>();
+		for (var i = 0; i < 100; i++) {
+			var id = RuntimeIdFactory.runtimeInstance();
+			ids.add(id);
+			dropped.add(id.getId());
+		}
+
+		ids = null;
+
+		//新しく生成したインスタンスは、再利用されたかを確認する間、破棄されないよう保持する
+		var created = new ArrayList<RuntimeId>();
+		var recycled = false;
+		for (var attempt = 0; attempt < 50 && !recycled; attempt++) {
+			System.gc();
+			Thread.sleep(10);
+
+			//他のテストで破棄されたエイリアスが先に再利用される場合もあるので、複数生成して確認する
+			for (var i = 0; i < 200 && !recycled; i++) {
+				var id = RuntimeIdFactory.runtimeInstance();
+				created.add(id);
+				recycled = dropped.contains(id.getId());
+			}
+		}
+
+		assertTrue(recycled);
+	}
+}
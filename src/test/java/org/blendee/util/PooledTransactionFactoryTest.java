@@ -0,0 +1,129 @@
+package org.blendee.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.blendee.jdbc.BlendeeManager;
+import org.blendee.jdbc.ContextManager;
+import org.blendee.jdbc.OptionKey;
+import org.blendee.jdbc.VoidLogger;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+/**
+ * {@link PooledTransactionFactory} を、インメモリの H2 データベースに対して実行するテストです。
+ */
+public class PooledTransactionFactoryTest {
+
+	private static final String url = "jdbc:h2:mem:pooled-transaction;DB_CLOSE_DELAY=-1";
+
+	private static final BlendeeEnvironment environment = new BlendeeEnvironment(PooledTransactionFactoryTest.class.getName());
+
+	@BeforeAll
+	public static void start() throws SQLException {
+		try (var connection = connect(); var statement = connection.createStatement()) {
+			statement.execute("CREATE TABLE item (id INT PRIMARY KEY)");
+		}
+
+		environment.start(options());
+	}
+
+	@AfterAll
+	public static void stop() {
+		environment.stop();
+	}
+
+	/**
+	 * トランザクションが終了した接続が、次のトランザクションで再利用されることを確認します。
+	 */
+	@Test
+	public void reusesConnection() {
+		var factory = factory(environment);
+
+		var created = factory.getCreatedCount();
+		var borrowed = factory.getBorrowCount();
+
+		for (var i = 0; i < 3; i++) {
+			environment.execute(t -> assertEquals(1, factory.getActiveCount()));
+		}
+
+		assertEquals(created, factory.getCreatedCount());
+		assertEquals(borrowed + 3, factory.getBorrowCount());
+		assertEquals(0, factory.getActiveCount());
+	}
+
+	/**
+	 * クローズされないまま参照されなくなったトランザクションの接続が回収され、空きが戻ることを確認します。
+	 */
+	@Test
+	public void reclaimsLeakedTransaction() throws InterruptedException {
+		var factory = factory(environment);
+
+		environment.execute(t -> {
+			//このトランザクションの分と、クローズしないトランザクションの分で、プールの空きをすべて使用する
+			factory.createTransaction();
+			assertEquals(2, factory.getActiveCount());
+		});
+
+		for (var i = 0; i < 100 && factory.getLeakedCount() == 0; i++) {
+			System.gc();
+			Thread.sleep(50);
+		}
+
+		assertEquals(1, factory.getLeakedCount());
+		assertEquals(0, factory.getActiveCount());
+
+		//空きが戻っていなければ、タイムアウトする
+		environment.execute(t -> assertEquals(1, factory.getActiveCount()));
+	}
+
+	/**
+	 * Blendee の終了時に、プールが閉じられることを確認します。
+	 */
+	@Test
+	public void closesOnStop() {
+		var other = new BlendeeEnvironment(PooledTransactionFactoryTest.class.getName() + ".closesOnStop");
+		other.start(options());
+
+		var factory = factory(other);
+
+		other.execute(t -> {});
+		assertEquals(1, factory.getIdleCount());
+
+		other.stop();
+
+		assertEquals(0, factory.getIdleCount());
+		assertEquals(factory.getCreatedCount(), factory.getDestroyedCount());
+		assertThrows(IllegalStateException.class, () -> factory.createTransaction());
+	}
+
+	private static Map<OptionKey<?>, Object> options() {
+		var options = new HashMap<OptionKey<?>, Object>();
+		options.put(BlendeeConstants.JDBC_URL, url);
+		options.put(BlendeeConstants.JDBC_USER, "sa");
+		options.put(BlendeeConstants.JDBC_PASSWORD, "");
+		options.put(BlendeeConstants.SCHEMA_NAMES, new String[] { "PUBLIC" });
+		options.put(BlendeeConstants.TRANSACTION_FACTORY_CLASS, PooledTransactionFactory.class);
+		options.put(BlendeeConstants.POOL_MAX_SIZE, 2);
+		options.put(BlendeeConstants.POOL_BORROW_TIMEOUT_MILLIS, 1000);
+		options.put(BlendeeConstants.LOGGER_CLASS, VoidLogger.class);
+
+		return options;
+	}
+
+	private static PooledTransactionFactory factory(BlendeeEnvironment environment) {
+		return environment.executeAndGet(
+			t -> (PooledTransactionFactory) ContextManager.get(BlendeeManager.class).getConfigure().getTransactionFactory());
+	}
+
+	private static Connection connect() throws SQLException {
+		return DriverManager.getConnection(url, "sa", "");
+	}
+}
@@ -0,0 +1,147 @@
+package org.blendee.util;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.zip.CRC32;
+
+import org.blendee.jdbc.OptionKey;
+import org.blendee.jdbc.TablePath;
+import org.blendee.jdbc.VoidLogger;
+import org.blendee.jdbc.impl.JDBCMetadata;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+/**
+ * {@link SnapshotMetadata} のバイナリ形式の読み書きを、インメモリの H2 データベースに対して確認するテストです。
+ */
+public class SnapshotMetadataTest {
+
+	private static final String url = "jdbc:h2:mem:snapshot-metadata;DB_CLOSE_DELAY=-1";
+
+	private static final BlendeeEnvironment environment = new BlendeeEnvironment(SnapshotMetadataTest.class.getName());
+
+	@BeforeAll
+	public static void start() throws SQLException {
+		try (var connection = DriverManager.getConnection(url, "sa", ""); var statement = connection.createStatement()) {
+			statement.execute("CREATE TABLE parent (id INT PRIMARY KEY, name VARCHAR(100))");
+			statement.execute("CREATE TABLE child (id INT PRIMARY KEY, parent_id INT, CONSTRAINT child_parent FOREIGN KEY (parent_id) REFERENCES parent (id))");
+		}
+
+		var options = new HashMap<OptionKey<?>, Object>();
+		options.put(BlendeeConstants.JDBC_URL, url);
+		options.put(BlendeeConstants.JDBC_USER, "sa");
+		options.put(BlendeeConstants.JDBC_PASSWORD, "");
+		options.put(BlendeeConstants.SCHEMA_NAMES, new String[] { "PUBLIC" });
+		options.put(BlendeeConstants.LOGGER_CLASS, VoidLogger.class);
+
+		environment.start(options);
+	}
+
+	@AfterAll
+	public static void stop() {
+		environment.stop();
+	}
+
+	/**
+	 * 書き出した内容が、そのまま読み込めることを確認します。
+	 */
+	@Test
+	public void readsWrittenSnapshot() {
+		environment.execute(t -> {
+			var original = SnapshotMetadata.build("fingerprint", new String[] { "PUBLIC" }, new JDBCMetadata());
+			var snapshot = SnapshotMetadata.read(bytes(original));
+
+			assertEquals("fingerprint", snapshot.getFingerprint());
+			assertArrayEquals(original.getTables("PUBLIC"), snapshot.getTables("PUBLIC"));
+
+			var child = TablePath.of("PUBLIC", "CHILD");
+			assertArrayEquals(original.getResourcesOfImportedKey(child), snapshot.getResourcesOfImportedKey(child));
+			assertEquals(
+				original.getColumnMetadatas(child).length,
+				snapshot.getColumnMetadatas(child).length);
+		});
+	}
+
+	/**
+	 * 一部が書き換えられた、または途中までしかないデータが、チェックサムで検出されることを確認します。
+	 */
+	@Test
+	public void rejectsCorruptedSnapshot() {
+		environment.execute(t -> {
+			var data = bytes(SnapshotMetadata.build("fingerprint", new String[] { "PUBLIC" }, new JDBCMetadata()));
+
+			var corrupted = data.clone();
+			corrupted[corrupted.length / 2] ^= 1;
+			assertThrows(IOException.class, () -> SnapshotMetadata.read(corrupted));
+
+			assertThrows(IOException.class, () -> SnapshotMetadata.read(Arrays.copyOf(data, data.length / 2)));
+			assertThrows(IOException.class, () -> SnapshotMetadata.read(new byte[0]));
+		});
+	}
+
+	/**
+	 * チェックサムが正しくても、件数や番号が不正なデータは、配列を確保する前に {@link IOException} となることを確認します。
+	 */
+	@Test
+	public void rejectsInvalidCountsAndIndexes() {
+		environment.execute(t -> {
+			//TablePath の件数が巨大
+			assertThrows(IOException.class, () -> SnapshotMetadata.read(forge(Integer.MAX_VALUE)));
+
+			//TablePath の件数が負
+			assertThrows(IOException.class, () -> SnapshotMetadata.read(forge(-2)));
+
+			//TablePath が 0 件なのに、テーブルが番号 5 の TablePath を参照している
+			assertThrows(IOException.class, () -> SnapshotMetadata.read(forge(0, 0, 1, 5)));
+		});
+	}
+
+	private static byte[] bytes(SnapshotMetadata snapshot) throws IOException {
+		var bytes = new ByteArrayOutputStream();
+		try (var output = new DataOutputStream(bytes)) {
+			snapshot.write(output);
+		}
+
+		return bytes.toByteArray();
+	}
+
+	/**
+	 * 正しいヘッダに続けて、指定された int を並べ、正しい CRC32 を付加したデータを作成します。
+	 */
+	private static byte[] forge(int... values) throws IOException {
+		var bytes = new ByteArrayOutputStream();
+		try (var output = new DataOutputStream(bytes)) {
+			output.writeInt(0x424c4d53);
+			output.writeInt(2);
+
+			for (var value : new String[] { "fingerprint", "UPPER_CASE" }) {
+				var encoded = value.getBytes(StandardCharsets.UTF_8);
+				output.writeInt(encoded.length);
+				output.write(encoded);
+			}
+
+			for (var value : values) {
+				output.writeInt(value);
+			}
+		}
+
+		var body = bytes.toByteArray();
+
+		var checksum = new CRC32();
+		checksum.update(body);
+
+		return ByteBuffer.allocate(body.length + Long.BYTES).put(body).putLong(checksum.getValue()).array();
+	}
+}